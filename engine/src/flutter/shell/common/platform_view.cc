@@ -166,6 +166,11 @@ void PlatformView::MarkTextureFrameAvailable(int64_t texture_id) {
   delegate_.OnPlatformViewMarkTextureFrameAvailable(texture_id);
 }
 
+void PlatformView::MarkTextureFramesAvailable(
+    std::vector<int64_t> texture_ids) {
+  delegate_.OnPlatformViewMarkTextureFramesAvailable(std::move(texture_ids));
+}
+
 std::unique_ptr<Surface> PlatformView::CreateRenderingSurface() {
   // We have a default implementation because tests create a platform view but
   // never a rendering surface.
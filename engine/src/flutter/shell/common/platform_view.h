@@ -7,6 +7,7 @@
 
 #include <functional>
 #include <memory>
+#include <vector>
 
 #include "flutter/common/graphics/texture.h"
 #include "flutter/common/task_runners.h"
@@ -288,6 +289,19 @@ class PlatformView {
     virtual void OnPlatformViewMarkTextureFrameAvailable(
         int64_t texture_id) = 0;
 
+    //--------------------------------------------------------------------------
+    /// @brief      Notifies the delegate that the embedder has updated the
+    ///             contents of several textures at once. Like
+    ///             `OnPlatformViewMarkTextureFrameAvailable`, but marks all
+    ///             the textures in a single raster task and schedules a
+    ///             single frame.
+    ///
+    /// @param[in]  texture_ids  The identifiers of the textures that have
+    ///                          been updated.
+    ///
+    virtual void OnPlatformViewMarkTextureFramesAvailable(
+        std::vector<int64_t> texture_ids) = 0;
+
     //--------------------------------------------------------------------------
     /// @brief      Loads the dart shared library into the dart VM. When the
     ///             dart library is loaded successfully, the dart future
@@ -834,6 +848,21 @@ class PlatformView {
   ///
   void MarkTextureFrameAvailable(int64_t texture_id);
 
+  //--------------------------------------------------------------------------
+  /// @brief      Used by the embedder to notify the rasterizer that the
+  ///             contents of several previously registered textures have
+  ///             been updated. Equivalent to calling
+  ///             `MarkTextureFrameAvailable` for each texture, but the
+  ///             textures are marked in a single raster task and a single
+  ///             frame is scheduled.
+  ///
+  /// @see        MarkTextureFrameAvailable
+  ///
+  /// @param[in]  texture_ids  The identifiers of the textures that have been
+  ///                          updated.
+  ///
+  void MarkTextureFramesAvailable(std::vector<int64_t> texture_ids);
+
   //--------------------------------------------------------------------------
   /// @brief      Directly invokes platform-specific APIs to compute the
   ///             locale the platform would have natively resolved to.
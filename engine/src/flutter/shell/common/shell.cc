@@ -1364,6 +1364,46 @@ void Shell::OnPlatformViewMarkTextureFrameAvailable(int64_t texture_id) {
                                     });
 }
 
+// |PlatformView::Delegate|
+void Shell::OnPlatformViewMarkTextureFramesAvailable(
+    std::vector<int64_t> texture_ids) {
+  FML_DCHECK(is_set_up_);
+  FML_DCHECK(task_runners_.GetPlatformTaskRunner()->RunsTasksOnCurrentThread());
+
+  if (texture_ids.empty()) {
+    return;
+  }
+
+  // Tell the rasterizer that these textures have new frames available, in a
+  // single task.
+  task_runners_.GetRasterTaskRunner()->PostTask(
+      [rasterizer = rasterizer_->GetWeakPtr(),
+       texture_ids = std::move(texture_ids)]() {
+        if (!rasterizer) {
+          return;
+        }
+        auto registry = rasterizer->GetTextureRegistry();
+
+        if (!registry) {
+          return;
+        }
+
+        for (int64_t texture_id : texture_ids) {
+          if (auto texture = registry->GetTexture(texture_id)) {
+            texture->MarkNewFrameAvailable();
+          }
+        }
+      });
+
+  // Schedule a single new frame without having to rebuild the layer tree.
+  fml::TaskRunner::RunNowOrPostTask(task_runners_.GetUITaskRunner(),
+                                    [engine = engine_->GetWeakPtr()]() {
+                                      if (engine) {
+                                        engine->ScheduleFrame(false);
+                                      }
+                                    });
+}
+
 // |PlatformView::Delegate|
 void Shell::OnPlatformViewSetNextFrameCallback(const fml::closure& closure) {
   FML_DCHECK(is_set_up_);
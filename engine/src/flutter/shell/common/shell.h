@@ -677,6 +677,10 @@ class Shell final : public PlatformView::Delegate,
   // |PlatformView::Delegate|
   void OnPlatformViewMarkTextureFrameAvailable(int64_t texture_id) override;
 
+  // |PlatformView::Delegate|
+  void OnPlatformViewMarkTextureFramesAvailable(
+      std::vector<int64_t> texture_ids) override;
+
   // |PlatformView::Delegate|
   void OnPlatformViewSetNextFrameCallback(const fml::closure& closure) override;
 
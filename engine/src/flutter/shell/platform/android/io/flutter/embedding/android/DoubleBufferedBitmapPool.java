@@ -0,0 +1,162 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.embedding.engine.FlutterJNI;
+import java.nio.ByteBuffer;
+
+/**
+ * Copies RGBA_8888 frames into reusable {@link Bitmap}s, only copying the rows that changed since
+ * the previous frame.
+ *
+ * <p>Used by {@link FlutterImageView} on devices that cannot wrap the {@link android.media.Image}
+ * of a frame in a hardware {@link Bitmap}. The frame is split into horizontal strips of {@code
+ * stripHeight} rows, each drawn from its own bitmap. Only the strips that differ from the previous
+ * frame are copied, so both the copy and the upload of the bitmaps to the GPU are limited to the
+ * changed rows. A strip is compared in native code with the bitmap that holds it, so no copy of
+ * the previous frame is kept.
+ *
+ * <p>Each strip is double-buffered: a changed strip is copied into its back bitmap, which then
+ * replaces the front bitmap. The bitmap recorded by the last {@link #draw(Canvas)} is therefore
+ * never modified by the next {@link #update}. Back bitmaps are only allocated for strips that
+ * change at least twice.
+ *
+ * <p>Not thread safe; must be used on the thread that draws the view.
+ */
+final class DoubleBufferedBitmapPool {
+  static final int DEFAULT_STRIP_HEIGHT = 64;
+
+  /** Compares the pixels of a bitmap with rows of a frame. */
+  interface PixelComparator {
+    /**
+     * @param bitmap An RGBA_8888 bitmap without row padding.
+     * @param pixels A direct buffer holding the frame.
+     * @param offset The index of the first byte of the rows in {@code pixels}.
+     * @param rowStride The number of bytes per row in {@code pixels}.
+     * @return Whether the bitmap holds the same bytes as the {@code bitmap.getHeight()} rows at
+     *     {@code offset}.
+     */
+    boolean matches(@NonNull Bitmap bitmap, @NonNull ByteBuffer pixels, int offset, int rowStride);
+  }
+
+  private final int stripHeight;
+  @NonNull private final PixelComparator pixelComparator;
+
+  private int width;
+  private int height;
+  private int rowStride;
+  // The front and back bitmaps of each strip. The front bitmaps hold the last frame, which the next
+  // frame is compared with.
+  @Nullable private Bitmap[] frontBitmaps;
+  @Nullable private Bitmap[] backBitmaps;
+
+  private long copiedRows;
+  private long skippedRows;
+
+  DoubleBufferedBitmapPool() {
+    this(DEFAULT_STRIP_HEIGHT, FlutterJNI::nativeBitmapMatchesPixels);
+  }
+
+  @VisibleForTesting
+  DoubleBufferedBitmapPool(int stripHeight, @NonNull PixelComparator pixelComparator) {
+    if (stripHeight < 1) {
+      throw new IllegalArgumentException("stripHeight must be at least 1, was " + stripHeight);
+    }
+    this.stripHeight = stripHeight;
+    this.pixelComparator = pixelComparator;
+  }
+
+  /**
+   * Updates the bitmaps to the frame in {@code pixels}.
+   *
+   * @param pixels A direct buffer holding the RGBA_8888 pixels of the frame, with the first row at
+   *     index 0. Not modified.
+   * @param width The number of pixels per row, including the padding of the row stride.
+   * @param height The number of rows.
+   * @param rowStride The number of bytes per row.
+   * @return The number of rows copied.
+   */
+  int update(@NonNull ByteBuffer pixels, int width, int height, int rowStride) {
+    if (width != this.width || height != this.height || rowStride != this.rowStride) {
+      reset(width, height, rowStride);
+    }
+    final int stripCount = frontBitmaps.length;
+    int rowsCopied = 0;
+    for (int strip = 0; strip < stripCount; strip++) {
+      final int firstRow = strip * stripHeight;
+      final int rows = Math.min(stripHeight, height - firstRow);
+      final int offset = firstRow * rowStride;
+      final Bitmap front = frontBitmaps[strip];
+      if (front != null && pixelComparator.matches(front, pixels, offset, rowStride)) {
+        skippedRows += rows;
+        continue;
+      }
+      Bitmap target = backBitmaps[strip];
+      if (target == null || front == null) {
+        target = Bitmap.createBitmap(width, rows, Bitmap.Config.ARGB_8888);
+      }
+      target.copyPixelsFromBuffer(slice(pixels, firstRow, rows));
+      backBitmaps[strip] = front;
+      frontBitmaps[strip] = target;
+      rowsCopied += rows;
+    }
+    copiedRows += rowsCopied;
+    return rowsCopied;
+  }
+
+  /** Draws the last frame passed to {@link #update} at the origin of {@code canvas}. */
+  void draw(@NonNull Canvas canvas) {
+    if (frontBitmaps == null) {
+      return;
+    }
+    for (int strip = 0; strip < frontBitmaps.length; strip++) {
+      if (frontBitmaps[strip] != null) {
+        canvas.drawBitmap(frontBitmaps[strip], 0, strip * stripHeight, null);
+      }
+    }
+  }
+
+  /** Drops the bitmaps, so that nothing is drawn until the next {@link #update}. */
+  void clear() {
+    frontBitmaps = null;
+    backBitmaps = null;
+    width = 0;
+    height = 0;
+    rowStride = 0;
+  }
+
+  /** @return The number of rows copied by {@link #update} so far. */
+  long getCopiedRowCount() {
+    return copiedRows;
+  }
+
+  /** @return The number of unchanged rows {@link #update} did not copy so far. */
+  long getSkippedRowCount() {
+    return skippedRows;
+  }
+
+  private void reset(int width, int height, int rowStride) {
+    this.width = width;
+    this.height = height;
+    this.rowStride = rowStride;
+    final int stripCount = (height + stripHeight - 1) / stripHeight;
+    frontBitmaps = new Bitmap[stripCount];
+    backBitmaps = new Bitmap[stripCount];
+  }
+
+  // Returns a view of the given rows of buffer.
+  @NonNull
+  private ByteBuffer slice(@NonNull ByteBuffer buffer, int firstRow, int rows) {
+    final ByteBuffer slice = buffer.duplicate();
+    slice.limit((firstRow + rows) * rowStride);
+    slice.position(firstRow * rowStride);
+    return slice;
+  }
+}
@@ -24,7 +24,6 @@ import androidx.annotation.VisibleForTesting;
 import io.flutter.Log;
 import io.flutter.embedding.engine.renderer.FlutterRenderer;
 import io.flutter.embedding.engine.renderer.RenderSurface;
-import java.nio.ByteBuffer;
 import java.util.Locale;
 
 /**
@@ -45,6 +44,8 @@ public class FlutterImageView extends View implements RenderSurface {
   @NonNull private ImageReader imageReader;
   @Nullable private Image currentImage;
   @Nullable private Bitmap currentBitmap;
+  // Reused across frames on API < 29, where images are copied rather than wrapped in a bitmap.
+  @Nullable private DoubleBufferedBitmapPool bitmapPool;
   @Nullable private FlutterRenderer flutterRenderer;
 
   private boolean isContentSizingEnabled = false;
@@ -178,6 +179,9 @@ public class FlutterImageView extends View implements RenderSurface {
     acquireLatestImage();
     // Clear drawings.
     currentBitmap = null;
+    if (bitmapPool != null) {
+      bitmapPool.clear();
+    }
 
     // Close and clear the current image if any.
     closeCurrentImage();
@@ -252,6 +256,8 @@ public class FlutterImageView extends View implements RenderSurface {
     }
     if (currentBitmap != null) {
       canvas.drawBitmap(currentBitmap, 0, 0, null);
+    } else if (bitmapPool != null) {
+      bitmapPool.draw(canvas);
     }
   }
 
@@ -278,16 +284,12 @@ public class FlutterImageView extends View implements RenderSurface {
       final int desiredWidth = imagePlane.getRowStride() / imagePlane.getPixelStride();
       final int desiredHeight = currentImage.getHeight();
 
-      if (currentBitmap == null
-          || currentBitmap.getWidth() != desiredWidth
-          || currentBitmap.getHeight() != desiredHeight) {
-        currentBitmap =
-            Bitmap.createBitmap(
-                desiredWidth, desiredHeight, android.graphics.Bitmap.Config.ARGB_8888);
+      if (bitmapPool == null) {
+        bitmapPool = new DoubleBufferedBitmapPool();
       }
-      ByteBuffer buffer = imagePlane.getBuffer();
-      buffer.rewind();
-      currentBitmap.copyPixelsFromBuffer(buffer);
+      // Only the rows that changed since the last image are copied.
+      bitmapPool.update(
+          imagePlane.getBuffer(), desiredWidth, desiredHeight, imagePlane.getRowStride());
     }
   }
 
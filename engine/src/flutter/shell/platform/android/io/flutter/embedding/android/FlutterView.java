@@ -152,6 +152,10 @@ public class FlutterView extends FrameLayout
   @Nullable private AccessibilityBridge accessibilityBridge;
   @Nullable private TextServicesManager textServicesManager;
 
+  // Accessibility options that are applied to the AccessibilityBridge of each attached engine.
+  private boolean backgroundSemanticsDecodingEnabled = false;
+  private long accessibilityEventCoalescingWindowMillis = -1;
+
   // Provides access to foldable/hinge information
   @Nullable private WindowInfoRepositoryCallbackAdapterWrapper windowInfoRepo;
   // Directly implemented View behavior that communicates with Flutter.
@@ -1224,6 +1228,9 @@ public class FlutterView extends FrameLayout
             getContext().getContentResolver(),
             flutterEngine.getPlatformViewsControllerDelegator());
     accessibilityBridge.setOnAccessibilityChangeListener(onAccessibilityChangeListener);
+    accessibilityBridge.setBackgroundSemanticsDecodingEnabled(backgroundSemanticsDecodingEnabled);
+    accessibilityBridge.setAccessibilityEventCoalescingWindow(
+        accessibilityEventCoalescingWindowMillis);
     resetWillNotDraw(
         accessibilityBridge.isAccessibilityEnabled(),
         accessibilityBridge.isTouchExplorationEnabled());
@@ -1554,6 +1561,40 @@ public class FlutterView extends FrameLayout
         .send();
   }
 
+  /**
+   * Sets whether the semantics updates from Flutter are decoded on a background thread, for this
+   * view and the engines it's attached to later.
+   *
+   * <p>Disabled by default. See {@link
+   * AccessibilityBridge#setBackgroundSemanticsDecodingEnabled(boolean)}.
+   */
+  public void setBackgroundSemanticsDecodingEnabled(boolean enabled) {
+    backgroundSemanticsDecodingEnabled = enabled;
+    if (accessibilityBridge != null) {
+      accessibilityBridge.setBackgroundSemanticsDecodingEnabled(enabled);
+    }
+  }
+
+  /**
+   * Sets the time window over which the accessibility events produced by semantics updates are
+   * coalesced, for this view and the engines it's attached to later.
+   *
+   * <p>Disabled by default. See {@link
+   * AccessibilityBridge#setAccessibilityEventCoalescingWindow(long)}.
+   */
+  public void setAccessibilityEventCoalescingWindow(long windowMillis) {
+    accessibilityEventCoalescingWindowMillis = windowMillis;
+    if (accessibilityBridge != null) {
+      accessibilityBridge.setAccessibilityEventCoalescingWindow(windowMillis);
+    }
+  }
+
+  @VisibleForTesting
+  @Nullable
+  AccessibilityBridge getAccessibilityBridge() {
+    return accessibilityBridge;
+  }
+
   private FlutterViewDelegate delegate = new FlutterViewDelegate();
 
   @VisibleForTesting
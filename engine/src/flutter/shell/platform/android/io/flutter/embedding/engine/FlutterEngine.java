@@ -5,6 +5,7 @@
 package io.flutter.embedding.engine;
 
 import android.content.Context;
+import android.content.pm.PackageManager;
 import android.content.pm.PackageManager.NameNotFoundException;
 import android.content.res.AssetManager;
 import android.view.Surface;
@@ -47,6 +48,7 @@ import io.flutter.plugin.platform.PlatformViewsController2;
 import io.flutter.plugin.platform.PlatformViewsControllerDelegator;
 import io.flutter.plugin.text.ProcessTextPlugin;
 import io.flutter.util.ViewUtils;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -97,22 +99,24 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
   @NonNull private final LocalizationPlugin localizationPlugin;
 
   // System channels.
-  @NonNull private final AccessibilityChannel accessibilityChannel;
-  @NonNull private final DeferredComponentChannel deferredComponentChannel;
-  @NonNull private final LifecycleChannel lifecycleChannel;
+  @NonNull private final LazySystemChannel<AccessibilityChannel> accessibilityChannel;
+  @NonNull private final LazySystemChannel<DeferredComponentChannel> deferredComponentChannel;
+  @NonNull private final LazySystemChannel<LifecycleChannel> lifecycleChannel;
   @NonNull private final LocalizationChannel localizationChannel;
-  @NonNull private final MouseCursorChannel mouseCursorChannel;
-  @NonNull private final NavigationChannel navigationChannel;
-  @NonNull private final BackGestureChannel backGestureChannel;
-  @NonNull private final RestorationChannel restorationChannel;
-  @NonNull private final PlatformChannel platformChannel;
-  @NonNull private final ProcessTextChannel processTextChannel;
-  @NonNull private final ScribeChannel scribeChannel;
-  @NonNull private final SensitiveContentChannel sensitiveContentChannel;
+  @NonNull private final LazySystemChannel<MouseCursorChannel> mouseCursorChannel;
+  @NonNull private final LazySystemChannel<NavigationChannel> navigationChannel;
+  @NonNull private final LazySystemChannel<BackGestureChannel> backGestureChannel;
+  @NonNull private final LazySystemChannel<RestorationChannel> restorationChannel;
+  @NonNull private final LazySystemChannel<PlatformChannel> platformChannel;
+  @NonNull private final LazySystemChannel<ProcessTextChannel> processTextChannel;
+  @NonNull private final LazySystemChannel<ScribeChannel> scribeChannel;
+  @NonNull private final LazySystemChannel<SensitiveContentChannel> sensitiveContentChannel;
   @NonNull private final SettingsChannel settingsChannel;
-  @NonNull private final SpellCheckChannel spellCheckChannel;
-  @NonNull private final SystemChannel systemChannel;
-  @NonNull private final TextInputChannel textInputChannel;
+  @NonNull private final LazySystemChannel<SpellCheckChannel> spellCheckChannel;
+  @NonNull private final LazySystemChannel<SystemChannel> systemChannel;
+  @NonNull private final LazySystemChannel<TextInputChannel> textInputChannel;
+  // Every system channel above that may be created lazily.
+  @NonNull private final List<LazySystemChannel<?>> lazySystemChannels = new ArrayList<>();
 
   // Platform Views.
   @NonNull private final PlatformViewsController platformViewsController;
@@ -125,6 +129,9 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
   // Unique handle for this engine.
   @NonNull private final long engineId;
 
+  // The phases of the creation of this engine.
+  @NonNull private final StartupTimeline startupTimeline = new StartupTimeline();
+
   @VisibleForTesting(otherwise = VisibleForTesting.PACKAGE_PRIVATE)
   public static void resetNextEngineId() {
     nextEngineId = 1;
@@ -148,7 +155,10 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
 
           platformViewsController.onPreEngineRestart();
           platformViewsController2.onPreEngineRestart();
-          restorationChannel.clearData();
+          final RestorationChannel createdRestorationChannel = restorationChannel.getIfCreated();
+          if (createdRestorationChannel != null) {
+            createdRestorationChannel.clearData();
+          }
         }
 
         @Override
@@ -333,6 +343,38 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
       boolean automaticallyRegisterPlugins,
       boolean waitForRestorationData,
       @Nullable FlutterEngineGroup group) {
+    this(
+        context,
+        flutterLoader,
+        flutterJNI,
+        platformViewsController,
+        dartVmArgs,
+        automaticallyRegisterPlugins,
+        waitForRestorationData,
+        group,
+        SystemChannelPreset.EAGER);
+  }
+
+  /**
+   * Same as {@link #FlutterEngine(Context, FlutterLoader, FlutterJNI, PlatformViewsController,
+   * String[], boolean, boolean)}, and also specifies the {@link SystemChannelPreset} that decides
+   * which system channels are created when they are first used instead of with the engine.
+   *
+   * <p>The other constructors use {@link SystemChannelPreset#EAGER}. Engines that don't use the
+   * optional features can use {@link SystemChannelPreset#DEFAULT}, and engines that run without a
+   * view, such as engines that handle push messages or background work, can use {@link
+   * SystemChannelPreset#HEADLESS} to be created faster.
+   */
+  public FlutterEngine(
+      @NonNull Context context,
+      @Nullable FlutterLoader flutterLoader,
+      @NonNull FlutterJNI flutterJNI,
+      @NonNull PlatformViewsController platformViewsController,
+      @Nullable String[] dartVmArgs,
+      boolean automaticallyRegisterPlugins,
+      boolean waitForRestorationData,
+      @Nullable FlutterEngineGroup group,
+      @NonNull SystemChannelPreset systemChannelPreset) {
 
     this.engineId = nextEngineId++;
     idToEngine.put(engineId, this);
@@ -357,28 +399,70 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
     DeferredComponentManager deferredComponentManager =
         FlutterInjector.instance().deferredComponentManager();
 
-    accessibilityChannel = new AccessibilityChannel(dartExecutor, flutterJNI);
-    deferredComponentChannel = new DeferredComponentChannel(dartExecutor);
-    lifecycleChannel = new LifecycleChannel(dartExecutor);
+    final long systemChannelsStartNanos = StartupTimeline.now();
+    accessibilityChannel =
+        createSystemChannel(
+            "flutter/accessibility",
+            systemChannelPreset,
+            () -> new AccessibilityChannel(dartExecutor, this.flutterJNI));
+    // The deferred component manager uses its channel as soon as it is set.
+    deferredComponentChannel =
+        createSystemChannel(
+            "flutter/deferredcomponent",
+            deferredComponentManager == null ? systemChannelPreset : SystemChannelPreset.EAGER,
+            () -> new DeferredComponentChannel(dartExecutor));
+    lifecycleChannel =
+        createSystemChannel(
+            "flutter/lifecycle", systemChannelPreset, () -> new LifecycleChannel(dartExecutor));
     localizationChannel = new LocalizationChannel(dartExecutor);
-    mouseCursorChannel = new MouseCursorChannel(dartExecutor);
-    navigationChannel = new NavigationChannel(dartExecutor);
-    backGestureChannel = new BackGestureChannel(dartExecutor);
-    platformChannel = new PlatformChannel(dartExecutor);
-    processTextChannel = new ProcessTextChannel(dartExecutor, context.getPackageManager());
-    restorationChannel = new RestorationChannel(dartExecutor, waitForRestorationData);
-    scribeChannel = new ScribeChannel(dartExecutor);
-    sensitiveContentChannel = new SensitiveContentChannel(dartExecutor);
+    mouseCursorChannel =
+        createSystemChannel(
+            "flutter/mousecursor", systemChannelPreset, () -> new MouseCursorChannel(dartExecutor));
+    navigationChannel =
+        createSystemChannel(
+            "flutter/navigation", systemChannelPreset, () -> new NavigationChannel(dartExecutor));
+    backGestureChannel =
+        createSystemChannel(
+            "flutter/backgesture", systemChannelPreset, () -> new BackGestureChannel(dartExecutor));
+    platformChannel =
+        createSystemChannel(
+            "flutter/platform", systemChannelPreset, () -> new PlatformChannel(dartExecutor));
+    final PackageManager packageManager = context.getPackageManager();
+    processTextChannel =
+        createSystemChannel(
+            "flutter/processtext",
+            systemChannelPreset,
+            () -> createProcessTextChannel(packageManager));
+    restorationChannel =
+        createSystemChannel(
+            "flutter/restoration",
+            systemChannelPreset,
+            () -> new RestorationChannel(dartExecutor, waitForRestorationData));
+    scribeChannel =
+        createSystemChannel(
+            "flutter/scribe", systemChannelPreset, () -> new ScribeChannel(dartExecutor));
+    sensitiveContentChannel =
+        createSystemChannel(
+            "flutter/sensitivecontent",
+            systemChannelPreset,
+            () -> new SensitiveContentChannel(dartExecutor));
     settingsChannel = new SettingsChannel(dartExecutor);
-    spellCheckChannel = new SpellCheckChannel(dartExecutor);
-    systemChannel = new SystemChannel(dartExecutor);
-    textInputChannel = new TextInputChannel(dartExecutor);
+    spellCheckChannel =
+        createSystemChannel(
+            "flutter/spellcheck", systemChannelPreset, () -> new SpellCheckChannel(dartExecutor));
+    systemChannel =
+        createSystemChannel(
+            "flutter/system", systemChannelPreset, () -> new SystemChannel(dartExecutor));
+    textInputChannel =
+        createSystemChannel(
+            "flutter/textinput", systemChannelPreset, () -> new TextInputChannel(dartExecutor));
 
     if (deferredComponentManager != null) {
-      deferredComponentManager.setDeferredComponentChannel(deferredComponentChannel);
+      deferredComponentManager.setDeferredComponentChannel(deferredComponentChannel.get());
     }
 
     this.localizationPlugin = new LocalizationPlugin(context, localizationChannel);
+    startupTimeline.record(StartupTimeline.SYSTEM_CHANNELS, systemChannelsStartNanos);
 
     if (flutterLoader == null) {
       flutterLoader = injector.flutterLoader();
@@ -394,6 +478,7 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
     platformViewsController2.setFlutterJNI(flutterJNI);
 
     platformViewsController.setFlutterJNI(flutterJNI);
+    platformViewsController.setVsyncRequestClock(flutterJNI::getLastVsyncRequestNanos);
 
     flutterJNI.addEngineLifecycleListener(engineLifecycleListener);
     flutterJNI.setPlatformViewsController(platformViewsController);
@@ -418,25 +503,76 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
 
     this.pluginRegistry =
         new FlutterEngineConnectionRegistry(
-            context.getApplicationContext(), this, flutterLoader, group);
+            context.getApplicationContext(), this, flutterLoader, group, startupTimeline);
 
     localizationPlugin.sendLocalesToFlutter(context.getResources().getConfiguration());
 
     // Only automatically register plugins if both constructor parameter and
     // loaded AndroidManifest config turn this feature on.
     if (automaticallyRegisterPlugins && flutterLoader.automaticallyRegisterPlugins()) {
-      GeneratedPluginRegister.registerGeneratedPlugins(this);
+      // The generated plugins are added as a batch so that their concurrent attachments can wait
+      // for the dependencies that are added after them.
+      pluginRegistry.beginBatch();
+      try (StartupTimeline.Section s =
+          startupTimeline.begin(StartupTimeline.REGISTER_GENERATED_PLUGINS)) {
+        GeneratedPluginRegister.registerGeneratedPlugins(this);
+      } finally {
+        pluginRegistry.endBatch();
+      }
     }
 
     ViewUtils.calculateMaximumDisplayMetrics(context, this);
 
-    ProcessTextPlugin processTextPlugin = new ProcessTextPlugin(this.getProcessTextChannel());
-    this.pluginRegistry.add(processTextPlugin);
+    // The process text plugin is added with its channel, unless the channel was created before the
+    // plugin registry.
+    final ProcessTextChannel createdProcessTextChannel = processTextChannel.getIfCreated();
+    if (createdProcessTextChannel != null && !pluginRegistry.has(ProcessTextPlugin.class)) {
+      pluginRegistry.add(new ProcessTextPlugin(createdProcessTextChannel));
+    }
+  }
+
+  @NonNull
+  private <T> LazySystemChannel<T> createSystemChannel(
+      @NonNull String name,
+      @NonNull SystemChannelPreset preset,
+      @NonNull LazySystemChannel.Factory<T> factory) {
+    LazySystemChannel<T> channel =
+        new LazySystemChannel<>(dartExecutor, name, preset.isLazy(name), factory);
+    lazySystemChannels.add(channel);
+    return channel;
+  }
+
+  /** @return The names of the system channels that have been created so far. */
+  @VisibleForTesting
+  @NonNull
+  Set<String> getCreatedSystemChannelNames() {
+    final Set<String> names = new HashSet<>();
+    names.add("flutter/localization");
+    names.add(SettingsChannel.CHANNEL_NAME);
+    for (LazySystemChannel<?> channel : lazySystemChannels) {
+      if (channel.getIfCreated() != null) {
+        names.add(channel.getName());
+      }
+    }
+    return names;
+  }
+
+  // Creates the process text channel, and adds the plugin that handles it if the plugin registry
+  // was created.
+  @NonNull
+  private ProcessTextChannel createProcessTextChannel(@NonNull PackageManager packageManager) {
+    final ProcessTextChannel channel = new ProcessTextChannel(dartExecutor, packageManager);
+    if (pluginRegistry != null) {
+      pluginRegistry.add(new ProcessTextPlugin(channel));
+    }
+    return channel;
   }
 
   private void attachToJni() {
     Log.v(TAG, "Attaching to JNI.");
-    flutterJNI.attachToNative();
+    try (StartupTimeline.Section s = startupTimeline.begin(StartupTimeline.ATTACH_TO_JNI)) {
+      flutterJNI.attachToNative();
+    }
 
     if (!isAttachedToJni()) {
       throw new RuntimeException("FlutterEngine failed to attach to its native Object reference.");
@@ -472,7 +608,8 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
       @Nullable List<String> dartEntrypointArgs,
       @Nullable PlatformViewsController platformViewsController,
       boolean automaticallyRegisterPlugins,
-      boolean waitForRestorationData) {
+      boolean waitForRestorationData,
+      @NonNull SystemChannelPreset systemChannelPreset) {
     if (!isAttachedToJni()) {
       throw new IllegalStateException(
           "Spawn can only be called on a fully constructed FlutterEngine");
@@ -493,7 +630,9 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
         platformViewsController, // PlatformViewsController.
         null, // String[]. The Dart VM has already started, this arguments will have no effect.
         automaticallyRegisterPlugins, // boolean.
-        waitForRestorationData); // boolean
+        waitForRestorationData, // boolean
+        null, // FlutterEngineGroup.
+        systemChannelPreset); // SystemChannelPreset.
   }
 
   /**
@@ -517,7 +656,7 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
     flutterJNI.detachFromNativeAndReleaseResources();
     if (FlutterInjector.instance().deferredComponentManager() != null) {
       FlutterInjector.instance().deferredComponentManager().destroy();
-      deferredComponentChannel.setDeferredComponentManager(null);
+      deferredComponentChannel.get().setDeferredComponentManager(null);
     }
     idToEngine.remove(engineId);
   }
@@ -566,13 +705,13 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
   /** System channel that sends accessibility requests and events from Flutter to Android. */
   @NonNull
   public AccessibilityChannel getAccessibilityChannel() {
-    return accessibilityChannel;
+    return accessibilityChannel.get();
   }
 
   /** System channel that sends Android lifecycle events to Flutter. */
   @NonNull
   public LifecycleChannel getLifecycleChannel() {
-    return lifecycleChannel;
+    return lifecycleChannel.get();
   }
 
   /** System channel that sends locale data from Android to Flutter. */
@@ -584,13 +723,13 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
   /** System channel that sends Flutter navigation commands from Android to Flutter. */
   @NonNull
   public NavigationChannel getNavigationChannel() {
-    return navigationChannel;
+    return navigationChannel.get();
   }
 
   /** System channel that sends back gesture commands from Android to Flutter. */
   @NonNull
   public BackGestureChannel getBackGestureChannel() {
-    return backGestureChannel;
+    return backGestureChannel.get();
   }
 
   /**
@@ -599,13 +738,13 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
    */
   @NonNull
   public PlatformChannel getPlatformChannel() {
-    return platformChannel;
+    return platformChannel.get();
   }
 
   /** System channel that sends text processing requests from Flutter to Android. */
   @NonNull
   public ProcessTextChannel getProcessTextChannel() {
-    return processTextChannel;
+    return processTextChannel.get();
   }
 
   /**
@@ -617,7 +756,7 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
    */
   @NonNull
   public RestorationChannel getRestorationChannel() {
-    return restorationChannel;
+    return restorationChannel.get();
   }
 
   /**
@@ -632,43 +771,43 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
   /** System channel that allows manual installation and state querying of deferred components. */
   @NonNull
   public DeferredComponentChannel getDeferredComponentChannel() {
-    return deferredComponentChannel;
+    return deferredComponentChannel.get();
   }
 
   /** System channel that sends memory pressure warnings from Android to Flutter. */
   @NonNull
   public SystemChannel getSystemChannel() {
-    return systemChannel;
+    return systemChannel.get();
   }
 
   /** System channel that sends and receives text input requests and state. */
   @NonNull
   public MouseCursorChannel getMouseCursorChannel() {
-    return mouseCursorChannel;
+    return mouseCursorChannel.get();
   }
 
   /** System channel that sends and receives text input requests and state. */
   @NonNull
   public TextInputChannel getTextInputChannel() {
-    return textInputChannel;
+    return textInputChannel.get();
   }
 
   /** System channel that sends and receives Scribe requests and results. */
   @NonNull
   public ScribeChannel getScribeChannel() {
-    return scribeChannel;
+    return scribeChannel.get();
   }
 
   /** System channel that handles getting and setting content sensitivity. */
   @NonNull
   public SensitiveContentChannel getSensitiveContentChannel() {
-    return sensitiveContentChannel;
+    return sensitiveContentChannel.get();
   }
 
   /** System channel that sends and receives spell check requests and results. */
   @NonNull
   public SpellCheckChannel getSpellCheckChannel() {
-    return spellCheckChannel;
+    return spellCheckChannel.get();
   }
 
   /**
@@ -685,6 +824,18 @@ public class FlutterEngine implements ViewUtils.DisplayUpdater {
     return localizationPlugin;
   }
 
+  /**
+   * The phases of the creation of this {@code FlutterEngine}, including the time each plugin took
+   * to attach to it.
+   *
+   * <p>The phases of the initialization of the native system, which happens once per process, are
+   * recorded by {@link FlutterLoader#getStartupTimeline()}.
+   */
+  @NonNull
+  public StartupTimeline getStartupTimeline() {
+    return startupTimeline;
+  }
+
   /**
    * {@code PlatformViewsController}, which controls all platform views running within this {@code
    * FlutterEngine}.
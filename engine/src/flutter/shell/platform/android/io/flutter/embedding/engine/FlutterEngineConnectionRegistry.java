@@ -15,6 +15,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.Lifecycle;
 import io.flutter.BuildConfig;
+import io.flutter.FlutterInjector;
 import io.flutter.Log;
 import io.flutter.embedding.android.ExclusiveAppComponent;
 import io.flutter.embedding.engine.loader.FlutterLoader;
@@ -38,6 +39,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * This class is owned by the {@link io.flutter.embedding.engine.FlutterEngine} and its role is to
@@ -61,7 +63,7 @@ import java.util.Set;
   // Standard FlutterPlugin
   @NonNull private final FlutterEngine flutterEngine;
   @NonNull private final FlutterLoader flutterLoader;
-  @NonNull private final FlutterPlugin.FlutterPluginBinding pluginBinding;
+  @NonNull private final PluginAttachmentScheduler attachmentScheduler;
 
   // ActivityAware
   @NonNull
@@ -101,9 +103,34 @@ import java.util.Set;
       @NonNull FlutterEngine flutterEngine,
       @NonNull FlutterLoader flutterLoader,
       @Nullable FlutterEngineGroup group) {
+    this(appContext, flutterEngine, flutterLoader, group, new StartupTimeline());
+  }
+
+  FlutterEngineConnectionRegistry(
+      @NonNull Context appContext,
+      @NonNull FlutterEngine flutterEngine,
+      @NonNull FlutterLoader flutterLoader,
+      @Nullable FlutterEngineGroup group,
+      @NonNull StartupTimeline startupTimeline) {
+    this(
+        appContext,
+        flutterEngine,
+        flutterLoader,
+        group,
+        startupTimeline,
+        FlutterInjector.instance().executorService());
+  }
+
+  FlutterEngineConnectionRegistry(
+      @NonNull Context appContext,
+      @NonNull FlutterEngine flutterEngine,
+      @NonNull FlutterLoader flutterLoader,
+      @Nullable FlutterEngineGroup group,
+      @NonNull StartupTimeline startupTimeline,
+      @NonNull Executor startupExecutor) {
     this.flutterEngine = flutterEngine;
     this.flutterLoader = flutterLoader;
-    pluginBinding =
+    final FlutterPlugin.FlutterPluginBinding pluginBinding =
         new FlutterPlugin.FlutterPluginBinding(
             appContext,
             flutterEngine,
@@ -112,6 +139,8 @@ import java.util.Set;
             flutterEngine.getPlatformViewsController().getRegistry(),
             new DefaultFlutterAssets(flutterLoader),
             group);
+    attachmentScheduler =
+        new PluginAttachmentScheduler(pluginBinding, startupTimeline, startupExecutor);
   }
 
   public void destroy() {
@@ -145,9 +174,18 @@ import java.util.Set;
 
       Log.v(TAG, "Adding plugin: " + plugin);
       // Add the plugin to our generic set of plugins and notify the plugin
-      // that is has been attached to an engine.
+      // that is has been attached to an engine, unless it schedules its attachment.
       plugins.put(plugin.getClass(), plugin);
-      plugin.onAttachedToEngine(pluginBinding);
+      attachmentScheduler.add(plugin);
+
+      // A plugin that schedules its attachment must be attached before the app component that
+      // the engine is attached to is propagated to it.
+      if ((plugin instanceof ActivityAware && isAttachedToActivity())
+          || (plugin instanceof ServiceAware && isAttachedToService())
+          || (plugin instanceof BroadcastReceiverAware && isAttachedToBroadcastReceiver())
+          || (plugin instanceof ContentProviderAware && isAttachedToContentProvider())) {
+        attachmentScheduler.ensureAttached(plugin.getClass());
+      }
 
       // For ActivityAware plugins, add the plugin to our set of ActivityAware
       // plugins, and if this engine is currently attached to an Activity,
@@ -201,11 +239,30 @@ import java.util.Set;
 
   @Override
   public void add(@NonNull Set<FlutterPlugin> plugins) {
-    for (FlutterPlugin plugin : plugins) {
-      add(plugin);
+    beginBatch();
+    try {
+      for (FlutterPlugin plugin : plugins) {
+        add(plugin);
+      }
+    } finally {
+      endBatch();
     }
   }
 
+  /**
+   * Starts a batch of plugins, whose {@link
+   * io.flutter.embedding.engine.plugins.ScheduledAttachment.Mode#CONCURRENT} plugins wait for the
+   * dependencies that are added later in the batch.
+   */
+  void beginBatch() {
+    attachmentScheduler.beginBatch();
+  }
+
+  /** Ends a batch started with {@link #beginBatch()}. */
+  void endBatch() {
+    attachmentScheduler.endBatch();
+  }
+
   @Override
   public boolean has(@NonNull Class<? extends FlutterPlugin> pluginClass) {
     return plugins.containsKey(pluginClass);
@@ -270,9 +327,12 @@ import java.util.Set;
         contentProviderAwarePlugins.remove(pluginClass);
       }
 
-      // Notify the plugin that is now detached from this engine. Then remove
-      // it from our set of generic plugins.
-      plugin.onDetachedFromEngine(pluginBinding);
+      // Notify the plugin that is now detached from this engine, if its attachment was not
+      // cancelled. Then remove it from our set of generic plugins.
+      FlutterPlugin.FlutterPluginBinding binding = attachmentScheduler.remove(pluginClass);
+      if (binding != null) {
+        plugin.onDetachedFromEngine(binding);
+      }
       plugins.remove(pluginClass);
     }
   }
@@ -292,6 +352,14 @@ import java.util.Set;
     plugins.clear();
   }
 
+  // Makes sure that the plugins that schedule their attachment are attached before they are
+  // attached to an app component.
+  private void ensureAttached(@NonNull Set<Class<? extends FlutterPlugin>> pluginClasses) {
+    for (Class<? extends FlutterPlugin> pluginClass : pluginClasses) {
+      attachmentScheduler.ensureAttached(pluginClass);
+    }
+  }
+
   private void detachFromAppComponent() {
     if (isAttachedToActivity()) {
       detachFromActivity();
@@ -364,6 +432,7 @@ import java.util.Set;
         .attach(activity, flutterEngine.getRenderer(), flutterEngine.getDartExecutor());
 
     // Notify all ActivityAware plugins that they are now attached to a new Activity.
+    ensureAttached(activityAwarePlugins.keySet());
     for (ActivityAware activityAware : activityAwarePlugins.values()) {
       if (isWaitingForActivityReattachment) {
         activityAware.onReattachedToActivityForConfigChanges(activityPluginBinding);
@@ -528,6 +597,7 @@ import java.util.Set;
       this.servicePluginBinding = new FlutterEngineServicePluginBinding(service, lifecycle);
 
       // Notify all ServiceAware plugins that they are now attached to a new Service.
+      ensureAttached(serviceAwarePlugins.keySet());
       for (ServiceAware serviceAware : serviceAwarePlugins.values()) {
         serviceAware.onAttachedToService(servicePluginBinding);
       }
@@ -594,6 +664,7 @@ import java.util.Set;
 
       // Notify all BroadcastReceiverAware plugins that they are now attached to a new
       // BroadcastReceiver.
+      ensureAttached(broadcastReceiverAwarePlugins.keySet());
       for (BroadcastReceiverAware broadcastReceiverAware : broadcastReceiverAwarePlugins.values()) {
         broadcastReceiverAware.onAttachedToBroadcastReceiver(broadcastReceiverPluginBinding);
       }
@@ -643,6 +714,7 @@ import java.util.Set;
 
       // Notify all ContentProviderAware plugins that they are now attached to a new
       // ContentProvider.
+      ensureAttached(contentProviderAwarePlugins.keySet());
       for (ContentProviderAware contentProviderAware : contentProviderAwarePlugins.values()) {
         contentProviderAware.onAttachedToContentProvider(contentProviderPluginBinding);
       }
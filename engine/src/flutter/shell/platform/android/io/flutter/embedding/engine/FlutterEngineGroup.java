@@ -148,6 +148,7 @@ public class FlutterEngineGroup {
         platformViewsController != null ? platformViewsController : new PlatformViewsController();
     boolean automaticallyRegisterPlugins = options.getAutomaticallyRegisterPlugins();
     boolean waitForRestorationData = options.getWaitForRestorationData();
+    SystemChannelPreset systemChannelPreset = options.getSystemChannelPreset();
 
     if (dartEntrypoint == null) {
       dartEntrypoint = DartEntrypoint.createDefault();
@@ -159,7 +160,8 @@ public class FlutterEngineGroup {
               context,
               platformViewsController,
               automaticallyRegisterPlugins,
-              waitForRestorationData);
+              waitForRestorationData,
+              systemChannelPreset);
       if (initialRoute != null) {
         engine.getNavigationChannel().setInitialRoute(initialRoute);
       }
@@ -175,7 +177,8 @@ public class FlutterEngineGroup {
                   dartEntrypointArgs,
                   platformViewsController,
                   automaticallyRegisterPlugins,
-                  waitForRestorationData);
+                  waitForRestorationData,
+                  systemChannelPreset);
     }
 
     activeEngines.add(engine);
@@ -202,7 +205,8 @@ public class FlutterEngineGroup {
       Context context,
       @NonNull PlatformViewsController platformViewsController,
       boolean automaticallyRegisterPlugins,
-      boolean waitForRestorationData) {
+      boolean waitForRestorationData,
+      @NonNull SystemChannelPreset systemChannelPreset) {
     return new FlutterEngine(
         context, // Context.
         null, // FlutterLoader.
@@ -211,7 +215,8 @@ public class FlutterEngineGroup {
         null, // String[]. The Dart VM has already started, this arguments will have no effect.
         automaticallyRegisterPlugins, // boolean.
         waitForRestorationData, // boolean.
-        this);
+        this, // FlutterEngineGroup.
+        systemChannelPreset); // SystemChannelPreset.
   }
 
   /** Options that control how a FlutterEngine should be created. */
@@ -223,6 +228,7 @@ public class FlutterEngineGroup {
     @NonNull private PlatformViewsController platformViewsController;
     private boolean automaticallyRegisterPlugins = true;
     private boolean waitForRestorationData = false;
+    @NonNull private SystemChannelPreset systemChannelPreset = SystemChannelPreset.EAGER;
 
     public Options(@NonNull Context context) {
       this.context = context;
@@ -344,5 +350,26 @@ public class FlutterEngineGroup {
       this.waitForRestorationData = waitForRestorationData;
       return this;
     }
+
+    /**
+     * Decides which system channels of the engine are created when they are first used, instead of
+     * with the engine. Defaults to {@link SystemChannelPreset#EAGER}.
+     */
+    @NonNull
+    public SystemChannelPreset getSystemChannelPreset() {
+      return systemChannelPreset;
+    }
+
+    /**
+     * Setter for `systemChannelPreset` property.
+     *
+     * @param systemChannelPreset Decides which system channels of the engine are created when they
+     *     are first used. Engines that run without a view can use {@link
+     *     SystemChannelPreset#HEADLESS}.
+     */
+    public Options setSystemChannelPreset(@NonNull SystemChannelPreset systemChannelPreset) {
+      this.systemChannelPreset = systemChannelPreset;
+      return this;
+    }
   }
 }
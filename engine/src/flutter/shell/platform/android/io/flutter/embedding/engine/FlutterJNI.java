@@ -355,6 +355,16 @@ public class FlutterJNI {
   @Deprecated
   public static native FlutterCallbackInformation nativeLookupCallbackInformation(long handle);
 
+  /**
+   * Returns whether the RGBA_8888 {@code bitmap} holds the same bytes as the {@code
+   * bitmap.getHeight()} rows of the direct buffer {@code pixels} that start at {@code offset}.
+   *
+   * <p>Used by {@link io.flutter.embedding.android.FlutterImageView} to find the rows of a frame
+   * that changed, without a per-byte comparison in Java.
+   */
+  public static native boolean nativeBitmapMatchesPixels(
+      @NonNull Bitmap bitmap, @NonNull ByteBuffer pixels, int offset, int rowStride);
+
   // ----- Start FlutterTextUtils Methods ----
   private native boolean nativeFlutterTextUtilsIsEmoji(int codePoint);
 
@@ -1037,6 +1047,23 @@ public class FlutterJNI {
 
   private native void nativeMarkTextureFrameAvailable(long nativeShellHolderId, long textureId);
 
+  /**
+   * Call this method to inform Flutter that several textures have a new frame available.
+   *
+   * <p>This is equivalent to calling {@link #markTextureFrameAvailable(long)} for each of the first
+   * {@code count} IDs in {@code textureIds}, except that the engine marks all the textures in a
+   * single raster task and schedules a single frame.
+   */
+  @UiThread
+  public void markTextureFramesAvailable(@NonNull long[] textureIds, int count) {
+    ensureRunningOnMainThread();
+    ensureAttachedToNative();
+    nativeMarkTextureFramesAvailable(nativeShellHolderId, textureIds, count);
+  }
+
+  private native void nativeMarkTextureFramesAvailable(
+      long nativeShellHolderId, @NonNull long[] textureIds, int count);
+
   /** Schedule the engine to draw a frame but does not invalidate the layout tree. */
   @UiThread
   public void scheduleFrame() {
@@ -1766,4 +1793,21 @@ public class FlutterJNI {
   }
 
   private native boolean nativeIsSurfaceControlEnabled(long nativeShellHolderId);
+
+  /**
+   * Returns the {@link System#nanoTime()} at which the engine attached to this {@code FlutterJNI}
+   * last waited for a vsync signal to produce a frame, or 0 if it never did or isn't attached.
+   *
+   * <p>The engine only waits for vsync signals while the Flutter app is producing frames.
+   */
+  @UiThread
+  long getLastVsyncRequestNanos() {
+    ensureRunningOnMainThread();
+    if (!isAttached()) {
+      return 0;
+    }
+    return nativeGetLastVsyncRequestNanos(nativeShellHolderId);
+  }
+
+  private native long nativeGetLastVsyncRequestNanos(long nativeShellHolderId);
 }
@@ -0,0 +1,69 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.embedding.engine.dart.DartExecutor;
+
+/**
+ * A system channel of a {@link FlutterEngine} that may be created when it is first used: when
+ * {@link #get()} is called, or when Dart first sends a message to the channel.
+ *
+ * <p>The channel is created at most once, and may be created from any thread.
+ */
+final class LazySystemChannel<T> {
+  /** Creates the channel, which sets its message handler if it has one. */
+  interface Factory<T> {
+    @NonNull
+    T create();
+  }
+
+  @NonNull private final DartExecutor dartExecutor;
+  @NonNull private final String name;
+  @Nullable private Factory<T> factory;
+  @Nullable private T channel;
+
+  /**
+   * @param name The name of the channel, whose first message creates it if it is lazy.
+   * @param lazy Whether the channel is created when it is first used, instead of now.
+   */
+  LazySystemChannel(
+      @NonNull DartExecutor dartExecutor,
+      @NonNull String name,
+      boolean lazy,
+      @NonNull Factory<T> factory) {
+    this.dartExecutor = dartExecutor;
+    this.name = name;
+    this.factory = factory;
+    if (lazy) {
+      dartExecutor.setChannelInitializer(name, this::get);
+    } else {
+      get();
+    }
+  }
+
+  @NonNull
+  String getName() {
+    return name;
+  }
+
+  /** @return The channel, which is created if it was not created yet. */
+  @NonNull
+  synchronized T get() {
+    if (channel == null) {
+      dartExecutor.setChannelInitializer(name, null);
+      channel = factory.create();
+      factory = null;
+    }
+    return channel;
+  }
+
+  /** @return The channel, or null if it was not created yet. */
+  @Nullable
+  synchronized T getIfCreated() {
+    return channel;
+  }
+}
@@ -0,0 +1,485 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.Log;
+import io.flutter.embedding.engine.plugins.FlutterPlugin;
+import io.flutter.embedding.engine.plugins.ScheduledAttachment;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.util.TraceSection;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+/**
+ * Attaches the plugins of a {@link FlutterEngineConnectionRegistry} to the engine, as declared by
+ * the plugins that implement {@link ScheduledAttachment}.
+ *
+ * <p>Plugins are attached after the plugins they depend on. {@link
+ * ScheduledAttachment.Mode#CONCURRENT} plugins are attached on the executor as soon as their
+ * dependencies are attached. {@link ScheduledAttachment.Mode#DEFERRED} plugins are attached when
+ * Dart first sends a message to one of their channels. Until a concurrent or deferred plugin is
+ * attached, its channels have a placeholder handler that waits for the attachment and then passes
+ * the message to the handler the plugin sets. Other plugins are attached when they are added, or at
+ * the end of the batch they are added in if they depend on plugins that are not added yet.
+ *
+ * <p>Plugins are added, removed and waited for on the main thread.
+ */
+final class PluginAttachmentScheduler {
+  private static final String TAG = "PluginAttachmentSched";
+
+  private static final class Attachment {
+    @NonNull final FlutterPlugin plugin;
+    @NonNull final ScheduledAttachment.Mode mode;
+    @NonNull final Set<Class<? extends FlutterPlugin>> dependencies;
+    @NonNull final FlutterPlugin.FlutterPluginBinding binding;
+    // The messenger of the binding of a plugin whose channels have placeholder handlers.
+    @Nullable final ChannelRecordingMessenger messenger;
+    @NonNull final Set<String> channels;
+    @NonNull final CountDownLatch attached = new CountDownLatch(1);
+
+    // Guarded by the lock of the scheduler.
+    boolean started = false;
+    @Nullable Thread attachingThread;
+
+    Attachment(
+        @NonNull FlutterPlugin plugin,
+        @NonNull ScheduledAttachment.Mode mode,
+        @NonNull Set<Class<? extends FlutterPlugin>> dependencies,
+        @NonNull FlutterPlugin.FlutterPluginBinding binding,
+        @Nullable ChannelRecordingMessenger messenger,
+        @NonNull Set<String> channels) {
+      this.plugin = plugin;
+      this.mode = mode;
+      this.dependencies = dependencies;
+      this.binding = binding;
+      this.messenger = messenger;
+      this.channels = channels;
+    }
+  }
+
+  @NonNull private final FlutterPlugin.FlutterPluginBinding pluginBinding;
+  @NonNull private final BinaryMessenger binaryMessenger;
+  @NonNull private final StartupTimeline startupTimeline;
+  @NonNull private final Executor executor;
+  @NonNull private final Handler handler = new Handler(Looper.getMainLooper());
+
+  @NonNull private final Object lock = new Object();
+
+  // The plugins that were added and not removed. Guarded by lock.
+  @NonNull private final Set<Class<? extends FlutterPlugin>> added = new HashSet<>();
+
+  // The plugins that are not attached yet, in the order they were added. Guarded by lock.
+  @NonNull
+  private final Map<Class<? extends FlutterPlugin>, Attachment> pending = new LinkedHashMap<>();
+
+  // The bindings of the attached plugins. Guarded by lock.
+  @NonNull
+  private final Map<Class<? extends FlutterPlugin>, FlutterPlugin.FlutterPluginBinding> bindings =
+      new HashMap<>();
+
+  // Guarded by lock.
+  private int batchDepth = 0;
+
+  PluginAttachmentScheduler(
+      @NonNull FlutterPlugin.FlutterPluginBinding pluginBinding,
+      @NonNull StartupTimeline startupTimeline,
+      @NonNull Executor executor) {
+    this.pluginBinding = pluginBinding;
+    this.binaryMessenger = pluginBinding.getBinaryMessenger();
+    this.startupTimeline = startupTimeline;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts a batch of plugins, whose concurrent and main thread plugins wait for the dependencies
+   * that are not added yet until {@link #endBatch()}.
+   */
+  void beginBatch() {
+    synchronized (lock) {
+      batchDepth++;
+    }
+  }
+
+  /** Ends a batch started with {@link #beginBatch()}. */
+  void endBatch() {
+    final List<Class<? extends FlutterPlugin>> mainThreadPlugins = new ArrayList<>();
+    synchronized (lock) {
+      batchDepth--;
+      if (batchDepth == 0) {
+        for (Attachment attachment : pending.values()) {
+          if (attachment.mode == ScheduledAttachment.Mode.MAIN_THREAD && !attachment.started) {
+            mainThreadPlugins.add(attachment.plugin.getClass());
+          }
+        }
+      }
+    }
+    startReadyAttachments();
+    // Attach the main thread plugins that waited for their dependencies, in the order they were
+    // added.
+    for (Class<? extends FlutterPlugin> pluginClass : mainThreadPlugins) {
+      ensureAttached(pluginClass);
+    }
+  }
+
+  /** Attaches or schedules the attachment of a plugin that was added to the registry. */
+  void add(@NonNull FlutterPlugin plugin) {
+    ScheduledAttachment.Mode mode = ScheduledAttachment.Mode.MAIN_THREAD;
+    Set<Class<? extends FlutterPlugin>> dependencies = new HashSet<>();
+    Set<String> channels = new HashSet<>();
+    if (plugin instanceof ScheduledAttachment) {
+      final ScheduledAttachment scheduledAttachment = (ScheduledAttachment) plugin;
+      mode = scheduledAttachment.getAttachmentMode();
+      dependencies.addAll(scheduledAttachment.getAttachmentDependencies());
+      channels.addAll(scheduledAttachment.getDeferredChannels());
+      if (mode == ScheduledAttachment.Mode.DEFERRED && channels.isEmpty()) {
+        mode = ScheduledAttachment.Mode.MAIN_THREAD;
+      }
+    }
+
+    final Attachment attachment;
+    if (mode == ScheduledAttachment.Mode.MAIN_THREAD || channels.isEmpty()) {
+      attachment = new Attachment(plugin, mode, dependencies, pluginBinding, null, channels);
+    } else {
+      final ChannelRecordingMessenger messenger = new ChannelRecordingMessenger(binaryMessenger);
+      attachment =
+          new Attachment(plugin, mode, dependencies, createBinding(messenger), messenger, channels);
+      // Set before the attachment can start, so that the handlers set by the plugin replace them.
+      for (String channel : channels) {
+        binaryMessenger.setMessageHandler(
+            channel,
+            (message, reply) -> onPlaceholderChannelMessage(attachment, channel, message, reply));
+      }
+    }
+    synchronized (lock) {
+      added.add(plugin.getClass());
+      pending.put(plugin.getClass(), attachment);
+    }
+
+    switch (mode) {
+      case MAIN_THREAD:
+        if (!waitsForBatch(attachment)) {
+          ensureAttached(plugin.getClass());
+        }
+        break;
+      case CONCURRENT:
+        startReadyAttachments();
+        break;
+      case DEFERRED:
+        // Attach the deferred dependencies of the concurrent plugins that were waiting for it.
+        startReadyAttachments();
+        break;
+    }
+  }
+
+  /**
+   * Makes sure that a plugin is attached, attaching it on this thread if its attachment has not
+   * started yet, or waiting for it otherwise. Does nothing if the plugin was not added.
+   */
+  void ensureAttached(@NonNull Class<? extends FlutterPlugin> pluginClass) {
+    final Attachment attachment;
+    final boolean attachHere;
+    synchronized (lock) {
+      attachment = pending.get(pluginClass);
+      if (attachment == null) {
+        return;
+      }
+      if (attachment.attachingThread == Thread.currentThread()) {
+        Log.w(TAG, "Circular attachment dependency on " + pluginClass.getName() + ", ignoring it.");
+        return;
+      }
+      attachHere = !attachment.started;
+      attachment.started = true;
+    }
+    if (attachHere) {
+      attach(attachment);
+    } else {
+      awaitAttachment(attachment);
+    }
+  }
+
+  /**
+   * Forgets a plugin that was removed from the registry, waiting for its attachment if it started.
+   *
+   * @return The binding the plugin was attached with, or null if the plugin was never attached.
+   */
+  @Nullable
+  FlutterPlugin.FlutterPluginBinding remove(@NonNull Class<? extends FlutterPlugin> pluginClass) {
+    Attachment attachment;
+    boolean cancelled = false;
+    synchronized (lock) {
+      added.remove(pluginClass);
+      attachment = pending.get(pluginClass);
+      if (attachment != null && !attachment.started) {
+        pending.remove(pluginClass);
+        cancelled = true;
+      }
+    }
+    if (cancelled) {
+      if (attachment.messenger != null) {
+        for (String channel : attachment.channels) {
+          binaryMessenger.setMessageHandler(channel, null);
+        }
+      }
+      startReadyAttachments();
+      return null;
+    }
+    if (attachment != null) {
+      awaitAttachment(attachment);
+    }
+    synchronized (lock) {
+      return bindings.remove(pluginClass);
+    }
+  }
+
+  @VisibleForTesting
+  boolean isAttached(@NonNull Class<? extends FlutterPlugin> pluginClass) {
+    synchronized (lock) {
+      return bindings.containsKey(pluginClass);
+    }
+  }
+
+  // Attaches the dependencies, and then the plugin, on this thread.
+  private void attach(@NonNull Attachment attachment) {
+    synchronized (lock) {
+      attachment.attachingThread = Thread.currentThread();
+    }
+    for (Class<? extends FlutterPlugin> dependency : attachment.dependencies) {
+      ensureAttached(dependency);
+    }
+    boolean succeeded = false;
+    try {
+      runAttachment(attachment);
+      succeeded = true;
+    } finally {
+      onAttached(attachment, succeeded);
+    }
+  }
+
+  private void attachConcurrently(@NonNull Attachment attachment) {
+    synchronized (lock) {
+      attachment.attachingThread = Thread.currentThread();
+    }
+    boolean succeeded = false;
+    try {
+      runAttachment(attachment);
+      succeeded = true;
+    } catch (RuntimeException exception) {
+      Log.e(
+          TAG,
+          "Error attaching plugin " + attachment.plugin.getClass().getName() + " concurrently",
+          exception);
+    } finally {
+      onAttached(attachment, succeeded);
+    }
+  }
+
+  private void runAttachment(@NonNull Attachment attachment) {
+    final Class<? extends FlutterPlugin> pluginClass = attachment.plugin.getClass();
+    try (TraceSection e =
+            TraceSection.scoped("PluginAttachmentScheduler#attach " + pluginClass.getSimpleName());
+        StartupTimeline.Section s =
+            startupTimeline.begin(StartupTimeline.pluginAttachPhase(pluginClass))) {
+      attachment.plugin.onAttachedToEngine(attachment.binding);
+    }
+  }
+
+  // Records the binding of a plugin that attached successfully, so that it is detached with it.
+  private void onAttached(@NonNull Attachment attachment, boolean succeeded) {
+    final Class<? extends FlutterPlugin> pluginClass = attachment.plugin.getClass();
+    synchronized (lock) {
+      attachment.attachingThread = null;
+      pending.remove(pluginClass);
+      if (succeeded && added.contains(pluginClass)) {
+        bindings.put(pluginClass, attachment.binding);
+      }
+    }
+    if (attachment.messenger != null) {
+      // Remove the placeholders of the channels that the plugin does not handle.
+      for (String channel : attachment.channels) {
+        if (attachment.messenger.getHandler(channel) == null) {
+          binaryMessenger.setMessageHandler(channel, null);
+        }
+      }
+    }
+    attachment.attached.countDown();
+    startReadyAttachments();
+  }
+
+  // Whether a batch is in progress and some dependencies of the attachment were not added yet.
+  private boolean waitsForBatch(@NonNull Attachment attachment) {
+    synchronized (lock) {
+      if (batchDepth == 0) {
+        return false;
+      }
+      for (Class<? extends FlutterPlugin> dependency : attachment.dependencies) {
+        if (!added.contains(dependency)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  // Starts the concurrent plugins whose dependencies are attached, and the deferred dependencies
+  // of the concurrent plugins.
+  private void startReadyAttachments() {
+    final List<Attachment> ready = new ArrayList<>();
+    final Set<Class<? extends FlutterPlugin>> deferredDependencies = new HashSet<>();
+    synchronized (lock) {
+      for (Attachment attachment : pending.values()) {
+        if (attachment.mode != ScheduledAttachment.Mode.CONCURRENT || attachment.started) {
+          continue;
+        }
+        boolean isReady = true;
+        for (Class<? extends FlutterPlugin> dependency : attachment.dependencies) {
+          final Attachment dependencyAttachment = pending.get(dependency);
+          if (dependencyAttachment != null) {
+            isReady = false;
+            if (dependencyAttachment.mode == ScheduledAttachment.Mode.DEFERRED
+                && !dependencyAttachment.started) {
+              deferredDependencies.add(dependency);
+            }
+          } else if (batchDepth > 0 && !added.contains(dependency)) {
+            isReady = false;
+          }
+        }
+        if (isReady) {
+          attachment.started = true;
+          ready.add(attachment);
+        }
+      }
+    }
+    for (Attachment attachment : ready) {
+      executor.execute(() -> attachConcurrently(attachment));
+    }
+    for (Class<? extends FlutterPlugin> dependency : deferredDependencies) {
+      if (Looper.myLooper() == Looper.getMainLooper()) {
+        ensureAttached(dependency);
+      } else {
+        handler.post(() -> ensureAttached(dependency));
+      }
+    }
+  }
+
+  // Waits for the plugin to be attached, attaching it if it is deferred or still waiting for its
+  // dependencies, and passes the message to the handler the plugin set.
+  private void onPlaceholderChannelMessage(
+      @NonNull Attachment attachment,
+      @NonNull String channel,
+      @Nullable ByteBuffer message,
+      @NonNull BinaryMessenger.BinaryReply reply) {
+    ensureAttached(attachment.plugin.getClass());
+    final BinaryMessenger.BinaryMessageHandler channelHandler =
+        attachment.messenger.getHandler(channel);
+    if (channelHandler == null) {
+      reply.reply(null);
+    } else {
+      channelHandler.onMessage(message, reply);
+    }
+  }
+
+  private static void awaitAttachment(@NonNull Attachment attachment) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        attachment.attached.await();
+        break;
+      } catch (InterruptedException exception) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @SuppressWarnings("deprecation")
+  @NonNull
+  private FlutterPlugin.FlutterPluginBinding createBinding(@NonNull BinaryMessenger messenger) {
+    return new FlutterPlugin.FlutterPluginBinding(
+        pluginBinding.getApplicationContext(),
+        pluginBinding.getFlutterEngine(),
+        messenger,
+        pluginBinding.getTextureRegistry(),
+        pluginBinding.getPlatformViewRegistry(),
+        pluginBinding.getFlutterAssets(),
+        pluginBinding.getEngineGroup());
+  }
+
+  /** A messenger that remembers the handlers set by a deferred plugin. */
+  private static final class ChannelRecordingMessenger implements BinaryMessenger {
+    @NonNull private final BinaryMessenger messenger;
+    @NonNull private final Map<String, BinaryMessageHandler> handlers = new HashMap<>();
+
+    ChannelRecordingMessenger(@NonNull BinaryMessenger messenger) {
+      this.messenger = messenger;
+    }
+
+    @Nullable
+    synchronized BinaryMessageHandler getHandler(@NonNull String channel) {
+      return handlers.get(channel);
+    }
+
+    @Override
+    @NonNull
+    public TaskQueue makeBackgroundTaskQueue(@NonNull TaskQueueOptions options) {
+      return messenger.makeBackgroundTaskQueue(options);
+    }
+
+    @Override
+    public void send(@NonNull String channel, @Nullable ByteBuffer message) {
+      messenger.send(channel, message);
+    }
+
+    @Override
+    public void send(
+        @NonNull String channel, @Nullable ByteBuffer message, @Nullable BinaryReply callback) {
+      messenger.send(channel, message, callback);
+    }
+
+    @Override
+    public void setMessageHandler(@NonNull String channel, @Nullable BinaryMessageHandler handler) {
+      setMessageHandler(channel, handler, null);
+    }
+
+    @Override
+    public void setMessageHandler(
+        @NonNull String channel,
+        @Nullable BinaryMessageHandler handler,
+        @Nullable TaskQueue taskQueue) {
+      synchronized (this) {
+        if (handler == null) {
+          handlers.remove(channel);
+        } else {
+          handlers.put(channel, handler);
+        }
+      }
+      messenger.setMessageHandler(channel, handler, taskQueue);
+    }
+
+    @Override
+    public void enableBufferingIncomingMessages() {
+      messenger.enableBufferingIncomingMessages();
+    }
+
+    @Override
+    public void disableBufferingIncomingMessages() {
+      messenger.disableBufferingIncomingMessages();
+    }
+  }
+}
@@ -0,0 +1,175 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The phases of the startup of Flutter, with their start time and duration.
+ *
+ * <p>{@link io.flutter.embedding.engine.loader.FlutterLoader#getStartupTimeline()} records the
+ * phases of the initialization of the native system, which happens once per process. {@link
+ * FlutterEngine#getStartupTimeline()} records the phases of the creation of an engine, including
+ * the time each plugin took to attach to it.
+ *
+ * <p>Times are measured with {@link SystemClock#elapsedRealtimeNanos()}, which is monotonic and can
+ * be compared with the start time of the process. Phases may be recorded from any thread.
+ */
+public final class StartupTimeline {
+  /** Loading the Flutter settings of the application info. */
+  public static final String APPLICATION_INFO_LOAD = "ApplicationInfoLoader#load";
+
+  /** Initializing the {@link io.flutter.view.VsyncWaiter}. */
+  public static final String VSYNC_WAITER_INIT = "VsyncWaiter#init";
+
+  /** Loading libflutter.so. */
+  public static final String LOAD_LIBRARY = "FlutterJNI#loadLibrary";
+
+  /**
+   * Extracting the assets needed in debug and JIT release modes, until the extraction was waited
+   * for. Not recorded in other modes.
+   */
+  public static final String RESOURCE_EXTRACTION = "ResourceExtractor";
+
+  /** Prefetching the default font manager, on a background thread. */
+  public static final String PREFETCH_DEFAULT_FONT_MANAGER =
+      "FlutterJNI#prefetchDefaultFontManager";
+
+  /** Waiting in {@code ensureInitializationComplete} for the background initialization. */
+  public static final String WAIT_FOR_INITIALIZATION = "FlutterLoader#waitForInitialization";
+
+  /** Building the shell arguments, including parsing the flags of the manifest. */
+  public static final String SHELL_ARGS = "FlutterLoader#buildShellArgs";
+
+  /** Initializing the native system with {@link FlutterJNI#init}. */
+  public static final String FLUTTER_JNI_INIT = "FlutterJNI#init";
+
+  /** Constructing the system channels of an engine that are not created lazily. */
+  public static final String SYSTEM_CHANNELS = "FlutterEngine#createSystemChannels";
+
+  /** Attaching an engine to its native shell. */
+  public static final String ATTACH_TO_JNI = "FlutterEngine#attachToJni";
+
+  /**
+   * Registering the plugins of {@code GeneratedPluginRegistrant}, including the attachment of the
+   * plugins that are attached on the main thread when they are added.
+   */
+  public static final String REGISTER_GENERATED_PLUGINS =
+      "GeneratedPluginRegister#registerGeneratedPlugins";
+
+  /** The prefix of the phases of the plugins attaching to an engine. */
+  public static final String PLUGIN_ATTACH_PREFIX = "FlutterPlugin#onAttachedToEngine ";
+
+  /** A phase of the startup. */
+  public static final class Phase {
+    @NonNull private final String name;
+    private final long startNanos;
+    private final long durationNanos;
+
+    Phase(@NonNull String name, long startNanos, long durationNanos) {
+      this.name = name;
+      this.startNanos = startNanos;
+      this.durationNanos = durationNanos;
+    }
+
+    @NonNull
+    public String getName() {
+      return name;
+    }
+
+    /** @return The start of the phase, in the time base of {@link StartupTimeline#now()}. */
+    public long getStartNanos() {
+      return startNanos;
+    }
+
+    public long getDurationNanos() {
+      return durationNanos;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+      return name + " started at " + startNanos + "ns, took " + durationNanos + "ns";
+    }
+  }
+
+  /**
+   * A phase that is recorded when closed, to be used with the try-with-resource construct:
+   *
+   * <pre>{@code
+   * try (StartupTimeline.Section s = timeline.begin(StartupTimeline.LOAD_LIBRARY)) {
+   *   // code.
+   * }
+   * }</pre>
+   */
+  public static final class Section implements AutoCloseable {
+    @NonNull private final StartupTimeline timeline;
+    @NonNull private final String name;
+    private final long startNanos;
+
+    private Section(@NonNull StartupTimeline timeline, @NonNull String name) {
+      this.timeline = timeline;
+      this.name = name;
+      this.startNanos = now();
+    }
+
+    @Override
+    public void close() {
+      timeline.record(name, startNanos);
+    }
+  }
+
+  private final List<Phase> phases = new ArrayList<>();
+
+  /** @return The current time, in the time base of the phases. */
+  public static long now() {
+    return SystemClock.elapsedRealtimeNanos();
+  }
+
+  /** @return The name of the phase of a plugin attaching to an engine. */
+  @NonNull
+  public static String pluginAttachPhase(@NonNull Class<?> pluginClass) {
+    return PLUGIN_ATTACH_PREFIX + pluginClass.getName();
+  }
+
+  /** Starts a phase that is recorded when the returned section is closed. */
+  @NonNull
+  public Section begin(@NonNull String name) {
+    return new Section(this, name);
+  }
+
+  /** Records a phase that started at {@code startNanos} and ends now. */
+  public void record(@NonNull String name, long startNanos) {
+    final Phase phase = new Phase(name, startNanos, now() - startNanos);
+    synchronized (phases) {
+      phases.add(phase);
+    }
+  }
+
+  /** @return The recorded phases, in the order they ended. */
+  @NonNull
+  public List<Phase> getPhases() {
+    synchronized (phases) {
+      return new ArrayList<>(phases);
+    }
+  }
+
+  /** @return The first recorded phase with the given name, or null if there is none. */
+  @Nullable
+  public Phase getPhase(@NonNull String name) {
+    synchronized (phases) {
+      for (Phase phase : phases) {
+        if (phase.name.equals(name)) {
+          return phase;
+        }
+      }
+    }
+    return null;
+  }
+}
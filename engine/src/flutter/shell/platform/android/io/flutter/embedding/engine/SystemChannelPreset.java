@@ -0,0 +1,69 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import androidx.annotation.NonNull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Which system channels of a {@link FlutterEngine} are created with the engine, and which are
+ * created when they are first used.
+ *
+ * <p>A channel that is created lazily is created when its getter is called, such as {@link
+ * FlutterEngine#getTextInputChannel()}, or when Dart first sends a message to it, before the
+ * message is handled. The {@link io.flutter.plugin.text.ProcessTextPlugin} is created with the
+ * process text channel.
+ *
+ * <p>The localization and settings channels are always created with the engine, which uses them
+ * itself, and so is the deferred component channel when there is a {@link
+ * io.flutter.embedding.engine.deferredcomponents.DeferredComponentManager}.
+ */
+public enum SystemChannelPreset {
+  /**
+   * Every system channel is created with the engine.
+   *
+   * <p>This is the default, so that plugins and apps that expect the system channels to exist
+   * behave as before.
+   */
+  EAGER,
+
+  /**
+   * The channels of features that many apps don't use are created lazily: the back gesture,
+   * deferred component, process text, scribe, sensitive content and spell check channels.
+   */
+  DEFAULT,
+
+  /**
+   * Every system channel is created lazily, for engines that run without a view, such as engines
+   * that handle push messages or background work. The channels that such an engine uses are still
+   * created when Dart first sends a message to them.
+   */
+  HEADLESS;
+
+  private static final Set<String> OPTIONAL_FEATURE_CHANNELS =
+      new HashSet<>(
+          Arrays.asList(
+              "flutter/backgesture",
+              "flutter/deferredcomponent",
+              "flutter/processtext",
+              "flutter/scribe",
+              "flutter/sensitivecontent",
+              "flutter/spellcheck"));
+
+  /** @return Whether the system channel with the given name is created lazily. */
+  boolean isLazy(@NonNull String channelName) {
+    switch (this) {
+      case EAGER:
+        return false;
+      case DEFAULT:
+        return OPTIONAL_FEATURE_CHANNELS.contains(channelName);
+      case HEADLESS:
+      default:
+        return true;
+    }
+  }
+}
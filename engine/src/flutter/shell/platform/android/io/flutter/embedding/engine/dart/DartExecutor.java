@@ -263,6 +263,17 @@ public class DartExecutor implements BinaryMessenger {
   }
   // ------ END BinaryMessenger -----
 
+  /**
+   * Sets a callback that sets the handler of a channel when Dart sends a message to the channel
+   * while it has no handler, so that the handler can be created lazily.
+   *
+   * <p>The initializer is run once, on the thread that receives the message, before the message is
+   * dispatched to the handler it set. Setting a handler for the channel removes the initializer.
+   */
+  public void setChannelInitializer(@NonNull String channel, @Nullable Runnable initializer) {
+    dartMessenger.setChannelInitializer(channel, initializer);
+  }
+
   /**
    * Returns the number of pending channel callback replies.
    *
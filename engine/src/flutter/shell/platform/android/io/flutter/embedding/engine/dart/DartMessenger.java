@@ -49,6 +49,22 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
    */
   @NonNull private Map<String, List<BufferedMessageInfo>> bufferedMessages = new HashMap<>();
 
+  /**
+   * Maps a channel name to a callback that sets its handler when a message is received before a
+   * handler is set.
+   *
+   * <p>Reads and writes to this map must lock {@code handlersLock}.
+   */
+  @NonNull private final Map<String, Runnable> channelInitializers = new HashMap<>();
+
+  /**
+   * Whether {@code channelInitializers} is not empty, so that messages don't lock {@code
+   * handlersLock} to look for an initializer once every lazy channel was created.
+   *
+   * <p>Writes must lock {@code handlersLock}.
+   */
+  private volatile boolean hasChannelInitializers = false;
+
   @NonNull private final Object handlersLock = new Object();
   @NonNull private final AtomicBoolean enableBufferingIncomingMessages = new AtomicBoolean(false);
 
@@ -219,6 +235,10 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
     List<BufferedMessageInfo> list;
     synchronized (handlersLock) {
       messageHandlers.put(channel, new HandlerInfo(handler, dartMessengerTaskQueue));
+      if (hasChannelInitializers) {
+        channelInitializers.remove(channel);
+        hasChannelInitializers = !channelInitializers.isEmpty();
+      }
       list = bufferedMessages.remove(channel);
       if (list == null) {
         return;
@@ -230,6 +250,18 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
     }
   }
 
+  /** See {@link DartExecutor#setChannelInitializer}. */
+  void setChannelInitializer(@NonNull String channel, @Nullable Runnable initializer) {
+    synchronized (handlersLock) {
+      if (initializer == null) {
+        channelInitializers.remove(channel);
+      } else {
+        channelInitializers.put(channel, initializer);
+      }
+      hasChannelInitializers = !channelInitializers.isEmpty();
+    }
+  }
+
   @Override
   public void enableBufferingIncomingMessages() {
     enableBufferingIncomingMessages.set(true);
@@ -332,6 +364,18 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
     // Called from any thread.
     Log.v(TAG, "Received message from Dart over channel '" + channel + "'");
 
+    Runnable initializer = null;
+    if (hasChannelInitializers) {
+      synchronized (handlersLock) {
+        initializer = channelInitializers.remove(channel);
+        hasChannelInitializers = !channelInitializers.isEmpty();
+      }
+    }
+    if (initializer != null) {
+      // The initializer sets the handler of a channel that is created lazily.
+      initializer.run();
+    }
+
     HandlerInfo handlerInfo;
     boolean messageDeferred;
     // This lock can potentially be a bottleneck and could replaced with a
@@ -24,6 +24,7 @@ import io.flutter.FlutterInjector;
 import io.flutter.Log;
 import io.flutter.embedding.engine.FlutterEngineFlags;
 import io.flutter.embedding.engine.FlutterJNI;
+import io.flutter.embedding.engine.StartupTimeline;
 import io.flutter.util.HandlerCompat;
 import io.flutter.util.PathUtils;
 import io.flutter.util.TraceSection;
@@ -98,6 +99,7 @@ public class FlutterLoader {
   @VisibleForTesting boolean initialized = false;
   @Nullable private Settings settings;
   private long initStartTimestampMillis;
+  private final StartupTimeline startupTimeline = new StartupTimeline();
   private FlutterApplicationInfo flutterApplicationInfo;
   private FlutterJNI flutterJNI;
   private ExecutorService executorService;
@@ -152,12 +154,17 @@ public class FlutterLoader {
       this.settings = settings;
 
       initStartTimestampMillis = SystemClock.uptimeMillis();
-      flutterApplicationInfo = ApplicationInfoLoader.load(appContext);
+      try (StartupTimeline.Section s =
+          startupTimeline.begin(StartupTimeline.APPLICATION_INFO_LOAD)) {
+        flutterApplicationInfo = ApplicationInfoLoader.load(appContext);
+      }
 
-      final DisplayManager dm =
-          (DisplayManager) appContext.getSystemService(Context.DISPLAY_SERVICE);
-      VsyncWaiter waiter = VsyncWaiter.getInstance(dm, flutterJNI);
-      waiter.init();
+      try (StartupTimeline.Section s = startupTimeline.begin(StartupTimeline.VSYNC_WAITER_INIT)) {
+        final DisplayManager dm =
+            (DisplayManager) appContext.getSystemService(Context.DISPLAY_SERVICE);
+        VsyncWaiter waiter = VsyncWaiter.getInstance(dm, flutterJNI);
+        waiter.init();
+      }
 
       // Use a background thread for initialization tasks that require disk access.
       Callable<InitResult> initTask =
@@ -165,9 +172,11 @@ public class FlutterLoader {
             @Override
             public InitResult call() {
               try (TraceSection e = TraceSection.scoped("FlutterLoader initTask")) {
+                final long resourceExtractionStartNanos = StartupTimeline.now();
                 ResourceExtractor resourceExtractor = initResources(appContext);
 
-                try {
+                try (StartupTimeline.Section s =
+                    startupTimeline.begin(StartupTimeline.LOAD_LIBRARY)) {
                   flutterJNI.loadLibrary(appContext);
                 } catch (UnsatisfiedLinkError unsatisfiedLinkError) {
                   String couldntFindVersion = "couldn't find \"libflutter.so\"";
@@ -241,10 +250,18 @@ public class FlutterLoader {
 
                 // Prefetch the default font manager as soon as possible on a background thread.
                 // It helps to reduce time cost of engine setup that blocks the platform thread.
-                executorService.execute(() -> flutterJNI.prefetchDefaultFontManager());
+                executorService.execute(
+                    () -> {
+                      try (StartupTimeline.Section s =
+                          startupTimeline.begin(StartupTimeline.PREFETCH_DEFAULT_FONT_MANAGER)) {
+                        flutterJNI.prefetchDefaultFontManager();
+                      }
+                    });
 
                 if (resourceExtractor != null) {
                   resourceExtractor.waitForCompletion();
+                  startupTimeline.record(
+                      StartupTimeline.RESOURCE_EXTRACTION, resourceExtractionStartNanos);
                 }
 
                 return new InitResult(
@@ -296,8 +313,11 @@ public class FlutterLoader {
     }
 
     try (TraceSection e = TraceSection.scoped("FlutterLoader#ensureInitializationComplete")) {
+      final long waitStartNanos = StartupTimeline.now();
       InitResult result = initResultFuture.get();
+      startupTimeline.record(StartupTimeline.WAIT_FOR_INITIALIZATION, waitStartNanos);
 
+      final long shellArgsStartNanos = StartupTimeline.now();
       List<String> shellArgs = new ArrayList<>();
 
       // Add engine flags for which defaults set internally take precedent.
@@ -578,15 +598,18 @@ public class FlutterLoader {
       }
 
       long initTimeMillis = SystemClock.uptimeMillis() - initStartTimestampMillis;
-
-      flutterJNI.init(
-          applicationContext,
-          shellArgs.toArray(new String[0]),
-          kernelPath,
-          result.appStoragePath,
-          result.engineCachesPath,
-          initTimeMillis,
-          Build.VERSION.SDK_INT);
+      startupTimeline.record(StartupTimeline.SHELL_ARGS, shellArgsStartNanos);
+
+      try (StartupTimeline.Section s = startupTimeline.begin(StartupTimeline.FLUTTER_JNI_INIT)) {
+        flutterJNI.init(
+            applicationContext,
+            shellArgs.toArray(new String[0]),
+            kernelPath,
+            result.appStoragePath,
+            result.engineCachesPath,
+            initTimeMillis,
+            Build.VERSION.SDK_INT);
+      }
 
       initialized = true;
     } catch (Exception e) {
@@ -738,6 +761,17 @@ public class FlutterLoader {
     return initialized;
   }
 
+  /**
+   * Returns the phases of the initialization of the native system, recorded as they complete.
+   *
+   * <p>The background phases, such as loading the native library, may still be in progress until
+   * {@link #ensureInitializationComplete} returns.
+   */
+  @NonNull
+  public StartupTimeline getStartupTimeline() {
+    return startupTimeline;
+  }
+
   /** Extract assets out of the APK that need to be cached as uncompressed files on disk. */
   private ResourceExtractor initResources(@NonNull Context applicationContext) {
     ResourceExtractor resourceExtractor = null;
@@ -12,6 +12,7 @@ import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.RectF;
 import android.view.Gravity;
 import android.view.MotionEvent;
 import android.view.View;
@@ -23,6 +24,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import io.flutter.embedding.android.AndroidTouchProcessor;
 import io.flutter.util.ViewUtils;
+import java.util.ArrayList;
 
 /**
  * A view that applies the {@link io.flutter.embedding.engine.mutatorsstack.FlutterMutatorsStack} to
@@ -37,6 +39,20 @@ public class FlutterMutatorView extends FrameLayout {
   private final AndroidTouchProcessor androidTouchProcessor;
   private Paint paint;
 
+  // The mutations of `mutatorsStack`, with the offset of this view reversed. They are only
+  // rebuilt when the view is displayed with a different stack or offset, so that drawing does not
+  // allocate.
+  @Nullable private FlutterMutatorsStack cachedMutatorsStack;
+  private int cachedLeft;
+  private int cachedTop;
+  // The intersection of the clipping paths that are rectangles.
+  private final RectF clipRect = new RectF();
+  private boolean hasClipRect;
+  // The other clipping paths, such as rounded rectangles.
+  private final ArrayList<Path> clipPaths = new ArrayList<>();
+  private final Matrix platformViewMatrix = new Matrix();
+  private final RectF pathBounds = new RectF();
+
   /**
    * Initialize the FlutterMutatorView. Use this to set the screenDensity, which will be used to
    * correct the final transform matrix.
@@ -112,18 +128,15 @@ public class FlutterMutatorView extends FrameLayout {
 
   @Override
   public void draw(Canvas canvas) {
+    updateCachedMutations();
+
     // Apply all clippings on the parent canvas.
     canvas.save();
-    for (Path path : mutatorsStack.getFinalClippingPaths()) {
-      // Reverse the current offset.
-      //
-      // The frame of this view includes the final offset of the bounding rect.
-      // We need to apply all the mutators to the view, which includes the mutation that leads to
-      // the final offset. We should reverse this final offset, both as a translate mutation and to
-      // all the clipping paths
-      Path pathCopy = new Path(path);
-      pathCopy.offset(-left, -top);
-      canvas.clipPath(pathCopy);
+    if (hasClipRect) {
+      canvas.clipRect(clipRect);
+    }
+    for (int i = 0; i < clipPaths.size(); i++) {
+      canvas.clipPath(clipPaths.get(i));
     }
 
     int newAlpha = (int) (255 * mutatorsStack.getFinalOpacity());
@@ -148,16 +161,18 @@ public class FlutterMutatorView extends FrameLayout {
   }
 
   private Matrix getPlatformViewMatrix() {
-    Matrix finalMatrix = new Matrix(mutatorsStack.getFinalMatrix());
+    updateCachedMutations();
+    return platformViewMatrix;
+  }
 
-    // Reverse scale based on screen scale.
-    //
-    // The Android frame is set based on the logical resolution instead of physical.
-    // (https://developer.android.com/training/multiscreen/screendensities).
-    // However, flow is based on the physical resolution. For example, 1000 pixels in flow equals
-    // 500 points in Android. And until this point, we did all the calculation based on the flow
-    // resolution. So we need to scale down to match Android's logical resolution.
-    finalMatrix.preScale(1 / screenDensity, 1 / screenDensity);
+  // Rebuilds the cached clips and matrix if the stack or offset changed since they were built.
+  private void updateCachedMutations() {
+    if (mutatorsStack == cachedMutatorsStack && left == cachedLeft && top == cachedTop) {
+      return;
+    }
+    cachedMutatorsStack = mutatorsStack;
+    cachedLeft = left;
+    cachedTop = top;
 
     // Reverse the current offset.
     //
@@ -165,9 +180,43 @@ public class FlutterMutatorView extends FrameLayout {
     // We need to apply all the mutators to the view, which includes the mutation that leads to
     // the final offset. We should reverse this final offset, both as a translate mutation and to
     // all the clipping paths
-    finalMatrix.postTranslate(-left, -top);
+    hasClipRect = false;
+    int clipPathCount = 0;
+    for (Path path : mutatorsStack.getFinalClippingPaths()) {
+      // Rect clips that were only translated or scaled are still rectangles, which the canvas can
+      // clip to without building a path.
+      if (path.isRect(pathBounds)) {
+        pathBounds.offset(-left, -top);
+        if (!hasClipRect) {
+          clipRect.set(pathBounds);
+          hasClipRect = true;
+        } else if (!clipRect.intersect(pathBounds)) {
+          clipRect.setEmpty();
+        }
+        continue;
+      }
+      if (clipPathCount == clipPaths.size()) {
+        clipPaths.add(new Path());
+      }
+      final Path clipPath = clipPaths.get(clipPathCount++);
+      clipPath.set(path);
+      clipPath.offset(-left, -top);
+    }
+    while (clipPaths.size() > clipPathCount) {
+      clipPaths.remove(clipPaths.size() - 1);
+    }
+
+    platformViewMatrix.set(mutatorsStack.getFinalMatrix());
 
-    return finalMatrix;
+    // Reverse scale based on screen scale.
+    //
+    // The Android frame is set based on the logical resolution instead of physical.
+    // (https://developer.android.com/training/multiscreen/screendensities).
+    // However, flow is based on the physical resolution. For example, 1000 pixels in flow equals
+    // 500 points in Android. And until this point, we did all the calculation based on the flow
+    // resolution. So we need to scale down to match Android's logical resolution.
+    platformViewMatrix.preScale(1 / screenDensity, 1 / screenDensity);
+    platformViewMatrix.postTranslate(-left, -top);
   }
 
   /** Intercept the events here and do not propagate them to the child platform views. */
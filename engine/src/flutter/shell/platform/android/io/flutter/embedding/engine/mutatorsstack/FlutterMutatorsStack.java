@@ -12,13 +12,18 @@ import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * The mutator stack containing a list of mutators
  *
  * <p>The mutators can be applied to a {@link io.flutter.plugin.platform.PlatformView} to perform a
  * series mutations. See {@link FlutterMutatorsStack.FlutterMutator} for informations on Mutators.
+ *
+ * <p>Two stacks are equal if they contain equal mutators in the same order, which lets a platform
+ * view that is displayed with the same mutators as in the previous frame skip its update.
  */
 @Keep
 public class FlutterMutatorsStack {
@@ -148,6 +153,63 @@ public class FlutterMutatorsStack {
     public float getOpacity() {
       return opacity;
     }
+
+    /**
+     * Mutators are equal if they are of the same type and apply the same mutation.
+     *
+     * <p>{@link Path} has no structural equality, so clip path mutators are only equal if they
+     * clip to the same {@link Path} instance.
+     */
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof FlutterMutator)) {
+        return false;
+      }
+      final FlutterMutator other = (FlutterMutator) o;
+      if (type != other.type) {
+        return false;
+      }
+      switch (type) {
+        case CLIP_RECT:
+          return Objects.equals(rect, other.rect);
+        case CLIP_RRECT:
+          return Objects.equals(rect, other.rect) && Arrays.equals(radiis, other.radiis);
+        case CLIP_PATH:
+          return path == other.path;
+        case TRANSFORM:
+          return Objects.equals(matrix, other.matrix);
+        case OPACITY:
+          return Float.compare(opacity, other.opacity) == 0;
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      switch (type) {
+        case CLIP_RECT:
+          return Objects.hash(type, rect);
+        case CLIP_RRECT:
+          return 31 * Objects.hash(type, rect) + Arrays.hashCode(radiis);
+        case CLIP_PATH:
+          return 31 * type.hashCode() + System.identityHashCode(path);
+        case TRANSFORM:
+          // Matrix does not override hashCode, hash its values instead.
+          final float[] values = new float[9];
+          if (matrix != null) {
+            matrix.getValues(values);
+          }
+          return 31 * type.hashCode() + Arrays.hashCode(values);
+        case OPACITY:
+          return 31 * type.hashCode() + Float.hashCode(opacity);
+        default:
+          return type.hashCode();
+      }
+    }
   }
 
   private @NonNull List<FlutterMutator> mutators;
@@ -267,4 +329,21 @@ public class FlutterMutatorsStack {
   public float getFinalOpacity() {
     return finalOpacity;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FlutterMutatorsStack)) {
+      return false;
+    }
+    // The final matrix, clipping paths and opacity are derived from the mutators.
+    return mutators.equals(((FlutterMutatorsStack) o).mutators);
+  }
+
+  @Override
+  public int hashCode() {
+    return mutators.hashCode();
+  }
 }
@@ -0,0 +1,84 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.plugins;
+
+import android.annotation.SuppressLint;
+import androidx.annotation.NonNull;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A {@link FlutterPlugin} that declares how its {@link FlutterPlugin#onAttachedToEngine} may be
+ * scheduled, so that slow attachments do not have to run one after another on the main thread
+ * while a {@link io.flutter.embedding.engine.FlutterEngine} is created.
+ *
+ * <p>Plugins that do not implement this interface are attached on the main thread when they are
+ * added, as before. Whatever the mode, a plugin is attached after its dependencies, and before the
+ * engine calls it as an {@link io.flutter.embedding.engine.plugins.activity.ActivityAware}, {@link
+ * io.flutter.embedding.engine.plugins.service.ServiceAware}, {@link
+ * io.flutter.embedding.engine.plugins.broadcastreceiver.BroadcastReceiverAware} or {@link
+ * io.flutter.embedding.engine.plugins.contentprovider.ContentProviderAware} plugin, or detaches it.
+ */
+public interface ScheduledAttachment {
+  /** How the attachment of a plugin is scheduled. */
+  enum Mode {
+    /** The plugin is attached on the main thread when it is added, like other plugins. */
+    MAIN_THREAD,
+
+    /**
+     * The plugin is attached on a background thread of the Flutter startup executor, concurrently
+     * with the main thread and the other concurrent plugins.
+     *
+     * <p>Its {@link FlutterPlugin#onAttachedToEngine} must be thread-safe: it may only use the
+     * binary messenger of the binding, which is thread-safe, and state of the plugin's own.
+     *
+     * <p>Messages that Dart sends to its {@link #getDeferredChannels()} before it is attached wait
+     * for the attachment on the platform thread, and are then passed to the handler that the
+     * plugin set for the channel. Messages to other channels get no reply until the plugin sets
+     * their handlers.
+     */
+    CONCURRENT,
+
+    /**
+     * The plugin is attached on the main thread when Dart first sends a message to one of its
+     * {@link #getDeferredChannels()}, or earlier if the engine needs it attached.
+     *
+     * <p>The first message is passed to the handler that the plugin sets for the channel on the
+     * platform thread, even if the handler was set with a task queue.
+     */
+    DEFERRED
+  }
+
+  /** @return How the attachment of this plugin is scheduled. */
+  @NonNull
+  Mode getAttachmentMode();
+
+  /**
+   * Returns the plugins that must be attached before this plugin.
+   *
+   * <p>Dependencies that are added to the engine after this plugin are waited for if they are
+   * added in the same batch, such as the plugins of {@code GeneratedPluginRegistrant}. Other
+   * dependencies that are not added to the engine are ignored.
+   */
+  // Default interface methods are supported on all min SDK versions of Android.
+  @SuppressLint("NewApi")
+  @NonNull
+  default Set<Class<? extends FlutterPlugin>> getAttachmentDependencies() {
+    return Collections.emptySet();
+  }
+
+  /**
+   * Returns the channels whose first message attaches a {@link Mode#DEFERRED} plugin, or waits for
+   * a {@link Mode#CONCURRENT} plugin to be attached.
+   *
+   * <p>A deferred plugin without channels is attached when it is added, on the main thread.
+   */
+  // Default interface methods are supported on all min SDK versions of Android.
+  @SuppressLint("NewApi")
+  @NonNull
+  default Set<String> getDeferredChannels() {
+    return Collections.emptySet();
+  }
+}
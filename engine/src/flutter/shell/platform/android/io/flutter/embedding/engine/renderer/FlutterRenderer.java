@@ -6,7 +6,6 @@ package io.flutter.embedding.engine.renderer;
 
 import static io.flutter.Build.API_LEVELS;
 
-import android.content.ComponentCallbacks2;
 import android.graphics.Bitmap;
 import android.graphics.ImageFormat;
 import android.graphics.Rect;
@@ -30,14 +29,16 @@ import io.flutter.view.TextureRegistry;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
-import java.util.ArrayDeque;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents the rendering responsibilities of a {@code FlutterEngine}.
@@ -98,6 +99,10 @@ public class FlutterRenderer implements TextureRegistry {
   @Nullable private Surface surface;
   private boolean isDisplayingFlutterUi = false;
   private final Handler handler = new Handler();
+  @NonNull private final FrameAvailableAggregator frameAvailableAggregator;
+  @NonNull private final SurfaceTexturePool surfaceTexturePool = new SurfaceTexturePool(handler);
+  @NonNull
+  private final ViewportMetricsEncoder viewportMetricsEncoder = new ViewportMetricsEncoder();
 
   @NonNull
   private final Set<WeakReference<TextureRegistry.OnTrimMemoryListener>> onTrimMemoryListeners =
@@ -105,6 +110,15 @@ public class FlutterRenderer implements TextureRegistry {
 
   @NonNull private final List<ImageReaderSurfaceProducer> imageReaderProducers = new ArrayList<>();
 
+  // Posted to `handler` the next time the engine draws a texture, and then cleared.
+  @NonNull
+  private final AtomicReference<Runnable> nextTextureDrawCallback = new AtomicReference<>();
+
+  // The estimated bytes reclaimed by surface producers, indexed by MemoryPressurePolicy.Tier.
+  @NonNull
+  private final AtomicLongArray reclaimedMemoryBytes =
+      new AtomicLongArray(MemoryPressurePolicy.Tier.values().length);
+
   @NonNull
   private final FlutterUiDisplayListener flutterUiDisplayListener =
       new FlutterUiDisplayListener() {
@@ -122,6 +136,47 @@ public class FlutterRenderer implements TextureRegistry {
   public FlutterRenderer(@NonNull FlutterJNI flutterJNI) {
     this.flutterJNI = flutterJNI;
     this.flutterJNI.addIsDisplayingFlutterUiListener(flutterUiDisplayListener);
+    this.frameAvailableAggregator = new FrameAvailableAggregator(flutterJNI, handler);
+  }
+
+  /**
+   * Posts {@code callback} to the main thread after the engine next draws one of the textures of
+   * this renderer into a frame.
+   *
+   * <p>The callback runs once. It replaces the callback set before, if that one didn't run yet.
+   *
+   * @param callback The callback, or null to clear the pending callback.
+   */
+  public void setNextTextureDrawCallback(@Nullable Runnable callback) {
+    nextTextureDrawCallback.set(callback);
+  }
+
+  /**
+   * Returns the {@link System#nanoTime()} at which the engine last drew a texture into a frame, or
+   * 0 if it never did or the texture wasn't created by a {@code FlutterRenderer}.
+   *
+   * <p>The engine draws a texture in every frame in which it's composited, whether or not a new
+   * frame was produced into the texture.
+   *
+   * @param frameStatistics The {@link TextureRegistry.FrameStatistics} of the texture.
+   */
+  public static long getLastDrawNanos(@Nullable TextureRegistry.FrameStatistics frameStatistics) {
+    if (!(frameStatistics instanceof TextureFrameStatistics)) {
+      return 0;
+    }
+    return ((TextureFrameStatistics) frameStatistics).getLastDrawNanos();
+  }
+
+  // Called on the raster thread each time the engine draws a texture into a frame.
+  private void onTextureDrawn(@NonNull TextureFrameStatistics frameStatistics) {
+    frameStatistics.onDrawn();
+    if (nextTextureDrawCallback.get() == null) {
+      return;
+    }
+    final Runnable callback = nextTextureDrawCallback.getAndSet(null);
+    if (callback != null) {
+      handler.post(callback);
+    }
   }
 
   /**
@@ -223,12 +278,25 @@ public class FlutterRenderer implements TextureRegistry {
   @NonNull
   @Override
   public SurfaceProducer createSurfaceProducer(SurfaceLifecycle lifecycle) {
+    return createSurfaceProducer(lifecycle, new SurfaceProducerOptions());
+  }
+
+  /**
+   * Creates and returns a new external texture {@link SurfaceProducer} managed by the Flutter
+   * engine that is also made available to Flutter code, configured with {@code options}.
+   *
+   * <p>The options only apply to producers backed by an {@link ImageReader}, and are ignored on
+   * devices that fall back to a {@link SurfaceTexture}.
+   */
+  @NonNull
+  public SurfaceProducer createSurfaceProducer(
+      @NonNull SurfaceLifecycle lifecycle, @NonNull SurfaceProducerOptions options) {
     final SurfaceProducer entry;
     if (!debugForceSurfaceProducerGlTextures
         && Build.VERSION.SDK_INT >= API_LEVELS.API_29
         && !hasAndroidHardwareBufferDefect()) {
       final long id = nextTextureId.getAndIncrement();
-      final ImageReaderSurfaceProducer producer = new ImageReaderSurfaceProducer(id);
+      final ImageReaderSurfaceProducer producer = new ImageReaderSurfaceProducer(id, options);
       boolean reset = lifecycle == SurfaceLifecycle.resetInBackground;
       registerImageTexture(id, producer, reset);
       if (reset) {
@@ -245,13 +313,145 @@ public class FlutterRenderer implements TextureRegistry {
       // regress), reconsider this pattern.
       final SurfaceTextureEntry texture = createSurfaceTexture();
       final SurfaceTextureSurfaceProducer producer =
-          new SurfaceTextureSurfaceProducer(texture.id(), handler, flutterJNI, texture);
+          new SurfaceTextureSurfaceProducer(
+              texture.id(), handler, flutterJNI, texture, frameAvailableAggregator);
       Log.v(TAG, "New SurfaceTextureSurfaceProducer ID: " + texture.id());
       entry = producer;
     }
     return entry;
   }
 
+  /**
+   * Options for {@link #createSurfaceProducer(SurfaceLifecycle, SurfaceProducerOptions)}.
+   *
+   * <p>A producer allocates the buffers of an {@link ImageReader} for each size it is rendered at.
+   * By default every reader holds up to {@link #DEFAULT_IMAGE_COUNT} images, which suits most
+   * textures. Static or low frame rate textures can use fewer images to save graphics memory, and
+   * high frame rate producers can use more to avoid stalling when the renderer falls behind.
+   */
+  public static final class SurfaceProducerOptions {
+    /** The number of images held by each {@link ImageReader} unless configured otherwise. */
+    public static final int DEFAULT_IMAGE_COUNT = ImageReaderSurfaceProducer.MAX_IMAGES;
+
+    /**
+     * The smallest supported number of images per {@link ImageReader}: the images the renderer may
+     * still be reading from plus the one it is about to release, a single image queued for the
+     * renderer, and the image being acquired.
+     *
+     * <p>Readers with this few images only queue one image, and drop it when the next image
+     * arrives before the renderer dequeued it. This suits static and low frame rate textures.
+     * Readers with more images queue up to two. With fewer images, {@link
+     * ImageReader#acquireLatestImage()} fails at peak usage and the producer stops delivering
+     * frames.
+     */
+    public static final int MIN_IMAGE_COUNT =
+        ImageReaderSurfaceProducer.MAX_DEQUEUED_IMAGES
+            + 1
+            + ImageReaderSurfaceProducer.MIN_QUEUED_IMAGES
+            + 1;
+
+    private int minImageCount = DEFAULT_IMAGE_COUNT;
+    private int maxImageCount = DEFAULT_IMAGE_COUNT;
+    private boolean adaptiveImageCount = false;
+    @NonNull private MemoryPressurePolicy memoryPressurePolicy = MemoryPressurePolicy.DEFAULT;
+    private boolean skipUnsignaledImages = false;
+
+    /**
+     * Uses {@code imageCount} images for every {@link ImageReader}.
+     *
+     * @throws IllegalArgumentException if {@code imageCount} is less than {@link
+     *     #MIN_IMAGE_COUNT}.
+     */
+    @NonNull
+    public SurfaceProducerOptions setImageCount(int imageCount) {
+      checkImageCount(imageCount);
+      this.minImageCount = imageCount;
+      this.maxImageCount = imageCount;
+      this.adaptiveImageCount = false;
+      return this;
+    }
+
+    /**
+     * Adapts the number of images of each new {@link ImageReader} to the rate at which images are
+     * produced and consumed, between {@code minImageCount} and {@code maxImageCount}.
+     *
+     * <p>Low frame rate producers use {@code minImageCount} images. Producers that outrun the
+     * renderer, and drop images as a result, use {@code maxImageCount} images. Everything else uses
+     * {@link #DEFAULT_IMAGE_COUNT} images, clamped to the given range.
+     *
+     * <p>Changing the number of images creates a new {@link ImageReader}, and thereby a new {@link
+     * Surface}. A new image count only takes effect the next time {@link
+     * SurfaceProducer#getSurface()} is called, so only opt in if the producer calls it for every
+     * frame rather than caching the surface.
+     *
+     * @throws IllegalArgumentException if {@code minImageCount} is less than {@link
+     *     #MIN_IMAGE_COUNT}, or greater than {@code maxImageCount}.
+     */
+    @NonNull
+    public SurfaceProducerOptions setAdaptiveImageCount(int minImageCount, int maxImageCount) {
+      checkImageCount(minImageCount);
+      if (maxImageCount < minImageCount) {
+        throw new IllegalArgumentException(
+            "maxImageCount (" + maxImageCount + ") must be at least " + minImageCount);
+      }
+      this.minImageCount = minImageCount;
+      this.maxImageCount = maxImageCount;
+      this.adaptiveImageCount = true;
+      return this;
+    }
+
+    public int getMinImageCount() {
+      return minImageCount;
+    }
+
+    public int getMaxImageCount() {
+      return maxImageCount;
+    }
+
+    public boolean isAdaptiveImageCount() {
+      return adaptiveImageCount;
+    }
+
+    /**
+     * Sets how the producer responds to memory pressure. Defaults to {@link
+     * MemoryPressurePolicy#DEFAULT}.
+     */
+    @NonNull
+    public SurfaceProducerOptions setMemoryPressurePolicy(@NonNull MemoryPressurePolicy policy) {
+      this.memoryPressurePolicy = policy;
+      return this;
+    }
+
+    @NonNull
+    public MemoryPressurePolicy getMemoryPressurePolicy() {
+      return memoryPressurePolicy;
+    }
+
+    /**
+     * Sets whether the renderer skips images that the producer has not finished writing, instead
+     * of waiting on their fences. Defaults to false.
+     *
+     * <p>A skipped image is drawn in a later frame, and the texture keeps showing the previous
+     * image until then. See {@link ImageTextureEntry#setSkipUnsignaledImages(boolean)}.
+     */
+    @NonNull
+    public SurfaceProducerOptions setSkipUnsignaledImages(boolean skip) {
+      this.skipUnsignaledImages = skip;
+      return this;
+    }
+
+    public boolean getSkipUnsignaledImages() {
+      return skipUnsignaledImages;
+    }
+
+    private static void checkImageCount(int imageCount) {
+      if (imageCount < MIN_IMAGE_COUNT) {
+        throw new IllegalArgumentException(
+            "imageCount (" + imageCount + ") must be at least " + MIN_IMAGE_COUNT);
+      }
+    }
+  }
+
   /**
    * Creates and returns a new {@link SurfaceTexture} managed by the Flutter engine that is also
    * made available to Flutter code.
@@ -259,9 +459,58 @@ public class FlutterRenderer implements TextureRegistry {
   @NonNull
   @Override
   public SurfaceTextureEntry createSurfaceTexture() {
-    Log.v(TAG, "Creating a SurfaceTexture.");
-    final SurfaceTexture surfaceTexture = new SurfaceTexture(0);
-    return registerSurfaceTexture(surfaceTexture);
+    SurfaceTextureWrapper textureWrapper = surfaceTexturePool.acquire();
+    if (textureWrapper == null) {
+      Log.v(TAG, "Creating a SurfaceTexture.");
+      final SurfaceTexture surfaceTexture = new SurfaceTexture(0);
+      surfaceTexture.detachFromGLContext();
+      textureWrapper = new SurfaceTextureWrapper(surfaceTexture);
+    } else {
+      Log.v(TAG, "Reusing a pooled SurfaceTexture.");
+    }
+    return registerSurfaceTexture(
+        nextTextureId.getAndIncrement(), textureWrapper, /*recyclable=*/ true);
+  }
+
+  /**
+   * Sets how many {@link SurfaceTexture}s of released entries are kept for reuse by {@link
+   * #createSurfaceTexture()}, which also backs {@link SurfaceTextureSurfaceProducer}s. Defaults to
+   * 0, which disables the pool.
+   *
+   * <p>Pooling avoids allocating a new {@link SurfaceTexture} for textures that are frequently
+   * recreated, such as the videos of a scrolling feed. A reused texture gets a new ID, and keeps
+   * showing the last frame of its previous entry until a new frame is produced. A {@link
+   * SurfaceTexture} accepts a single producer at a time, so only enable pooling if producers
+   * disconnect from a texture, for example by releasing their {@link Surface}, before the entry is
+   * released. A released texture is only reused once the engine has detached it from its GL
+   * texture, which happens on the raster thread after the entry is unregistered.
+   *
+   * <p>Idle textures are released after {@link SurfaceTexturePool#IDLE_TIMEOUT_MILLIS}. Half of
+   * them are released at {@link android.content.ComponentCallbacks2#TRIM_MEMORY_RUNNING_LOW}, and
+   * all of them from {@link android.content.ComponentCallbacks2#TRIM_MEMORY_RUNNING_CRITICAL}.
+   *
+   * @throws IllegalArgumentException if {@code capacity} is negative.
+   */
+  public void setSurfaceTexturePoolCapacity(int capacity) {
+    surfaceTexturePool.setCapacity(capacity);
+  }
+
+  /** @return The number of {@link #createSurfaceTexture()} calls that reused a pooled texture. */
+  public long getSurfaceTexturePoolHitCount() {
+    return surfaceTexturePool.getHitCount();
+  }
+
+  /**
+   * @return The number of {@link #createSurfaceTexture()} calls that found no detached texture in
+   *     the enabled pool.
+   */
+  public long getSurfaceTexturePoolMissCount() {
+    return surfaceTexturePool.getMissCount();
+  }
+
+  /** @return The number of pooled textures released without being reused. */
+  public long getSurfaceTexturePoolEvictionCount() {
+    return surfaceTexturePool.getEvictionCount();
   }
 
   /**
@@ -285,8 +534,16 @@ public class FlutterRenderer implements TextureRegistry {
   private SurfaceTextureEntry registerSurfaceTexture(
       long textureId, @NonNull SurfaceTexture surfaceTexture) {
     surfaceTexture.detachFromGLContext();
+    return registerSurfaceTexture(
+        textureId, new SurfaceTextureWrapper(surfaceTexture), /*recyclable=*/ false);
+  }
+
+  // Textures are only recyclable if they were created by this renderer.
+  @NonNull
+  private SurfaceTextureEntry registerSurfaceTexture(
+      long textureId, @NonNull SurfaceTextureWrapper textureWrapper, boolean recyclable) {
     final SurfaceTextureRegistryEntry entry =
-        new SurfaceTextureRegistryEntry(textureId, surfaceTexture);
+        new SurfaceTextureRegistryEntry(textureId, textureWrapper, recyclable);
     Log.v(TAG, "New SurfaceTexture ID: " + entry.id());
     registerTexture(entry.id(), entry.textureWrapper());
     addOnTrimMemoryListener(entry);
@@ -305,6 +562,7 @@ public class FlutterRenderer implements TextureRegistry {
 
   @Override
   public void onTrimMemory(int level) {
+    surfaceTexturePool.onTrimMemory(level);
     final Iterator<WeakReference<OnTrimMemoryListener>> iterator = onTrimMemoryListeners.iterator();
     while (iterator.hasNext()) {
       WeakReference<OnTrimMemoryListener> listenerRef = iterator.next();
@@ -318,23 +576,36 @@ public class FlutterRenderer implements TextureRegistry {
     }
   }
 
+  /**
+   * Returns an estimate of the graphics memory that surface producers reclaimed with responses of
+   * the given {@code tier} to memory pressure, since this renderer was created.
+   */
+  public long getReclaimedMemoryBytes(@NonNull MemoryPressurePolicy.Tier tier) {
+    return reclaimedMemoryBytes.get(tier.ordinal());
+  }
+
   final class SurfaceTextureRegistryEntry
       implements TextureRegistry.SurfaceTextureEntry, TextureRegistry.OnTrimMemoryListener {
     private final long id;
     @NonNull private final SurfaceTextureWrapper textureWrapper;
+    // Whether the texture can be returned to the pool on release.
+    private final boolean recyclable;
     private boolean released;
     @Nullable private OnTrimMemoryListener trimMemoryListener;
     @Nullable private OnFrameConsumedListener frameConsumedListener;
 
-    SurfaceTextureRegistryEntry(long id, @NonNull SurfaceTexture surfaceTexture) {
+    SurfaceTextureRegistryEntry(
+        long id, @NonNull SurfaceTextureWrapper textureWrapper, boolean recyclable) {
       this.id = id;
+      this.recyclable = recyclable;
       Runnable onFrameConsumed =
           () -> {
             if (frameConsumedListener != null) {
               frameConsumedListener.onFrameConsumed();
             }
           };
-      this.textureWrapper = new SurfaceTextureWrapper(surfaceTexture, onFrameConsumed);
+      this.textureWrapper = textureWrapper;
+      textureWrapper.reset(onFrameConsumed);
 
       // Even though we make sure to unregister the callback before releasing, as of
       // Android O, SurfaceTexture has a data race when accessing the callback, so the
@@ -392,10 +663,16 @@ public class FlutterRenderer implements TextureRegistry {
         return;
       }
       Log.v(TAG, "Releasing a SurfaceTexture (" + id + ").");
-      textureWrapper.release();
+      released = true;
+      if (recyclable) {
+        surfaceTexture().setOnFrameAvailableListener(null);
+        textureWrapper.reset(null);
+      }
+      if (!recyclable || !surfaceTexturePool.offer(textureWrapper)) {
+        textureWrapper.release();
+      }
       unregisterTexture(id);
       removeListener();
-      released = true;
     }
 
     @Override
@@ -422,6 +699,17 @@ public class FlutterRenderer implements TextureRegistry {
     }
   }
 
+  // Returns whether the GPU finished writing the image, without blocking.
+  @RequiresApi(API_LEVELS.API_33)
+  private static boolean isFenceSignaled(@NonNull Image image) {
+    try (SyncFence fence = image.getFence()) {
+      return !fence.isValid() || fence.await(Duration.ZERO);
+    } catch (IOException e) {
+      // Drop.
+      return true;
+    }
+  }
+
   static final class TextureFinalizerRunnable implements Runnable {
     private final long id;
     private final FlutterJNI flutterJNI;
@@ -460,6 +748,14 @@ public class FlutterRenderer implements TextureRegistry {
     // tearing or other incorrect rendering.
     private static final int MAX_DEQUEUED_IMAGES = 2;
     private static final int MAX_IMAGES = 5 + MAX_DEQUEUED_IMAGES;
+    // The number of images queued per ImageReader before the oldest one is dropped. Readers with
+    // fewer images than MAX_IMAGES may queue fewer images, see queuedImageCount.
+    private static final int MIN_QUEUED_IMAGES = 1;
+    private static final int MAX_QUEUED_IMAGES = 2;
+    // The time over which images are observed before the image count is adapted.
+    private static final long ADAPTATION_WINDOW_NANOS = 1000000000L;
+    // Producers that queue images less often than this use the minimum image count.
+    private static final long LOW_FRAME_RATE_INTERVAL_NANOS = 100000000L;
 
     // Flip when debugging to see verbose logs.
     private static final boolean VERBOSE_LOGS = false;
@@ -470,7 +766,8 @@ public class FlutterRenderer implements TextureRegistry {
 
     private final long id;
 
-    private boolean released;
+    // Read on the thread that delivers images as well as on the raster thread.
+    private volatile boolean released;
     // Will be true in tests and on Android API < 33.
     private boolean ignoringFence = false;
 
@@ -483,7 +780,7 @@ public class FlutterRenderer implements TextureRegistry {
     // create a new ImageReader (inside getSurface) with the correct width and height.
     // We use this flag so that we lazily create the ImageReader only when a frame
     // will be produced at that size.
-    private boolean createNewReader = true;
+    private volatile boolean createNewReader = true;
 
     /**
      * Stores whether {@link Callback#onSurfaceCleanup()} ()} was previously invoked.
@@ -492,18 +789,45 @@ public class FlutterRenderer implements TextureRegistry {
      */
     @VisibleForTesting boolean notifiedDestroy = false;
 
-    // State held to track latency of various stages.
+    // State held to track latency of various stages. lastQueueTime is only accessed on the thread
+    // that delivers images, and lastDequeueTime on the raster thread.
     private long lastDequeueTime = 0;
     private long lastQueueTime = 0;
     private long lastScheduleTime = 0;
-    private int numTrims = 0;
 
-    private final Object lock = new Object();
-    // REQUIRED: The following fields must only be accessed when lock is held.
-    private final ArrayDeque<PerImageReader> imageReaderQueue = new ArrayDeque<>();
-    private final HashMap<ImageReader, PerImageReader> perImageReaders = new HashMap<>();
-    private ArrayList<PerImage> lastDequeuedImage = new ArrayList<PerImage>();
+    private final TextureFrameStatistics frameStatistics = new TextureFrameStatistics();
+
+    // The number of images of the ImageReaders created from now on, see SurfaceProducerOptions.
+    private final int minImageCount;
+    private final int maxImageCount;
+    private final boolean adaptiveImageCount;
+    private volatile int imageCount;
+    private final MemoryPressurePolicy memoryPressurePolicy;
+    private final boolean skipUnsignaledImages;
+    // Moving averages of the intervals between queued images and between dequeued images.
+    private volatile long averageQueueInterval = 0;
+    private volatile long averageDequeueInterval = 0;
+    // The start of the current adaptation window and the images dropped during it. Only accessed
+    // on the thread that delivers images.
+    private long adaptationWindowStart = 0;
+    private int droppedImagesInWindow = 0;
+
+    // The ImageReaders that may still have queued images, oldest first. The array is replaced
+    // rather than modified, so that it can be read without locking while readers are added on the
+    // platform thread and pruned on the raster thread.
+    private final AtomicReference<PerImageReader[]> imageReaders =
+        new AtomicReference<>(new PerImageReader[0]);
+
+    // Only contended when the producer is cleaned up while the raster thread is dequeuing an image.
+    // Queueing images never takes this lock.
+    private final Object dequeueLock = new Object();
+    private final Object activeReaderLock = new Object();
+    // REQUIRED: The following fields must only be accessed when dequeueLock is held.
+    private final ArrayList<PerImage> lastDequeuedImage = new ArrayList<PerImage>();
     private PerImageReader lastReaderDequeuedFrom = null;
+    // A dequeued image that was skipped because its fence had not signaled, and is acquired again
+    // before the next image is dequeued.
+    @Nullable private PerImage unsignaledImage = null;
 
     @VisibleForTesting Callback callback = null;
 
@@ -521,8 +845,13 @@ public class FlutterRenderer implements TextureRegistry {
     /** Internal class: state held per ImageReader. */
     private class PerImageReader {
       public final ImageReader reader;
-      private final ArrayDeque<PerImage> imageQueue = new ArrayDeque<>();
-      private boolean closed = false;
+      // Images are queued on the thread that delivers them, and dequeued on the raster thread.
+      private final FrameQueue<PerImage> imageQueue =
+          new FrameQueue<>(queuedImageCount(imageCount));
+      private volatile boolean closed = false;
+      // An upper bound of the buffers the reader allocated, which grows with every acquired image
+      // until buffers are discarded. Only accessed on the platform thread.
+      private int allocatedBuffers = 0;
 
       public PerImageReader(ImageReader reader) {
         this.reader = reader;
@@ -537,11 +866,14 @@ public class FlutterRenderer implements TextureRegistry {
               if (image == null) {
                 return;
               }
+              allocatedBuffers = Math.min(allocatedBuffers + 1, reader.getMaxImages());
+              frameStatistics.onFrameProduced();
               if (released || closed) {
+                frameStatistics.onFrameDroppedLate();
                 image.close();
                 return;
               }
-              onImage(r, image);
+              onImage(this, image);
             };
         reader.setOnImageAvailableListener(
             onImageAvailableListener, new Handler(Looper.getMainLooper()));
@@ -552,23 +884,26 @@ public class FlutterRenderer implements TextureRegistry {
           return null;
         }
         PerImage perImage = new PerImage(image, System.nanoTime());
-        imageQueue.add(perImage);
         // If we fall too far behind we will skip some frames.
-        while (imageQueue.size() > 2) {
-          PerImage r = imageQueue.removeFirst();
+        PerImage r = imageQueue.offer(perImage);
+        if (r != null) {
+          droppedImagesInWindow++;
+          frameStatistics.onFrameDroppedOverwritten();
           if (VERBOSE_LOGS) {
             Log.i(TAG, reader.hashCode() + " force closed image=" + r.image.hashCode());
           }
           r.image.close();
         }
+        if (closed) {
+          // The reader was pruned while the image was queued.
+          imageQueue.clear();
+          return null;
+        }
         return perImage;
       }
 
       PerImage dequeueImage() {
-        if (imageQueue.isEmpty()) {
-          return null;
-        }
-        return imageQueue.removeFirst();
+        return imageQueue.poll();
       }
 
       /** returns true if we can prune this reader */
@@ -580,6 +915,39 @@ public class FlutterRenderer implements TextureRegistry {
         return imageQueue.isEmpty();
       }
 
+      long estimatedBytes() {
+        // PRIVATE images are assumed to use 4 bytes per pixel.
+        return 4L * reader.getWidth() * reader.getHeight() * allocatedBuffers;
+      }
+
+      // Closes the queued images, keeping the newest {@code keep} ones. Must be called on the
+      // platform thread with dequeueLock held.
+      void dropQueuedImages(int keep) {
+        while (imageQueue.size() > keep) {
+          PerImage dropped = imageQueue.poll();
+          if (dropped == null) {
+            break;
+          }
+          dropped.image.close();
+          frameStatistics.onFrameDroppedOverwritten();
+        }
+      }
+
+      // Frees the buffers that hold no image, and returns the estimated bytes freed. Must be called
+      // on the platform thread with dequeueLock held.
+      long discardFreeBuffers() {
+        int inUse = imageQueue.size();
+        if (lastReaderDequeuedFrom == this) {
+          inUse += lastDequeuedImage.size();
+        }
+        final long before = estimatedBytes();
+        if (Build.VERSION.SDK_INT >= API_LEVELS.API_28) {
+          reader.discardFreeBuffers();
+        }
+        allocatedBuffers = Math.min(allocatedBuffers, inUse);
+        return before - estimatedBytes();
+      }
+
       void close() {
         closed = true;
         if (VERBOSE_LOGS) {
@@ -590,21 +958,30 @@ public class FlutterRenderer implements TextureRegistry {
       }
     }
 
+    // Returns how many images a reader with imageCount images can queue: the images that are left
+    // once the renderer holds all the images it may be reading from, releasing or acquiring.
+    static int queuedImageCount(int imageCount) {
+      return Math.max(
+          MIN_QUEUED_IMAGES, Math.min(MAX_QUEUED_IMAGES, imageCount - MAX_DEQUEUED_IMAGES - 2));
+    }
+
     double deltaMillis(long deltaNanos) {
       return (double) deltaNanos / 1000000.0;
     }
 
-    private PerImageReader getOrCreatePerImageReader(ImageReader reader) {
-      PerImageReader r = perImageReaders.get(reader);
-      if (r == null) {
-        r = createPerImageReader(reader);
-        perImageReaders.put(reader, r);
-        imageReaderQueue.add(r);
-        if (VERBOSE_LOGS) {
-          Log.i(TAG, "imageReaderQueue#=" + imageReaderQueue.size());
+    private PerImageReader addPerImageReader(ImageReader reader) {
+      PerImageReader r = createPerImageReader(reader);
+      while (true) {
+        PerImageReader[] readers = imageReaders.get();
+        PerImageReader[] newReaders = Arrays.copyOf(readers, readers.length + 1);
+        newReaders[readers.length] = r;
+        if (imageReaders.compareAndSet(readers, newReaders)) {
+          if (VERBOSE_LOGS) {
+            Log.i(TAG, "imageReaderQueue#=" + newReaders.length);
+          }
+          return r;
         }
       }
-      return r;
     }
 
     @VisibleForTesting
@@ -612,68 +989,136 @@ public class FlutterRenderer implements TextureRegistry {
       return new PerImageReader(reader);
     }
 
-    void pruneImageReaderQueue() {
-      boolean change = false;
-      // Prune nodes from the head of the ImageReader queue.
-      while (imageReaderQueue.size() > 1) {
-        PerImageReader r = imageReaderQueue.peekFirst();
-        if (r == null || !r.canPrune()) {
-          // No more ImageReaders can be pruned this round.
-          break;
+    // Must be called with dequeueLock held. Returns the estimated bytes of the pruned readers.
+    long pruneImageReaderQueue() {
+      while (true) {
+        PerImageReader[] readers = imageReaders.get();
+        // Prune nodes from the head of the ImageReader queue.
+        int pruned = 0;
+        while (readers.length - pruned > 1 && readers[pruned].canPrune()) {
+          pruned++;
+        }
+        if (pruned == 0) {
+          // No ImageReaders can be pruned this round.
+          return 0;
+        }
+        // Fails if a new reader was added concurrently, in which case pruning is retried.
+        if (imageReaders.compareAndSet(
+            readers, Arrays.copyOfRange(readers, pruned, readers.length))) {
+          long prunedBytes = 0;
+          for (int i = 0; i < pruned; i++) {
+            prunedBytes += readers[i].estimatedBytes();
+            readers[i].close();
+          }
+          if (VERBOSE_LOGS) {
+            Log.i(TAG, "Pruned image reader queue length=" + (readers.length - pruned));
+          }
+          return prunedBytes;
         }
-        imageReaderQueue.removeFirst();
-        perImageReaders.remove(r.reader);
-        r.close();
-        change = true;
-      }
-      if (change && VERBOSE_LOGS) {
-        Log.i(TAG, "Pruned image reader queue length=" + imageReaderQueue.size());
       }
     }
 
-    void onImage(ImageReader reader, Image image) {
-      PerImage queuedImage;
-      synchronized (lock) {
-        PerImageReader perReader = getOrCreatePerImageReader(reader);
-        queuedImage = perReader.queueImage(image);
-      }
+    void onImage(PerImageReader perReader, Image image) {
+      PerImage queuedImage = perReader.queueImage(image);
       if (queuedImage == null) {
         // We got a late image.
+        frameStatistics.onFrameDroppedLate();
         return;
       }
-      if (VERBOSE_LOGS) {
-        if (lastQueueTime != 0) {
-          long now = System.nanoTime();
-          long queueDelta = now - lastQueueTime;
+      final long now = queuedImage.queuedTime;
+      if (lastQueueTime != 0) {
+        long queueDelta = now - lastQueueTime;
+        averageQueueInterval = movingAverage(averageQueueInterval, queueDelta);
+        if (VERBOSE_LOGS) {
           Log.i(
               TAG,
-              reader.hashCode()
+              perReader.reader.hashCode()
                   + " enqueued image="
                   + queuedImage.image.hashCode()
                   + " queueDelta="
                   + deltaMillis(queueDelta));
-          lastQueueTime = now;
-        } else {
-          lastQueueTime = System.nanoTime();
         }
       }
+      lastQueueTime = now;
+      maybeAdaptImageCount(now);
       scheduleEngineFrame();
     }
 
+    private long movingAverage(long average, long sample) {
+      return average == 0 ? sample : average + (sample - average) / 8;
+    }
+
+    // Called on the thread that delivers images. A new image count takes effect the next time a
+    // Surface is requested, which creates a new ImageReader.
+    private void maybeAdaptImageCount(long now) {
+      if (!adaptiveImageCount) {
+        return;
+      }
+      if (adaptationWindowStart == 0) {
+        adaptationWindowStart = now;
+        return;
+      }
+      if (now - adaptationWindowStart < ADAPTATION_WINDOW_NANOS) {
+        return;
+      }
+      final int newImageCount =
+          selectImageCount(averageQueueInterval, averageDequeueInterval, droppedImagesInWindow);
+      adaptationWindowStart = now;
+      droppedImagesInWindow = 0;
+      if (newImageCount == imageCount) {
+        return;
+      }
+      if (VERBOSE_LOGS) {
+        Log.i(TAG, "Adapting image count from " + imageCount + " to " + newImageCount);
+      }
+      imageCount = newImageCount;
+      createNewReader = true;
+    }
+
+    /**
+     * Returns the number of images that ImageReaders should have given the average intervals
+     * between queued and dequeued images, and the number of images dropped, during the last
+     * adaptation window.
+     */
+    @VisibleForTesting
+    int selectImageCount(long queueInterval, long dequeueInterval, int droppedImages) {
+      // The renderer is falling behind the producer, so give it more room.
+      if (droppedImages > 0 || (dequeueInterval > 0 && queueInterval * 5 < dequeueInterval * 4)) {
+        return maxImageCount;
+      }
+      // Few images are produced, so most buffers would sit idle.
+      if (queueInterval >= LOW_FRAME_RATE_INTERVAL_NANOS) {
+        return minImageCount;
+      }
+      return Math.max(
+          minImageCount, Math.min(maxImageCount, SurfaceProducerOptions.DEFAULT_IMAGE_COUNT));
+    }
+
     PerImage dequeueImage() {
       PerImage r = null;
       boolean hasPendingImages = false;
-      synchronized (lock) {
-        for (PerImageReader reader : imageReaderQueue) {
+      synchronized (dequeueLock) {
+        // A single pass over the readers both dequeues the oldest image, and finds out whether
+        // there are more images to consume.
+        for (PerImageReader reader : imageReaders.get()) {
+          if (r != null) {
+            if (!reader.imageQueueIsEmpty()) {
+              hasPendingImages = true;
+              break;
+            }
+            continue;
+          }
           r = reader.dequeueImage();
           if (r == null) {
             // This reader is probably about to get pruned.
             continue;
           }
-          if (VERBOSE_LOGS) {
-            if (lastDequeueTime != 0) {
-              long now = System.nanoTime();
-              long dequeueDelta = now - lastDequeueTime;
+          final long now = System.nanoTime();
+          frameStatistics.onFrameConsumed(now - r.queuedTime);
+          if (lastDequeueTime != 0) {
+            long dequeueDelta = now - lastDequeueTime;
+            averageDequeueInterval = movingAverage(averageDequeueInterval, dequeueDelta);
+            if (VERBOSE_LOGS) {
               long queuedFor = now - r.queuedTime;
               long scheduleDelay = now - lastScheduleTime;
               Log.i(
@@ -687,11 +1132,9 @@ public class FlutterRenderer implements TextureRegistry {
                       + deltaMillis(dequeueDelta)
                       + " scheduleDelay="
                       + deltaMillis(scheduleDelay));
-              lastDequeueTime = now;
-            } else {
-              lastDequeueTime = System.nanoTime();
             }
           }
+          lastDequeueTime = now;
           while (lastDequeuedImage.size() > MAX_DEQUEUED_IMAGES) {
             // We must keep the last image dequeued open until we are done presenting
             // it. We have just dequeued a new image (r). Close the previously dequeued
@@ -712,15 +1155,12 @@ public class FlutterRenderer implements TextureRegistry {
           // keep both of these alive until we are done presenting the image.
           lastDequeuedImage.add(r);
           lastReaderDequeuedFrom = reader;
-          break;
-        }
-        pruneImageReaderQueue();
-        for (PerImageReader reader : imageReaderQueue) {
           if (!reader.imageQueueIsEmpty()) {
             hasPendingImages = true;
             break;
           }
         }
+        pruneImageReaderQueue();
       }
       if (hasPendingImages) {
         // Request another frame to ensure that images are consumed until the queue is empty.
@@ -735,23 +1175,71 @@ public class FlutterRenderer implements TextureRegistry {
     }
 
     @Override
-    @SuppressWarnings({"deprecation", "removal"})
     public void onTrimMemory(int level) {
       if (!trimOnMemoryPressure) {
         return;
       }
-      if (level < ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
-        return;
+      final MemoryPressurePolicy.Tier tier = memoryPressurePolicy.selectTier(level);
+      final long reclaimedBytes;
+      switch (tier) {
+        case SHRINK_QUEUE:
+          reclaimedBytes = shrinkQueues();
+          break;
+        case DROP_OLD_READERS:
+          reclaimedBytes = dropOldReaders();
+          break;
+        case RELEASE_ALL:
+          reclaimedBytes = releaseAllReaders();
+          break;
+        default:
+          return;
+      }
+      if (VERBOSE_LOGS) {
+        Log.i(TAG, "onTrimMemory level=" + level + " tier=" + tier + " bytes=" + reclaimedBytes);
+      }
+      reclaimedMemoryBytes.addAndGet(tier.ordinal(), reclaimedBytes);
+      memoryPressurePolicy.onMemoryReclaimed(tier, reclaimedBytes);
+    }
+
+    // Keeps the newest image of every reader, and frees the buffers of the others.
+    private long shrinkQueues() {
+      long reclaimedBytes = 0;
+      synchronized (dequeueLock) {
+        for (PerImageReader reader : imageReaders.get()) {
+          reader.dropQueuedImages(1);
+          reclaimedBytes += reader.discardFreeBuffers();
+        }
       }
-      synchronized (lock) {
-        numTrims++;
+      return reclaimedBytes;
+    }
+
+    // Closes every reader but the newest one, unless the renderer still holds its last image.
+    private long dropOldReaders() {
+      long reclaimedBytes = 0;
+      synchronized (dequeueLock) {
+        PerImageReader[] readers = imageReaders.get();
+        for (int i = 0; i < readers.length - 1; i++) {
+          readers[i].dropQueuedImages(0);
+        }
+        reclaimedBytes += pruneImageReaderQueue();
       }
+      return reclaimedBytes + shrinkQueues();
+    }
+
+    @SuppressWarnings({"deprecation", "removal"})
+    private long releaseAllReaders() {
+      frameStatistics.onTrim();
       if (this.callback != null) {
         notifiedDestroy = true;
         this.callback.onSurfaceCleanup();
       }
+      long reclaimedBytes = 0;
+      for (PerImageReader reader : imageReaders.get()) {
+        reclaimedBytes += reader.estimatedBytes();
+      }
       cleanup();
       createNewReader = true;
+      return reclaimedBytes;
     }
 
     private void releaseInternal() {
@@ -762,14 +1250,13 @@ public class FlutterRenderer implements TextureRegistry {
     }
 
     private void cleanup() {
-      synchronized (lock) {
-        for (PerImageReader pir : perImageReaders.values()) {
+      synchronized (dequeueLock) {
+        for (PerImageReader pir : imageReaders.getAndSet(new PerImageReader[0])) {
           if (lastReaderDequeuedFrom == pir) {
             lastReaderDequeuedFrom = null;
           }
           pir.close();
         }
-        perImageReaders.clear();
         if (lastDequeuedImage.size() > 0) {
           for (PerImage image : lastDequeuedImage) {
             image.image.close();
@@ -780,7 +1267,7 @@ public class FlutterRenderer implements TextureRegistry {
           lastReaderDequeuedFrom.close();
           lastReaderDequeuedFrom = null;
         }
-        imageReaderQueue.clear();
+        unsignaledImage = null;
       }
     }
 
@@ -803,7 +1290,9 @@ public class FlutterRenderer implements TextureRegistry {
       }
       if (Build.VERSION.SDK_INT >= API_LEVELS.API_33) {
         // The fence API is only available on Android >= 33.
+        final long start = System.nanoTime();
         waitOnFence(image);
+        frameStatistics.onFenceWait(System.nanoTime() - start);
         return;
       }
       // Log once per ImageTextureEntry.
@@ -811,8 +1300,17 @@ public class FlutterRenderer implements TextureRegistry {
       Log.d(TAG, "ImageTextureEntry can't wait on the fence on Android < 33");
     }
 
-    ImageReaderSurfaceProducer(long id) {
+    ImageReaderSurfaceProducer(long id, @NonNull SurfaceProducerOptions options) {
       this.id = id;
+      this.minImageCount = options.getMinImageCount();
+      this.maxImageCount = options.getMaxImageCount();
+      this.adaptiveImageCount = options.isAdaptiveImageCount();
+      this.memoryPressurePolicy = options.getMemoryPressurePolicy();
+      this.skipUnsignaledImages = options.getSkipUnsignaledImages();
+      this.imageCount =
+          adaptiveImageCount
+              ? Math.max(minImageCount, Math.min(maxImageCount, MAX_IMAGES))
+              : minImageCount;
     }
 
     @Override
@@ -825,6 +1323,12 @@ public class FlutterRenderer implements TextureRegistry {
       return false;
     }
 
+    @Override
+    @NonNull
+    public TextureRegistry.FrameStatistics getFrameStatistics() {
+      return frameStatistics;
+    }
+
     @Override
     public long id() {
       return id;
@@ -895,6 +1399,11 @@ public class FlutterRenderer implements TextureRegistry {
     @Override
     @RequiresApi(API_LEVELS.API_29)
     public Image acquireLatestImage() {
+      // The engine acquires the latest image each time it draws the texture into a frame.
+      onTextureDrawn(frameStatistics);
+      if (skipUnsignaledImages && !ignoringFence && Build.VERSION.SDK_INT >= API_LEVELS.API_33) {
+        return acquireSignaledImage();
+      }
       PerImage r = dequeueImage();
       if (r == null) {
         return null;
@@ -903,11 +1412,51 @@ public class FlutterRenderer implements TextureRegistry {
       return r.image;
     }
 
+    // Acquires the next image if its fence has signaled, without blocking.
+    @RequiresApi(API_LEVELS.API_33)
+    @Nullable
+    private Image acquireSignaledImage() {
+      PerImage r;
+      synchronized (dequeueLock) {
+        r = unsignaledImage;
+        unsignaledImage = null;
+      }
+      if (r == null) {
+        r = dequeueImage();
+      }
+      if (r == null) {
+        return null;
+      }
+      synchronized (dequeueLock) {
+        // The images are closed when the producer is cleaned up.
+        if (!lastDequeuedImage.contains(r)) {
+          return null;
+        }
+        if (isFenceSignaled(r.image)) {
+          return r.image;
+        }
+        // Keep the image open and in the queue order. No other image is dequeued until this one
+        // has been acquired, so it stays in lastDequeuedImage.
+        unsignaledImage = r;
+      }
+      frameStatistics.onFenceSkip();
+      handler.post(
+          () -> {
+            if (!released) {
+              scheduleEngineFrame();
+            }
+          });
+      return null;
+    }
+
     private PerImageReader getActiveReader() {
-      synchronized (lock) {
-        if (!createNewReader) {
+      // Pruning never removes the newest reader, so only concurrent calls to this method need to
+      // be serialized.
+      synchronized (activeReaderLock) {
+        PerImageReader[] readers = imageReaders.get();
+        if (!createNewReader && readers.length > 0) {
           // Verify we don't need a new ImageReader anyway because its Surface has been invalidated.
-          PerImageReader lastPerImageReader = imageReaderQueue.peekLast();
+          PerImageReader lastPerImageReader = readers[readers.length - 1];
           Surface lastImageReaderSurface = lastPerImageReader.reader.getSurface();
           boolean lastImageReaderHasValidSurface = lastImageReaderSurface.isValid();
           if (lastImageReaderHasValidSurface) {
@@ -921,7 +1470,7 @@ public class FlutterRenderer implements TextureRegistry {
         if (VERBOSE_LOGS) {
           Log.i(TAG, reader.hashCode() + " created w=" + requestedWidth + " h=" + requestedHeight);
         }
-        return getOrCreatePerImageReader(reader);
+        return addPerImageReader(reader);
       }
     }
 
@@ -942,7 +1491,7 @@ public class FlutterRenderer implements TextureRegistry {
     private ImageReader createImageReader33() {
       final ImageReader.Builder builder = new ImageReader.Builder(requestedWidth, requestedHeight);
       // Allow for double buffering.
-      builder.setMaxImages(MAX_IMAGES);
+      builder.setMaxImages(imageCount);
       // Use PRIVATE image format so that we can support video decoding.
       // TODO(johnmccutchan): Should we always use PRIVATE here? It may impact our ability to
       // read back texture data. If we don't always want to use it, how do we decide when to
@@ -961,7 +1510,7 @@ public class FlutterRenderer implements TextureRegistry {
           requestedWidth,
           requestedHeight,
           ImageFormat.PRIVATE,
-          MAX_IMAGES,
+          imageCount,
           HardwareBuffer.USAGE_GPU_SAMPLED_IMAGE);
     }
 
@@ -984,25 +1533,24 @@ public class FlutterRenderer implements TextureRegistry {
 
     @VisibleForTesting
     public int numImageReaders() {
-      synchronized (lock) {
-        return imageReaderQueue.size();
-      }
+      return imageReaders.get().length;
+    }
+
+    @VisibleForTesting
+    public int imageCount() {
+      return imageCount;
     }
 
     @VisibleForTesting
     public int numTrims() {
-      synchronized (lock) {
-        return numTrims;
-      }
+      return (int) frameStatistics.getTrimCount();
     }
 
     @VisibleForTesting
     public int numImages() {
       int r = 0;
-      synchronized (lock) {
-        for (PerImageReader reader : imageReaderQueue) {
-          r += reader.imageQueue.size();
-        }
+      for (PerImageReader reader : imageReaders.get()) {
+        r += reader.imageQueue.size();
       }
       return r;
     }
@@ -1020,7 +1568,11 @@ public class FlutterRenderer implements TextureRegistry {
     private final long id;
     private boolean released;
     private boolean ignoringFence = false;
+    private volatile boolean skipUnsignaledImages = false;
     private Image image;
+    // The time the image was pushed at, guarded by this.
+    private long imagePushTime;
+    private final TextureFrameStatistics frameStatistics = new TextureFrameStatistics();
 
     ImageTextureRegistryEntry(long id) {
       this.id = id;
@@ -1031,6 +1583,17 @@ public class FlutterRenderer implements TextureRegistry {
       return id;
     }
 
+    @Override
+    @NonNull
+    public TextureRegistry.FrameStatistics getFrameStatistics() {
+      return frameStatistics;
+    }
+
+    @Override
+    public void setSkipUnsignaledImages(boolean skip) {
+      skipUnsignaledImages = skip;
+    }
+
     @Override
     public void release() {
       if (released) {
@@ -1046,16 +1609,24 @@ public class FlutterRenderer implements TextureRegistry {
 
     @Override
     public void pushImage(Image image) {
+      if (image != null) {
+        frameStatistics.onFrameProduced();
+      }
       if (released) {
+        if (image != null) {
+          frameStatistics.onFrameDroppedLate();
+        }
         return;
       }
       Image toClose;
       synchronized (this) {
         toClose = this.image;
         this.image = image;
+        this.imagePushTime = System.nanoTime();
       }
       // Close the previously pushed buffer.
       if (toClose != null) {
+        frameStatistics.onFrameDroppedOverwritten();
         Log.e(TAG, "Dropping PlatformView Frame");
         toClose.close();
       }
@@ -1083,7 +1654,9 @@ public class FlutterRenderer implements TextureRegistry {
       }
       if (Build.VERSION.SDK_INT >= API_LEVELS.API_33) {
         // The fence API is only available on Android >= 33.
+        final long start = System.nanoTime();
         waitOnFence(image);
+        frameStatistics.onFenceWait(System.nanoTime() - start);
         return;
       }
       // Log once per ImageTextureEntry.
@@ -1094,15 +1667,52 @@ public class FlutterRenderer implements TextureRegistry {
     @Override
     @RequiresApi(API_LEVELS.API_29)
     public Image acquireLatestImage() {
+      onTextureDrawn(frameStatistics);
       Image r;
+      long pushTime;
       synchronized (this) {
         r = this.image;
+        pushTime = this.imagePushTime;
         this.image = null;
       }
+      if (r == null) {
+        return null;
+      }
+      if (skipUnsignaledImages
+          && !ignoringFence
+          && Build.VERSION.SDK_INT >= API_LEVELS.API_33
+          && !isFenceSignaled(r)) {
+        skipUnsignaledImage(r, pushTime);
+        return null;
+      }
+      frameStatistics.onFrameConsumed(System.nanoTime() - pushTime);
       maybeWaitOnFence(r);
       return r;
     }
 
+    // Puts back an image whose fence has not signaled, unless a newer image was pushed meanwhile.
+    private void skipUnsignaledImage(@NonNull Image image, long pushTime) {
+      frameStatistics.onFenceSkip();
+      synchronized (this) {
+        if (this.image == null && !released) {
+          this.image = image;
+          this.imagePushTime = pushTime;
+          image = null;
+        }
+      }
+      if (image != null) {
+        frameStatistics.onFrameDroppedOverwritten();
+        image.close();
+        return;
+      }
+      handler.post(
+          () -> {
+            if (!released) {
+              scheduleEngineFrame();
+            }
+          });
+    }
+
     @Override
     protected void finalize() throws Throwable {
       try {
@@ -1208,13 +1818,6 @@ public class FlutterRenderer implements TextureRegistry {
     }
   }
 
-  private void translateFeatureBounds(int[] displayFeatureBounds, int offset, Rect bounds) {
-    displayFeatureBounds[offset] = bounds.left;
-    displayFeatureBounds[offset + 1] = bounds.top;
-    displayFeatureBounds[offset + 2] = bounds.right;
-    displayFeatureBounds[offset + 3] = bounds.bottom;
-  }
-
   /**
    * Notifies Flutter that the viewport metrics, e.g. window height and width, have changed.
    *
@@ -1229,6 +1832,11 @@ public class FlutterRenderer implements TextureRegistry {
     if (!viewportMetrics.validate()) {
       return;
     }
+    // Layout passes and IME animations often send the same metrics repeatedly. Skip them, since
+    // each update makes the framework lay out again.
+    if (!viewportMetricsEncoder.update(viewportMetrics)) {
+      return;
+    }
     Log.v(
         TAG,
         "Setting viewport metrics\n"
@@ -1288,27 +1896,6 @@ public class FlutterRenderer implements TextureRegistry {
             + ", BL: "
             + viewportMetrics.displayCornerRadiusBottomLeft);
 
-    int totalFeaturesAndCutouts =
-        viewportMetrics.displayFeatures.size() + viewportMetrics.displayCutouts.size();
-    int[] displayFeaturesBounds = new int[totalFeaturesAndCutouts * 4];
-    int[] displayFeaturesType = new int[totalFeaturesAndCutouts];
-    int[] displayFeaturesState = new int[totalFeaturesAndCutouts];
-    for (int i = 0; i < viewportMetrics.displayFeatures.size(); i++) {
-      DisplayFeature displayFeature = viewportMetrics.displayFeatures.get(i);
-      translateFeatureBounds(displayFeaturesBounds, 4 * i, displayFeature.bounds);
-      displayFeaturesType[i] = displayFeature.type.encodedValue;
-      displayFeaturesState[i] = displayFeature.state.encodedValue;
-    }
-    int cutoutOffset = viewportMetrics.displayFeatures.size() * 4;
-    for (int i = 0; i < viewportMetrics.displayCutouts.size(); i++) {
-      DisplayFeature displayCutout = viewportMetrics.displayCutouts.get(i);
-      translateFeatureBounds(displayFeaturesBounds, cutoutOffset + 4 * i, displayCutout.bounds);
-      displayFeaturesType[viewportMetrics.displayFeatures.size() + i] =
-          displayCutout.type.encodedValue;
-      displayFeaturesState[viewportMetrics.displayFeatures.size() + i] =
-          displayCutout.state.encodedValue;
-    }
-
     flutterJNI.setViewportMetrics(
         viewportMetrics.devicePixelRatio,
         viewportMetrics.width,
@@ -1326,9 +1913,9 @@ public class FlutterRenderer implements TextureRegistry {
         viewportMetrics.systemGestureInsetBottom,
         viewportMetrics.systemGestureInsetLeft,
         viewportMetrics.physicalTouchSlop,
-        displayFeaturesBounds,
-        displayFeaturesType,
-        displayFeaturesState,
+        viewportMetricsEncoder.getDisplayFeaturesBounds(),
+        viewportMetricsEncoder.getDisplayFeaturesType(),
+        viewportMetricsEncoder.getDisplayFeaturesState(),
         viewportMetrics.minWidth,
         viewportMetrics.maxWidth,
         viewportMetrics.minHeight,
@@ -1358,9 +1945,21 @@ public class FlutterRenderer implements TextureRegistry {
     flutterJNI.registerImageTexture(textureId, imageTexture, resetOnBackground);
   }
 
+  /**
+   * Requests a frame from the engine.
+   *
+   * <p>Requests made before the platform thread handles its next message are sent to the engine
+   * together, see {@link FrameAvailableAggregator}.
+   */
   @VisibleForTesting
   /* package */ void scheduleEngineFrame() {
-    flutterJNI.scheduleFrame();
+    frameAvailableAggregator.requestFrame();
+  }
+
+  @VisibleForTesting
+  @NonNull
+  /* package */ FrameAvailableAggregator frameAvailableAggregator() {
+    return frameAvailableAggregator;
   }
 
   private void unregisterTexture(long textureId) {
@@ -0,0 +1,110 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.os.Handler;
+import androidx.annotation.NonNull;
+import io.flutter.embedding.engine.FlutterJNI;
+import java.util.Arrays;
+
+/**
+ * Coalesces the frame-available signals of the textures of a {@link FlutterRenderer}.
+ *
+ * <p>Textures signal new frames as they are produced, up to once per texture per vsync. Instead of
+ * calling into the engine for each signal, the signals received until the platform thread handles
+ * its next message are sent to the engine together: the IDs of the textures with new frames are
+ * passed in a single JNI call, which also schedules a frame, and textures that only need a new
+ * frame share a single {@link FlutterJNI#scheduleFrame()}.
+ *
+ * <p>Must only be used on the platform thread.
+ */
+final class FrameAvailableAggregator {
+  private static final int INITIAL_CAPACITY = 8;
+
+  @NonNull private final FlutterJNI flutterJNI;
+  @NonNull private final Handler handler;
+  @NonNull private final Runnable flushRunnable = this::flush;
+
+  // The textures marked since the last flush, without duplicates.
+  @NonNull private long[] textureIds = new long[INITIAL_CAPACITY];
+  private int textureCount = 0;
+  private boolean frameRequested = false;
+  private boolean flushPosted = false;
+
+  private long signalCount = 0;
+  private long flushCount = 0;
+
+  FrameAvailableAggregator(@NonNull FlutterJNI flutterJNI, @NonNull Handler handler) {
+    this.flutterJNI = flutterJNI;
+    this.handler = handler;
+  }
+
+  /** Marks that the texture with the given ID has a new frame, which the engine must draw. */
+  void markTextureFrameAvailable(long textureId) {
+    signalCount++;
+    for (int i = 0; i < textureCount; i++) {
+      if (textureIds[i] == textureId) {
+        return;
+      }
+    }
+    if (textureCount == textureIds.length) {
+      textureIds = Arrays.copyOf(textureIds, textureCount * 2);
+    }
+    textureIds[textureCount++] = textureId;
+    postFlush();
+  }
+
+  /** Requests a frame without marking a texture, for textures that track new frames themselves. */
+  void requestFrame() {
+    signalCount++;
+    frameRequested = true;
+    postFlush();
+  }
+
+  /** Sends the pending signals to the engine. */
+  void flush() {
+    handler.removeCallbacks(flushRunnable);
+    flushPosted = false;
+    if (textureCount == 0 && !frameRequested) {
+      return;
+    }
+    // The engine may have been detached since the signals were received.
+    if (flutterJNI.isAttached()) {
+      if (textureCount > 0) {
+        flutterJNI.markTextureFramesAvailable(textureIds, textureCount);
+      } else {
+        flutterJNI.scheduleFrame();
+      }
+      flushCount++;
+    }
+    textureCount = 0;
+    frameRequested = false;
+  }
+
+  /** Drops the pending signals. */
+  void clear() {
+    handler.removeCallbacks(flushRunnable);
+    flushPosted = false;
+    textureCount = 0;
+    frameRequested = false;
+  }
+
+  /** @return The number of signals received so far. */
+  long getSignalCount() {
+    return signalCount;
+  }
+
+  /** @return The number of JNI calls that sent signals to the engine so far. */
+  long getFlushCount() {
+    return flushCount;
+  }
+
+  private void postFlush() {
+    if (!flushPosted) {
+      flushPosted = true;
+      handler.post(flushRunnable);
+    }
+  }
+}
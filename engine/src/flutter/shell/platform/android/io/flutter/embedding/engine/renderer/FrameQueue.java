@@ -0,0 +1,103 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue of frames with a single producer and a single consumer.
+ *
+ * <p>When the queue is full, {@link #offer(Object)} drops the oldest frame so that the consumer
+ * always receives the most recent frames. The producer dropping a frame and the consumer polling a
+ * frame both claim the head of the queue with a compare-and-set, so every frame is handed out
+ * exactly once: either by {@link #poll()} or as the frame dropped by {@link #offer(Object)}.
+ *
+ * <p>Neither side ever blocks, so a slow producer (the platform thread delivering images) cannot
+ * stall the consumer (the raster thread acquiring them), and vice versa.
+ */
+final class FrameQueue<T> {
+  private final int capacity;
+  private final AtomicReferenceArray<T> slots;
+
+  // The index of the oldest frame. Advanced by the consumer, and by the producer when it drops a
+  // frame.
+  private final AtomicLong head = new AtomicLong();
+
+  // The index after the newest frame. Only advanced by the producer.
+  private final AtomicLong tail = new AtomicLong();
+
+  FrameQueue(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1, was " + capacity);
+    }
+    this.capacity = capacity;
+    this.slots = new AtomicReferenceArray<>(capacity);
+  }
+
+  /**
+   * Adds {@code frame} to the queue.
+   *
+   * <p>Must only be called by the producer.
+   *
+   * @return the oldest frame if it was dropped to make room for {@code frame}, null otherwise.
+   */
+  @Nullable
+  T offer(@NonNull T frame) {
+    T dropped = null;
+    final long currentTail = tail.get();
+    if (currentTail - head.get() >= capacity) {
+      // Null if the consumer polled the oldest frame concurrently, which also made room.
+      dropped = poll();
+    }
+    slots.set(index(currentTail), frame);
+    tail.set(currentTail + 1);
+    return dropped;
+  }
+
+  /**
+   * Removes and returns the oldest frame, or returns null if the queue is empty.
+   *
+   * <p>Called by the consumer, but safe to call from any thread.
+   */
+  @Nullable
+  T poll() {
+    while (true) {
+      final long currentHead = head.get();
+      if (currentHead == tail.get()) {
+        return null;
+      }
+      final int index = index(currentHead);
+      // The producer only writes to this slot again once the head has moved past it, in which case
+      // the compare-and-set below fails and the frame is read again.
+      final T frame = slots.get(index);
+      if (head.compareAndSet(currentHead, currentHead + 1)) {
+        slots.compareAndSet(index, frame, null);
+        return frame;
+      }
+    }
+  }
+
+  /** Removes all frames from the queue. */
+  void clear() {
+    while (poll() != null) {}
+  }
+
+  boolean isEmpty() {
+    return head.get() >= tail.get();
+  }
+
+  int size() {
+    // Only approximate while the producer or the consumer is running concurrently.
+    final long currentHead = head.get();
+    return (int) Math.max(0, tail.get() - currentHead);
+  }
+
+  private int index(long position) {
+    return (int) (position % capacity);
+  }
+}
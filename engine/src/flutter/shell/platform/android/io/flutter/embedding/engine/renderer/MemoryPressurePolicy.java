@@ -0,0 +1,99 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.content.ComponentCallbacks2;
+import androidx.annotation.NonNull;
+
+/**
+ * Decides how a {@link io.flutter.view.TextureRegistry.SurfaceProducer} responds to memory
+ * pressure, see {@link FlutterRenderer.SurfaceProducerOptions#setMemoryPressurePolicy}.
+ *
+ * <p>Each {@link Tier} reclaims more memory than the previous one, at a higher cost to the next
+ * frames, and includes the work of every lower tier.
+ */
+public interface MemoryPressurePolicy {
+  /** The responses of a surface producer to memory pressure, from the lightest to the heaviest. */
+  enum Tier {
+    /** Keeps every buffer. */
+    NONE,
+
+    /**
+     * Drops all but the newest queued image of every {@code ImageReader}, and frees the buffers
+     * that are not in use. Rendering continues without interruption.
+     */
+    SHRINK_QUEUE,
+
+    /**
+     * Also closes the {@code ImageReader}s created before the last resize, together with their
+     * queued images. Only the {@code ImageReader} that is being rendered to is kept.
+     */
+    DROP_OLD_READERS,
+
+    /**
+     * Releases every {@code ImageReader} and notifies {@link
+     * io.flutter.view.TextureRegistry.SurfaceProducer.Callback#onSurfaceCleanup()}. Rendering
+     * resumes after {@link
+     * io.flutter.view.TextureRegistry.SurfaceProducer.Callback#onSurfaceAvailable()}.
+     */
+    RELEASE_ALL
+  }
+
+  /**
+   * The default policy, which releases everything at {@link
+   * ComponentCallbacks2#TRIM_MEMORY_BACKGROUND} and above, as Android 14 requires, and keeps every
+   * buffer at lower levels.
+   */
+  @NonNull
+  @SuppressWarnings("deprecation")
+  MemoryPressurePolicy DEFAULT =
+      level ->
+          level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND ? Tier.RELEASE_ALL : Tier.NONE;
+
+  /**
+   * A policy that also responds while the app is running, to the levels passed to {@link
+   * ComponentCallbacks2#onTrimMemory(int)} as follows:
+   *
+   * <ul>
+   *   <li>{@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_MODERATE} and {@link
+   *       ComponentCallbacks2#TRIM_MEMORY_RUNNING_LOW}: {@link Tier#SHRINK_QUEUE}.
+   *   <li>{@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_CRITICAL} and {@link
+   *       ComponentCallbacks2#TRIM_MEMORY_UI_HIDDEN}: {@link Tier#DROP_OLD_READERS}.
+   *   <li>{@link ComponentCallbacks2#TRIM_MEMORY_BACKGROUND} and above: {@link Tier#RELEASE_ALL},
+   *       like {@link #DEFAULT}. Custom policies should also release everything at these levels.
+   * </ul>
+   */
+  @NonNull
+  @SuppressWarnings("deprecation")
+  MemoryPressurePolicy TIERED =
+      level -> {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+          return Tier.RELEASE_ALL;
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+          return Tier.DROP_OLD_READERS;
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+          return Tier.SHRINK_QUEUE;
+        }
+        return Tier.NONE;
+      };
+
+  /**
+   * Returns the tier of the response to {@code level}.
+   *
+   * @param level A level passed to {@link ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  @NonNull
+  Tier selectTier(int level);
+
+  /**
+   * Invoked on the platform thread after a surface producer responded to memory pressure.
+   *
+   * @param tier The tier of the response.
+   * @param reclaimedBytes An estimate of the graphics memory the response reclaimed.
+   */
+  default void onMemoryReclaimed(@NonNull Tier tier, long reclaimedBytes) {}
+}
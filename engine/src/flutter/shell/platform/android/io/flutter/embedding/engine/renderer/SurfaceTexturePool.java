@@ -0,0 +1,181 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.content.ComponentCallbacks2;
+import android.os.Handler;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Keeps the {@link android.graphics.SurfaceTexture}s of released texture entries, so that {@link
+ * FlutterRenderer#createSurfaceTexture()} can reuse them instead of allocating a new one.
+ *
+ * <p>At most {@code capacity} textures are kept; when a texture is released into a full pool, the
+ * texture that has been idle the longest is released for good. Textures that stay idle for {@link
+ * #IDLE_TIMEOUT_MILLIS} are released as well.
+ *
+ * <p>A released texture stays attached to the GL texture of its entry until the engine detaches it
+ * on the raster thread, after the entry is unregistered. Only detached textures are reused, so that
+ * attaching a texture to a new entry never detaches it from the GL texture of the old one.
+ *
+ * <p>Must only be used on the platform thread.
+ */
+final class SurfaceTexturePool {
+  /** How long a texture stays in the pool without being reused. */
+  static final long IDLE_TIMEOUT_MILLIS = 10_000;
+
+  private static final class Entry {
+    @NonNull final SurfaceTextureWrapper textureWrapper;
+    final long releaseTime;
+
+    Entry(@NonNull SurfaceTextureWrapper textureWrapper, long releaseTime) {
+      this.textureWrapper = textureWrapper;
+      this.releaseTime = releaseTime;
+    }
+  }
+
+  @NonNull private final Handler handler;
+  @NonNull private final Runnable evictIdleRunnable = this::evictIdle;
+  // Idle textures, least recently released first.
+  @NonNull private final ArrayDeque<Entry> idle = new ArrayDeque<>();
+  private int capacity = 0;
+  private boolean evictionScheduled = false;
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  SurfaceTexturePool(@NonNull Handler handler) {
+    this.handler = handler;
+  }
+
+  /** Sets the maximum number of idle textures, releasing the oldest ones over it. */
+  void setCapacity(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative, was " + capacity);
+    }
+    this.capacity = capacity;
+    trimTo(capacity);
+  }
+
+  int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the most recently released idle texture that the engine has detached, or null if there
+   * is none.
+   */
+  @Nullable
+  SurfaceTextureWrapper acquire() {
+    if (capacity == 0) {
+      return null;
+    }
+    final Iterator<Entry> iterator = idle.descendingIterator();
+    while (iterator.hasNext()) {
+      final Entry entry = iterator.next();
+      if (!entry.textureWrapper.isAttached()) {
+        iterator.remove();
+        hitCount++;
+        return entry.textureWrapper;
+      }
+    }
+    missCount++;
+    return null;
+  }
+
+  /**
+   * Adds the texture of a released entry to the pool.
+   *
+   * @return false if the pool is disabled, in which case the caller must release the texture.
+   */
+  boolean offer(@NonNull SurfaceTextureWrapper textureWrapper) {
+    if (capacity == 0) {
+      return false;
+    }
+    if (idle.size() == capacity) {
+      evict(idle.pollFirst());
+    }
+    idle.addLast(new Entry(textureWrapper, SystemClock.uptimeMillis()));
+    scheduleEviction(IDLE_TIMEOUT_MILLIS);
+    return true;
+  }
+
+  /** Releases every idle texture. */
+  void clear() {
+    trimTo(0);
+  }
+
+  /**
+   * Releases idle textures depending on the level passed to {@link
+   * ComponentCallbacks2#onTrimMemory(int)}: half of them from {@link
+   * ComponentCallbacks2#TRIM_MEMORY_RUNNING_LOW}, and all of them from {@link
+   * ComponentCallbacks2#TRIM_MEMORY_RUNNING_CRITICAL}, which includes the app being hidden or in
+   * the background.
+   */
+  @SuppressWarnings("deprecation")
+  void onTrimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      trimTo(0);
+    } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+      trimTo(idle.size() / 2);
+    }
+  }
+
+  int getIdleCount() {
+    return idle.size();
+  }
+
+  /** @return The number of textures reused by {@link #acquire()}. */
+  long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return The number of {@link #acquire()} calls on an enabled pool without a detached texture.
+   */
+  long getMissCount() {
+    return missCount;
+  }
+
+  /** @return The number of idle textures released for good. */
+  long getEvictionCount() {
+    return evictionCount;
+  }
+
+  // Releases the textures that have been idle the longest, until at most size are left.
+  private void trimTo(int size) {
+    while (idle.size() > size) {
+      evict(idle.pollFirst());
+    }
+  }
+
+  private void evictIdle() {
+    evictionScheduled = false;
+    final long now = SystemClock.uptimeMillis();
+    while (!idle.isEmpty() && now - idle.peekFirst().releaseTime >= IDLE_TIMEOUT_MILLIS) {
+      evict(idle.pollFirst());
+    }
+    if (!idle.isEmpty()) {
+      scheduleEviction(idle.peekFirst().releaseTime + IDLE_TIMEOUT_MILLIS - now);
+    }
+  }
+
+  private void scheduleEviction(long delayMillis) {
+    if (!evictionScheduled) {
+      evictionScheduled = true;
+      handler.postDelayed(evictIdleRunnable, delayMillis);
+    }
+  }
+
+  private void evict(@NonNull Entry entry) {
+    entry.textureWrapper.release();
+    evictionCount++;
+  }
+}
@@ -24,16 +24,27 @@ final class SurfaceTextureSurfaceProducer
   @NonNull private final TextureRegistry.SurfaceTextureEntry texture;
   @NonNull private final Handler handler;
   @NonNull private final FlutterJNI flutterJNI;
+  @Nullable private final FrameAvailableAggregator frameAvailableAggregator;
 
   SurfaceTextureSurfaceProducer(
       long id,
       @NonNull Handler handler,
       @NonNull FlutterJNI flutterJNI,
       @NonNull TextureRegistry.SurfaceTextureEntry texture) {
+    this(id, handler, flutterJNI, texture, null);
+  }
+
+  SurfaceTextureSurfaceProducer(
+      long id,
+      @NonNull Handler handler,
+      @NonNull FlutterJNI flutterJNI,
+      @NonNull TextureRegistry.SurfaceTextureEntry texture,
+      @Nullable FrameAvailableAggregator frameAvailableAggregator) {
     this.id = id;
     this.handler = handler;
     this.flutterJNI = flutterJNI;
     this.texture = texture;
+    this.frameAvailableAggregator = frameAvailableAggregator;
   }
 
   @Override
@@ -116,6 +127,10 @@ final class SurfaceTextureSurfaceProducer
 
   @Override
   public void scheduleFrame() {
-    flutterJNI.markTextureFrameAvailable(id);
+    if (frameAvailableAggregator != null) {
+      frameAvailableAggregator.markTextureFrameAvailable(id);
+    } else {
+      flutterJNI.markTextureFrameAvailable(id);
+    }
   }
 }
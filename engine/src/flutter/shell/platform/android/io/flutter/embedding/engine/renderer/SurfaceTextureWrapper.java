@@ -48,6 +48,27 @@ public class SurfaceTextureWrapper {
     return surfaceTexture;
   }
 
+  /**
+   * Prepares the wrapper of a pooled texture for a new texture entry, see {@link
+   * SurfaceTexturePool}.
+   */
+  void reset(@Nullable Runnable onFrameConsumed) {
+    synchronized (this) {
+      newFrameAvailable = false;
+      this.onFrameConsumed = onFrameConsumed;
+    }
+  }
+
+  /**
+   * Whether the texture is attached to a GL texture of the engine. A pooled texture is only reused
+   * once the engine has detached it, see {@link SurfaceTexturePool}.
+   */
+  boolean isAttached() {
+    synchronized (this) {
+      return attached;
+    }
+  }
+
   public void markDirty() {
     synchronized (this) {
       newFrameAvailable = true;
@@ -0,0 +1,168 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import io.flutter.view.TextureRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects the {@link TextureRegistry.FrameStatistics} of a texture.
+ *
+ * <p>Frames are recorded on the thread that produces them and on the raster thread that consumes
+ * them. Every statistic is an atomic counter, so recording never blocks and the statistics can be
+ * read from any thread without locking.
+ *
+ * <p>Queue latencies are recorded in a histogram with 8 buckets per power of two microseconds, so
+ * percentiles are accurate to within 12.5%.
+ */
+final class TextureFrameStatistics implements TextureRegistry.FrameStatistics {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  // Latencies below this many microseconds each have their own bucket.
+  private static final int LINEAR_BUCKET_COUNT = 2 * SUB_BUCKET_COUNT;
+  // Latencies of 2^26 microseconds (over a minute) or more are recorded in the last bucket.
+  private static final int MAX_EXPONENT = 25;
+  private static final int BUCKET_COUNT =
+      LINEAR_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final AtomicLong framesProduced = new AtomicLong();
+  private final AtomicLong framesConsumed = new AtomicLong();
+  private final AtomicLong framesDroppedLate = new AtomicLong();
+  private final AtomicLong framesDroppedOverwritten = new AtomicLong();
+  private final AtomicLong fenceWaitCount = new AtomicLong();
+  private final AtomicLong fenceWaitNanos = new AtomicLong();
+  private final AtomicLong fenceSkipCount = new AtomicLong();
+  private final AtomicLong trimCount = new AtomicLong();
+  private final AtomicLong lastDrawNanos = new AtomicLong();
+  private final AtomicLongArray queueLatencyBuckets = new AtomicLongArray(BUCKET_COUNT);
+
+  void onFrameProduced() {
+    framesProduced.incrementAndGet();
+  }
+
+  void onFrameDroppedLate() {
+    framesDroppedLate.incrementAndGet();
+  }
+
+  void onFrameDroppedOverwritten() {
+    framesDroppedOverwritten.incrementAndGet();
+  }
+
+  void onFrameConsumed(long queueLatencyNanos) {
+    framesConsumed.incrementAndGet();
+    queueLatencyBuckets.incrementAndGet(
+        bucketIndex(TimeUnit.NANOSECONDS.toMicros(Math.max(0, queueLatencyNanos))));
+  }
+
+  void onFenceWait(long waitNanos) {
+    fenceWaitCount.incrementAndGet();
+    fenceWaitNanos.addAndGet(Math.max(0, waitNanos));
+  }
+
+  void onFenceSkip() {
+    fenceSkipCount.incrementAndGet();
+  }
+
+  void onTrim() {
+    trimCount.incrementAndGet();
+  }
+
+  void onDrawn() {
+    lastDrawNanos.set(System.nanoTime());
+  }
+
+  @Override
+  public long getFramesProduced() {
+    return framesProduced.get();
+  }
+
+  @Override
+  public long getFramesConsumed() {
+    return framesConsumed.get();
+  }
+
+  @Override
+  public long getFramesDroppedLate() {
+    return framesDroppedLate.get();
+  }
+
+  @Override
+  public long getFramesDroppedOverwritten() {
+    return framesDroppedOverwritten.get();
+  }
+
+  @Override
+  public long getQueueLatencyPercentileNanos(double percentile) {
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      total += queueLatencyBuckets.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final double clamped = Math.max(0, Math.min(100, percentile));
+    final long rank = Math.max(1, (long) Math.ceil(clamped / 100.0 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += queueLatencyBuckets.get(i);
+      if (seen >= rank) {
+        return TimeUnit.MICROSECONDS.toNanos(bucketUpperBound(i));
+      }
+    }
+    // Frames were consumed concurrently, which is only possible for the highest percentiles.
+    return TimeUnit.MICROSECONDS.toNanos(bucketUpperBound(BUCKET_COUNT - 1));
+  }
+
+  @Override
+  public long getFenceWaitCount() {
+    return fenceWaitCount.get();
+  }
+
+  @Override
+  public long getFenceWaitNanos() {
+    return fenceWaitNanos.get();
+  }
+
+  @Override
+  public long getFenceSkipCount() {
+    return fenceSkipCount.get();
+  }
+
+  @Override
+  public long getTrimCount() {
+    return trimCount.get();
+  }
+
+  // Returns the System.nanoTime() at which the engine last drew the texture into a frame, or 0 if
+  // it never did.
+  long getLastDrawNanos() {
+    return lastDrawNanos.get();
+  }
+
+  static int bucketIndex(long micros) {
+    if (micros < LINEAR_BUCKET_COUNT) {
+      return (int) micros;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKET_COUNT - 1;
+    }
+    final int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return LINEAR_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  // Returns the largest latency in microseconds that is recorded in the bucket at index.
+  static long bucketUpperBound(int index) {
+    if (index < LINEAR_BUCKET_COUNT) {
+      return index;
+    }
+    final int exponent = (index - LINEAR_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS + 1;
+    final int subBucket = (index - LINEAR_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+    final int shift = exponent - SUB_BUCKET_BITS;
+    return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,151 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.graphics.Rect;
+import androidx.annotation.NonNull;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes {@link FlutterRenderer.ViewportMetrics} for {@code FlutterJNI#setViewportMetrics}, and
+ * detects metrics that did not change since they were last sent.
+ *
+ * <p>Each update is encoded into a second set of arrays, which is compared with the set last sent
+ * and swapped with it if anything changed. Both sets are reused as long as the number of display
+ * features and cutouts stays the same, so updates that only move an inset, such as those of an
+ * IME animation, do not allocate.
+ */
+final class ViewportMetricsEncoder {
+  // The scalar metrics, in the order they are encoded.
+  private static final int FIELD_COUNT = 24;
+
+  @NonNull private int[] fields = new int[FIELD_COUNT];
+  @NonNull private int[] nextFields = new int[FIELD_COUNT];
+  @NonNull private int[] displayFeaturesBounds = new int[0];
+  @NonNull private int[] nextDisplayFeaturesBounds = new int[0];
+  @NonNull private int[] displayFeaturesType = new int[0];
+  @NonNull private int[] nextDisplayFeaturesType = new int[0];
+  @NonNull private int[] displayFeaturesState = new int[0];
+  @NonNull private int[] nextDisplayFeaturesState = new int[0];
+  private boolean hasSentMetrics = false;
+
+  private long sentCount = 0;
+  private long skippedCount = 0;
+
+  /**
+   * Encodes {@code metrics}.
+   *
+   * @return false if the metrics are the same as the metrics last encoded, in which case they do
+   *     not need to be sent again.
+   */
+  boolean update(@NonNull FlutterRenderer.ViewportMetrics metrics) {
+    encodeFields(metrics, nextFields);
+    final List<FlutterRenderer.DisplayFeature> features = metrics.getDisplayFeatures();
+    final List<FlutterRenderer.DisplayFeature> cutouts = metrics.getDisplayCutouts();
+    final int count = features.size() + cutouts.size();
+    if (nextDisplayFeaturesType.length != count) {
+      nextDisplayFeaturesBounds = new int[count * 4];
+      nextDisplayFeaturesType = new int[count];
+      nextDisplayFeaturesState = new int[count];
+    }
+    for (int i = 0; i < features.size(); i++) {
+      encodeFeature(features.get(i), i);
+    }
+    for (int i = 0; i < cutouts.size(); i++) {
+      encodeFeature(cutouts.get(i), features.size() + i);
+    }
+
+    if (hasSentMetrics
+        && Arrays.equals(fields, nextFields)
+        && Arrays.equals(displayFeaturesBounds, nextDisplayFeaturesBounds)
+        && Arrays.equals(displayFeaturesType, nextDisplayFeaturesType)
+        && Arrays.equals(displayFeaturesState, nextDisplayFeaturesState)) {
+      skippedCount++;
+      return false;
+    }
+    int[] swap = fields;
+    fields = nextFields;
+    nextFields = swap;
+    swap = displayFeaturesBounds;
+    displayFeaturesBounds = nextDisplayFeaturesBounds;
+    nextDisplayFeaturesBounds = swap;
+    swap = displayFeaturesType;
+    displayFeaturesType = nextDisplayFeaturesType;
+    nextDisplayFeaturesType = swap;
+    swap = displayFeaturesState;
+    displayFeaturesState = nextDisplayFeaturesState;
+    nextDisplayFeaturesState = swap;
+    hasSentMetrics = true;
+    sentCount++;
+    return true;
+  }
+
+  /** The bounds of the display features and cutouts last encoded, 4 values per feature. */
+  @NonNull
+  int[] getDisplayFeaturesBounds() {
+    return displayFeaturesBounds;
+  }
+
+  /** The types of the display features and cutouts last encoded. */
+  @NonNull
+  int[] getDisplayFeaturesType() {
+    return displayFeaturesType;
+  }
+
+  /** The states of the display features and cutouts last encoded. */
+  @NonNull
+  int[] getDisplayFeaturesState() {
+    return displayFeaturesState;
+  }
+
+  /** @return The number of updates that changed the metrics. */
+  long getSentCount() {
+    return sentCount;
+  }
+
+  /** @return The number of updates that were skipped because the metrics did not change. */
+  long getSkippedCount() {
+    return skippedCount;
+  }
+
+  private void encodeFeature(@NonNull FlutterRenderer.DisplayFeature feature, int index) {
+    final Rect bounds = feature.bounds;
+    nextDisplayFeaturesBounds[4 * index] = bounds.left;
+    nextDisplayFeaturesBounds[4 * index + 1] = bounds.top;
+    nextDisplayFeaturesBounds[4 * index + 2] = bounds.right;
+    nextDisplayFeaturesBounds[4 * index + 3] = bounds.bottom;
+    nextDisplayFeaturesType[index] = feature.type.encodedValue;
+    nextDisplayFeaturesState[index] = feature.state.encodedValue;
+  }
+
+  private static void encodeFields(
+      @NonNull FlutterRenderer.ViewportMetrics metrics, @NonNull int[] encoded) {
+    encoded[0] = Float.floatToIntBits(metrics.devicePixelRatio);
+    encoded[1] = metrics.width;
+    encoded[2] = metrics.height;
+    encoded[3] = metrics.minWidth;
+    encoded[4] = metrics.maxWidth;
+    encoded[5] = metrics.minHeight;
+    encoded[6] = metrics.maxHeight;
+    encoded[7] = metrics.viewPaddingTop;
+    encoded[8] = metrics.viewPaddingRight;
+    encoded[9] = metrics.viewPaddingBottom;
+    encoded[10] = metrics.viewPaddingLeft;
+    encoded[11] = metrics.viewInsetTop;
+    encoded[12] = metrics.viewInsetRight;
+    encoded[13] = metrics.viewInsetBottom;
+    encoded[14] = metrics.viewInsetLeft;
+    encoded[15] = metrics.systemGestureInsetTop;
+    encoded[16] = metrics.systemGestureInsetRight;
+    encoded[17] = metrics.systemGestureInsetBottom;
+    encoded[18] = metrics.systemGestureInsetLeft;
+    encoded[19] = metrics.physicalTouchSlop;
+    encoded[20] = metrics.displayCornerRadiusTopLeft;
+    encoded[21] = metrics.displayCornerRadiusTopRight;
+    encoded[22] = metrics.displayCornerRadiusBottomRight;
+    encoded[23] = metrics.displayCornerRadiusBottomLeft;
+  }
+}
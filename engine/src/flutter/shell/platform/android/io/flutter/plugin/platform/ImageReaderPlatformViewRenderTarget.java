@@ -15,6 +15,7 @@ import android.os.Handler;
 import android.view.Surface;
 import androidx.annotation.RequiresApi;
 import io.flutter.Log;
+import io.flutter.embedding.engine.renderer.FlutterRenderer;
 import io.flutter.view.TextureRegistry.ImageTextureEntry;
 
 public class ImageReaderPlatformViewRenderTarget implements PlatformViewRenderTarget {
@@ -139,4 +140,11 @@ public class ImageReaderPlatformViewRenderTarget implements PlatformViewRenderTa
   public Surface getSurface() {
     return this.reader.getSurface();
   }
+
+  public long getLastDrawNanos() {
+    if (this.textureEntry == null) {
+      return 0;
+    }
+    return FlutterRenderer.getLastDrawNanos(this.textureEntry.getFrameStatistics());
+  }
 }
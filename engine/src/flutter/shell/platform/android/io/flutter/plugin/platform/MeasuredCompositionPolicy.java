@@ -0,0 +1,39 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The default {@link PlatformViewCompositionPolicy}.
+ *
+ * <p>Uses a texture layer for the views that support it, unless enough frames were measured while
+ * views of the type were shown in both modes and the window rendered them faster in the fallback
+ * mode. Virtual displays are not measured, so views that fall back to them keep the texture layer.
+ */
+final class MeasuredCompositionPolicy implements PlatformViewCompositionPolicy {
+  // The number of frames that must be measured in a mode before its cost is trusted.
+  static final long MIN_FRAME_COUNT = 120;
+
+  @NonNull
+  @Override
+  public Mode selectMode(
+      @NonNull String viewType,
+      @NonNull Mode fallbackMode,
+      boolean supportsTextureLayer,
+      @NonNull PlatformViewCompositionStats stats) {
+    if (!supportsTextureLayer) {
+      return fallbackMode;
+    }
+    if (stats.getFrameCount(viewType, Mode.TEXTURE_LAYER) < MIN_FRAME_COUNT
+        || stats.getFrameCount(viewType, fallbackMode) < MIN_FRAME_COUNT) {
+      return Mode.TEXTURE_LAYER;
+    }
+    return stats.getAverageFrameCostNanos(viewType, fallbackMode)
+            < stats.getAverageFrameCostNanos(viewType, Mode.TEXTURE_LAYER)
+        ? fallbackMode
+        : Mode.TEXTURE_LAYER;
+  }
+}
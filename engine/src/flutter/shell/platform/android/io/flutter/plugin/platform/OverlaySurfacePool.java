@@ -0,0 +1,161 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import android.media.ImageReader;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+/**
+ * Keeps the overlay surfaces of hybrid composition that the engine destroyed, so that they can be
+ * reused instead of allocating a new {@link ImageReader} for the next overlay.
+ *
+ * <p>Idle overlays are bucketed by size class. An {@link ImageReader} cannot be resized, and the
+ * engine renders overlays at the size of the Flutter view, so a size class is an exact surface
+ * size. Rotating the device back and forth therefore reuses the overlays of both orientations.
+ *
+ * <p>The buffers of idle overlays are limited by a memory budget. When it is exceeded, the least
+ * recently released overlays are evicted and their {@link ImageReader}s are closed.
+ *
+ * <p>Must only be used on the platform thread.
+ */
+final class OverlaySurfacePool {
+  /** The default budget of the buffers of idle overlays, about two full screen overlays. */
+  static final long DEFAULT_MEMORY_BUDGET_BYTES = 64L * 1024 * 1024;
+
+  // Overlays use RGBA_8888 images.
+  private static final int BYTES_PER_PIXEL = 4;
+
+  private static final class Entry {
+    @NonNull final PlatformOverlayView view;
+    final long sizeClass;
+    final long bytes;
+
+    Entry(@NonNull PlatformOverlayView view, long sizeClass, long bytes) {
+      this.view = view;
+      this.sizeClass = sizeClass;
+      this.bytes = bytes;
+    }
+  }
+
+  private final long memoryBudgetBytes;
+  // Idle overlays by size class, most recently released last.
+  private final HashMap<Long, ArrayDeque<Entry>> buckets = new HashMap<>();
+  // All idle overlays, least recently released first.
+  private final ArrayDeque<Entry> leastRecentlyReleased = new ArrayDeque<>();
+  private long idleBytes = 0;
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  OverlaySurfacePool(long memoryBudgetBytes) {
+    this.memoryBudgetBytes = memoryBudgetBytes;
+  }
+
+  /**
+   * Returns an idle overlay whose surface has the given size, or null if there is none.
+   *
+   * <p>The overlay is no longer tracked by the pool.
+   */
+  @Nullable
+  PlatformOverlayView acquire(int width, int height) {
+    final ArrayDeque<Entry> bucket = buckets.get(sizeClass(width, height));
+    final Entry entry = bucket == null ? null : bucket.pollLast();
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    if (bucket.isEmpty()) {
+      buckets.remove(entry.sizeClass);
+    }
+    leastRecentlyReleased.remove(entry);
+    idleBytes -= entry.bytes;
+    hitCount++;
+    return entry.view;
+  }
+
+  /**
+   * Adds an overlay the engine no longer renders to, and which was detached from the renderer, to
+   * the pool.
+   *
+   * @return false if the overlay cannot be pooled, in which case the caller must close its {@link
+   *     ImageReader}.
+   */
+  boolean release(@NonNull PlatformOverlayView view) {
+    final ImageReader imageReader = view.getImageReader();
+    if (imageReader == null) {
+      return false;
+    }
+    final int width = imageReader.getWidth();
+    final int height = imageReader.getHeight();
+    final long bytes = (long) width * height * BYTES_PER_PIXEL * imageReader.getMaxImages();
+    if (bytes > memoryBudgetBytes) {
+      return false;
+    }
+    final Entry entry = new Entry(view, sizeClass(width, height), bytes);
+    ArrayDeque<Entry> bucket = buckets.get(entry.sizeClass);
+    if (bucket == null) {
+      bucket = new ArrayDeque<>();
+      buckets.put(entry.sizeClass, bucket);
+    }
+    bucket.addLast(entry);
+    leastRecentlyReleased.addLast(entry);
+    idleBytes += bytes;
+    while (idleBytes > memoryBudgetBytes) {
+      close(leastRecentlyReleased.pollFirst());
+      evictionCount++;
+    }
+    return true;
+  }
+
+  /** Closes the {@link ImageReader}s of all idle overlays. */
+  void clear() {
+    while (!leastRecentlyReleased.isEmpty()) {
+      close(leastRecentlyReleased.pollFirst());
+    }
+  }
+
+  int getIdleCount() {
+    return leastRecentlyReleased.size();
+  }
+
+  long getIdleBytes() {
+    return idleBytes;
+  }
+
+  /** @return The number of {@link #acquire} calls that returned a pooled overlay. */
+  long getHitCount() {
+    return hitCount;
+  }
+
+  /** @return The number of {@link #acquire} calls that found no overlay of the requested size. */
+  long getMissCount() {
+    return missCount;
+  }
+
+  /** @return The number of overlays closed to stay within the memory budget. */
+  long getEvictionCount() {
+    return evictionCount;
+  }
+
+  // Closes an entry that was removed from leastRecentlyReleased.
+  private void close(@NonNull Entry entry) {
+    final ArrayDeque<Entry> bucket = buckets.get(entry.sizeClass);
+    bucket.remove(entry);
+    if (bucket.isEmpty()) {
+      buckets.remove(entry.sizeClass);
+    }
+    idleBytes -= entry.bytes;
+    entry.view.closeImageReader();
+  }
+
+  private static long sizeClass(int width, int height) {
+    // Overlays are at least 1x1, see FlutterImageView.
+    return ((long) Math.max(1, width) << 32) | Math.max(1, height);
+  }
+}
@@ -61,6 +61,28 @@ public interface PlatformView {
    */
   void dispose();
 
+  /**
+   * Called when this view has been off-screen for longer than the delay set with {@link
+   * PlatformViewsController#setOffscreenSuspensionDelay}.
+   *
+   * <p>The view is no longer drawn, and the Flutter app shows the last frame it drew until the
+   * view is resumed. Implementations may pause work that only affects what is displayed, such as
+   * animations or video playback.
+   *
+   * <p>This is only called for views displayed with a texture layer.
+   */
+  // Default interface methods are supported on all min SDK versions of Android.
+  @SuppressLint("NewApi")
+  default void onSuspend() {}
+
+  /**
+   * Called when a view that was suspended with {@link #onSuspend()} is on-screen again, or is about
+   * to receive input.
+   */
+  // Default interface methods are supported on all min SDK versions of Android.
+  @SuppressLint("NewApi")
+  default void onResume() {}
+
   /**
    * Callback fired when the platform's input connection is locked, or should be used.
    *
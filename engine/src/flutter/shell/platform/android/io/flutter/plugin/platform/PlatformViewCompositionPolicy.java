@@ -0,0 +1,48 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Selects how the platform views that the Flutter app requested with a texture layer are composed.
+ *
+ * <p>Set with {@link PlatformViewsController#setCompositionPolicy}. The default policy uses a
+ * texture layer whenever the view supports it.
+ */
+public interface PlatformViewCompositionPolicy {
+  /** The modes a platform view can be composed with. */
+  enum Mode {
+    /** The view is drawn into a texture that the engine composes. */
+    TEXTURE_LAYER,
+    /** The view is hosted in a virtual display that renders into a texture. */
+    VIRTUAL_DISPLAY,
+    /** The view is added to the Android view hierarchy, between Flutter overlay layers. */
+    HYBRID_COMPOSITION,
+  }
+
+  /**
+   * Selects the mode of a platform view.
+   *
+   * <p>Called on the platform thread each time the Flutter app creates a platform view with a
+   * texture layer.
+   *
+   * @param viewType the type of the platform view.
+   * @param fallbackMode the mode the Flutter app requested if the texture layer can't be used,
+   *     either {@link Mode#VIRTUAL_DISPLAY} or {@link Mode#HYBRID_COMPOSITION}.
+   * @param supportsTextureLayer false if the view contains views that can't be drawn into a
+   *     texture, such as a {@link android.view.SurfaceView}. The fallback mode is used for these
+   *     views regardless of the mode selected.
+   * @param stats the modes and frame costs measured so far.
+   * @return {@link Mode#TEXTURE_LAYER} or {@code fallbackMode}. Any other mode is treated as {@code
+   *     fallbackMode}.
+   */
+  @NonNull
+  Mode selectMode(
+      @NonNull String viewType,
+      @NonNull Mode fallbackMode,
+      boolean supportsTextureLayer,
+      @NonNull PlatformViewCompositionStats stats);
+}
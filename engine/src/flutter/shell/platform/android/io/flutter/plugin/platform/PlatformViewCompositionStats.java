@@ -0,0 +1,136 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import android.util.SparseArray;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.plugin.platform.PlatformViewCompositionPolicy.Mode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+
+/**
+ * Records the mode each platform view is composed with, and how long the window takes to render
+ * the frames in which the views of each type are shown in each mode.
+ *
+ * <p>Every mode is measured the same way: with the {@link android.view.FrameMetrics#TOTAL_DURATION}
+ * of the frames of the window that hosts the {@link io.flutter.embedding.android.FlutterView}, so
+ * the costs of a view type are comparable across modes. A frame in which views of several types or
+ * modes are shown counts for each of them. Virtual displays are rendered by their own display
+ * rather than by the window, and their frames are not measured.
+ *
+ * <p>The frame costs of a view type are kept after its views are disposed. Must only be used on
+ * the platform thread.
+ */
+public final class PlatformViewCompositionStats {
+  private static final class FrameCost {
+    long frameCount;
+    long totalNanos;
+  }
+
+  private static final class View {
+    @NonNull final Mode mode;
+    @NonNull final FrameCost cost;
+    boolean shown = true;
+
+    View(@NonNull Mode mode, @NonNull FrameCost cost) {
+      this.mode = mode;
+      this.cost = cost;
+    }
+  }
+
+  @NonNull private final HashMap<String, EnumMap<Mode, FrameCost>> frameCosts = new HashMap<>();
+  @NonNull private final SparseArray<View> views = new SparseArray<>();
+
+  // The costs a frame is recorded into, reused across frames.
+  @NonNull private final ArrayList<FrameCost> frameCostsOfFrame = new ArrayList<>();
+
+  /** Starts recording the frames in which a view that was created with the given mode is shown. */
+  void onViewCreated(int viewId, @NonNull String viewType, @NonNull Mode mode) {
+    EnumMap<Mode, FrameCost> costs = frameCosts.get(viewType);
+    if (costs == null) {
+      costs = new EnumMap<>(Mode.class);
+      frameCosts.put(viewType, costs);
+    }
+    FrameCost cost = costs.get(mode);
+    if (cost == null) {
+      cost = new FrameCost();
+      costs.put(mode, cost);
+    }
+    views.put(viewId, new View(mode, cost));
+  }
+
+  void onViewDisposed(int viewId) {
+    views.remove(viewId);
+  }
+
+  /** Sets whether a view is shown, such as when it's suspended. Views are shown when created. */
+  void setViewShown(int viewId, boolean shown) {
+    final View view = views.get(viewId);
+    if (view != null) {
+      view.shown = shown;
+    }
+  }
+
+  /** @return Whether a view whose frames are measured exists. */
+  boolean hasMeasuredViews() {
+    for (int i = 0; i < views.size(); i++) {
+      if (views.valueAt(i).mode != Mode.VIRTUAL_DISPLAY) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Records a frame of the window that took {@code durationNanos} to render. */
+  void recordWindowFrame(long durationNanos) {
+    for (int i = 0; i < views.size(); i++) {
+      final View view = views.valueAt(i);
+      if (view.shown
+          && view.mode != Mode.VIRTUAL_DISPLAY
+          && !frameCostsOfFrame.contains(view.cost)) {
+        frameCostsOfFrame.add(view.cost);
+      }
+    }
+    for (int i = 0; i < frameCostsOfFrame.size(); i++) {
+      final FrameCost cost = frameCostsOfFrame.get(i);
+      cost.frameCount++;
+      cost.totalNanos += durationNanos;
+    }
+    frameCostsOfFrame.clear();
+  }
+
+  /** @return The mode of the platform view, or null if there is no such view. */
+  @Nullable
+  public Mode getMode(int viewId) {
+    final View view = views.get(viewId);
+    return view == null ? null : view.mode;
+  }
+
+  /** @return The number of frames measured while views of a type were shown in a mode. */
+  public long getFrameCount(@NonNull String viewType, @NonNull Mode mode) {
+    final FrameCost cost = getFrameCost(viewType, mode);
+    return cost == null ? 0 : cost.frameCount;
+  }
+
+  /**
+   * @return The average time the window took to render a frame while views of a type were shown
+   *     in a mode, or -1 if no frame was measured.
+   */
+  public long getAverageFrameCostNanos(@NonNull String viewType, @NonNull Mode mode) {
+    final FrameCost cost = getFrameCost(viewType, mode);
+    if (cost == null || cost.frameCount == 0) {
+      return -1;
+    }
+    return cost.totalNanos / cost.frameCount;
+  }
+
+  @Nullable
+  private FrameCost getFrameCost(@NonNull String viewType, @NonNull Mode mode) {
+    final EnumMap<Mode, FrameCost> costs = frameCosts.get(viewType);
+    return costs == null ? null : costs.get(mode);
+  }
+}
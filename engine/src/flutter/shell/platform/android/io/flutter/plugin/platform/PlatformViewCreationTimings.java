@@ -0,0 +1,53 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+/**
+ * How long each phase of the creation of a platform view displayed with a texture layer took.
+ *
+ * <p>See {@link PlatformViewsController#getCreationTimings}.
+ */
+public final class PlatformViewCreationTimings {
+  private final boolean deferred;
+  long textureAllocationNanos;
+  long queueNanos;
+  long constructionNanos;
+  long attachNanos;
+
+  PlatformViewCreationTimings(boolean deferred) {
+    this.deferred = deferred;
+  }
+
+  /**
+   * @return Whether the view was constructed after the texture ID was sent to the Flutter app. See
+   *     {@link PlatformViewRegistry#setDeferredCreation}.
+   */
+  public boolean isDeferred() {
+    return deferred;
+  }
+
+  /** @return The time it took to create the render target and the wrapper of the view. */
+  public long getTextureAllocationNanos() {
+    return textureAllocationNanos;
+  }
+
+  /**
+   * @return The time between sending the texture ID to the Flutter app and constructing the view,
+   *     or 0 if the view was not deferred.
+   */
+  public long getQueueNanos() {
+    return queueNanos;
+  }
+
+  /** @return The time the factory or the warm pool took to provide the view. */
+  public long getConstructionNanos() {
+    return constructionNanos;
+  }
+
+  /** @return The time it took to add the view to its wrapper. */
+  public long getAttachNanos() {
+    return attachNanos;
+  }
+}
@@ -0,0 +1,87 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.embedding.engine.mutatorsstack.FlutterMutatorsStack;
+
+/**
+ * The position, size and mutators a platform view was last displayed with.
+ *
+ * <p>The engine calls {@code onDisplayPlatformView} for every platform view in every frame, with a
+ * newly built {@link FlutterMutatorsStack}. Comparing it with the state of the previous frame lets
+ * the controllers skip the layout, invalidation and surface transactions of views that did not
+ * change.
+ *
+ * <p>Must only be used on the platform thread.
+ */
+final class PlatformViewDisplayState {
+  private int x;
+  private int y;
+  private int width;
+  private int height;
+  private int viewWidth;
+  private int viewHeight;
+  @Nullable private FlutterMutatorsStack mutatorsStack;
+
+  /**
+   * Records the state a platform view is displayed with.
+   *
+   * @return false if the view was last displayed with the same state, in which case it does not
+   *     need to be updated.
+   */
+  boolean update(
+      int x,
+      int y,
+      int width,
+      int height,
+      int viewWidth,
+      int viewHeight,
+      @NonNull FlutterMutatorsStack mutatorsStack) {
+    if (this.x == x
+        && this.y == y
+        && this.width == width
+        && this.height == height
+        && this.viewWidth == viewWidth
+        && this.viewHeight == viewHeight
+        && mutatorsStack.equals(this.mutatorsStack)) {
+      return false;
+    }
+    this.x = x;
+    this.y = y;
+    this.width = width;
+    this.height = height;
+    this.viewWidth = viewWidth;
+    this.viewHeight = viewHeight;
+    this.mutatorsStack = mutatorsStack;
+    return true;
+  }
+
+  /** Forgets the recorded state, so that the next {@link #update} reports a change. */
+  void invalidate() {
+    mutatorsStack = null;
+  }
+
+  /**
+   * Brings {@code view} to the front of its parent, unless it is already the topmost child.
+   *
+   * <p>{@link View#bringToFront()} requests a layout and invalidates the parent even if the order
+   * of the children does not change.
+   */
+  static void bringToFront(@NonNull View view) {
+    final ViewParent parent = view.getParent();
+    if (parent instanceof ViewGroup) {
+      final ViewGroup group = (ViewGroup) parent;
+      if (group.indexOfChild(view) == group.getChildCount() - 1) {
+        return;
+      }
+    }
+    view.bringToFront();
+  }
+}
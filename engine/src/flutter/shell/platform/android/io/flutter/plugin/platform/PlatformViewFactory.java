@@ -30,6 +30,23 @@ public abstract class PlatformViewFactory {
   @NonNull
   public abstract PlatformView create(Context context, int viewId, @Nullable Object args);
 
+  /**
+   * Creates a view ahead of time, to fill the warm pool of this factory's view type.
+   *
+   * <p>The warm pool calls this while the platform thread is idle, see {@link
+   * PlatformViewRegistry#setWarmPoolCapacity}. The view is bound to a platform view with {@link
+   * RecyclablePlatformView#onBind} when the Flutter app creates one.
+   *
+   * @param context the context to be used when creating the view, this is different than
+   *     FlutterView's context.
+   * @return the view, or null if the views of this factory cannot be created ahead of time, which
+   *     is the default.
+   */
+  @Nullable
+  public RecyclablePlatformView createWarmView(@NonNull Context context) {
+    return null;
+  }
+
   /** Returns the codec to be used for decoding the args parameter of {@link #create}. */
   @Nullable
   public final MessageCodec<Object> getCreateArgsCodec() {
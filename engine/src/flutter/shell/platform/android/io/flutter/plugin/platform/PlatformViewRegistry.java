@@ -4,6 +4,7 @@
 
 package io.flutter.plugin.platform;
 
+import android.annotation.SuppressLint;
 import androidx.annotation.NonNull;
 
 /**
@@ -21,4 +22,49 @@ public interface PlatformViewRegistry {
    * @return true if succeeded, false if a factory is already registered for viewTypeId.
    */
   boolean registerViewFactory(@NonNull String viewTypeId, @NonNull PlatformViewFactory factory);
+
+  /**
+   * Sets how many views of a type are created ahead of time and kept in a warm pool.
+   *
+   * <p>Views that are expensive to construct, such as web views or maps, can be created while the
+   * platform thread is idle with {@link PlatformViewFactory#createWarmView}, and handed out when
+   * the Flutter app creates a platform view of the type. Views disposed by the Flutter app are
+   * recycled into the pool while it has room. Idle views are disposed when the system is low on
+   * memory.
+   *
+   * <p>The pool is used for platform views displayed with texture layer hybrid composition. The
+   * pool is empty by default.
+   *
+   * @param viewTypeId the identifier of a registered view type.
+   * @param capacity the number of views to keep in the pool, or 0 to disable the pool.
+   * @return true if succeeded, false if no factory is registered for viewTypeId.
+   */
+  // Default interface methods are supported on all min SDK versions of Android.
+  @SuppressLint("NewApi")
+  default boolean setWarmPoolCapacity(@NonNull String viewTypeId, int capacity) {
+    return false;
+  }
+
+  /**
+   * Sets whether the views of a type are constructed after the Flutter app is sent their texture.
+   *
+   * <p>When the Flutter app creates a platform view of a deferred type, the render target of the
+   * view is allocated and its texture ID is sent back right away. The view is constructed on a
+   * later turn of the platform thread, and the texture stays transparent until the view draws.
+   * Other calls for the view complete its construction first.
+   *
+   * <p>This only applies to platform views displayed with texture layer hybrid composition. The
+   * views of a deferred type must support the texture layer, and must not contain views such as
+   * {@link android.view.SurfaceView}, as there is no fallback once the texture ID was sent. Views
+   * are not deferred by default.
+   *
+   * @param viewTypeId the identifier of a registered view type.
+   * @param deferred whether the construction of the views of the type is deferred.
+   * @return true if succeeded, false if no factory is registered for viewTypeId.
+   */
+  // Default interface methods are supported on all min SDK versions of Android.
+  @SuppressLint("NewApi")
+  default boolean setDeferredCreation(@NonNull String viewTypeId, boolean deferred) {
+    return false;
+  }
 }
@@ -5,7 +5,9 @@
 package io.flutter.plugin.platform;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class PlatformViewRegistryImpl implements PlatformViewRegistry {
 
@@ -16,6 +18,12 @@ public class PlatformViewRegistryImpl implements PlatformViewRegistry {
   // Maps a platform view type id to its factory.
   private final Map<String, PlatformViewFactory> viewFactories;
 
+  // The views created ahead of time for the view types that opted in.
+  private final PlatformViewWarmPool warmPool = new PlatformViewWarmPool();
+
+  // The view types whose views are constructed after their texture ID is sent.
+  private final Set<String> deferredViewTypes = new HashSet<>();
+
   @Override
   public boolean registerViewFactory(String viewTypeId, PlatformViewFactory factory) {
     if (viewFactories.containsKey(viewTypeId)) return false;
@@ -23,7 +31,34 @@ public class PlatformViewRegistryImpl implements PlatformViewRegistry {
     return true;
   }
 
+  @Override
+  public boolean setWarmPoolCapacity(String viewTypeId, int capacity) {
+    final PlatformViewFactory factory = viewFactories.get(viewTypeId);
+    if (factory == null) return false;
+    warmPool.setCapacity(viewTypeId, factory, capacity);
+    return true;
+  }
+
+  @Override
+  public boolean setDeferredCreation(String viewTypeId, boolean deferred) {
+    if (!viewFactories.containsKey(viewTypeId)) return false;
+    if (deferred) {
+      deferredViewTypes.add(viewTypeId);
+    } else {
+      deferredViewTypes.remove(viewTypeId);
+    }
+    return true;
+  }
+
   PlatformViewFactory getFactory(String viewTypeId) {
     return viewFactories.get(viewTypeId);
   }
+
+  PlatformViewWarmPool getWarmPool() {
+    return warmPool;
+  }
+
+  boolean isCreationDeferred(String viewTypeId) {
+    return deferredViewTypes.contains(viewTypeId);
+  }
 }
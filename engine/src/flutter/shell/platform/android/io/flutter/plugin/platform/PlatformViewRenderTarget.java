@@ -35,4 +35,10 @@ public interface PlatformViewRenderTarget {
 
   // Schedules a frame to be drawn.
   default void scheduleFrame() {}
+
+  // Returns the System.nanoTime() at which the engine last drew the render target into a frame,
+  // or 0 if it's unknown.
+  default long getLastDrawNanos() {
+    return 0;
+  }
 }
@@ -0,0 +1,230 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.Log;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps views of the platform view types that opted in with {@link
+ * PlatformViewRegistry#setWarmPoolCapacity}, so that creating a platform view does not have to
+ * construct its Android view while the Flutter app is waiting for it.
+ *
+ * <p>Missing views are created one at a time while the platform thread is idle, with a {@link
+ * MessageQueue.IdleHandler}, so that creating them does not delay frames or input. Views are only
+ * created while the pool is attached to a context.
+ *
+ * <p>Views are created with a {@link MutableContextWrapper}, like the views of the display modes
+ * that may have to change the context of a view.
+ *
+ * <p>Must only be used on the platform thread.
+ */
+final class PlatformViewWarmPool {
+  private static final String TAG = "PlatformViewWarmPool";
+
+  private static final class TypePool {
+    @NonNull final PlatformViewFactory factory;
+    int capacity;
+    // Idle views, least recently added first.
+    @NonNull final ArrayDeque<RecyclablePlatformView> idle = new ArrayDeque<>();
+
+    TypePool(@NonNull PlatformViewFactory factory) {
+      this.factory = factory;
+    }
+  }
+
+  @NonNull private final Map<String, TypePool> pools = new HashMap<>();
+  @NonNull private final Handler handler = new Handler(Looper.getMainLooper());
+  @NonNull private final MessageQueue.IdleHandler fillIdleHandler = this::fillOne;
+  @NonNull private final Runnable addFillIdleHandler = this::addFillIdleHandler;
+  @Nullable private Context context;
+  private boolean fillScheduled = false;
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  /** Sets the number of idle views of a type, disposing the idle views over it. */
+  void setCapacity(@NonNull String viewTypeId, @NonNull PlatformViewFactory factory, int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative, was " + capacity);
+    }
+    TypePool pool = pools.get(viewTypeId);
+    if (pool == null) {
+      pool = new TypePool(factory);
+      pools.put(viewTypeId, pool);
+    }
+    pool.capacity = capacity;
+    while (pool.idle.size() > capacity) {
+      evict(pool.idle.pollFirst());
+    }
+    scheduleFill();
+  }
+
+  int getCapacity(@NonNull String viewTypeId) {
+    final TypePool pool = pools.get(viewTypeId);
+    return pool == null ? 0 : pool.capacity;
+  }
+
+  /** Starts creating views with the given context. */
+  void attach(@NonNull Context context) {
+    this.context = context;
+    scheduleFill();
+  }
+
+  /** Disposes the idle views, which reference the context, and stops creating views. */
+  void detach() {
+    clear();
+    context = null;
+  }
+
+  /**
+   * Returns an idle view of the given type, or null if there is none.
+   *
+   * <p>The view is no longer tracked by the pool, which creates another view for it.
+   */
+  @Nullable
+  RecyclablePlatformView acquire(@NonNull String viewTypeId) {
+    final TypePool pool = pools.get(viewTypeId);
+    if (pool == null || pool.capacity == 0) {
+      return null;
+    }
+    final RecyclablePlatformView view = pool.idle.pollLast();
+    if (view == null) {
+      missCount++;
+    } else {
+      hitCount++;
+    }
+    scheduleFill();
+    return view;
+  }
+
+  /**
+   * Recycles a view of the given type that the Flutter app disposed into the pool.
+   *
+   * @return false if the pool of the type is full or disabled, in which case the caller must
+   *     dispose the view.
+   */
+  boolean release(@NonNull String viewTypeId, @NonNull RecyclablePlatformView view) {
+    final TypePool pool = pools.get(viewTypeId);
+    if (context == null || pool == null || pool.idle.size() >= pool.capacity) {
+      return false;
+    }
+    view.onRecycle();
+    pool.idle.addLast(view);
+    return true;
+  }
+
+  /** Disposes every idle view. The pool is filled again on the next {@link #acquire}. */
+  void clear() {
+    if (fillScheduled) {
+      fillScheduled = false;
+      handler.removeCallbacks(addFillIdleHandler);
+      Looper.myQueue().removeIdleHandler(fillIdleHandler);
+    }
+    for (TypePool pool : pools.values()) {
+      while (!pool.idle.isEmpty()) {
+        evict(pool.idle.pollFirst());
+      }
+    }
+  }
+
+  /** Disposes the idle views when the system is low on memory. */
+  void onTrimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+      clear();
+    }
+  }
+
+  int getIdleCount(@NonNull String viewTypeId) {
+    final TypePool pool = pools.get(viewTypeId);
+    return pool == null ? 0 : pool.idle.size();
+  }
+
+  /** @return The number of platform views created with a view of the pool. */
+  long getHitCount() {
+    return hitCount;
+  }
+
+  /** @return The number of {@link #acquire} calls that found no idle view of an enabled type. */
+  long getMissCount() {
+    return missCount;
+  }
+
+  /** @return The number of idle views disposed for capacity or memory pressure. */
+  long getEvictionCount() {
+    return evictionCount;
+  }
+
+  private void scheduleFill() {
+    if (!fillScheduled && findPoolToFill() != null) {
+      fillScheduled = true;
+      addFillIdleHandler();
+    }
+  }
+
+  private void addFillIdleHandler() {
+    Looper.myQueue().addIdleHandler(fillIdleHandler);
+  }
+
+  // Creates a single view, so that each view is created in a separate idle slot.
+  private boolean fillOne() {
+    fillScheduled = false;
+    final TypePool pool = findPoolToFill();
+    if (pool == null) {
+      return false;
+    }
+    final RecyclablePlatformView view =
+        pool.factory.createWarmView(new MutableContextWrapper(context));
+    if (view == null || view.getView() == null) {
+      Log.w(TAG, "The factory did not create a view for the warm pool, disabling the pool.");
+      if (view != null) {
+        view.dispose();
+      }
+      pool.capacity = 0;
+    } else {
+      pool.idle.addLast(view);
+    }
+    if (findPoolToFill() != null) {
+      // Idle handlers run once each time the queue becomes idle, so a message is posted for the
+      // handler to run again when the queue is idle after it.
+      fillScheduled = true;
+      handler.post(addFillIdleHandler);
+    }
+    return false;
+  }
+
+  @Nullable
+  private TypePool findPoolToFill() {
+    if (context == null) {
+      return null;
+    }
+    for (TypePool pool : pools.values()) {
+      if (pool.idle.size() < pool.capacity) {
+        return pool;
+      }
+    }
+    return null;
+  }
+
+  private void evict(@NonNull RecyclablePlatformView view) {
+    try {
+      view.dispose();
+    } catch (RuntimeException exception) {
+      Log.e(TAG, "Disposing platform view threw an exception", exception);
+    }
+    evictionCount++;
+  }
+}
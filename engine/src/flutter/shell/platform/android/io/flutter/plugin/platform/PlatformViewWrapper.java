@@ -111,6 +111,17 @@ public class PlatformViewWrapper extends FrameLayout {
     return 0;
   }
 
+  /**
+   * Returns the {@link System#nanoTime()} at which the engine last drew the texture of this view
+   * into a frame, or 0 if it's unknown.
+   */
+  long getLastDrawNanos() {
+    if (renderTarget != null) {
+      return renderTarget.getLastDrawNanos();
+    }
+    return 0;
+  }
+
   /** Releases resources. */
   public void release() {
     if (renderTarget != null) {
@@ -7,11 +7,15 @@ package io.flutter.plugin.platform;
 import static io.flutter.Build.API_LEVELS;
 
 import android.annotation.SuppressLint;
+import android.app.Activity;
 import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.MutableContextWrapper;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.SparseArray;
+import android.view.FrameMetrics;
 import android.view.Gravity;
 import android.view.MotionEvent;
 import android.view.MotionEvent.PointerCoords;
@@ -19,6 +23,7 @@ import android.view.MotionEvent.PointerProperties;
 import android.view.SurfaceView;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.Window;
 import android.widget.FrameLayout;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -44,6 +49,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
  * Manages platform views.
@@ -54,6 +61,11 @@ import java.util.List;
 public class PlatformViewsController implements PlatformViewsAccessibilityDelegate {
   private static final String TAG = "PlatformViewsController";
 
+  // The bounds of the interval at which the views that can be suspended are checked for whether
+  // the engine still draws them.
+  private static final long MIN_DRAW_CHECK_INTERVAL_MILLIS = 16;
+  private static final long MAX_DRAW_CHECK_INTERVAL_MILLIS = 250;
+
   // These view types allow out-of-band drawing commands that don't notify the Android view
   // hierarchy.
   // To support these cases, Flutter hosts the embedded view in a VirtualDisplay,
@@ -79,6 +91,13 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
 
   private FlutterJNI flutterJNI = null;
 
+  // Returns the System.nanoTime() at which the engine last waited for a vsync signal to produce a
+  // frame, or 0 if it never did.
+  @Nullable private LongSupplier vsyncRequestClock;
+
+  // The renderer that draws the textures of the views in `viewWrappers`.
+  @Nullable private FlutterRenderer flutterRenderer;
+
   // The texture registry maintaining the textures into which the embedded views will be rendered.
   @VisibleForTesting @Nullable TextureRegistry textureRegistry;
 
@@ -96,6 +115,22 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   // bad option at the time of writing.
   @VisibleForTesting /* package */ final HashMap<Integer, VirtualDisplayController> vdControllers;
 
+  // Selects the composition mode of the platform views created with a texture layer.
+  private PlatformViewCompositionPolicy compositionPolicy = new MeasuredCompositionPolicy();
+
+  // The composition mode and frame costs of the platform views.
+  private final PlatformViewCompositionStats compositionStats = new PlatformViewCompositionStats();
+
+  // The window whose frames are recorded into `compositionStats`, or null if none is.
+  @Nullable private Window frameMetricsWindow;
+
+  private final Window.OnFrameMetricsAvailableListener frameMetricsListener =
+      (window, frameMetrics, dropCountSinceLastInvocation) ->
+          compositionStats.recordWindowFrame(frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION));
+
+  // The virtual displays that virtual display controllers can reuse.
+  private final VirtualDisplayPool virtualDisplayPool = new VirtualDisplayPool();
+
   // Maps a virtual display's context to the embedded view hosted in this virtual display.
   // Since each virtual display has it's unique context this allows associating any view with the
   // platform view that
@@ -120,9 +155,24 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   // For example, a transform matrix, or setting opacity on the platform view layer.
   private final SparseArray<FlutterMutatorView> platformViewParent;
 
+  // The view types of the platform views that can be recycled into the warm pool of their type.
+  private final SparseArray<String> recyclableViewTypes = new SparseArray<>();
+
+  // The state each platform view in `platformViewParent` was last displayed with.
+  private final SparseArray<PlatformViewDisplayState> platformViewDisplayStates =
+      new SparseArray<>();
+
   // Map of unique IDs to views that render overlay layers.
   private final SparseArray<PlatformOverlayView> overlayLayerViews;
 
+  // Overlay views the engine destroyed, which may be reused by the next overlay layers.
+  private final OverlaySurfacePool overlaySurfacePool =
+      new OverlaySurfacePool(OverlaySurfacePool.DEFAULT_MEMORY_BUDGET_BYTES);
+
+  // Overlay views the engine destroyed that may still be in the view hierarchy. They are removed
+  // at the end of the next frame, unless they were reused.
+  private final ArrayList<PlatformOverlayView> destroyedOverlayViews = new ArrayList<>();
+
   // The platform view wrappers that are appended to FlutterView.
   //
   // These platform views use a TextureLayer in the framework. This is different than
@@ -131,6 +181,36 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   // This is the default mode, and recommended for better performance.
   private final SparseArray<PlatformViewWrapper> viewWrappers;
 
+  // How long a platform view in `viewWrappers` must be off-screen before it is suspended, or a
+  // negative value if views are never suspended.
+  private long offscreenSuspensionDelayMillis = -1;
+
+  // Runs the suspensions of off-screen platform views and the deferred creations.
+  private final Handler handler = new Handler(Looper.getMainLooper());
+
+  // The pending suspensions of the off-screen platform views.
+  private final SparseArray<Runnable> pendingSuspensions = new SparseArray<>();
+
+  // The platform views that are suspended.
+  private final HashSet<Integer> suspendedPlatformViews = new HashSet<>();
+
+  // Suspends the views that the engine no longer draws, and resumes the suspended views that it
+  // draws again.
+  private final Runnable drawCheck = this::checkDrawnPlatformViews;
+
+  // Whether `drawCheck` is posted to `handler`.
+  private boolean drawCheckScheduled = false;
+
+  // The value of `vsyncRequestClock` when `drawCheck` last ran.
+  private long lastCheckedVsyncRequestNanos = 0;
+
+  // The constructions of the platform views in `viewWrappers` that were deferred after their
+  // texture ID was sent.
+  private final SparseArray<Runnable> pendingCreations = new SparseArray<>();
+
+  // How long the phases of the creation of the platform views in `viewWrappers` took.
+  private final SparseArray<PlatformViewCreationTimings> creationTimings = new SparseArray<>();
+
   // Next available unique ID for use in overlayLayerViews.
   private int nextOverlayLayerId = 0;
 
@@ -211,7 +291,13 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
                     + viewId);
           }
 
+          if (registry.isCreationDeferred(request.viewType)) {
+            return createDeferredForTextureLayer(request);
+          }
+
+          final long constructionStartNanos = System.nanoTime();
           final PlatformView platformView = createPlatformView(request, true);
+          final long constructionNanos = System.nanoTime() - constructionStartNanos;
 
           final View embeddedView = platformView.getView();
           if (embeddedView.getParent() != null) {
@@ -228,12 +314,25 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           // - The API level is <23, due to TLHC implementation API requirements.
           final boolean supportsTextureLayerMode =
               !ViewUtils.hasChildViewOfType(embeddedView, VIEW_TYPES_REQUIRE_NON_TLHC);
-
-          // Fall back to Hybrid Composition or Virtual Display when necessary, depending on which
-          // fallback mode is requested.
-          if (!supportsTextureLayerMode) {
-            if (request.displayMode
-                == PlatformViewCreationRequest.RequestedDisplayMode.TEXTURE_WITH_HYBRID_FALLBACK) {
+          final PlatformViewCompositionPolicy.Mode fallbackMode =
+              request.displayMode
+                      == PlatformViewCreationRequest.RequestedDisplayMode
+                          .TEXTURE_WITH_HYBRID_FALLBACK
+                  ? PlatformViewCompositionPolicy.Mode.HYBRID_COMPOSITION
+                  : PlatformViewCompositionPolicy.Mode.VIRTUAL_DISPLAY;
+          final boolean usesTextureLayerMode =
+              compositionPolicy.selectMode(
+                          request.viewType,
+                          fallbackMode,
+                          supportsTextureLayerMode,
+                          compositionStats)
+                      == PlatformViewCompositionPolicy.Mode.TEXTURE_LAYER
+                  && supportsTextureLayerMode;
+
+          // Fall back to Hybrid Composition or Virtual Display when necessary, or when the
+          // composition policy selected it, depending on which fallback mode is requested.
+          if (!usesTextureLayerMode) {
+            if (fallbackMode == PlatformViewCompositionPolicy.Mode.HYBRID_COMPOSITION) {
               configureForHybridComposition(platformView, request);
               return PlatformViewsChannel.PlatformViewsHandler.NON_TEXTURE_FALLBACK;
             } else if (!usesSoftwareRendering) { // Virtual Display doesn't support software mode.
@@ -243,16 +342,28 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
             // For now, preserve the 3.0 behavior of falling through to Texture Layer mode even
             // though it won't work correctly.
           }
-          return configureForTextureLayerComposition(platformView, request);
+          final long textureId = configureForTextureLayerComposition(platformView, request);
+          creationTimings.get(viewId).constructionNanos = constructionNanos;
+          return textureId;
         }
 
         @Override
         public void dispose(int viewId) {
+          final Runnable pendingCreation = pendingCreations.get(viewId);
+          if (pendingCreation != null) {
+            // The view was not constructed yet, only its wrapper needs to be removed.
+            handler.removeCallbacks(pendingCreation);
+            pendingCreations.remove(viewId);
+            removeViewWrapper(viewId);
+            return;
+          }
           final PlatformView platformView = platformViews.get(viewId);
           if (platformView == null) {
             Log.e(TAG, "Disposing unknown platform view with id: " + viewId);
             return;
           }
+          compositionStats.onViewDisposed(viewId);
+          updateFrameMetricsListener();
           if (platformView.getView() != null) {
             final View embeddedView = platformView.getView();
             final ViewGroup pvParent = (ViewGroup) embeddedView.getParent();
@@ -264,10 +375,21 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
             }
           }
           platformViews.remove(viewId);
-          try {
-            platformView.dispose();
-          } catch (RuntimeException exception) {
-            Log.e(TAG, "Disposing platform view threw an exception", exception);
+          final String recyclableViewType = recyclableViewTypes.get(viewId);
+          recyclableViewTypes.remove(viewId);
+          // Views of virtual displays are not recycled, as their context was changed.
+          final boolean recycled =
+              recyclableViewType != null
+                  && !usesVirtualDisplay(viewId)
+                  && registry
+                      .getWarmPool()
+                      .release(recyclableViewType, (RecyclablePlatformView) platformView);
+          if (!recycled) {
+            try {
+              platformView.dispose();
+            } catch (RuntimeException exception) {
+              Log.e(TAG, "Disposing platform view threw an exception", exception);
+            }
           }
           if (usesVirtualDisplay(viewId)) {
             final VirtualDisplayController vdController = vdControllers.get(viewId);
@@ -281,17 +403,8 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           }
           // The platform view is displayed using a TextureLayer and is inserted in the view
           // hierarchy.
-          final PlatformViewWrapper viewWrapper = viewWrappers.get(viewId);
-          if (viewWrapper != null) {
-            viewWrapper.removeAllViews();
-            viewWrapper.release();
-            viewWrapper.unsetOnDescendantFocusChangeListener();
-
-            final ViewGroup wrapperParent = (ViewGroup) viewWrapper.getParent();
-            if (wrapperParent != null) {
-              wrapperParent.removeView(viewWrapper);
-            }
-            viewWrappers.remove(viewId);
+          if (viewWrappers.get(viewId) != null) {
+            removeViewWrapper(viewId);
             return;
           }
           // The platform view is displayed using a PlatformViewLayer.
@@ -305,6 +418,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
               mutatorViewParent.removeView(parentView);
             }
             platformViewParent.remove(viewId);
+            platformViewDisplayStates.remove(viewId);
           }
         }
 
@@ -334,12 +448,14 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           layoutParams.leftMargin = physicalLeft;
           layoutParams.gravity = Gravity.LEFT | Gravity.TOP;
           viewWrapper.setLayoutParams(layoutParams);
+          updateSuspension(viewId, viewWrapper);
         }
 
         @Override
         public void resize(
             @NonNull PlatformViewsChannel.PlatformViewResizeRequest request,
             @NonNull PlatformViewsChannel.PlatformViewBufferResized onComplete) {
+          finishPendingCreation(request.viewId);
           final int physicalWidth = toPhysicalPixels(request.newLogicalWidth);
           final int physicalHeight = toPhysicalPixels(request.newLogicalHeight);
           final int viewId = request.viewId;
@@ -404,6 +520,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
             embeddedViewLayoutParams.height = physicalHeight;
             embeddedView.setLayoutParams(embeddedViewLayoutParams);
           }
+          updateSuspension(viewId, viewWrapper);
           onComplete.run(
               new PlatformViewsChannel.PlatformViewBufferSize(
                   toLogicalPixels(viewWrapper.getRenderTargetWidth()),
@@ -413,6 +530,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
         @Override
         public void onTouch(@NonNull PlatformViewTouch touch) {
           final int viewId = touch.viewId;
+          finishPendingCreation(viewId);
           final float density = context.getResources().getDisplayMetrics().density;
 
           if (usesVirtualDisplay(viewId)) {
@@ -432,12 +550,17 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
             Log.e(TAG, "Sending touch to a null view with id: " + viewId);
             return;
           }
+          // The last offset of a view may be out of date, resume it before it handles input.
+          if (suspendedPlatformViews.contains(viewId)) {
+            resumePlatformView(viewId);
+          }
           final MotionEvent event = toMotionEvent(density, touch, false);
           view.dispatchTouchEvent(event);
         }
 
         @Override
         public void setDirection(int viewId, int direction) {
+          finishPendingCreation(viewId);
           if (!validateDirection(direction)) {
             throw new IllegalStateException(
                 "Trying to set unknown direction value: "
@@ -469,6 +592,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
 
         @Override
         public void clearFocus(int viewId) {
+          finishPendingCreation(viewId);
           View embeddedView;
 
           if (usesVirtualDisplay(viewId)) {
@@ -530,9 +654,18 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     // In some display modes, the context needs to be modified during display.
     // TODO(stuartmorgan): Make this wrapping unconditional if possible; for context see
     // https://github.com/flutter/flutter/issues/113449
-    final Context mutableContext = wrapContext ? new MutableContextWrapper(context) : context;
-    final PlatformView platformView =
-        viewFactory.create(mutableContext, request.viewId, createParams);
+    // Views of the warm pool are created with a MutableContextWrapper, so they can only be used
+    // where the context is wrapped.
+    final RecyclablePlatformView warmView =
+        wrapContext ? registry.getWarmPool().acquire(request.viewType) : null;
+    final PlatformView platformView;
+    if (warmView != null) {
+      warmView.onBind(request.viewId, createParams);
+      platformView = warmView;
+    } else {
+      final Context mutableContext = wrapContext ? new MutableContextWrapper(context) : context;
+      platformView = viewFactory.create(mutableContext, request.viewId, createParams);
+    }
 
     // Configure the view to match the requested layout direction.
     final View embeddedView = platformView.getView();
@@ -542,6 +675,9 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     }
     embeddedView.setLayoutDirection(request.direction);
     platformViews.put(request.viewId, platformView);
+    if (wrapContext && platformView instanceof RecyclablePlatformView) {
+      recyclableViewTypes.put(request.viewId, request.viewType);
+    }
     maybeInvokeOnFlutterViewAttached(platformView);
     return platformView;
   }
@@ -551,6 +687,9 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       @NonNull PlatformView platformView, @NonNull PlatformViewCreationRequest request) {
     Log.i(TAG, "Using hybrid composition for platform view: " + request.viewId);
     throwIfHCPPEnabled();
+    compositionStats.onViewCreated(
+        request.viewId, request.viewType, PlatformViewCompositionPolicy.Mode.HYBRID_COMPOSITION);
+    updateFrameMetricsListener();
   }
 
   // Throws an exception if HC++ is enabled, as HC mode can not work in combination with HC++.
@@ -586,7 +725,8 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
               if (hasFocus) {
                 platformViewsChannel.invokeViewFocused(request.viewId);
               }
-            });
+            },
+            virtualDisplayPool);
 
     if (vdController == null) {
       throw new IllegalStateException(
@@ -600,6 +740,9 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     // virtual display itself is sized.
 
     vdControllers.put(request.viewId, vdController);
+    compositionStats.onViewCreated(
+        request.viewId, request.viewType, PlatformViewCompositionPolicy.Mode.VIRTUAL_DISPLAY);
+    updateFrameMetricsListener();
     final View embeddedView = platformView.getView();
     contextToEmbeddedView.put(embeddedView.getContext(), embeddedView);
 
@@ -611,11 +754,21 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   @VisibleForTesting(otherwise = VisibleForTesting.PACKAGE_PRIVATE)
   public long configureForTextureLayerComposition(
       @NonNull PlatformView platformView, @NonNull PlatformViewCreationRequest request) {
+    final long textureId = allocateTextureLayer(request, /*deferred=*/ false);
+    attachToTextureLayer(platformView, request);
+    return textureId;
+  }
+
+  // Creates the render target and the wrapper of a platform view displayed with a texture layer,
+  // returning the associated texture ID.
+  private long allocateTextureLayer(
+      @NonNull PlatformViewCreationRequest request, boolean deferred) {
     // This mode attaches the view to the Android view hierarchy and record its drawing
     // operations, so they can be forwarded to a GL texture that is composed by the
     // Flutter engine.
     Log.i(TAG, "Hosting view in view hierarchy for platform view: " + request.viewId);
 
+    final long startNanos = System.nanoTime();
     final int physicalWidth = toPhysicalPixels(request.logicalWidth);
     final int physicalHeight = toPhysicalPixels(request.logicalHeight);
     PlatformViewWrapper viewWrapper;
@@ -630,6 +783,9 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     }
     viewWrapper.setTouchProcessor(androidTouchProcessor);
     viewWrapper.resizeRenderTarget(physicalWidth, physicalHeight);
+    compositionStats.onViewCreated(
+        request.viewId, request.viewType, PlatformViewCompositionPolicy.Mode.TEXTURE_LAYER);
+    updateFrameMetricsListener();
 
     final FrameLayout.LayoutParams viewWrapperLayoutParams =
         new FrameLayout.LayoutParams(physicalWidth, physicalHeight, Gravity.LEFT | Gravity.TOP);
@@ -641,7 +797,24 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     viewWrapperLayoutParams.leftMargin = physicalLeft;
     viewWrapper.setLayoutParams(viewWrapperLayoutParams);
 
+    flutterView.addView(viewWrapper);
+    viewWrappers.append(request.viewId, viewWrapper);
+
+    final PlatformViewCreationTimings timings = new PlatformViewCreationTimings(deferred);
+    timings.textureAllocationNanos = System.nanoTime() - startNanos;
+    creationTimings.put(request.viewId, timings);
+    return textureId;
+  }
+
+  // Adds a platform view to the wrapper created by `allocateTextureLayer`.
+  private void attachToTextureLayer(
+      @NonNull PlatformView platformView, @NonNull PlatformViewCreationRequest request) {
+    final long startNanos = System.nanoTime();
+    final PlatformViewWrapper viewWrapper = viewWrappers.get(request.viewId);
+
     // Size the embedded view.
+    final int physicalWidth = toPhysicalPixels(request.logicalWidth);
+    final int physicalHeight = toPhysicalPixels(request.logicalHeight);
     final View embeddedView = platformView.getView();
     embeddedView.setLayoutParams(new FrameLayout.LayoutParams(physicalWidth, physicalHeight));
 
@@ -668,14 +841,92 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           }
         });
 
-    flutterView.addView(viewWrapper);
-    viewWrappers.append(request.viewId, viewWrapper);
+    updateSuspension(request.viewId, viewWrapper);
 
     maybeInvokeOnFlutterViewAttached(platformView);
 
+    creationTimings.get(request.viewId).attachNanos = System.nanoTime() - startNanos;
+  }
+
+  // Allocates the texture of a platform view of a deferred type, and constructs the view on a
+  // later turn of the platform thread, returning the associated texture ID.
+  private long createDeferredForTextureLayer(@NonNull PlatformViewCreationRequest request) {
+    final long textureId = allocateTextureLayer(request, /*deferred=*/ true);
+    final long queuedNanos = System.nanoTime();
+    final Runnable creation =
+        () -> {
+          pendingCreations.remove(request.viewId);
+          finishDeferredCreation(request, queuedNanos);
+        };
+    pendingCreations.put(request.viewId, creation);
+    handler.post(creation);
     return textureId;
   }
 
+  private void finishDeferredCreation(
+      @NonNull PlatformViewCreationRequest request, long queuedNanos) {
+    final PlatformViewCreationTimings timings = creationTimings.get(request.viewId);
+    final long startNanos = System.nanoTime();
+    timings.queueNanos = startNanos - queuedNanos;
+    final PlatformView platformView;
+    try {
+      platformView = createPlatformView(request, true);
+    } catch (RuntimeException exception) {
+      // The Flutter app already received the texture ID, so the error can't be returned to it.
+      Log.e(TAG, "Creating deferred platform view with id: " + request.viewId, exception);
+      removeViewWrapper(request.viewId);
+      return;
+    }
+    timings.constructionNanos = System.nanoTime() - startNanos;
+
+    final View embeddedView = platformView.getView();
+    if (embeddedView.getParent() != null) {
+      Log.e(
+          TAG,
+          "The Android view returned from PlatformView#getView() was already added to a parent"
+              + " view, disposing deferred platform view with id: "
+              + request.viewId);
+      channelHandler.dispose(request.viewId);
+      return;
+    }
+    if (ViewUtils.hasChildViewOfType(embeddedView, VIEW_TYPES_REQUIRE_NON_TLHC)) {
+      Log.w(
+          TAG,
+          "The deferred platform view of type "
+              + request.viewType
+              + " contains views that can't be displayed with a texture layer.");
+    }
+    attachToTextureLayer(platformView, request);
+  }
+
+  // Constructs a platform view whose deferred creation is pending.
+  private void finishPendingCreation(int viewId) {
+    final Runnable creation = pendingCreations.get(viewId);
+    if (creation != null) {
+      handler.removeCallbacks(creation);
+      creation.run();
+    }
+  }
+
+  // Removes the wrapper of a platform view displayed with a texture layer.
+  private void removeViewWrapper(int viewId) {
+    final PlatformViewWrapper viewWrapper = viewWrappers.get(viewId);
+    cancelSuspension(viewId);
+    suspendedPlatformViews.remove(viewId);
+    compositionStats.onViewDisposed(viewId);
+    updateFrameMetricsListener();
+    creationTimings.remove(viewId);
+    viewWrapper.removeAllViews();
+    viewWrapper.release();
+    viewWrapper.unsetOnDescendantFocusChangeListener();
+
+    final ViewGroup wrapperParent = (ViewGroup) viewWrapper.getParent();
+    if (wrapperParent != null) {
+      wrapperParent.removeView(viewWrapper);
+    }
+    viewWrappers.remove(viewId);
+  }
+
   /**
    * Translates an original touch event to have the same locations as the ones that Flutter
    * calculates (because original + flutter's - original = flutter's).
@@ -807,6 +1058,9 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     this.context = context;
     this.textureRegistry = textureRegistry;
     platformViewsChannel = new PlatformViewsChannel(dartExecutor);
+    if (context != null) {
+      registry.getWarmPool().attach(context);
+    }
   }
 
   /**
@@ -825,6 +1079,68 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     usesSoftwareRendering = useSoftwareRendering;
   }
 
+  /**
+   * Sets how long a platform view displayed with a texture layer must be off-screen before it is
+   * suspended.
+   *
+   * <p>A suspended view is no longer drawn, and the Flutter app shows the last frame it drew. The
+   * view is notified with {@link PlatformView#onSuspend()} so that it can pause its work, and with
+   * {@link PlatformView#onResume()} when it's on-screen again. Views that have focus are not
+   * suspended.
+   *
+   * <p>A view is off-screen when the last offset and size the Flutter app set are outside of the
+   * {@link FlutterView}, or when the engine keeps producing frames without drawing the view, such
+   * as when a route covers it. Only the views rendered with a {@link
+   * io.flutter.view.TextureRegistry.SurfaceProducer} or an {@link
+   * io.flutter.view.TextureRegistry.ImageTextureEntry} report when the engine draws them.
+   *
+   * @param delayMillis The delay in milliseconds, or a negative value to never suspend views. This
+   *     is negative by default. Setting a negative value resumes the suspended views.
+   */
+  @UiThread
+  public void setOffscreenSuspensionDelay(long delayMillis) {
+    offscreenSuspensionDelayMillis = delayMillis;
+    for (int i = 0; i < viewWrappers.size(); i++) {
+      final int viewId = viewWrappers.keyAt(i);
+      cancelSuspension(viewId);
+      updateSuspension(viewId, viewWrappers.valueAt(i));
+    }
+  }
+
+  /**
+   * Sets the policy that selects the composition mode of the platform views that the Flutter app
+   * creates with a texture layer.
+   *
+   * <p>The default policy uses a texture layer for the views that support it, unless the window
+   * was measured to render views of the type faster in the fallback mode.
+   */
+  @UiThread
+  public void setCompositionPolicy(@NonNull PlatformViewCompositionPolicy compositionPolicy) {
+    this.compositionPolicy = compositionPolicy;
+  }
+
+  /** Returns the composition mode and measured frame costs of the platform views. */
+  @NonNull
+  public PlatformViewCompositionStats getCompositionStats() {
+    return compositionStats;
+  }
+
+  /**
+   * Returns how long the phases of the creation of a platform view displayed with a texture layer
+   * took, or null if there is no such view.
+   *
+   * <p>The timings of a deferred view are complete once the view is constructed.
+   */
+  @Nullable
+  public PlatformViewCreationTimings getCreationTimings(int viewId) {
+    return creationTimings.get(viewId);
+  }
+
+  @VisibleForTesting
+  boolean isPlatformViewSuspended(int viewId) {
+    return suspendedPlatformViews.contains(viewId);
+  }
+
   /**
    * Detaches this platform views controller.
    *
@@ -838,7 +1154,13 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     if (platformViewsChannel != null) {
       platformViewsChannel.setPlatformViewsHandler(null);
     }
-    destroyOverlaySurfaces();
+    // Deferred views are constructed while the context is available.
+    while (pendingCreations.size() > 0) {
+      finishPendingCreation(pendingCreations.keyAt(0));
+    }
+    closeOverlaySurfaces();
+    registry.getWarmPool().detach();
+    virtualDisplayPool.clear();
     platformViewsChannel = null;
     context = null;
     textureRegistry = null;
@@ -867,6 +1189,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       final PlatformView view = platformViews.valueAt(index);
       view.onFlutterViewAttached(flutterView);
     }
+    updateFrameMetricsListener();
   }
 
   /**
@@ -888,10 +1211,11 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       flutterView.removeView(view);
     }
 
-    destroyOverlaySurfaces();
+    closeOverlaySurfaces();
     removeOverlaySurfaces();
     flutterView = null;
     flutterViewConvertedToImageView = false;
+    updateFrameMetricsListener();
 
     // Notify that the platform view have been detached from FlutterView.
     for (int index = 0; index < platformViews.size(); index++) {
@@ -995,11 +1319,31 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     this.flutterJNI = flutterJNI;
   }
 
+  /**
+   * Sets the clock that returns the {@link System#nanoTime()} at which the engine last waited for a
+   * vsync signal to produce a frame, or 0 if it never did.
+   *
+   * <p>Platform views are only suspended for not being drawn while the engine produces frames.
+   */
+  public void setVsyncRequestClock(@Nullable LongSupplier vsyncRequestClock) {
+    this.vsyncRequestClock = vsyncRequestClock;
+  }
+
   @Override
   public boolean usesVirtualDisplay(int id) {
     return vdControllers.containsKey(id);
   }
 
+  /** @return The number of virtual displays created for platform views. */
+  public long getVirtualDisplayCreatedCount() {
+    return virtualDisplayPool.getCreatedCount();
+  }
+
+  /** @return The number of times a virtual display was reused instead of created. */
+  public long getVirtualDisplayReusedCount() {
+    return virtualDisplayPool.getReusedCount();
+  }
+
   private void lockInputConnection(@NonNull VirtualDisplayController controller) {
     if (textInputPlugin == null) {
       return;
@@ -1103,7 +1447,190 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     return toLogicalPixels(physicalPixels, getDisplayDensity());
   }
 
+  // Schedules the suspension of a view that moved off-screen, or resumes a view that is on-screen,
+  // and checks whether the engine draws the views until none of them can change.
+  private void updateSuspension(int viewId, @NonNull PlatformViewWrapper viewWrapper) {
+    scheduleDrawCheck();
+    applySuspension(viewId, viewWrapper);
+  }
+
+  private void applySuspension(int viewId, @NonNull PlatformViewWrapper viewWrapper) {
+    if (offscreenSuspensionDelayMillis < 0 || isOnScreen(viewWrapper)) {
+      cancelSuspension(viewId);
+      if (suspendedPlatformViews.contains(viewId)) {
+        resumePlatformView(viewId);
+      }
+      return;
+    }
+    if (suspendedPlatformViews.contains(viewId) || pendingSuspensions.get(viewId) != null) {
+      return;
+    }
+    final Runnable suspension =
+        () -> {
+          pendingSuspensions.remove(viewId);
+          suspendPlatformView(viewId);
+        };
+    pendingSuspensions.put(viewId, suspension);
+    handler.postDelayed(suspension, offscreenSuspensionDelayMillis);
+  }
+
+  // Records the frames of the window of the FlutterView into `compositionStats` while there are
+  // platform views whose frames are measured.
+  private void updateFrameMetricsListener() {
+    Window window = null;
+    if (flutterView != null && compositionStats.hasMeasuredViews()) {
+      final Activity activity = ViewUtils.getActivity(flutterView.getContext());
+      window = activity == null ? null : activity.getWindow();
+    }
+    if (window == frameMetricsWindow) {
+      return;
+    }
+    if (frameMetricsWindow != null) {
+      frameMetricsWindow.removeOnFrameMetricsAvailableListener(frameMetricsListener);
+    }
+    frameMetricsWindow = window;
+    if (frameMetricsWindow != null) {
+      frameMetricsWindow.addOnFrameMetricsAvailableListener(frameMetricsListener, handler);
+    }
+  }
+
+  private void cancelSuspension(int viewId) {
+    final Runnable suspension = pendingSuspensions.get(viewId);
+    if (suspension != null) {
+      handler.removeCallbacks(suspension);
+      pendingSuspensions.remove(viewId);
+    }
+  }
+
+  // Posts `drawCheck`, unless it's posted already or no view can be suspended.
+  private void scheduleDrawCheck() {
+    if (drawCheckScheduled
+        || offscreenSuspensionDelayMillis < 0
+        || vsyncRequestClock == null
+        || viewWrappers.size() == 0) {
+      return;
+    }
+    drawCheckScheduled = true;
+    handler.postDelayed(
+        drawCheck,
+        Math.max(
+            MIN_DRAW_CHECK_INTERVAL_MILLIS,
+            Math.min(offscreenSuspensionDelayMillis, MAX_DRAW_CHECK_INTERVAL_MILLIS)));
+  }
+
+  private void checkDrawnPlatformViews() {
+    drawCheckScheduled = false;
+    if (offscreenSuspensionDelayMillis < 0 || vsyncRequestClock == null) {
+      return;
+    }
+    final long vsyncRequestNanos = vsyncRequestClock.getAsLong();
+    boolean reportsDraws = false;
+    for (int i = 0; i < viewWrappers.size(); i++) {
+      final int viewId = viewWrappers.keyAt(i);
+      final PlatformViewWrapper viewWrapper = viewWrappers.valueAt(i);
+      reportsDraws |= viewWrapper.getLastDrawNanos() != 0;
+      if (isDrawn(viewWrapper, vsyncRequestNanos)) {
+        applySuspension(viewId, viewWrapper);
+      } else if (!suspendedPlatformViews.contains(viewId)) {
+        // The view was not drawn for the delay already.
+        cancelSuspension(viewId);
+        suspendPlatformView(viewId);
+      }
+    }
+    final boolean producedFrames = vsyncRequestNanos != lastCheckedVsyncRequestNanos;
+    lastCheckedVsyncRequestNanos = vsyncRequestNanos;
+    if (!reportsDraws) {
+      // Only the offsets of the views can change whether they are on-screen.
+      return;
+    }
+    if (!producedFrames) {
+      // Whether the views are drawn can't change until the engine produces frames again. Check
+      // again once it draws a view, or when the offsets of the views change.
+      if (flutterRenderer != null) {
+        flutterRenderer.setNextTextureDrawCallback(this::scheduleDrawCheck);
+      }
+      return;
+    }
+    scheduleDrawCheck();
+  }
+
+  private boolean isDrawn(@NonNull PlatformViewWrapper viewWrapper) {
+    if (vsyncRequestClock == null) {
+      return true;
+    }
+    return isDrawn(viewWrapper, vsyncRequestClock.getAsLong());
+  }
+
+  // Returns false when the engine kept producing frames for the suspension delay without drawing
+  // the view. The framework only sends the offsets of the views it paints, so the last offset of
+  // a view that is no longer painted, such as a view covered by a route, may still be on-screen.
+  private boolean isDrawn(@NonNull PlatformViewWrapper viewWrapper, long vsyncRequestNanos) {
+    final long lastDrawNanos = viewWrapper.getLastDrawNanos();
+    if (lastDrawNanos == 0) {
+      return true;
+    }
+    return vsyncRequestNanos - lastDrawNanos
+        < TimeUnit.MILLISECONDS.toNanos(offscreenSuspensionDelayMillis);
+  }
+
+  private boolean isOnScreen(@NonNull PlatformViewWrapper viewWrapper) {
+    if (!isDrawn(viewWrapper)) {
+      return false;
+    }
+    // Views are on-screen until the FlutterView is laid out.
+    if (flutterView == null || flutterView.getWidth() == 0 || flutterView.getHeight() == 0) {
+      return true;
+    }
+    final ViewGroup.LayoutParams params = viewWrapper.getLayoutParams();
+    if (!(params instanceof FrameLayout.LayoutParams)) {
+      return true;
+    }
+    final FrameLayout.LayoutParams layoutParams = (FrameLayout.LayoutParams) params;
+    return layoutParams.leftMargin < flutterView.getWidth()
+        && layoutParams.topMargin < flutterView.getHeight()
+        && layoutParams.leftMargin + layoutParams.width > 0
+        && layoutParams.topMargin + layoutParams.height > 0;
+  }
+
+  private void suspendPlatformView(int viewId) {
+    final PlatformView platformView = platformViews.get(viewId);
+    final PlatformViewWrapper viewWrapper = viewWrappers.get(viewId);
+    if (platformView == null || viewWrapper == null || viewWrapper.hasFocus()) {
+      return;
+    }
+    // The wrapper is no longer drawn into its render target, whose last frame is still used by
+    // the texture of the view.
+    viewWrapper.setVisibility(View.INVISIBLE);
+    suspendedPlatformViews.add(viewId);
+    compositionStats.setViewShown(viewId, false);
+    try {
+      platformView.onSuspend();
+    } catch (RuntimeException exception) {
+      Log.e(TAG, "Suspending platform view threw an exception", exception);
+    }
+  }
+
+  private void resumePlatformView(int viewId) {
+    suspendedPlatformViews.remove(viewId);
+    compositionStats.setViewShown(viewId, true);
+    final PlatformViewWrapper viewWrapper = viewWrappers.get(viewId);
+    if (viewWrapper != null) {
+      viewWrapper.setVisibility(View.VISIBLE);
+    }
+    final PlatformView platformView = platformViews.get(viewId);
+    if (platformView != null) {
+      try {
+        platformView.onResume();
+      } catch (RuntimeException exception) {
+        Log.e(TAG, "Resuming platform view threw an exception", exception);
+      }
+    }
+  }
+
   private void disposeAllViews() {
+    while (pendingCreations.size() > 0) {
+      channelHandler.dispose(pendingCreations.keyAt(0));
+    }
     while (platformViews.size() > 0) {
       final int viewId = platformViews.keyAt(0);
       // Dispose deletes the entry from platformViews and clears associated resources.
@@ -1113,9 +1640,11 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
 
   // Invoked when the Android system is requesting we reduce memory usage.
   public void onTrimMemory(int level) {
+    registry.getWarmPool().onTrimMemory(level);
     if (level < ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
       return;
     }
+    virtualDisplayPool.clear();
     for (VirtualDisplayController vdc : vdControllers.values()) {
       vdc.clearSurface();
     }
@@ -1201,6 +1730,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   }
 
   public void attachToFlutterRenderer(@NonNull FlutterRenderer flutterRenderer) {
+    this.flutterRenderer = flutterRenderer;
     androidTouchProcessor = new AndroidTouchProcessor(flutterRenderer, /*trackMotionEvents=*/ true);
   }
 
@@ -1226,22 +1756,34 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       int viewWidth,
       int viewHeight,
       @NonNull FlutterMutatorsStack mutatorsStack) {
+    // The engine is producing frames, so the texture layer views may no longer be drawn.
+    scheduleDrawCheck();
     initializeRootImageViewIfNeeded();
     if (!initializePlatformViewIfNeeded(viewId)) {
       return;
     }
 
     final FlutterMutatorView parentView = platformViewParent.get(viewId);
-    parentView.readyToDisplay(mutatorsStack, x, y, width, height);
+    PlatformViewDisplayState displayState = platformViewDisplayStates.get(viewId);
+    if (displayState == null) {
+      displayState = new PlatformViewDisplayState();
+      platformViewDisplayStates.put(viewId, displayState);
+    }
+    // Views displayed as in the previous frame only need to keep their place in the z-order.
+    final boolean changed =
+        displayState.update(x, y, width, height, viewWidth, viewHeight, mutatorsStack);
+    if (changed) {
+      parentView.readyToDisplay(mutatorsStack, x, y, width, height);
+    }
     parentView.setVisibility(View.VISIBLE);
-    parentView.bringToFront();
+    PlatformViewDisplayState.bringToFront(parentView);
 
-    final FrameLayout.LayoutParams layoutParams =
-        new FrameLayout.LayoutParams(viewWidth, viewHeight);
     final View view = platformViews.get(viewId).getView();
     if (view != null) {
-      view.setLayoutParams(layoutParams);
-      view.bringToFront();
+      if (changed) {
+        view.setLayoutParams(new FrameLayout.LayoutParams(viewWidth, viewHeight));
+      }
+      PlatformViewDisplayState.bringToFront(view);
     }
     currentFrameUsedPlatformViewIds.add(viewId);
   }
@@ -1335,6 +1877,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
         flutterView.removeView(overlayView);
       }
     }
+    removeDestroyedOverlayViews();
 
     for (int i = 0; i < platformViewParent.size(); i++) {
       final int viewId = platformViewParent.keyAt(i);
@@ -1388,16 +1931,24 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     // if the drawings they contain have a different tight bound.
     //
     // The final view size is determined when its frame is set.
-    return createOverlaySurface(
-        new PlatformOverlayView(
-            flutterView.getContext(),
-            flutterView.getWidth(),
-            flutterView.getHeight(),
-            accessibilityEventsDelegate));
+    final int width = flutterView.getWidth();
+    final int height = flutterView.getHeight();
+    PlatformOverlayView overlayView = overlaySurfacePool.acquire(width, height);
+    if (overlayView == null) {
+      overlayView =
+          new PlatformOverlayView(
+              flutterView.getContext(), width, height, accessibilityEventsDelegate);
+    } else {
+      destroyedOverlayViews.remove(overlayView);
+    }
+    return createOverlaySurface(overlayView);
   }
 
   /**
-   * Destroys the overlay surfaces and removes them from the view hierarchy.
+   * Destroys the overlay surfaces.
+   *
+   * <p>The overlay views are kept in a pool, and reused by the next overlay surfaces of the same
+   * size. They are removed from the view hierarchy at the end of the next frame.
    *
    * <p>This method is used only internally by {@code FlutterJNI}.
    */
@@ -1405,12 +1956,27 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     for (int viewId = 0; viewId < overlayLayerViews.size(); viewId++) {
       final PlatformOverlayView overlayView = overlayLayerViews.valueAt(viewId);
       overlayView.detachFromRenderer();
-      overlayView.closeImageReader();
+      if (!overlaySurfacePool.release(overlayView)) {
+        overlayView.closeImageReader();
+      }
       // Don't remove overlayView from the view hierarchy since this method can
       // be called while the Android framework is iterating over the array of views.
       // See ViewGroup#dispatchDetachedFromWindow(), and
       // https://github.com/flutter/flutter/issues/97679.
+      destroyedOverlayViews.add(overlayView);
     }
+    // The engine never displays the IDs of destroyed surfaces again.
+    overlayLayerViews.clear();
+  }
+
+  // Destroys the overlay surfaces and the pooled overlay views without reusing them.
+  private void closeOverlaySurfaces() {
+    for (int viewId = 0; viewId < overlayLayerViews.size(); viewId++) {
+      final PlatformOverlayView overlayView = overlayLayerViews.valueAt(viewId);
+      overlayView.detachFromRenderer();
+      overlayView.closeImageReader();
+    }
+    overlaySurfacePool.clear();
   }
 
   private void removeOverlaySurfaces() {
@@ -1422,6 +1988,15 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       flutterView.removeView(overlayLayerViews.valueAt(viewId));
     }
     overlayLayerViews.clear();
+    removeDestroyedOverlayViews();
+  }
+
+  private void removeDestroyedOverlayViews() {
+    for (PlatformOverlayView overlayView : destroyedOverlayViews) {
+      overlayView.setVisibility(View.GONE);
+      flutterView.removeView(overlayView);
+    }
+    destroyedOverlayViews.clear();
   }
 
   @VisibleForTesting
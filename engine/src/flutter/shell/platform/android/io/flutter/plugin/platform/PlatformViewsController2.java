@@ -72,15 +72,34 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
 
   private final SparseArray<PlatformView> platformViews;
   private final SparseArray<FlutterMutatorView> platformViewParent;
+  // The state each platform view in `platformViewParent` was last displayed with.
+  private final SparseArray<PlatformViewDisplayState> platformViewDisplayStates =
+      new SparseArray<>();
   private final MotionEventTracker motionEventTracker;
 
-  private final ArrayList<SurfaceControl.Transaction> pendingTransactions;
-  private final ArrayList<SurfaceControl.Transaction> activeTransactions;
+  // The transactions created since the last swap, and the transactions of the frame that is being
+  // ended. The lists are swapped by swapTransactions, not copied.
+  private ArrayList<SurfaceControl.Transaction> pendingTransactions;
+  private ArrayList<SurfaceControl.Transaction> activeTransactions;
+  // The transaction that platform views append their surface changes to until the next swap.
+  @Nullable private SurfaceControl.Transaction frameTransaction;
+  // The alpha and crop last set on the surface of each SurfaceView platform view.
+  private final SparseArray<SurfaceState> surfaceStates = new SparseArray<>();
   private Surface overlayerSurface = null;
   private SurfaceControl overlaySurfaceControl = null;
 
   private final HashSet<Integer> viewsWithPendingSurfaceCallback = new HashSet<>();
 
+  private static final class SurfaceState {
+    @NonNull final SurfaceControl surfaceControl;
+    float alpha;
+    @NonNull final Rect crop = new Rect();
+
+    SurfaceState(@NonNull SurfaceControl surfaceControl) {
+      this.surfaceControl = surfaceControl;
+    }
+  }
+
   public PlatformViewsController2() {
     accessibilityEventsDelegate = new AccessibilityEventsDelegate();
     platformViews = new SparseArray<>();
@@ -523,24 +542,46 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
     }
 
     final FlutterMutatorView parentView = platformViewParent.get(viewId);
-    parentView.readyToDisplay(mutatorsStack, x, y, width, height);
+    PlatformViewDisplayState displayState = platformViewDisplayStates.get(viewId);
+    if (displayState == null) {
+      displayState = new PlatformViewDisplayState();
+      platformViewDisplayStates.put(viewId, displayState);
+    }
+    // Views displayed as in the previous frame only need to keep their place in the z-order.
+    final boolean changed =
+        displayState.update(x, y, width, height, viewWidth, viewHeight, mutatorsStack);
+    if (changed) {
+      parentView.readyToDisplay(mutatorsStack, x, y, width, height);
+    }
     parentView.setVisibility(View.VISIBLE);
-    parentView.bringToFront();
+    PlatformViewDisplayState.bringToFront(parentView);
 
-    final FrameLayout.LayoutParams layoutParams =
-        new FrameLayout.LayoutParams(viewWidth, viewHeight, Gravity.LEFT | Gravity.TOP);
     final View view = platformViews.get(viewId).getView();
     if (view != null) {
-      view.setLayoutParams(layoutParams);
-      view.bringToFront();
-      if (view instanceof SurfaceView) {
-        maybeApplyClipToSurfaceView((SurfaceView) view, x, y, width, height, mutatorsStack, viewId);
+      if (changed) {
+        view.setLayoutParams(
+            new FrameLayout.LayoutParams(viewWidth, viewHeight, Gravity.LEFT | Gravity.TOP));
+      }
+      PlatformViewDisplayState.bringToFront(view);
+      // The surface of a SurfaceView is recreated when the view is shown again or the app returns
+      // to the foreground, even if the view did not change. The clip is applied in every frame,
+      // and setSurfaceAlphaAndCrop skips the values already set on the current SurfaceControl.
+      if (view instanceof SurfaceView
+          && !maybeApplyClipToSurfaceView(
+              (SurfaceView) view, x, y, width, height, mutatorsStack, viewId)) {
+        // Retry in the next frame, even if the view does not change.
+        displayState.invalidate();
       }
     }
   }
 
+  /**
+   * Applies the clip and opacity of {@code mutatorsStack} to the surface of {@code surfaceView}.
+   *
+   * @return false if the clip could not be applied in this frame.
+   */
   @RequiresApi(API_LEVELS.API_34)
-  private void maybeApplyClipToSurfaceView(
+  private boolean maybeApplyClipToSurfaceView(
       SurfaceView surfaceView,
       int x,
       int y,
@@ -593,13 +634,13 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
     SurfaceControl sc = surfaceView.getSurfaceControl();
     if (sc == null) {
       if (viewsWithPendingSurfaceCallback.contains(viewId)) {
-        return;
+        return false;
       }
       viewsWithPendingSurfaceCallback.add(viewId);
       SurfaceHolder.Callback cb =
           createSurfaceClipCallback(surfaceView, opacity, screenRect, viewId);
       surfaceView.getHolder().addCallback(cb);
-      return;
+      return false;
     }
     if (!sc.isValid()) {
       Log.i(
@@ -607,10 +648,10 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
           "Skipping applying clip to SurfaceView: "
               + surfaceView.getId()
               + " because it has an invalid SurfaceControl.");
-      return;
+      return false;
     }
-    SurfaceControl.Transaction tx =
-        createTransaction().setAlpha(sc, opacity).setCrop(sc, screenRect);
+    setSurfaceAlphaAndCrop(viewId, sc, opacity, screenRect);
+    return true;
   }
 
   @RequiresApi(API_LEVELS.API_34)
@@ -624,10 +665,7 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
       public void surfaceCreated(@NonNull SurfaceHolder holder) {
         SurfaceControl surfaceControl = surfaceView.getSurfaceControl();
         if (surfaceControl != null && surfaceControl.isValid()) {
-          SurfaceControl.Transaction tx =
-              createTransaction()
-                  .setAlpha(surfaceControl, opacity)
-                  .setCrop(surfaceControl, screenRect);
+          setSurfaceAlphaAndCrop(viewId, surfaceControl, opacity, screenRect);
         } else {
           Log.i(
               TAG,
@@ -656,6 +694,37 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
     };
   }
 
+  /**
+   * Sets the alpha and crop of the surface of a SurfaceView platform view in the transaction of the
+   * current frame, skipping the values that did not change since they were last set.
+   */
+  @RequiresApi(API_LEVELS.API_34)
+  private synchronized void setSurfaceAlphaAndCrop(
+      int viewId, @NonNull SurfaceControl surfaceControl, float alpha, @NonNull Rect crop) {
+    SurfaceState state = surfaceStates.get(viewId);
+    final boolean isNewSurface = state == null || state.surfaceControl != surfaceControl;
+    if (isNewSurface) {
+      state = new SurfaceState(surfaceControl);
+      surfaceStates.put(viewId, state);
+    }
+    final boolean alphaChanged = isNewSurface || Float.compare(state.alpha, alpha) != 0;
+    final boolean cropChanged = isNewSurface || !state.crop.equals(crop);
+    if (!alphaChanged && !cropChanged) {
+      return;
+    }
+    if (frameTransaction == null) {
+      frameTransaction = createTransaction();
+    }
+    if (alphaChanged) {
+      frameTransaction.setAlpha(surfaceControl, alpha);
+      state.alpha = alpha;
+    }
+    if (cropChanged) {
+      frameTransaction.setCrop(surfaceControl, crop);
+      state.crop.set(crop);
+    }
+  }
+
   public void hidePlatformView(int viewId) {
     if (!initializePlatformViewIfNeeded(viewId)) {
       return;
@@ -663,15 +732,20 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
 
     final FlutterMutatorView parentView = platformViewParent.get(viewId);
     parentView.setVisibility(View.GONE);
+    // Update the view in full when it is displayed again.
+    final PlatformViewDisplayState displayState = platformViewDisplayStates.get(viewId);
+    if (displayState != null) {
+      displayState.invalidate();
+    }
   }
 
   @RequiresApi(API_LEVELS.API_34)
   public void onEndFrame() {
-    SurfaceControl.Transaction tx = new SurfaceControl.Transaction();
-    for (int i = 0; i < activeTransactions.size(); i++) {
-      tx = tx.merge(activeTransactions.get(i));
+    final SurfaceControl.Transaction tx;
+    synchronized (this) {
+      tx = mergeTransactions(activeTransactions);
+      activeTransactions.clear();
     }
-    activeTransactions.clear();
     flutterView.invalidate();
     flutterView.getRootSurfaceControl().applyTransactionOnDraw(tx);
   }
@@ -679,13 +753,15 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
   // NOT called from UI thread.
   public synchronized void swapTransactions() {
     activeTransactions.clear();
-    activeTransactions.addAll(pendingTransactions);
-    pendingTransactions.clear();
+    final ArrayList<SurfaceControl.Transaction> swap = activeTransactions;
+    activeTransactions = pendingTransactions;
+    pendingTransactions = swap;
+    frameTransaction = null;
   }
 
   // NOT called from UI thread.
   @RequiresApi(API_LEVELS.API_34)
-  public SurfaceControl.Transaction createTransaction() {
+  public synchronized SurfaceControl.Transaction createTransaction() {
     SurfaceControl.Transaction tx = new SurfaceControl.Transaction();
     pendingTransactions.add(tx);
     return tx;
@@ -693,13 +769,25 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
 
   // NOT called from UI thread.
   @RequiresApi(API_LEVELS.API_34)
-  public void applyTransactions() {
-    SurfaceControl.Transaction tx = new SurfaceControl.Transaction();
-    for (int i = 0; i < pendingTransactions.size(); i++) {
-      tx = tx.merge(pendingTransactions.get(i));
-    }
-    tx.apply();
+  public synchronized void applyTransactions() {
+    mergeTransactions(pendingTransactions).apply();
     pendingTransactions.clear();
+    frameTransaction = null;
+  }
+
+  // Merges the transactions into the first one, instead of into a new transaction.
+  @RequiresApi(API_LEVELS.API_34)
+  @NonNull
+  private static SurfaceControl.Transaction mergeTransactions(
+      @NonNull List<SurfaceControl.Transaction> transactions) {
+    if (transactions.isEmpty()) {
+      return new SurfaceControl.Transaction();
+    }
+    final SurfaceControl.Transaction tx = transactions.get(0);
+    for (int i = 1; i < transactions.size(); i++) {
+      tx.merge(transactions.get(i));
+    }
+    return tx;
   }
 
   @RequiresApi(API_LEVELS.API_34)
@@ -802,6 +890,8 @@ public class PlatformViewsController2 implements PlatformViewsAccessibilityDeleg
               mutatorViewParent.removeView(parentView);
             }
             platformViewParent.remove(viewId);
+            platformViewDisplayStates.remove(viewId);
+            surfaceStates.remove(viewId);
           }
         }
 
@@ -0,0 +1,36 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import androidx.annotation.Nullable;
+
+/**
+ * A {@link PlatformView} that can be created before the Flutter app requests it, and reused after
+ * the Flutter app disposes it.
+ *
+ * <p>Views of this type are created by {@link PlatformViewFactory#createWarmView} to fill the warm
+ * pool of their view type, see {@link PlatformViewRegistry#setWarmPoolCapacity}.
+ */
+public interface RecyclablePlatformView extends PlatformView {
+  /**
+   * Called when this view is handed out of the warm pool for a platform view that the Flutter app
+   * created.
+   *
+   * @param viewId unique identifier for the created instance, this value is known on the Dart side.
+   * @param args arguments sent from the Flutter app, decoded by the codec of the factory. This is
+   *     null if the factory has no codec, or no arguments were sent from the Flutter app.
+   */
+  void onBind(int viewId, @Nullable Object args);
+
+  /**
+   * Called instead of {@link #dispose()} when the Flutter app disposes this view, and the view is
+   * kept in the warm pool for reuse.
+   *
+   * <p>Implementations must reset the state that was set up for the previous platform view, and
+   * release the references related to the Android {@link android.view.View} attached in {@link
+   * #onFlutterViewAttached}, as they would in {@link #dispose()}.
+   */
+  void onRecycle();
+}
@@ -8,6 +8,7 @@ import static io.flutter.Build.API_LEVELS;
 
 import android.view.Surface;
 import androidx.annotation.RequiresApi;
+import io.flutter.embedding.engine.renderer.FlutterRenderer;
 import io.flutter.view.TextureRegistry.SurfaceProducer;
 
 @RequiresApi(API_LEVELS.API_29)
@@ -58,4 +59,11 @@ public class SurfaceProducerPlatformViewRenderTarget implements PlatformViewRend
   public void scheduleFrame() {
     this.producer.scheduleFrame();
   }
+
+  public long getLastDrawNanos() {
+    if (this.producer == null) {
+      return 0;
+    }
+    return FlutterRenderer.getLastDrawNanos(this.producer.getFrameStatistics());
+  }
 }
@@ -41,7 +41,8 @@ class VirtualDisplayController {
       int height,
       int viewId,
       Object createParams,
-      OnFocusChangeListener focusChangeListener) {
+      OnFocusChangeListener focusChangeListener,
+      VirtualDisplayPool virtualDisplayPool) {
     if (width == 0 || height == 0) {
       return null;
     }
@@ -61,17 +62,15 @@ class VirtualDisplayController {
     // virtual display and AndroidPlatformView widget.
     // https://github.com/flutter/flutter/issues/93115
     renderTarget.resize(width, height);
-    int flags = 0;
     VirtualDisplay virtualDisplay =
-        displayManager.createVirtualDisplay(
+        virtualDisplayPool.obtain(
+            displayManager,
             "flutter-vd#" + viewId,
             width,
             height,
             metrics.densityDpi,
             renderTarget.getSurface(),
-            flags,
-            callback,
-            null /* handler */);
+            callback);
 
     if (virtualDisplay == null) {
       return null;
@@ -85,7 +84,8 @@ class VirtualDisplayController {
             renderTarget,
             focusChangeListener,
             viewId,
-            createParams);
+            createParams,
+            virtualDisplayPool);
     return controller;
   }
 
@@ -97,6 +97,7 @@ class VirtualDisplayController {
   private final int viewId;
   private final PlatformViewRenderTarget renderTarget;
   private final OnFocusChangeListener focusChangeListener;
+  private final VirtualDisplayPool virtualDisplayPool;
 
   private VirtualDisplay virtualDisplay;
 
@@ -108,13 +109,15 @@ class VirtualDisplayController {
       PlatformViewRenderTarget renderTarget,
       OnFocusChangeListener focusChangeListener,
       int viewId,
-      Object createParams) {
+      Object createParams,
+      VirtualDisplayPool virtualDisplayPool) {
     this.context = context;
     this.accessibilityEventsDelegate = accessibilityEventsDelegate;
     this.renderTarget = renderTarget;
     this.focusChangeListener = focusChangeListener;
     this.viewId = viewId;
     this.virtualDisplay = virtualDisplay;
+    this.virtualDisplayPool = virtualDisplayPool;
     this.densityDpi = context.getResources().getDisplayMetrics().densityDpi;
     presentation =
         new SingleViewPresentation(
@@ -154,24 +157,23 @@ class VirtualDisplayController {
     }
     boolean isFocused = getView().isFocused();
     final SingleViewPresentation.PresentationState presentationState = presentation.detachState();
-    // We detach the surface to prevent it being destroyed when releasing the vd.
-    virtualDisplay.setSurface(null);
-    virtualDisplay.release();
+    // The pool detaches the surface, which prevents it from being destroyed with the vd. A vd of
+    // the previous size may be reused if the view is resized back, such as during an animation.
+    virtualDisplayPool.release(
+        virtualDisplay, getRenderTargetWidth(), getRenderTargetHeight(), densityDpi);
 
     final DisplayManager displayManager =
         (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
     renderTarget.resize(width, height);
-    int flags = 0;
     virtualDisplay =
-        displayManager.createVirtualDisplay(
+        virtualDisplayPool.obtain(
+            displayManager,
             "flutter-vd#" + viewId,
             width,
             height,
             densityDpi,
             renderTarget.getSurface(),
-            flags,
-            callback,
-            null /* handler */);
+            callback);
 
     final View embeddedView = getView();
     // There's a bug in Android version older than O where view tree observer onDrawListeners don't
@@ -227,7 +229,9 @@ class VirtualDisplayController {
     // Fix rare crash on HuaWei device described in: https://github.com/flutter/engine/pull/9192
     presentation.cancel();
     presentation.detachState();
-    virtualDisplay.release();
+    // The vd may be reused by another platform view.
+    virtualDisplayPool.release(
+        virtualDisplay, getRenderTargetWidth(), getRenderTargetHeight(), densityDpi);
     renderTarget.release();
   }
 
@@ -0,0 +1,185 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static io.flutter.Build.API_LEVELS;
+
+import android.hardware.display.DisplayManager;
+import android.hardware.display.VirtualDisplay;
+import android.os.Build;
+import android.view.Surface;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Keeps the virtual displays of disposed virtual display platform views, and of views that were
+ * resized, so that the next view or size can reuse them instead of creating a new display.
+ *
+ * <p>Idle displays are keyed by density and size bucket. Before API 31, presentations don't handle
+ * a display that is resized, so a bucket is an exact size. From API 31, a display is resized in
+ * place, and displays of the same bucket are preferred over the other displays of the density.
+ *
+ * <p>Idle displays have no surface. Must only be used on the platform thread.
+ */
+final class VirtualDisplayPool {
+  /** The default number of idle displays. */
+  static final int DEFAULT_CAPACITY = 2;
+
+  // The size of a bucket on API 31+, in physical pixels.
+  private static final int SIZE_BUCKET_PIXELS = 128;
+
+  private static final int FLAGS = 0;
+
+  private static final class Entry {
+    @NonNull final VirtualDisplay virtualDisplay;
+    final int width;
+    final int height;
+    final int densityDpi;
+
+    Entry(@NonNull VirtualDisplay virtualDisplay, int width, int height, int densityDpi) {
+      this.virtualDisplay = virtualDisplay;
+      this.width = width;
+      this.height = height;
+      this.densityDpi = densityDpi;
+    }
+  }
+
+  // Idle displays, least recently released first.
+  @NonNull private final ArrayDeque<Entry> idle = new ArrayDeque<>();
+  private int capacity = DEFAULT_CAPACITY;
+
+  private long createdCount = 0;
+  private long reusedCount = 0;
+  private long evictionCount = 0;
+
+  /** Sets the maximum number of idle displays, releasing the oldest ones over it. */
+  void setCapacity(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative, was " + capacity);
+    }
+    this.capacity = capacity;
+    while (idle.size() > capacity) {
+      evict(idle.pollFirst());
+    }
+  }
+
+  /**
+   * Returns a virtual display with the given size and density that renders to {@code surface},
+   * reusing an idle display if possible.
+   *
+   * @return the display, or null if a new display could not be created.
+   */
+  @Nullable
+  VirtualDisplay obtain(
+      @NonNull DisplayManager displayManager,
+      @NonNull String name,
+      int width,
+      int height,
+      int densityDpi,
+      @Nullable Surface surface,
+      @Nullable VirtualDisplay.Callback callback) {
+    final Entry entry = findIdle(width, height, densityDpi);
+    if (entry != null) {
+      idle.remove(entry);
+      if (entry.width != width || entry.height != height) {
+        entry.virtualDisplay.resize(width, height, densityDpi);
+      }
+      entry.virtualDisplay.setSurface(surface);
+      reusedCount++;
+      return entry.virtualDisplay;
+    }
+    final VirtualDisplay virtualDisplay =
+        displayManager.createVirtualDisplay(
+            name, width, height, densityDpi, surface, FLAGS, callback, null /* handler */);
+    if (virtualDisplay != null) {
+      createdCount++;
+    }
+    return virtualDisplay;
+  }
+
+  /**
+   * Adds a display that is no longer used to the pool, releasing the least recently released
+   * display if the pool is full.
+   */
+  void release(@NonNull VirtualDisplay virtualDisplay, int width, int height, int densityDpi) {
+    // Detach the surface first, which belongs to the render target of the previous view.
+    virtualDisplay.setSurface(null);
+    if (capacity == 0) {
+      virtualDisplay.release();
+      return;
+    }
+    if (idle.size() == capacity) {
+      evict(idle.pollFirst());
+    }
+    idle.addLast(new Entry(virtualDisplay, width, height, densityDpi));
+  }
+
+  /** Releases every idle display. */
+  void clear() {
+    while (!idle.isEmpty()) {
+      evict(idle.pollFirst());
+    }
+  }
+
+  int getIdleCount() {
+    return idle.size();
+  }
+
+  /** @return The number of displays created because no idle display could be reused. */
+  long getCreatedCount() {
+    return createdCount;
+  }
+
+  /** @return The number of idle displays that were reused. */
+  long getReusedCount() {
+    return reusedCount;
+  }
+
+  /** @return The number of idle displays released for good. */
+  long getEvictionCount() {
+    return evictionCount;
+  }
+
+  // Returns the most recently released display that can be used for the given size and density.
+  @Nullable
+  private Entry findIdle(int width, int height, int densityDpi) {
+    final boolean canResize = Build.VERSION.SDK_INT >= API_LEVELS.API_31;
+    Entry sameDensity = null;
+    Entry sameBucket = null;
+    final Iterator<Entry> iterator = idle.descendingIterator();
+    while (iterator.hasNext()) {
+      final Entry entry = iterator.next();
+      if (entry.densityDpi != densityDpi) {
+        continue;
+      }
+      if (entry.width == width && entry.height == height) {
+        return entry;
+      }
+      if (!canResize) {
+        continue;
+      }
+      if (sameBucket == null
+          && bucket(entry.width) == bucket(width)
+          && bucket(entry.height) == bucket(height)) {
+        sameBucket = entry;
+      }
+      if (sameDensity == null) {
+        sameDensity = entry;
+      }
+    }
+    return sameBucket != null ? sameBucket : sameDensity;
+  }
+
+  private static int bucket(int size) {
+    return (size + SIZE_BUCKET_PIXELS - 1) / SIZE_BUCKET_PIXELS;
+  }
+
+  private void evict(@NonNull Entry entry) {
+    entry.virtualDisplay.release();
+    evictionCount++;
+  }
+}
@@ -17,6 +17,7 @@ import android.opengl.Matrix;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
 import android.provider.Settings;
 import android.text.TextUtils;
 import android.view.MotionEvent;
@@ -33,6 +34,7 @@ import androidx.annotation.RequiresApi;
 import androidx.annotation.VisibleForTesting;
 import io.flutter.Build.API_LEVELS;
 import io.flutter.BuildConfig;
+import io.flutter.FlutterInjector;
 import io.flutter.Log;
 import io.flutter.embedding.engine.systemchannels.AccessibilityChannel;
 import io.flutter.plugin.platform.PlatformViewsAccessibilityDelegate;
@@ -45,6 +47,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -365,6 +368,10 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
         @Override
         public void updateCustomAccessibilityActions(ByteBuffer buffer, String[] strings) {
           buffer.order(ByteOrder.LITTLE_ENDIAN);
+          if (semanticsUpdateDecoder != null) {
+            semanticsUpdateDecoder.enqueueCustomAccessibilityActions(buffer, strings);
+            return;
+          }
           AccessibilityBridge.this.updateCustomAccessibilityActions(buffer, strings);
         }
 
@@ -376,6 +383,10 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
           for (ByteBuffer args : stringAttributeArgs) {
             args.order(ByteOrder.LITTLE_ENDIAN);
           }
+          if (semanticsUpdateDecoder != null) {
+            semanticsUpdateDecoder.enqueueSemanticsUpdate(buffer, strings, stringAttributeArgs);
+            return;
+          }
           AccessibilityBridge.this.updateSemantics(buffer, strings, stringAttributeArgs);
         }
 
@@ -386,10 +397,52 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
 
         @Override
         public void resetSemantics() {
+          if (semanticsUpdateDecoder != null) {
+            semanticsUpdateDecoder.enqueueReset();
+            return;
+          }
           AccessibilityBridge.this.reset();
         }
       };
 
+  // Applies semantics updates that were decoded off the platform thread by the {@code
+  // semanticsUpdateDecoder}.
+  private final SemanticsUpdateDecoder.Applier semanticsUpdateApplier =
+      new SemanticsUpdateDecoder.Applier() {
+        @Override
+        public void applyCustomAccessibilityActions(
+            @NonNull List<SemanticsUpdateDecoder.CustomActionSnapshot> actions) {
+          for (SemanticsUpdateDecoder.CustomActionSnapshot snapshot : actions) {
+            CustomAccessibilityAction action = getOrCreateAccessibilityAction(snapshot.id);
+            action.overrideId = snapshot.overrideId;
+            action.label = snapshot.label;
+            action.hint = snapshot.hint;
+          }
+        }
+
+        @Override
+        public void applySemanticsUpdate(
+            @NonNull SemanticsUpdateDecoder.SemanticsUpdateSnapshot update) {
+          AccessibilityBridge.this.applySemanticsUpdate(update);
+        }
+
+        @Override
+        public void applyReset() {
+          AccessibilityBridge.this.reset();
+        }
+      };
+
+  // Decodes semantics updates on a background thread when enabled through {@link
+  // #setBackgroundSemanticsDecodingEnabled(boolean)}, null otherwise.
+  @Nullable private SemanticsUpdateDecoder semanticsUpdateDecoder;
+
+  // Deduplicates the accessibility events sent while applying semantics updates. Coalescing is
+  // disabled unless enabled through {@link #setAccessibilityEventCoalescingWindow(long)}.
+  @NonNull
+  private final AccessibilityEventCoalescer accessibilityEventCoalescer =
+      new AccessibilityEventCoalescer(
+          this::dispatchAccessibilityEvent, new Handler(Looper.getMainLooper()));
+
   // Listener that is notified when accessibility is turned on/off.
   private final AccessibilityManager.AccessibilityStateChangeListener
       accessibilityStateChangeListener =
@@ -644,6 +697,12 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
    */
   public void release() {
     isReleased = true;
+    accessibilityEventCoalescer.clear();
+    accessibilityViewEmbedder.clear();
+    if (semanticsUpdateDecoder != null) {
+      semanticsUpdateDecoder.release();
+      semanticsUpdateDecoder = null;
+    }
     platformViewsAccessibilityDelegate.detachAccessibilityBridge();
     setOnAccessibilityChangeListener(null);
     accessibilityManager.removeAccessibilityStateChangeListener(accessibilityStateChangeListener);
@@ -657,6 +716,93 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     accessibilityChannel.setAccessibilityMessageHandler(null);
   }
 
+  /**
+   * Sets whether semantics updates from Flutter are decoded on a background thread.
+   *
+   * <p>By default, the semantics buffers sent by the engine are parsed on the platform thread as
+   * soon as they arrive. When enabled, the buffers are copied and decoded into immutable node
+   * snapshots on {@link FlutterInjector#executorService()}, nodes that did not change since the
+   * previous update are identified, and the platform thread only applies the resulting delta and
+   * sends accessibility events. This is most useful when the platform thread also runs the Flutter
+   * UI, where semantics parsing would otherwise add to frame time.
+   *
+   * <p>Updates are still applied in the order in which they are received, but they are applied on
+   * a later turn of the main looper. This should be set before Flutter starts sending semantics
+   * updates, since updates that are still being decoded when it changes are discarded.
+   */
+  public void setBackgroundSemanticsDecodingEnabled(boolean enabled) {
+    if (enabled == (semanticsUpdateDecoder != null)) {
+      return;
+    }
+    setSemanticsUpdateDecoder(
+        enabled
+            ? new SemanticsUpdateDecoder(
+                FlutterInjector.instance().executorService(),
+                new Handler(Looper.getMainLooper()),
+                semanticsUpdateApplier)
+            : null);
+  }
+
+  /** Returns whether semantics updates are decoded on a background thread. */
+  public boolean isBackgroundSemanticsDecodingEnabled() {
+    return semanticsUpdateDecoder != null;
+  }
+
+  @VisibleForTesting
+  void setBackgroundSemanticsDecodingEnabled(
+      @NonNull Executor executor, @NonNull Handler platformHandler) {
+    setSemanticsUpdateDecoder(
+        new SemanticsUpdateDecoder(executor, platformHandler, semanticsUpdateApplier));
+  }
+
+  private void setSemanticsUpdateDecoder(@Nullable SemanticsUpdateDecoder decoder) {
+    if (semanticsUpdateDecoder != null) {
+      semanticsUpdateDecoder.release();
+    }
+    semanticsUpdateDecoder = decoder;
+  }
+
+  /**
+   * Sets the time window over which accessibility events produced by semantics updates are
+   * coalesced.
+   *
+   * <p>Applying a semantics update can produce several {@link AccessibilityEvent}s for the same
+   * node, and several updates may arrive within a single frame. When coalescing is enabled, {@link
+   * AccessibilityEvent#TYPE_WINDOW_CONTENT_CHANGED} events for the same node are merged, and {@link
+   * AccessibilityEvent#TYPE_VIEW_SCROLLED}, selection and focus events for the same node only
+   * report the latest state, so that each is sent to the accessibility service once.
+   *
+   * @param windowMillis a negative value disables coalescing, which is the default. {@code 0}
+   *     coalesces the events produced by each semantics update. A positive value additionally
+   *     coalesces the events of every update applied within that many milliseconds, which can be
+   *     set to a frame interval to send events once per frame.
+   */
+  public void setAccessibilityEventCoalescingWindow(long windowMillis) {
+    accessibilityEventCoalescer.setWindowMillis(
+        windowMillis < 0 ? AccessibilityEventCoalescer.COALESCING_DISABLED : windowMillis);
+  }
+
+  /**
+   * Returns the window set with {@link #setAccessibilityEventCoalescingWindow(long)}, or a negative
+   * value if coalescing is disabled.
+   */
+  public long getAccessibilityEventCoalescingWindow() {
+    return accessibilityEventCoalescer.getWindowMillis();
+  }
+
+  /** Returns the number of accessibility events this bridge has sent to Android. */
+  public long getSentAccessibilityEventCount() {
+    return accessibilityEventCoalescer.getSentEventCount();
+  }
+
+  /**
+   * Returns the number of accessibility events that were not sent to Android because they were
+   * coalesced with another event for the same node.
+   */
+  public long getSuppressedAccessibilityEventCount() {
+    return accessibilityEventCoalescer.getSuppressedEventCount();
+  }
+
   /** Returns true if the Android OS currently has accessibility enabled, false otherwise. */
   public boolean isAccessibilityEnabled() {
     return accessibilityManager.isEnabled();
@@ -1566,25 +1712,78 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       int id = buffer.getInt();
       SemanticsNode semanticsNode = getOrCreateSemanticsNode(id);
       semanticsNode.updateWith(buffer, strings, stringAttributeArgs);
-      if (semanticsNode.hasFlag(Flag.IS_HIDDEN)) {
+      onSemanticsNodeUpdated(semanticsNode, updated);
+    }
+    accessibilityEventCoalescer.beginBatch();
+    try {
+      onSemanticsTreeUpdated(updated);
+    } finally {
+      accessibilityEventCoalescer.endBatch();
+    }
+  }
+
+  /**
+   * Applies a semantics update that was decoded off the platform thread by a {@link
+   * SemanticsUpdateDecoder}.
+   *
+   * <p>Nodes that decoded identically to their previous snapshot are not updated again, and do not
+   * produce accessibility events of their own.
+   */
+  private void applySemanticsUpdate(
+      @NonNull SemanticsUpdateDecoder.SemanticsUpdateSnapshot update) {
+    ArrayList<SemanticsNode> updated = new ArrayList<>();
+    for (int i = 0; i < update.nodes.size(); i++) {
+      SemanticsUpdateDecoder.SemanticsNodeSnapshot snapshot = update.nodes.get(i);
+      SemanticsNode semanticsNode = flutterSemanticsTree.get(snapshot.id);
+      if (semanticsNode != null && update.isUnchanged(i)) {
+        if (!semanticsNode.hasFlag(Flag.IS_HIDDEN) && semanticsNode.hasFlag(Flag.IS_FOCUSED)) {
+          inputFocusedSemanticsNode = semanticsNode;
+        }
         continue;
       }
-      if (semanticsNode.hasFlag(Flag.IS_FOCUSED)) {
-        inputFocusedSemanticsNode = semanticsNode;
-      }
-      if (semanticsNode.hadPreviousConfig) {
-        updated.add(semanticsNode);
-      }
-      if (semanticsNode.platformViewId != -1
-          && !platformViewsAccessibilityDelegate.usesVirtualDisplay(semanticsNode.platformViewId)) {
-        View embeddedView =
-            platformViewsAccessibilityDelegate.getPlatformViewById(semanticsNode.platformViewId);
-        if (embeddedView != null) {
-          embeddedView.setImportantForAccessibility(View.IMPORTANT_FOR_ACCESSIBILITY_AUTO);
-        }
+      semanticsNode = getOrCreateSemanticsNode(snapshot.id);
+      semanticsNode.updateWith(snapshot);
+      onSemanticsNodeUpdated(semanticsNode, updated);
+    }
+    accessibilityEventCoalescer.beginBatch();
+    try {
+      onSemanticsTreeUpdated(updated);
+    } finally {
+      accessibilityEventCoalescer.endBatch();
+    }
+  }
+
+  /**
+   * Records a {@link SemanticsNode} that was just updated from Flutter, adding it to {@code
+   * updated} if it needs to be considered for accessibility events.
+   */
+  private void onSemanticsNodeUpdated(
+      @NonNull SemanticsNode semanticsNode, @NonNull List<SemanticsNode> updated) {
+    if (semanticsNode.hasFlag(Flag.IS_HIDDEN)) {
+      return;
+    }
+    if (semanticsNode.hasFlag(Flag.IS_FOCUSED)) {
+      inputFocusedSemanticsNode = semanticsNode;
+    }
+    if (semanticsNode.hadPreviousConfig) {
+      updated.add(semanticsNode);
+    }
+    if (semanticsNode.platformViewId != -1
+        && !platformViewsAccessibilityDelegate.usesVirtualDisplay(semanticsNode.platformViewId)) {
+      View embeddedView =
+          platformViewsAccessibilityDelegate.getPlatformViewById(semanticsNode.platformViewId);
+      if (embeddedView != null) {
+        embeddedView.setImportantForAccessibility(View.IMPORTANT_FOR_ACCESSIBILITY_AUTO);
       }
     }
+  }
 
+  /**
+   * Rebuilds the geometry, routes and membership of {@link #flutterSemanticsTree} after the nodes in
+   * a semantics update have been applied, and sends the resulting accessibility events for the
+   * {@code updated} nodes.
+   */
+  private void onSemanticsTreeUpdated(@NonNull List<SemanticsNode> updated) {
     Set<SemanticsNode> visitedObjects = new HashSet<>();
     SemanticsNode rootObject = getRootSemanticsNode();
     List<SemanticsNode> newRoutes = new ArrayList<>();
@@ -1705,7 +1904,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
           // index of 2.
           event.setToIndex(object.scrollIndex + visibleChildren - 1);
         }
-        sendAccessibilityEvent(event);
+        queueAccessibilityEvent(object.id, event);
       }
       if (object.hasFlag(Flag.IS_LIVE_REGION) && object.didChangeLabel()) {
         sendWindowContentChangeEvent(object.id, AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE);
@@ -1725,7 +1924,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
         AccessibilityEvent event =
             obtainAccessibilityEvent(object.id, AccessibilityEvent.TYPE_VIEW_SELECTED);
         event.getText().add(object.label);
-        sendAccessibilityEvent(event);
+        queueAccessibilityEvent(object.id, event);
       }
 
       // If the object is the input-focused node, then tell the reader about it, but only if
@@ -1735,8 +1934,8 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
           && (lastInputFocusedSemanticsNode == null
               || lastInputFocusedSemanticsNode.id != inputFocusedSemanticsNode.id)) {
         lastInputFocusedSemanticsNode = inputFocusedSemanticsNode;
-        sendAccessibilityEvent(
-            obtainAccessibilityEvent(object.id, AccessibilityEvent.TYPE_VIEW_FOCUSED));
+        queueAccessibilityEvent(
+            object.id, obtainAccessibilityEvent(object.id, AccessibilityEvent.TYPE_VIEW_FOCUSED));
       } else if (inputFocusedSemanticsNode == null) {
         // There's no TYPE_VIEW_CLEAR_FOCUSED event, so if the current input focus becomes
         // null, then we just set the last one to null too, so that it sends the event again
@@ -1770,7 +1969,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
           selectionEvent.setFromIndex(object.textSelectionBase);
           selectionEvent.setToIndex(object.textSelectionExtent);
           selectionEvent.setItemCount(newValue.length());
-          sendAccessibilityEvent(selectionEvent);
+          queueAccessibilityEvent(object.id, selectionEvent);
         }
       }
     }
@@ -1834,6 +2033,25 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     if (!accessibilityManager.isEnabled()) {
       return;
     }
+    accessibilityEventCoalescer.send(event);
+  }
+
+  /**
+   * Sends the given {@link AccessibilityEvent}, whose source is the Flutter {@link SemanticsNode}
+   * with the given {@code virtualViewId}, allowing it to be coalesced with other events for the
+   * same node if event coalescing is enabled.
+   *
+   * @see #setAccessibilityEventCoalescingWindow(long)
+   */
+  private void queueAccessibilityEvent(int virtualViewId, @NonNull AccessibilityEvent event) {
+    if (!accessibilityManager.isEnabled()) {
+      return;
+    }
+    accessibilityEventCoalescer.offer(virtualViewId, event);
+  }
+
+  // Sends events that have been released by the {@code accessibilityEventCoalescer}.
+  private void dispatchAccessibilityEvent(@NonNull AccessibilityEvent event) {
     // See
     // https://developer.android.com/reference/android/view/View.html#sendAccessibilityEvent(int)
     // We just want the final part at this point, since the event parameter
@@ -1888,10 +2106,13 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
    * has changed.
    */
   private void sendWindowContentChangeEvent(int virtualViewId, int changeType) {
+    if (accessibilityEventCoalescer.mergeContentChange(virtualViewId, changeType)) {
+      return;
+    }
     AccessibilityEvent event =
         obtainAccessibilityEvent(virtualViewId, AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED);
     event.setContentChangeTypes(changeType);
-    sendAccessibilityEvent(event);
+    queueAccessibilityEvent(virtualViewId, event);
   }
 
   /**
@@ -1976,6 +2197,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       if (embeddedView != null) {
         embeddedView.setImportantForAccessibility(
             View.IMPORTANT_FOR_ACCESSIBILITY_NO_HIDE_DESCENDANTS);
+        accessibilityViewEmbedder.removeEmbeddedView(embeddedView);
       }
     }
 
@@ -2007,14 +2229,20 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
    */
   public void reset() {
     flutterSemanticsTree.clear();
-    if (accessibilityFocusedSemanticsNode != null) {
-      sendAccessibilityEvent(
-          accessibilityFocusedSemanticsNode.id,
-          AccessibilityEvent.TYPE_VIEW_ACCESSIBILITY_FOCUS_CLEARED);
+    accessibilityViewEmbedder.clear();
+    accessibilityEventCoalescer.beginBatch();
+    try {
+      if (accessibilityFocusedSemanticsNode != null) {
+        sendAccessibilityEvent(
+            accessibilityFocusedSemanticsNode.id,
+            AccessibilityEvent.TYPE_VIEW_ACCESSIBILITY_FOCUS_CLEARED);
+      }
+      accessibilityFocusedSemanticsNode = null;
+      hoveredObject = null;
+      sendWindowContentChangeEvent(0, AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE);
+    } finally {
+      accessibilityEventCoalescer.endBatch();
     }
-    accessibilityFocusedSemanticsNode = null;
-    hoveredObject = null;
-    sendWindowContentChangeEvent(0, AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE);
   }
 
   /**
@@ -2602,6 +2830,102 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       }
     }
 
+    private void updateWith(@NonNull SemanticsUpdateDecoder.SemanticsNodeSnapshot snapshot) {
+      hadPreviousConfig = true;
+      previousValue = value;
+      previousLabel = label;
+      previousFlags = flags;
+      previousActions = actions;
+      previousTextSelectionBase = textSelectionBase;
+      previousTextSelectionExtent = textSelectionExtent;
+      previousScrollPosition = scrollPosition;
+      previousScrollExtentMax = scrollExtentMax;
+      previousScrollExtentMin = scrollExtentMin;
+
+      flags = snapshot.flags;
+      actions = snapshot.actions;
+      maxValueLength = snapshot.maxValueLength;
+      currentValueLength = snapshot.currentValueLength;
+      textSelectionBase = snapshot.textSelectionBase;
+      textSelectionExtent = snapshot.textSelectionExtent;
+      platformViewId = snapshot.platformViewId;
+      scrollChildren = snapshot.scrollChildren;
+      scrollIndex = snapshot.scrollIndex;
+      traversalParent = snapshot.traversalParent;
+      scrollPosition = snapshot.scrollPosition;
+      scrollExtentMax = snapshot.scrollExtentMax;
+      scrollExtentMin = snapshot.scrollExtentMin;
+      role = snapshot.role;
+
+      identifier = snapshot.identifier;
+      label = snapshot.label;
+      labelAttributes = snapshot.labelAttributes;
+      value = snapshot.value;
+      valueAttributes = snapshot.valueAttributes;
+      increasedValue = snapshot.increasedValue;
+      increasedValueAttributes = snapshot.increasedValueAttributes;
+      decreasedValue = snapshot.decreasedValue;
+      decreasedValueAttributes = snapshot.decreasedValueAttributes;
+      hint = snapshot.hint;
+      hintAttributes = snapshot.hintAttributes;
+      tooltip = snapshot.tooltip;
+      linkUrl = snapshot.linkUrl;
+      locale = snapshot.locale;
+      minValue = snapshot.minValue;
+      maxValue = snapshot.maxValue;
+
+      headingLevel = snapshot.headingLevel;
+      textDirection = TextDirection.fromInt(snapshot.textDirection);
+
+      left = snapshot.left;
+      top = snapshot.top;
+      right = snapshot.right;
+      bottom = snapshot.bottom;
+
+      // Snapshot matrices are never written to, so they can be shared with the decoder.
+      transform = snapshot.transform;
+      hitTestTransform = snapshot.hitTestTransform;
+
+      inverseTransformDirty = true;
+      globalGeometryDirty = true;
+
+      childrenInTraversalOrder.clear();
+      for (int childId : snapshot.childrenInTraversalOrder) {
+        SemanticsNode child = accessibilityBridge.getOrCreateSemanticsNode(childId);
+        child.parent = this;
+        childrenInTraversalOrder.add(child);
+      }
+
+      childrenInHitTestOrder.clear();
+      for (int childId : snapshot.childrenInHitTestOrder) {
+        SemanticsNode child = accessibilityBridge.getOrCreateSemanticsNode(childId);
+        child.parent = this;
+        childrenInHitTestOrder.add(child);
+      }
+
+      final int actionCount = snapshot.customAccessibilityActions.length;
+      if (actionCount == 0) {
+        customAccessibilityActions = null;
+      } else {
+        if (customAccessibilityActions == null)
+          customAccessibilityActions = new ArrayList<>(actionCount);
+        else customAccessibilityActions.clear();
+
+        for (int actionId : snapshot.customAccessibilityActions) {
+          CustomAccessibilityAction action =
+              accessibilityBridge.getOrCreateAccessibilityAction(actionId);
+          if (action.overrideId == Action.TAP.value) {
+            onTapOverride = action;
+          } else if (action.overrideId == Action.LONG_PRESS.value) {
+            onLongPressOverride = action;
+          } else {
+            customAccessibilityActions.add(action);
+          }
+          customAccessibilityActions.add(action);
+        }
+      }
+    }
+
     private List<StringAttribute> getStringAttributesFromBuffer(
         @NonNull ByteBuffer buffer, @NonNull ByteBuffer[] stringAttributeArgs) {
       final int attributesCount = buffer.getInt();
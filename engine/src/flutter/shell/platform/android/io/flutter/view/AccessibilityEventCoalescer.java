@@ -0,0 +1,233 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import android.os.Handler;
+import android.view.accessibility.AccessibilityEvent;
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the {@link AccessibilityEvent}s produced while {@link AccessibilityBridge} applies
+ * semantics updates, and sends them to Android once per batch.
+ *
+ * <p>Within a batch, events are deduplicated by source node and event type:
+ *
+ * <ul>
+ *   <li>{@link AccessibilityEvent#TYPE_WINDOW_CONTENT_CHANGED} events for the same node are merged
+ *       into a single event whose content change types are the union of all merged events. Merging
+ *       happens before the event is obtained, see {@link #mergeContentChange(int, int)}.
+ *   <li>{@link AccessibilityEvent#TYPE_VIEW_SCROLLED}, {@link
+ *       AccessibilityEvent#TYPE_VIEW_SELECTED}, {@link AccessibilityEvent#TYPE_VIEW_FOCUSED} and
+ *       {@link AccessibilityEvent#TYPE_VIEW_TEXT_SELECTION_CHANGED} events for the same node
+ *       replace each other, so only the latest state is reported.
+ *   <li>All other events are sent as-is.
+ * </ul>
+ *
+ * <p>Events are sent in the order in which their node and type were first queued in the batch.
+ *
+ * <p>A batch ends when {@link #endBatch()} is called if the coalescing window is {@code 0}, or the
+ * given number of milliseconds after the first batch in the window ended otherwise, so that several
+ * semantics updates within a frame are reported together. Coalescing is disabled while the window
+ * is negative, which is the default.
+ *
+ * <p>This class is not thread safe and must only be used from the platform thread.
+ */
+final class AccessibilityEventCoalescer {
+  /** Sends a single event to Android's accessibility system. */
+  interface Sender {
+    void send(@NonNull AccessibilityEvent event);
+  }
+
+  static final long COALESCING_DISABLED = -1;
+
+  @NonNull private final Sender sender;
+  @NonNull private final Handler handler;
+  @NonNull private final Runnable flushRunnable = this::flush;
+
+  // Queued events in send order, and the position of each coalescable event in that list keyed by
+  // node ID and event type.
+  @NonNull private final List<AccessibilityEvent> queuedEvents = new ArrayList<>();
+  @NonNull private final Map<Long, Integer> queuedEventIndices = new HashMap<>();
+
+  private long windowMillis = COALESCING_DISABLED;
+  private int batchDepth = 0;
+  private boolean isFlushScheduled = false;
+
+  private long sentEventCount = 0;
+  private long suppressedEventCount = 0;
+
+  AccessibilityEventCoalescer(@NonNull Sender sender, @NonNull Handler handler) {
+    this.sender = sender;
+    this.handler = handler;
+  }
+
+  /**
+   * Sets the coalescing window.
+   *
+   * <p>A negative window disables coalescing, {@code 0} coalesces events within each batch, and a
+   * positive value coalesces every batch that ends within that many milliseconds of the first one.
+   */
+  void setWindowMillis(long windowMillis) {
+    if (this.windowMillis == windowMillis) {
+      return;
+    }
+    flush();
+    this.windowMillis = windowMillis;
+  }
+
+  long getWindowMillis() {
+    return windowMillis;
+  }
+
+  /** Starts collecting events. Batches may be nested. */
+  void beginBatch() {
+    batchDepth++;
+  }
+
+  /** Ends the current batch, and sends or schedules the collected events. */
+  void endBatch() {
+    if (batchDepth == 0) {
+      return;
+    }
+    batchDepth--;
+    if (batchDepth > 0 || queuedEvents.isEmpty()) {
+      return;
+    }
+    if (windowMillis <= 0) {
+      flush();
+    } else if (!isFlushScheduled) {
+      isFlushScheduled = true;
+      handler.postDelayed(flushRunnable, windowMillis);
+    }
+  }
+
+  /** Returns true if events passed to {@link #offer(int, AccessibilityEvent)} will be queued. */
+  boolean isCoalescing() {
+    return windowMillis >= 0 && (batchDepth > 0 || isFlushScheduled);
+  }
+
+  /**
+   * Merges a content change for {@code virtualViewId} into a queued {@link
+   * AccessibilityEvent#TYPE_WINDOW_CONTENT_CHANGED} event for the same node.
+   *
+   * @return true if the change was merged and no new event needs to be obtained.
+   */
+  boolean mergeContentChange(int virtualViewId, int changeTypes) {
+    if (!isCoalescing()) {
+      return false;
+    }
+    Integer index =
+        queuedEventIndices.get(key(virtualViewId, AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED));
+    if (index == null) {
+      return false;
+    }
+    AccessibilityEvent queued = queuedEvents.get(index);
+    queued.setContentChangeTypes(queued.getContentChangeTypes() | changeTypes);
+    suppressedEventCount++;
+    return true;
+  }
+
+  /**
+   * Queues {@code event}, whose source is {@code virtualViewId}, to be sent at the end of the
+   * batch, or sends it immediately if no batch is being collected.
+   */
+  void offer(int virtualViewId, @NonNull AccessibilityEvent event) {
+    if (!isCoalescing()) {
+      send(event);
+      return;
+    }
+    final int eventType = event.getEventType();
+    switch (eventType) {
+      case AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED:
+      case AccessibilityEvent.TYPE_VIEW_SCROLLED:
+      case AccessibilityEvent.TYPE_VIEW_SELECTED:
+      case AccessibilityEvent.TYPE_VIEW_FOCUSED:
+      case AccessibilityEvent.TYPE_VIEW_TEXT_SELECTION_CHANGED:
+        final long key = key(virtualViewId, eventType);
+        final Integer index = queuedEventIndices.get(key);
+        if (index == null) {
+          queuedEventIndices.put(key, queuedEvents.size());
+          queuedEvents.add(event);
+        } else if (eventType == AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED) {
+          AccessibilityEvent queued = queuedEvents.get(index);
+          queued.setContentChangeTypes(
+              queued.getContentChangeTypes() | event.getContentChangeTypes());
+          suppressedEventCount++;
+        } else {
+          // Only the latest state of the node is interesting.
+          queuedEvents.set(index, event);
+          suppressedEventCount++;
+        }
+        break;
+      default:
+        queuedEvents.add(event);
+        break;
+    }
+  }
+
+  /**
+   * Sends {@code event} without coalescing it, after any queued events.
+   *
+   * <p>If a batch is being collected, the event is queued behind the events already in the batch so
+   * that the send order is preserved.
+   */
+  void send(@NonNull AccessibilityEvent event) {
+    if (windowMillis >= 0 && batchDepth > 0) {
+      queuedEvents.add(event);
+      return;
+    }
+    flush();
+    sentEventCount++;
+    sender.send(event);
+  }
+
+  /** Sends all queued events. */
+  void flush() {
+    if (isFlushScheduled) {
+      isFlushScheduled = false;
+      handler.removeCallbacks(flushRunnable);
+    }
+    if (queuedEvents.isEmpty()) {
+      return;
+    }
+    // Copied so that events sent from the sender do not modify the list being iterated.
+    final List<AccessibilityEvent> events = new ArrayList<>(queuedEvents);
+    queuedEvents.clear();
+    queuedEventIndices.clear();
+    for (AccessibilityEvent event : events) {
+      sentEventCount++;
+      sender.send(event);
+    }
+  }
+
+  /** Drops all queued events without sending them. */
+  void clear() {
+    if (isFlushScheduled) {
+      isFlushScheduled = false;
+      handler.removeCallbacks(flushRunnable);
+    }
+    queuedEvents.clear();
+    queuedEventIndices.clear();
+    batchDepth = 0;
+  }
+
+  /** The number of events that were sent to Android's accessibility system. */
+  long getSentEventCount() {
+    return sentEventCount;
+  }
+
+  /** The number of events that were merged into, or replaced by, another event. */
+  long getSuppressedEventCount() {
+    return suppressedEventCount;
+  }
+
+  private static long key(int virtualViewId, int eventType) {
+    return ((long) eventType << 32) | (virtualViewId & 0xffffffffL);
+  }
+}
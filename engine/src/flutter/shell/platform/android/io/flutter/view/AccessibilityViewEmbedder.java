@@ -12,6 +12,8 @@ import android.os.Build;
 import android.os.Bundle;
 import android.os.Parcel;
 import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.util.SparseLongArray;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.accessibility.AccessibilityEvent;
@@ -21,10 +23,12 @@ import android.view.accessibility.AccessibilityRecord;
 import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import io.flutter.Log;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -44,37 +48,51 @@ import java.util.Map;
  * the term `originId` for the virtual accessibility node IDs in the platform view's tree.
  * Internally this class maintains a bidirectional mapping between `flutterId`s and the
  * corresponding platform view and `originId`.
+ *
+ * <p>The mapping is bounded: once it holds more than {@link #getMaxMappingCount()} IDs, the least
+ * recently used `flutterId`s of embedded nodes are evicted. Root nodes of embedded views are never
+ * evicted, and all the IDs of an embedded view are dropped once its platform view is removed from
+ * the Flutter semantics tree, see {@link #removeEmbeddedView(View)}.
  */
 @Keep
 class AccessibilityViewEmbedder {
   private static final String TAG = "AccessibilityBridge";
 
+  // The default upper bound of the number of flutterIds that are mapped to embedded nodes.
+  @VisibleForTesting static final int DEFAULT_MAX_MAPPING_COUNT = 4096;
+
+  private static final int NO_ID = -1;
+
   private final ReflectionAccessors reflectionAccessors;
 
   // The view to which the platform view is embedded, this is typically FlutterView.
   private final View rootAccessibilityView;
 
-  // Maps a flutterId to the corresponding platform view and originId.
-  private final SparseArray<ViewAndId> flutterIdToOrigin;
+  // Maps an embedded view to its originId<-->flutterId mappings and screen bounds.
+  private final Map<View, EmbeddedView> embeddedViews;
 
-  // Maps a platform view and originId to a corresponding flutterID.
-  private final Map<ViewAndId, Integer> originToFlutterId;
+  // Maps a flutterId to the embedded view that contains the corresponding node.
+  private final SparseArray<EmbeddedView> flutterIdToView;
 
-  // Maps an embedded view to it's screen bounds.
-  // This is used to translate the coordinates of the accessibility node subtree to the main
-  // display's coordinate
-  // system.
-  private final Map<View, Rect> embeddedViewToDisplayBounds;
+  // Maps a flutterId to the corresponding originId in the embedded view's tree.
+  private final SparseIntArray flutterIdToOriginId;
+
+  // Maps a flutterId to the value of useCount when it was last used, for LRU eviction.
+  private final SparseLongArray flutterIdLastUse;
 
   private int nextFlutterId;
+  private int maxMappingCount = DEFAULT_MAX_MAPPING_COUNT;
+  private long useCount;
+  private long evictedMappingCount;
 
   AccessibilityViewEmbedder(@NonNull View rootAccessibiiltyView, int firstVirtualNodeId) {
     reflectionAccessors = new ReflectionAccessors();
-    flutterIdToOrigin = new SparseArray<>();
     this.rootAccessibilityView = rootAccessibiiltyView;
     nextFlutterId = firstVirtualNodeId;
-    originToFlutterId = new HashMap<>();
-    embeddedViewToDisplayBounds = new HashMap<>();
+    embeddedViews = new HashMap<>();
+    flutterIdToView = new SparseArray<>();
+    flutterIdToOriginId = new SparseIntArray();
+    flutterIdLastUse = new SparseLongArray();
   }
 
   /**
@@ -90,20 +108,28 @@ class AccessibilityViewEmbedder {
     if (originPackedId == null) {
       return null;
     }
-    embeddedViewToDisplayBounds.put(embeddedView, displayBounds);
+    EmbeddedView embedded = getOrCreateEmbeddedView(embeddedView);
+    embedded.displayBounds = displayBounds;
+    if (embedded.rootFlutterId != flutterId) {
+      int previousRootFlutterId = embedded.rootFlutterId;
+      embedded.rootFlutterId = flutterId;
+      if (flutterIdToView.get(previousRootFlutterId) == embedded) {
+        removeFlutterId(previousRootFlutterId);
+      }
+    }
     int originId = ReflectionAccessors.getVirtualNodeId(originPackedId);
-    cacheVirtualIdMappings(embeddedView, originId, flutterId);
-    return convertToFlutterNode(originNode, flutterId, embeddedView);
+    cacheVirtualIdMappings(embedded, originId, flutterId);
+    return convertToFlutterNode(originNode, flutterId, embedded);
   }
 
   /** Creates the accessibility node info for the node identified with `flutterId`. */
   @Nullable
   public AccessibilityNodeInfo createAccessibilityNodeInfo(int flutterId) {
-    ViewAndId origin = flutterIdToOrigin.get(flutterId);
-    if (origin == null) {
+    EmbeddedView embedded = getEmbeddedViewOfNode(flutterId);
+    if (embedded == null) {
       return null;
     }
-    if (!embeddedViewToDisplayBounds.containsKey(origin.view)) {
+    if (embedded.displayBounds == null) {
       // This might happen if the embedded view is sending accessibility event before the first
       // Flutter semantics
       // tree was sent to the accessibility bridge. In this case we don't return a node as we do not
@@ -112,7 +138,7 @@ class AccessibilityViewEmbedder {
       // https://github.com/flutter/flutter/issues/30068
       return null;
     }
-    AccessibilityNodeProvider provider = origin.view.getAccessibilityNodeProvider();
+    AccessibilityNodeProvider provider = embedded.view.getAccessibilityNodeProvider();
     if (provider == null) {
       // The provider is null for views that don't have a virtual accessibility tree.
       // We currently only support embedding virtual hierarchies in the Flutter tree.
@@ -121,11 +147,11 @@ class AccessibilityViewEmbedder {
       return null;
     }
     AccessibilityNodeInfo originNode =
-        origin.view.getAccessibilityNodeProvider().createAccessibilityNodeInfo(origin.id);
+        provider.createAccessibilityNodeInfo(flutterIdToOriginId.get(flutterId));
     if (originNode == null) {
       return null;
     }
-    return convertToFlutterNode(originNode, flutterId, origin.view);
+    return convertToFlutterNode(originNode, flutterId, embedded);
   }
 
   /*
@@ -134,40 +160,38 @@ class AccessibilityViewEmbedder {
    */
   @NonNull
   private AccessibilityNodeInfo convertToFlutterNode(
-      @NonNull AccessibilityNodeInfo originNode, int flutterId, @NonNull View embeddedView) {
+      @NonNull AccessibilityNodeInfo originNode, int flutterId, @NonNull EmbeddedView embedded) {
     AccessibilityNodeInfo result = AccessibilityNodeInfo.obtain(rootAccessibilityView, flutterId);
     result.setPackageName(rootAccessibilityView.getContext().getPackageName());
     result.setSource(rootAccessibilityView, flutterId);
     result.setClassName(originNode.getClassName());
 
-    Rect displayBounds = embeddedViewToDisplayBounds.get(embeddedView);
-
     copyAccessibilityFields(originNode, result);
-    setFlutterNodesTranslateBounds(originNode, displayBounds, result);
-    addChildrenToFlutterNode(originNode, embeddedView, result);
-    setFlutterNodeParent(originNode, embeddedView, result);
+    setFlutterNodesTranslateBounds(originNode, embedded.displayBounds, result);
+    addChildrenToFlutterNode(originNode, embedded, result);
+    setFlutterNodeParent(originNode, embedded, result);
 
     return result;
   }
 
   private void setFlutterNodeParent(
       @NonNull AccessibilityNodeInfo originNode,
-      @NonNull View embeddedView,
+      @NonNull EmbeddedView embedded,
       @NonNull AccessibilityNodeInfo result) {
     Long parentOriginPackedId = reflectionAccessors.getParentNodeId(originNode);
     if (parentOriginPackedId == null) {
       return;
     }
     int parentOriginId = ReflectionAccessors.getVirtualNodeId(parentOriginPackedId);
-    Integer parentFlutterId = originToFlutterId.get(new ViewAndId(embeddedView, parentOriginId));
-    if (parentFlutterId != null) {
+    int parentFlutterId = getFlutterId(embedded, parentOriginId);
+    if (parentFlutterId != NO_ID) {
       result.setParent(rootAccessibilityView, parentFlutterId);
     }
   }
 
   private void addChildrenToFlutterNode(
       @NonNull AccessibilityNodeInfo originNode,
-      @NonNull View embeddedView,
+      @NonNull EmbeddedView embedded,
       @NonNull AccessibilityNodeInfo resultNode) {
     for (int i = 0; i < originNode.getChildCount(); i++) {
       Long originPackedId = reflectionAccessors.getChildId(originNode, i);
@@ -175,25 +199,166 @@ class AccessibilityViewEmbedder {
         continue;
       }
       int originId = ReflectionAccessors.getVirtualNodeId(originPackedId);
-      ViewAndId origin = new ViewAndId(embeddedView, originId);
-      int childFlutterId;
-      if (originToFlutterId.containsKey(origin)) {
-        childFlutterId = originToFlutterId.get(origin);
-      } else {
-        childFlutterId = nextFlutterId++;
-        cacheVirtualIdMappings(embeddedView, originId, childFlutterId);
-      }
-      resultNode.addChild(rootAccessibilityView, childFlutterId);
+      resultNode.addChild(rootAccessibilityView, getOrCreateFlutterId(embedded, originId));
     }
   }
 
   // Caches a bidirectional mapping of (embeddedView, originId)<-->flutterId.
   // Where originId is a virtual node ID in the embeddedView's tree, and flutterId is the ID
   // of the corresponding node in the Flutter virtual accessibility nodes tree.
-  private void cacheVirtualIdMappings(@NonNull View embeddedView, int originId, int flutterId) {
-    ViewAndId origin = new ViewAndId(embeddedView, originId);
-    originToFlutterId.put(origin, flutterId);
-    flutterIdToOrigin.put(flutterId, origin);
+  private void cacheVirtualIdMappings(@NonNull EmbeddedView embedded, int originId, int flutterId) {
+    removeFlutterId(flutterId);
+    int previousFlutterId = embedded.originToFlutterId.get(originId, NO_ID);
+    if (previousFlutterId != NO_ID) {
+      removeFlutterId(previousFlutterId);
+    }
+    embedded.originToFlutterId.put(originId, flutterId);
+    flutterIdToView.put(flutterId, embedded);
+    flutterIdToOriginId.put(flutterId, originId);
+    flutterIdLastUse.put(flutterId, ++useCount);
+    if (flutterIdToView.size() > maxMappingCount) {
+      evictLeastRecentlyUsedMappings();
+    }
+  }
+
+  // Returns the flutterId of the node `originId` in the embedded view, or NO_ID if there is none.
+  private int getFlutterId(@NonNull EmbeddedView embedded, int originId) {
+    int flutterId = embedded.originToFlutterId.get(originId, NO_ID);
+    if (flutterId != NO_ID) {
+      flutterIdLastUse.put(flutterId, ++useCount);
+    }
+    return flutterId;
+  }
+
+  private int getOrCreateFlutterId(@NonNull EmbeddedView embedded, int originId) {
+    int flutterId = getFlutterId(embedded, originId);
+    if (flutterId == NO_ID) {
+      flutterId = nextFlutterId++;
+      cacheVirtualIdMappings(embedded, originId, flutterId);
+    }
+    return flutterId;
+  }
+
+  @Nullable
+  private EmbeddedView getEmbeddedViewOfNode(int flutterId) {
+    EmbeddedView embedded = flutterIdToView.get(flutterId);
+    if (embedded != null) {
+      flutterIdLastUse.put(flutterId, ++useCount);
+    }
+    return embedded;
+  }
+
+  @NonNull
+  private EmbeddedView getOrCreateEmbeddedView(@NonNull View view) {
+    EmbeddedView embedded = embeddedViews.get(view);
+    if (embedded == null) {
+      embedded = new EmbeddedView(view);
+      embeddedViews.put(view, embedded);
+    }
+    return embedded;
+  }
+
+  private void removeFlutterId(int flutterId) {
+    EmbeddedView embedded = flutterIdToView.get(flutterId);
+    if (embedded == null) {
+      return;
+    }
+    int originId = flutterIdToOriginId.get(flutterId);
+    if (embedded.originToFlutterId.get(originId, NO_ID) == flutterId) {
+      embedded.originToFlutterId.delete(originId);
+    }
+    flutterIdToView.remove(flutterId);
+    flutterIdToOriginId.delete(flutterId);
+    flutterIdLastUse.delete(flutterId);
+  }
+
+  // Evicts the least recently used mappings until only three quarters of the maximum are left, so
+  // that the cost of finding them is amortized over the mappings added before the next eviction.
+  private void evictLeastRecentlyUsedMappings() {
+    int size = flutterIdLastUse.size();
+    int evictCount = size - maxMappingCount * 3 / 4;
+    if (evictCount <= 0) {
+      return;
+    }
+    long[] lastUses = new long[size];
+    for (int i = 0; i < size; i++) {
+      lastUses[i] = flutterIdLastUse.valueAt(i);
+    }
+    Arrays.sort(lastUses);
+    long threshold = lastUses[evictCount - 1];
+    int[] evicted = new int[evictCount];
+    int evictedCount = 0;
+    for (int i = 0; i < size; i++) {
+      if (flutterIdLastUse.valueAt(i) > threshold) {
+        continue;
+      }
+      int flutterId = flutterIdLastUse.keyAt(i);
+      EmbeddedView embedded = flutterIdToView.get(flutterId);
+      if (embedded != null && embedded.rootFlutterId == flutterId) {
+        // Root nodes are reachable from the Flutter semantics tree, so they are never stale.
+        continue;
+      }
+      evicted[evictedCount++] = flutterId;
+    }
+    for (int i = 0; i < evictedCount; i++) {
+      removeFlutterId(evicted[i]);
+    }
+    evictedMappingCount += evictedCount;
+  }
+
+  /**
+   * Drops all the IDs that were mapped to nodes of {@code embeddedView}.
+   *
+   * <p>This is called when the platform view is removed from the Flutter semantics tree. If the
+   * view is embedded again, its nodes are assigned new `flutterId`s.
+   */
+  public void removeEmbeddedView(@NonNull View embeddedView) {
+    EmbeddedView embedded = embeddedViews.remove(embeddedView);
+    if (embedded == null) {
+      return;
+    }
+    for (int i = embedded.originToFlutterId.size() - 1; i >= 0; i--) {
+      removeFlutterId(embedded.originToFlutterId.valueAt(i));
+    }
+    if (flutterIdToView.get(embedded.rootFlutterId) == embedded) {
+      removeFlutterId(embedded.rootFlutterId);
+    }
+  }
+
+  /** Drops the IDs of all embedded views. */
+  public void clear() {
+    embeddedViews.clear();
+    flutterIdToView.clear();
+    flutterIdToOriginId.clear();
+    flutterIdLastUse.clear();
+  }
+
+  /** Returns the number of `flutterId`s that are currently mapped to embedded nodes. */
+  public int getMappingCount() {
+    return flutterIdToView.size();
+  }
+
+  /** Returns the number of embedded views that have mapped nodes. */
+  public int getEmbeddedViewCount() {
+    return embeddedViews.size();
+  }
+
+  /** Returns the number of `flutterId`s that were evicted because the mapping was full. */
+  public long getEvictedMappingCount() {
+    return evictedMappingCount;
+  }
+
+  /** Returns the number of mapped `flutterId`s above which the least recently used are evicted. */
+  public int getMaxMappingCount() {
+    return maxMappingCount;
+  }
+
+  @VisibleForTesting
+  void setMaxMappingCount(int maxMappingCount) {
+    this.maxMappingCount = maxMappingCount;
+    if (flutterIdToView.size() > maxMappingCount) {
+      evictLeastRecentlyUsedMappings();
+    }
   }
 
   // Suppressing deprecation warning for AccessibilityNodeInfo#getBoundsinParent and
@@ -268,11 +433,8 @@ class AccessibilityViewEmbedder {
       return false;
     }
     int originVirtualId = ReflectionAccessors.getVirtualNodeId(originPackedId);
-    Integer flutterId = originToFlutterId.get(new ViewAndId(embeddedView, originVirtualId));
-    if (flutterId == null) {
-      flutterId = nextFlutterId++;
-      cacheVirtualIdMappings(embeddedView, originVirtualId, flutterId);
-    }
+    EmbeddedView embedded = getOrCreateEmbeddedView(embeddedView);
+    int flutterId = getOrCreateFlutterId(embedded, originVirtualId);
     translatedEvent.setSource(rootAccessibilityView, flutterId);
     translatedEvent.setClassName(event.getClassName());
     translatedEvent.setPackageName(event.getPackageName());
@@ -284,11 +446,10 @@ class AccessibilityViewEmbedder {
         return false;
       }
       int recordOriginVirtualID = ReflectionAccessors.getVirtualNodeId(recordOriginPackedId);
-      ViewAndId originViewAndId = new ViewAndId(embeddedView, recordOriginVirtualID);
-      if (!originToFlutterId.containsKey(originViewAndId)) {
+      int recordFlutterId = getFlutterId(embedded, recordOriginVirtualID);
+      if (recordFlutterId == NO_ID) {
         return false;
       }
-      int recordFlutterId = originToFlutterId.get(originViewAndId);
       record.setSource(rootAccessibilityView, recordFlutterId);
     }
 
@@ -304,16 +465,16 @@ class AccessibilityViewEmbedder {
    * @return True if the action was performed.
    */
   public boolean performAction(int flutterId, int accessibilityAction, @Nullable Bundle arguments) {
-    ViewAndId origin = flutterIdToOrigin.get(flutterId);
-    if (origin == null) {
+    EmbeddedView embedded = getEmbeddedViewOfNode(flutterId);
+    if (embedded == null) {
       return false;
     }
-    View embeddedView = origin.view;
-    AccessibilityNodeProvider provider = embeddedView.getAccessibilityNodeProvider();
+    AccessibilityNodeProvider provider = embedded.view.getAccessibilityNodeProvider();
     if (provider == null) {
       return false;
     }
-    return provider.performAction(origin.id, accessibilityAction, arguments);
+    return provider.performAction(
+        flutterIdToOriginId.get(flutterId), accessibilityAction, arguments);
   }
 
   /**
@@ -328,8 +489,13 @@ class AccessibilityViewEmbedder {
     if (originPackedId == null) {
       return null;
     }
+    EmbeddedView embedded = embeddedViews.get(embeddedView);
+    if (embedded == null) {
+      return null;
+    }
     int originVirtualId = ReflectionAccessors.getVirtualNodeId(originPackedId);
-    return originToFlutterId.get(new ViewAndId(embeddedView, originVirtualId));
+    int flutterId = getFlutterId(embedded, originVirtualId);
+    return flutterId == NO_ID ? null : flutterId;
   }
 
   /**
@@ -338,11 +504,14 @@ class AccessibilityViewEmbedder {
    * <p>The pointer coordinates are translated to the embedded view's coordinate system.
    */
   public boolean onAccessibilityHoverEvent(int rootFlutterId, @NonNull MotionEvent event) {
-    ViewAndId origin = flutterIdToOrigin.get(rootFlutterId);
-    if (origin == null) {
+    EmbeddedView embedded = getEmbeddedViewOfNode(rootFlutterId);
+    if (embedded == null) {
+      return false;
+    }
+    Rect displayBounds = embedded.displayBounds;
+    if (displayBounds == null) {
       return false;
     }
-    Rect displayBounds = embeddedViewToDisplayBounds.get(origin.view);
     int pointerCount = event.getPointerCount();
     MotionEvent.PointerProperties[] pointerProperties =
         new MotionEvent.PointerProperties[pointerCount];
@@ -374,7 +543,7 @@ class AccessibilityViewEmbedder {
             event.getEdgeFlags(),
             event.getSource(),
             event.getFlags());
-    return origin.view.dispatchGenericMotionEvent(translatedEvent);
+    return embedded.view.dispatchGenericMotionEvent(translatedEvent);
   }
 
   /**
@@ -382,37 +551,31 @@ class AccessibilityViewEmbedder {
    * null if it doesn't belong to a view.
    */
   public View platformViewOfNode(int flutterId) {
-    ViewAndId viewAndId = flutterIdToOrigin.get(flutterId);
-    if (viewAndId == null) {
+    EmbeddedView embedded = flutterIdToView.get(flutterId);
+    if (embedded == null) {
       return null;
     }
-    return viewAndId.view;
+    return embedded.view;
   }
 
-  private static class ViewAndId {
+  // The state of a single embedded platform view.
+  private static class EmbeddedView {
     final View view;
-    final int id;
 
-    private ViewAndId(View view, int id) {
-      this.view = view;
-      this.id = id;
-    }
+    // Maps an originId in the view's tree to the corresponding flutterId.
+    final SparseIntArray originToFlutterId = new SparseIntArray();
 
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (!(o instanceof ViewAndId)) return false;
-      ViewAndId viewAndId = (ViewAndId) o;
-      return id == viewAndId.id && view.equals(viewAndId.view);
-    }
+    // The screen bounds of the view, used to translate the coordinates of the accessibility node
+    // subtree to the main display's coordinate system. Null until the view's root node was
+    // requested by the accessibility bridge.
+    @Nullable Rect displayBounds;
 
-    @Override
-    public int hashCode() {
-      final int prime = 31;
-      int result = 1;
-      result = prime * result + view.hashCode();
-      result = prime * result + id;
-      return result;
+    // The flutterId of the view's root node, which is the ID of the platform view's node in the
+    // Flutter semantics tree.
+    int rootFlutterId = NO_ID;
+
+    private EmbeddedView(View view) {
+      this.view = view;
     }
   }
 
@@ -0,0 +1,527 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import android.os.Handler;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.util.TraceSection;
+import io.flutter.view.AccessibilityStringBuilder.LocaleStringAttribute;
+import io.flutter.view.AccessibilityStringBuilder.SpellOutStringAttribute;
+import io.flutter.view.AccessibilityStringBuilder.StringAttribute;
+import io.flutter.view.AccessibilityStringBuilder.StringAttributeType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decodes semantics updates sent by the engine into immutable snapshots on a background thread.
+ *
+ * <p>{@link AccessibilityBridge} normally parses the semantics {@code ByteBuffer} on the platform
+ * thread as soon as it is received. When the platform thread is also the UI thread, that work adds
+ * directly to frame time. A {@code SemanticsUpdateDecoder} instead copies the engine-owned buffers,
+ * decodes them serially on the given {@link Executor}, diffs every node against the last snapshot
+ * decoded for the same ID, and posts the result back to the platform thread where the {@link
+ * Applier} only has to apply the precomputed delta and send events.
+ *
+ * <p>Updates, custom action updates and resets are delivered to the {@link Applier} in the order in
+ * which they were enqueued.
+ *
+ * <p>The decode logic here must be kept in sync with PlatformViewAndroid::UpdateSemantics and with
+ * {@code AccessibilityBridge.SemanticsNode#updateWith}.
+ */
+final class SemanticsUpdateDecoder {
+  /// The index value that indicates no string is specified.
+  private static final int EMPTY_STRING_INDEX = -1;
+
+  // The ID of the root node of the semantics tree, see AccessibilityBridge#ROOT_NODE_ID.
+  private static final int ROOT_NODE_ID = 0;
+
+  /** Receives decoded updates on the platform thread. */
+  interface Applier {
+    void applyCustomAccessibilityActions(@NonNull List<CustomActionSnapshot> actions);
+
+    void applySemanticsUpdate(@NonNull SemanticsUpdateSnapshot update);
+
+    void applyReset();
+  }
+
+  /** An immutable, decoded custom accessibility action. */
+  static final class CustomActionSnapshot {
+    final int id;
+    final int overrideId;
+    @Nullable final String label;
+    @Nullable final String hint;
+
+    CustomActionSnapshot(int id, int overrideId, @Nullable String label, @Nullable String hint) {
+      this.id = id;
+      this.overrideId = overrideId;
+      this.label = label;
+      this.hint = hint;
+    }
+  }
+
+  /**
+   * An immutable, decoded semantics node, as encoded by PlatformViewAndroid::UpdateSemantics.
+   *
+   * <p>Its arrays and attribute lists are shared with the {@code SemanticsNode} it is applied to,
+   * and are never written to.
+   */
+  static final class SemanticsNodeSnapshot {
+    final int id;
+    final long flags;
+    final int actions;
+    final int maxValueLength;
+    final int currentValueLength;
+    final int textSelectionBase;
+    final int textSelectionExtent;
+    final int platformViewId;
+    final int scrollChildren;
+    final int scrollIndex;
+    final int traversalParent;
+    final float scrollPosition;
+    final float scrollExtentMax;
+    final float scrollExtentMin;
+    final int role;
+    @Nullable final String identifier;
+    @Nullable final String label;
+    @Nullable final List<StringAttribute> labelAttributes;
+    @Nullable final String value;
+    @Nullable final List<StringAttribute> valueAttributes;
+    @Nullable final String increasedValue;
+    @Nullable final List<StringAttribute> increasedValueAttributes;
+    @Nullable final String decreasedValue;
+    @Nullable final List<StringAttribute> decreasedValueAttributes;
+    @Nullable final String hint;
+    @Nullable final List<StringAttribute> hintAttributes;
+    @Nullable final String tooltip;
+    @Nullable final String linkUrl;
+    @Nullable final String locale;
+    @Nullable final String minValue;
+    @Nullable final String maxValue;
+    final int headingLevel;
+    final int textDirection;
+    final float left;
+    final float top;
+    final float right;
+    final float bottom;
+    @NonNull final float[] transform;
+    @NonNull final float[] hitTestTransform;
+    @NonNull final int[] childrenInTraversalOrder;
+    @NonNull final int[] childrenInHitTestOrder;
+    @NonNull final int[] customAccessibilityActions;
+
+    @NonNull
+    static SemanticsNodeSnapshot decode(
+        @NonNull ByteBuffer buffer,
+        @NonNull String[] strings,
+        @NonNull ByteBuffer[] stringAttributeArgs) {
+      return new SemanticsNodeSnapshot(buffer, strings, stringAttributeArgs);
+    }
+
+    private SemanticsNodeSnapshot(
+        @NonNull ByteBuffer buffer,
+        @NonNull String[] strings,
+        @NonNull ByteBuffer[] stringAttributeArgs) {
+      id = buffer.getInt();
+      flags = buffer.getLong();
+      actions = buffer.getInt();
+      maxValueLength = buffer.getInt();
+      currentValueLength = buffer.getInt();
+      textSelectionBase = buffer.getInt();
+      textSelectionExtent = buffer.getInt();
+      platformViewId = buffer.getInt();
+      scrollChildren = buffer.getInt();
+      scrollIndex = buffer.getInt();
+      traversalParent = buffer.getInt();
+      scrollPosition = buffer.getFloat();
+      scrollExtentMax = buffer.getFloat();
+      scrollExtentMin = buffer.getFloat();
+      role = buffer.getInt();
+
+      identifier = getString(buffer, strings);
+
+      label = getString(buffer, strings);
+      labelAttributes = getStringAttributes(buffer, stringAttributeArgs);
+
+      value = getString(buffer, strings);
+      valueAttributes = getStringAttributes(buffer, stringAttributeArgs);
+
+      increasedValue = getString(buffer, strings);
+      increasedValueAttributes = getStringAttributes(buffer, stringAttributeArgs);
+
+      decreasedValue = getString(buffer, strings);
+      decreasedValueAttributes = getStringAttributes(buffer, stringAttributeArgs);
+
+      hint = getString(buffer, strings);
+      hintAttributes = getStringAttributes(buffer, stringAttributeArgs);
+
+      tooltip = getString(buffer, strings);
+      linkUrl = getString(buffer, strings);
+      locale = getString(buffer, strings);
+      minValue = getString(buffer, strings);
+      maxValue = getString(buffer, strings);
+
+      headingLevel = buffer.getInt();
+      textDirection = buffer.getInt();
+
+      left = buffer.getFloat();
+      top = buffer.getFloat();
+      right = buffer.getFloat();
+      bottom = buffer.getFloat();
+
+      transform = getMatrix4(buffer);
+      hitTestTransform = getMatrix4(buffer);
+
+      childrenInTraversalOrder = getIntArray(buffer);
+      childrenInHitTestOrder = getIntArray(buffer);
+      customAccessibilityActions = getIntArray(buffer);
+    }
+
+    /** Returns true if {@code other} would produce exactly the same node as this snapshot. */
+    boolean contentEquals(@NonNull SemanticsNodeSnapshot other) {
+      return id == other.id
+          && flags == other.flags
+          && actions == other.actions
+          && maxValueLength == other.maxValueLength
+          && currentValueLength == other.currentValueLength
+          && textSelectionBase == other.textSelectionBase
+          && textSelectionExtent == other.textSelectionExtent
+          && platformViewId == other.platformViewId
+          && scrollChildren == other.scrollChildren
+          && scrollIndex == other.scrollIndex
+          && traversalParent == other.traversalParent
+          && Float.compare(scrollPosition, other.scrollPosition) == 0
+          && Float.compare(scrollExtentMax, other.scrollExtentMax) == 0
+          && Float.compare(scrollExtentMin, other.scrollExtentMin) == 0
+          && role == other.role
+          && headingLevel == other.headingLevel
+          && textDirection == other.textDirection
+          && Float.compare(left, other.left) == 0
+          && Float.compare(top, other.top) == 0
+          && Float.compare(right, other.right) == 0
+          && Float.compare(bottom, other.bottom) == 0
+          && Objects.equals(identifier, other.identifier)
+          && Objects.equals(label, other.label)
+          && Objects.equals(value, other.value)
+          && Objects.equals(increasedValue, other.increasedValue)
+          && Objects.equals(decreasedValue, other.decreasedValue)
+          && Objects.equals(hint, other.hint)
+          && Objects.equals(tooltip, other.tooltip)
+          && Objects.equals(linkUrl, other.linkUrl)
+          && Objects.equals(locale, other.locale)
+          && Objects.equals(minValue, other.minValue)
+          && Objects.equals(maxValue, other.maxValue)
+          && Arrays.equals(transform, other.transform)
+          && Arrays.equals(hitTestTransform, other.hitTestTransform)
+          && Arrays.equals(childrenInTraversalOrder, other.childrenInTraversalOrder)
+          && Arrays.equals(childrenInHitTestOrder, other.childrenInHitTestOrder)
+          && Arrays.equals(customAccessibilityActions, other.customAccessibilityActions)
+          && attributesEqual(labelAttributes, other.labelAttributes)
+          && attributesEqual(valueAttributes, other.valueAttributes)
+          && attributesEqual(increasedValueAttributes, other.increasedValueAttributes)
+          && attributesEqual(decreasedValueAttributes, other.decreasedValueAttributes)
+          && attributesEqual(hintAttributes, other.hintAttributes);
+    }
+  }
+
+  /**
+   * A decoded semantics update.
+   *
+   * <p>{@link #nodes} is in the order in which the engine encoded it. A node for which {@link
+   * #isUnchanged(int)} returns true decoded identically to the previous snapshot with the same ID,
+   * and may be skipped if the platform thread still holds that node.
+   */
+  static final class SemanticsUpdateSnapshot {
+    @NonNull final List<SemanticsNodeSnapshot> nodes;
+    @NonNull private final boolean[] unchanged;
+
+    SemanticsUpdateSnapshot(
+        @NonNull List<SemanticsNodeSnapshot> nodes, @NonNull boolean[] unchanged) {
+      this.nodes = nodes;
+      this.unchanged = unchanged;
+    }
+
+    boolean isUnchanged(int index) {
+      return unchanged[index];
+    }
+  }
+
+  @NonNull private final Executor executor;
+  @NonNull private final Handler platformHandler;
+  @NonNull private final Applier applier;
+  @NonNull private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  @NonNull private final AtomicBoolean isRunning = new AtomicBoolean(false);
+
+  // The last snapshot decoded for each node ID that is still in the tree. Only accessed from the
+  // serial decode queue.
+  @NonNull private final Map<Integer, SemanticsNodeSnapshot> lastDecoded = new HashMap<>();
+
+  private volatile boolean isReleased = false;
+
+  SemanticsUpdateDecoder(
+      @NonNull Executor executor, @NonNull Handler platformHandler, @NonNull Applier applier) {
+    this.executor = executor;
+    this.platformHandler = platformHandler;
+    this.applier = applier;
+  }
+
+  /**
+   * Copies the given engine-owned buffers and schedules them to be decoded off the platform thread.
+   *
+   * <p>The buffers handed to Java by the engine are only valid for the duration of the JNI call, so
+   * they are copied here before this method returns.
+   */
+  void enqueueSemanticsUpdate(
+      @NonNull ByteBuffer buffer,
+      @NonNull String[] strings,
+      @NonNull ByteBuffer[] stringAttributeArgs) {
+    final ByteBuffer bufferCopy = copyOf(buffer);
+    final ByteBuffer[] argsCopy = new ByteBuffer[stringAttributeArgs.length];
+    for (int i = 0; i < stringAttributeArgs.length; i++) {
+      argsCopy[i] = copyOf(stringAttributeArgs[i]);
+    }
+    dispatch(
+        () -> {
+          final SemanticsUpdateSnapshot update;
+          try (TraceSection e = TraceSection.scoped("SemanticsUpdateDecoder#decode")) {
+            update = decodeSemanticsUpdate(bufferCopy, strings, argsCopy);
+          }
+          postToPlatformThread(() -> applier.applySemanticsUpdate(update));
+        });
+  }
+
+  /** Copies the given engine-owned buffer and schedules it to be decoded. */
+  void enqueueCustomAccessibilityActions(@NonNull ByteBuffer buffer, @NonNull String[] strings) {
+    final ByteBuffer bufferCopy = copyOf(buffer);
+    dispatch(
+        () -> {
+          final List<CustomActionSnapshot> actions = new ArrayList<>();
+          while (bufferCopy.hasRemaining()) {
+            int id = bufferCopy.getInt();
+            int overrideId = bufferCopy.getInt();
+            String label = getString(bufferCopy, strings);
+            String hint = getString(bufferCopy, strings);
+            actions.add(new CustomActionSnapshot(id, overrideId, label, hint));
+          }
+          postToPlatformThread(() -> applier.applyCustomAccessibilityActions(actions));
+        });
+  }
+
+  /**
+   * Schedules a reset of the semantics tree behind any pending updates, and forgets every
+   * previously decoded node so that subsequent updates are applied in full.
+   */
+  void enqueueReset() {
+    dispatch(
+        () -> {
+          lastDecoded.clear();
+          postToPlatformThread(applier::applyReset);
+        });
+  }
+
+  /** Stops delivering decoded updates. Pending decode work is dropped. */
+  void release() {
+    isReleased = true;
+    queue.clear();
+  }
+
+  @NonNull
+  private SemanticsUpdateSnapshot decodeSemanticsUpdate(
+      @NonNull ByteBuffer buffer,
+      @NonNull String[] strings,
+      @NonNull ByteBuffer[] stringAttributeArgs) {
+    final List<SemanticsNodeSnapshot> nodes = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      nodes.add(SemanticsNodeSnapshot.decode(buffer, strings, stringAttributeArgs));
+    }
+    final boolean[] unchanged = new boolean[nodes.size()];
+    boolean childrenChanged = false;
+    for (int i = 0; i < nodes.size(); i++) {
+      final SemanticsNodeSnapshot node = nodes.get(i);
+      final SemanticsNodeSnapshot previous = lastDecoded.put(node.id, node);
+      unchanged[i] = previous != null && previous.contentEquals(node);
+      childrenChanged |=
+          previous != null
+              && !Arrays.equals(previous.childrenInTraversalOrder, node.childrenInTraversalOrder);
+    }
+    if (childrenChanged) {
+      evictUnreachableNodes();
+    }
+    return new SemanticsUpdateSnapshot(nodes, unchanged);
+  }
+
+  /**
+   * Forgets the nodes that can no longer be reached from the root, like {@link AccessibilityBridge}
+   * removes them from its tree, so that a node that is added again is applied in full.
+   */
+  private void evictUnreachableNodes() {
+    if (!lastDecoded.containsKey(ROOT_NODE_ID)) {
+      return;
+    }
+    final Set<Integer> reachable = new HashSet<>();
+    final ArrayDeque<Integer> pending = new ArrayDeque<>();
+    pending.add(ROOT_NODE_ID);
+    while (!pending.isEmpty()) {
+      final int id = pending.poll();
+      final SemanticsNodeSnapshot node = lastDecoded.get(id);
+      if (node == null || !reachable.add(id)) {
+        continue;
+      }
+      for (int childId : node.childrenInTraversalOrder) {
+        pending.add(childId);
+      }
+    }
+    lastDecoded.keySet().retainAll(reachable);
+  }
+
+  private void postToPlatformThread(@NonNull Runnable runnable) {
+    platformHandler.post(
+        () -> {
+          if (!isReleased) {
+            runnable.run();
+          }
+        });
+  }
+
+  private void dispatch(@NonNull Runnable runnable) {
+    if (isReleased) {
+      return;
+    }
+    queue.add(runnable);
+    executor.execute(this::flush);
+  }
+
+  private void flush() {
+    // Don't execute if we are already executing (enforce serial execution).
+    if (isRunning.compareAndSet(false, true)) {
+      try {
+        @Nullable Runnable runnable = queue.poll();
+        if (runnable != null) {
+          runnable.run();
+        }
+      } finally {
+        isRunning.set(false);
+        if (!queue.isEmpty()) {
+          // Schedule the next update.
+          executor.execute(this::flush);
+        }
+      }
+    }
+  }
+
+  @NonNull
+  private static ByteBuffer copyOf(@NonNull ByteBuffer buffer) {
+    final ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+    copy.put(buffer.duplicate());
+    copy.flip();
+    copy.order(ByteOrder.LITTLE_ENDIAN);
+    return copy;
+  }
+
+  @Nullable
+  private static String getString(@NonNull ByteBuffer buffer, @NonNull String[] strings) {
+    int stringIndex = buffer.getInt();
+    return stringIndex == EMPTY_STRING_INDEX ? null : strings[stringIndex];
+  }
+
+  @NonNull
+  private static float[] getMatrix4(@NonNull ByteBuffer buffer) {
+    final float[] matrix = new float[16];
+    for (int i = 0; i < 16; ++i) {
+      matrix[i] = buffer.getFloat();
+    }
+    return matrix;
+  }
+
+  @NonNull
+  private static int[] getIntArray(@NonNull ByteBuffer buffer) {
+    final int count = buffer.getInt();
+    final int[] result = new int[count];
+    for (int i = 0; i < count; ++i) {
+      result[i] = buffer.getInt();
+    }
+    return result;
+  }
+
+  @Nullable
+  private static List<StringAttribute> getStringAttributes(
+      @NonNull ByteBuffer buffer, @NonNull ByteBuffer[] stringAttributeArgs) {
+    final int attributesCount = buffer.getInt();
+    if (attributesCount == -1) {
+      return null;
+    }
+    final List<StringAttribute> result = new ArrayList<>(attributesCount);
+    for (int i = 0; i < attributesCount; ++i) {
+      final int start = buffer.getInt();
+      final int end = buffer.getInt();
+      final StringAttributeType type = StringAttributeType.values()[buffer.getInt()];
+      switch (type) {
+        case SPELLOUT:
+          {
+            // Pops the -1 size.
+            buffer.getInt();
+            SpellOutStringAttribute attribute = new SpellOutStringAttribute();
+            attribute.start = start;
+            attribute.end = end;
+            attribute.type = type;
+            result.add(attribute);
+            break;
+          }
+        case LOCALE:
+          {
+            final int argsIndex = buffer.getInt();
+            final ByteBuffer args = stringAttributeArgs[argsIndex];
+            LocaleStringAttribute attribute = new LocaleStringAttribute();
+            attribute.start = start;
+            attribute.end = end;
+            attribute.type = type;
+            attribute.locale = StandardCharsets.UTF_8.decode(args).toString();
+            result.add(attribute);
+            break;
+          }
+        default:
+          break;
+      }
+    }
+    return result;
+  }
+
+  private static boolean attributesEqual(
+      @Nullable List<StringAttribute> a, @Nullable List<StringAttribute> b) {
+    if (a == b) {
+      return true;
+    }
+    if (a == null || b == null || a.size() != b.size()) {
+      return false;
+    }
+    for (int i = 0; i < a.size(); i++) {
+      final StringAttribute x = a.get(i);
+      final StringAttribute y = b.get(i);
+      if (x.start != y.start || x.end != y.end || x.type != y.type) {
+        return false;
+      }
+      if (x instanceof LocaleStringAttribute
+          && (!(y instanceof LocaleStringAttribute)
+              || !Objects.equals(
+                  ((LocaleStringAttribute) x).locale, ((LocaleStringAttribute) y).locale))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
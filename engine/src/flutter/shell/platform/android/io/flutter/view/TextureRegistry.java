@@ -270,6 +270,18 @@ public interface TextureRegistry {
      * @return {@code true} if crop and rotation is handled automatically, {@code false} otherwise.
      */
     boolean handlesCropAndRotation();
+
+    /**
+     * Returns the statistics of the frames produced into this texture, or null if this texture
+     * does not collect them.
+     *
+     * <p>The returned statistics are live: they are updated as frames are produced and consumed,
+     * and can be read from any thread.
+     */
+    @Nullable
+    default FrameStatistics getFrameStatistics() {
+      return null;
+    }
   }
 
   /** A registry entry for a managed SurfaceTexture. */
@@ -297,6 +309,74 @@ public interface TextureRegistry {
      * last frame pushed will be used (dropping the missed frames).
      */
     void pushImage(Image image);
+
+    /**
+     * Sets whether the renderer skips pushed images that the producer has not finished writing.
+     *
+     * <p>By default, the renderer waits on the fence of each image before drawing it, which stalls
+     * the whole frame while a slow producer is still writing. When skipping, an image whose fence
+     * has not signaled is not drawn in the current frame: the texture keeps showing the previous
+     * image, and the skipped image is drawn in a later frame, unless a newer image is pushed in
+     * the meantime. Skips are counted by {@link FrameStatistics#getFenceSkipCount()}.
+     *
+     * <p>Fences are only available on Android 13 (API 33) and above.
+     */
+    default void setSkipUnsignaledImages(boolean skip) {}
+
+    /**
+     * Returns the statistics of the images pushed into this texture, or null if this texture does
+     * not collect them.
+     *
+     * <p>The returned statistics are live: they are updated as images are pushed and consumed, and
+     * can be read from any thread.
+     */
+    @Nullable
+    default FrameStatistics getFrameStatistics() {
+      return null;
+    }
+  }
+
+  /**
+   * Statistics of the frames produced into a texture, and consumed by the Flutter renderer, since
+   * the texture was created.
+   *
+   * <p>Every statistic is read without locking, so statistics read one after the other may not
+   * describe exactly the same set of frames while frames are being produced.
+   */
+  interface FrameStatistics {
+    /** @return The number of frames produced into the texture. */
+    long getFramesProduced();
+
+    /** @return The number of frames the renderer consumed. */
+    long getFramesConsumed();
+
+    /** @return The number of frames that arrived after the texture or its surface was released. */
+    long getFramesDroppedLate();
+
+    /** @return The number of frames replaced by a newer frame before the renderer consumed them. */
+    long getFramesDroppedOverwritten();
+
+    /**
+     * Returns the time between a frame being produced and consumed, below which {@code
+     * percentile} percent of the consumed frames fall, or 0 if no frame was consumed yet.
+     *
+     * @param percentile A percentile between 0 and 100, such as 50 for the median.
+     */
+    long getQueueLatencyPercentileNanos(double percentile);
+
+    /** @return The number of times the renderer waited on the fence of a frame. */
+    long getFenceWaitCount();
+
+    /** @return The total time the renderer spent waiting on fences. */
+    long getFenceWaitNanos();
+
+    /**
+     * @return The number of times the renderer skipped a frame because its fence had not signaled.
+     */
+    long getFenceSkipCount();
+
+    /** @return The number of times the texture released its buffers due to memory pressure. */
+    long getTrimCount();
   }
 
   /** Listener invoked when the most recent image has been consumed. */
@@ -419,7 +419,12 @@ void PlatformViewAndroid::RegisterImageTexture(
 
 // |PlatformView|
 std::unique_ptr<VsyncWaiter> PlatformViewAndroid::CreateVSyncWaiter() {
-  return std::make_unique<VsyncWaiterAndroid>(task_runners_);
+  return std::make_unique<VsyncWaiterAndroid>(task_runners_,
+                                              last_vsync_request_nanos_);
+}
+
+int64_t PlatformViewAndroid::GetLastVsyncRequestNanos() const {
+  return last_vsync_request_nanos_->load(std::memory_order_relaxed);
 }
 
 // |PlatformView|
@@ -5,6 +5,7 @@
 #ifndef FLUTTER_SHELL_PLATFORM_ANDROID_PLATFORM_VIEW_ANDROID_H_
 #define FLUTTER_SHELL_PLATFORM_ANDROID_PLATFORM_VIEW_ANDROID_H_
 
+#include <atomic>
 #include <memory>
 #include <string>
 #include <vector>
@@ -124,6 +125,11 @@ class PlatformViewAndroid final : public PlatformView {
   /// @brief Whether the SurfaceControl based swapchain is enabled and active.
   bool IsSurfaceControlEnabled() const;
 
+  /// @brief The fml::TimePoint::Now() in nanoseconds at which the engine last
+  ///        waited for a vsync signal to produce a frame, or 0 if it never
+  ///        did.
+  int64_t GetLastVsyncRequestNanos() const;
+
   // |PlatformView|
   void SetupImpellerContext() override;
 
@@ -137,6 +143,8 @@ class PlatformViewAndroid final : public PlatformView {
   std::unique_ptr<AndroidSurface> android_surface_;
   std::shared_ptr<PlatformMessageHandlerAndroid> platform_message_handler_;
   bool android_meets_hcpp_criteria_ = false;
+  const std::shared_ptr<std::atomic_int64_t> last_vsync_request_nanos_ =
+      std::make_shared<std::atomic_int64_t>(0);
 
   // |PlatformView|
   void UpdateSemantics(
@@ -4,10 +4,12 @@
 
 #include "flutter/shell/platform/android/platform_view_android_jni_impl.h"
 
+#include <android/bitmap.h>
 #include <android/hardware_buffer_jni.h>
 #include <android/native_window_jni.h>
 #include <dlfcn.h>
 #include <jni.h>
+#include <cstring>
 #include <memory>
 #include <utility>
 
@@ -331,6 +333,44 @@ static jobject LookupCallbackInformation(JNIEnv* env,
                         env->NewStringUTF(cbInfo->library_path.c_str()));
 }
 
+static jboolean BitmapMatchesPixels(JNIEnv* env,
+                                    /* unused */ jclass,
+                                    jobject bitmap,
+                                    jobject pixels,
+                                    jint offset,
+                                    jint row_stride) {
+  AndroidBitmapInfo info;
+  if (AndroidBitmap_getInfo(env, bitmap, &info) < 0 ||
+      info.format != ANDROID_BITMAP_FORMAT_RGBA_8888 || info.height == 0) {
+    return false;
+  }
+  const uint8_t* data =
+      static_cast<const uint8_t*>(env->GetDirectBufferAddress(pixels));
+  const jlong capacity = env->GetDirectBufferCapacity(pixels);
+  const size_t row_bytes = info.width * sizeof(uint32_t);
+  if (data == nullptr || offset < 0 ||
+      static_cast<size_t>(row_stride) < row_bytes ||
+      offset + static_cast<jlong>(row_stride) * (info.height - 1) +
+              static_cast<jlong>(row_bytes) >
+          capacity) {
+    return false;
+  }
+
+  void* bitmap_pixels;
+  if (AndroidBitmap_lockPixels(env, bitmap, &bitmap_pixels) < 0) {
+    return false;
+  }
+  bool matches = true;
+  for (uint32_t row = 0; matches && row < info.height; row++) {
+    matches = memcmp(static_cast<const uint8_t*>(bitmap_pixels) +
+                         static_cast<size_t>(row) * info.stride,
+                     data + offset + static_cast<size_t>(row) * row_stride,
+                     row_bytes) == 0;
+  }
+  AndroidBitmap_unlockPixels(env, bitmap);
+  return matches;
+}
+
 static void SetViewportMetrics(JNIEnv* env,
                                jobject jcaller,
                                jlong shell_holder,
@@ -444,6 +484,12 @@ static bool IsSurfaceControlEnabled(JNIEnv* env,
   return ANDROID_SHELL_HOLDER->IsSurfaceControlEnabled();
 }
 
+static jlong GetLastVsyncRequestNanos(JNIEnv* env,
+                                      jobject jcaller,
+                                      jlong shell_holder) {
+  return ANDROID_SHELL_HOLDER->GetPlatformView()->GetLastVsyncRequestNanos();
+}
+
 static jobject GetBitmap(JNIEnv* env, jobject jcaller, jlong shell_holder) {
   auto screenshot = ANDROID_SHELL_HOLDER->Screenshot(
       Rasterizer::ScreenshotType::UncompressedImage, false);
@@ -601,6 +647,23 @@ static void MarkTextureFrameAvailable(JNIEnv* env,
       static_cast<int64_t>(texture_id));
 }
 
+static void MarkTextureFramesAvailable(JNIEnv* env,
+                                       jobject jcaller,
+                                       jlong shell_holder,
+                                       jlongArray texture_ids,
+                                       jint count) {
+  if (count <= 0) {
+    return;
+  }
+  std::vector<int64_t> ids(count);
+  static_assert(sizeof(jlong) == sizeof(int64_t));
+  env->GetLongArrayRegion(texture_ids, 0, count,
+                          reinterpret_cast<jlong*>(ids.data()));
+  // Marks all the textures in one raster task and schedules one frame.
+  ANDROID_SHELL_HOLDER->GetPlatformView()->MarkTextureFramesAvailable(
+      std::move(ids));
+}
+
 static void ScheduleFrame(JNIEnv* env, jobject jcaller, jlong shell_holder) {
   ANDROID_SHELL_HOLDER->GetPlatformView()->ScheduleFrame();
 }
@@ -883,6 +946,11 @@ bool RegisterApi(JNIEnv* env) {
           .signature = "(JJ)V",
           .fnPtr = reinterpret_cast<void*>(&MarkTextureFrameAvailable),
       },
+      {
+          .name = "nativeMarkTextureFramesAvailable",
+          .signature = "(J[JI)V",
+          .fnPtr = reinterpret_cast<void*>(&MarkTextureFramesAvailable),
+      },
       {
           .name = "nativeScheduleFrame",
           .signature = "(J)V",
@@ -899,6 +967,11 @@ bool RegisterApi(JNIEnv* env) {
           .signature = "(J)Lio/flutter/view/FlutterCallbackInformation;",
           .fnPtr = reinterpret_cast<void*>(&LookupCallbackInformation),
       },
+      {
+          .name = "nativeBitmapMatchesPixels",
+          .signature = "(Landroid/graphics/Bitmap;Ljava/nio/ByteBuffer;II)Z",
+          .fnPtr = reinterpret_cast<void*>(&BitmapMatchesPixels),
+      },
 
       // Start of methods for FlutterTextUtils
       {
@@ -954,6 +1027,11 @@ bool RegisterApi(JNIEnv* env) {
           .name = "nativeIsSurfaceControlEnabled",
           .signature = "(J)Z",
           .fnPtr = reinterpret_cast<void*>(&IsSurfaceControlEnabled),
+      },
+      {
+          .name = "nativeGetLastVsyncRequestNanos",
+          .signature = "(J)J",
+          .fnPtr = reinterpret_cast<void*>(&GetLastVsyncRequestNanos),
       }};
 
   if (env->RegisterNatives(g_flutter_jni_class->obj(), flutter_jni_methods,
@@ -112,7 +112,14 @@ void SurfaceTextureExternalTexture::OnGrContextDestroyed() {
   state_ = AttachmentState::kDetached;
 }
 
-void SurfaceTextureExternalTexture::OnTextureUnregistered() {}
+void SurfaceTextureExternalTexture::OnTextureUnregistered() {
+  // Detach on the raster thread, so that the SurfaceTexture can be attached to
+  // the GL texture of another entry if the embedding reuses it.
+  if (state_ == AttachmentState::kAttached) {
+    Detach();
+  }
+  state_ = AttachmentState::kDetached;
+}
 
 void SurfaceTextureExternalTexture::Detach() {
   jni_facade_->SurfaceTextureDetachFromGLContext(
@@ -0,0 +1,170 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Compares copying every frame into a single bitmap, as {@link FlutterImageView} did before API 29,
+ * with copying the changed strips of every frame through a {@link DoubleBufferedBitmapPool}.
+ *
+ * <p>For every frame the benchmark reports the time spent in {@link
+ * Bitmap#copyPixelsFromBuffer(java.nio.Buffer)} for the full frame, the time spent in {@link
+ * DoubleBufferedBitmapPool#update} for the strips, and the part of the latter spent comparing
+ * strips with their bitmaps. The comparison runs over every unchanged row of the frame, so it is
+ * part of the cost of the strip path.
+ *
+ * <p>On a device, pass {@code FlutterJNI::nativeBitmapMatchesPixels} as the comparator to measure
+ * the path {@link FlutterImageView} uses. On the JVM the native method is not available, and a Java
+ * comparator stands in for it.
+ */
+final class DoubleBufferedBitmapPoolBenchmark {
+  /** Writes the pixels of a frame. */
+  interface FrameSource {
+    /**
+     * Writes frame {@code index} into {@code frame}, which still holds the previous frame of the
+     * run.
+     */
+    void fill(@NonNull ByteBuffer frame, int index);
+  }
+
+  /** The measurements of a single run. Arrays are indexed by frame. */
+  static final class Report {
+    final int width;
+    final int height;
+    @NonNull final long[] fullCopyNanos;
+    @NonNull final long[] stripCopyNanos;
+    /** The part of {@link #stripCopyNanos} spent comparing strips with their bitmaps. */
+    @NonNull final long[] compareNanos;
+
+    long copiedRows;
+
+    Report(int width, int height, int frameCount) {
+      this.width = width;
+      this.height = height;
+      fullCopyNanos = new long[frameCount];
+      stripCopyNanos = new long[frameCount];
+      compareNanos = new long[frameCount];
+    }
+
+    int getFrameCount() {
+      return fullCopyNanos.length;
+    }
+
+    long getFullCopyPercentileNanos(double percentile) {
+      return percentile(fullCopyNanos, percentile);
+    }
+
+    long getStripCopyPercentileNanos(double percentile) {
+      return percentile(stripCopyNanos, percentile);
+    }
+
+    long getComparePercentileNanos(double percentile) {
+      return percentile(compareNanos, percentile);
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+      return String.format(
+          Locale.US,
+          "%d frames of %dx%d: full copy p50=%.3fms p90=%.3fms, strips p50=%.3fms p90=%.3fms"
+              + " (comparing p50=%.3fms), %d of %d rows copied",
+          getFrameCount(),
+          width,
+          height,
+          millis(getFullCopyPercentileNanos(50)),
+          millis(getFullCopyPercentileNanos(90)),
+          millis(getStripCopyPercentileNanos(50)),
+          millis(getStripCopyPercentileNanos(90)),
+          millis(getComparePercentileNanos(50)),
+          copiedRows,
+          (long) getFrameCount() * height);
+    }
+
+    private static long percentile(@NonNull long[] values, double percentile) {
+      if (values.length == 0) {
+        return 0;
+      }
+      long[] sorted = values.clone();
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+      return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double millis(long nanos) {
+      return nanos / 1000000.0;
+    }
+  }
+
+  private final int width;
+  private final int height;
+  @NonNull private final DoubleBufferedBitmapPool.PixelComparator comparator;
+
+  // The time spent in the comparator since the start of the current frame.
+  private long frameCompareNanos;
+
+  DoubleBufferedBitmapPoolBenchmark(
+      int width, int height, @NonNull DoubleBufferedBitmapPool.PixelComparator comparator) {
+    this.width = width;
+    this.height = height;
+    this.comparator = comparator;
+  }
+
+  /**
+   * Runs {@code frameCount} frames of {@code source} {@code warmupRuns} times without measuring
+   * them, so that the JIT has compiled both paths, and then once more while measuring them.
+   */
+  @NonNull
+  Report run(@NonNull FrameSource source, int frameCount, int warmupRuns) {
+    for (int i = 0; i < warmupRuns; i++) {
+      run(source, frameCount, null);
+    }
+    Report report = new Report(width, height, frameCount);
+    run(source, frameCount, report);
+    return report;
+  }
+
+  private void run(@NonNull FrameSource source, int frameCount, Report report) {
+    final int rowStride = width * 4;
+    final ByteBuffer frame = ByteBuffer.allocateDirect(rowStride * height);
+    final Bitmap fullCopyBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    final DoubleBufferedBitmapPool pool =
+        new DoubleBufferedBitmapPool(
+            DoubleBufferedBitmapPool.DEFAULT_STRIP_HEIGHT,
+            (bitmap, pixels, offset, stride) -> {
+              final long start = System.nanoTime();
+              final boolean matches = comparator.matches(bitmap, pixels, offset, stride);
+              frameCompareNanos += System.nanoTime() - start;
+              return matches;
+            });
+    for (int i = 0; i < frameCount; i++) {
+      source.fill(frame, i);
+
+      long start = System.nanoTime();
+      frame.rewind();
+      fullCopyBitmap.copyPixelsFromBuffer(frame);
+      final long fullCopyNanos = System.nanoTime() - start;
+
+      frameCompareNanos = 0;
+      start = System.nanoTime();
+      pool.update(frame, width, height, rowStride);
+      final long stripCopyNanos = System.nanoTime() - start;
+
+      if (report != null) {
+        report.fullCopyNanos[i] = fullCopyNanos;
+        report.stripCopyNanos[i] = stripCopyNanos;
+        report.compareNanos[i] = frameCompareNanos;
+      }
+    }
+    if (report != null) {
+      report.copiedRows = pool.getCopiedRowCount();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class DoubleBufferedBitmapPoolBenchmarkTest {
+  private static final int WIDTH = 720;
+  private static final int HEIGHT = 1280;
+  private static final int ROW_STRIDE = WIDTH * 4;
+  private static final int FRAME_COUNT = 30;
+
+  // Fills the given rows with an opaque gray of the given brightness.
+  private static void fillRows(ByteBuffer frame, int firstRow, int rows, int gray) {
+    for (int i = firstRow * ROW_STRIDE; i < (firstRow + rows) * ROW_STRIDE; i += 4) {
+      frame.put(i, (byte) gray);
+      frame.put(i + 1, (byte) gray);
+      frame.put(i + 2, (byte) gray);
+      frame.put(i + 3, (byte) 255);
+    }
+  }
+
+  private static DoubleBufferedBitmapPoolBenchmark.Report run(
+      DoubleBufferedBitmapPoolBenchmark.FrameSource source) {
+    DoubleBufferedBitmapPoolBenchmark benchmark =
+        new DoubleBufferedBitmapPoolBenchmark(
+            WIDTH, HEIGHT, DoubleBufferedBitmapPoolTest.PIXEL_COMPARATOR);
+    DoubleBufferedBitmapPoolBenchmark.Report report = benchmark.run(source, FRAME_COUNT, 1);
+    assertEquals(FRAME_COUNT, report.getFrameCount());
+    for (int i = 0; i < report.getFrameCount(); i++) {
+      assertTrue(report.fullCopyNanos[i] > 0);
+      assertTrue(report.compareNanos[i] <= report.stripCopyNanos[i]);
+    }
+    return report;
+  }
+
+  // An overlay in which a text field cursor blinks, which the strips are meant for.
+  @Test
+  public void benchmarkBlinkingCursor() {
+    DoubleBufferedBitmapPoolBenchmark.Report report =
+        run(
+            (frame, index) -> {
+              if (index == 0) {
+                fillRows(frame, 0, HEIGHT, 30);
+              }
+              fillRows(frame, 600, 40, index % 2 == 0 ? 30 : 255);
+            });
+    System.out.println("DoubleBufferedBitmapPool blinking cursor: " + report);
+
+    // After the first frame, only the strip of the cursor is copied.
+    assertEquals(
+        HEIGHT + (FRAME_COUNT - 1) * DoubleBufferedBitmapPool.DEFAULT_STRIP_HEIGHT,
+        report.copiedRows);
+  }
+
+  // An overlay that changes entirely on every frame, such as a scrolling list. The strips are
+  // compared and then copied anyway, which is the worst case of the strip path.
+  @Test
+  public void benchmarkFullyChangingFrames() {
+    DoubleBufferedBitmapPoolBenchmark.Report report =
+        run((frame, index) -> fillRows(frame, 0, HEIGHT, index % 2 == 0 ? 30 : 255));
+    System.out.println("DoubleBufferedBitmapPool fully changing frames: " + report);
+
+    assertEquals((long) FRAME_COUNT * HEIGHT, report.copiedRows);
+  }
+}
@@ -0,0 +1,148 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+@RunWith(AndroidJUnit4.class)
+public class DoubleBufferedBitmapPoolTest {
+  private static final int WIDTH = 16;
+  private static final int HEIGHT = 40;
+  private static final int ROW_STRIDE = WIDTH * 4;
+  private static final int STRIP_HEIGHT = 8;
+
+  // Compares in Java what FlutterJNI.nativeBitmapMatchesPixels compares in native code.
+  static final DoubleBufferedBitmapPool.PixelComparator PIXEL_COMPARATOR =
+      (bitmap, pixels, offset, rowStride) -> {
+        final ByteBuffer bitmapPixels = ByteBuffer.allocate(bitmap.getByteCount());
+        bitmap.copyPixelsToBuffer(bitmapPixels);
+        final ByteBuffer rows = pixels.duplicate();
+        rows.limit(offset + bitmap.getHeight() * rowStride);
+        rows.position(offset);
+        bitmapPixels.rewind();
+        return bitmapPixels.equals(rows);
+      };
+
+  private static DoubleBufferedBitmapPool createPool(int stripHeight) {
+    return new DoubleBufferedBitmapPool(stripHeight, PIXEL_COMPARATOR);
+  }
+
+  private static ByteBuffer createFrame(int width, int height) {
+    return ByteBuffer.allocateDirect(width * 4 * height);
+  }
+
+  // Fills the given rows with an opaque gray of the given brightness.
+  private static void fillRows(ByteBuffer frame, int rowStride, int firstRow, int rows, int gray) {
+    for (int i = firstRow * rowStride; i < (firstRow + rows) * rowStride; i += 4) {
+      frame.put(i, (byte) gray);
+      frame.put(i + 1, (byte) gray);
+      frame.put(i + 2, (byte) gray);
+      frame.put(i + 3, (byte) 255);
+    }
+  }
+
+  private static List<Bitmap> drawnBitmaps(DoubleBufferedBitmapPool pool, int strips) {
+    Canvas canvas = mock(Canvas.class);
+    pool.draw(canvas);
+    ArgumentCaptor<Bitmap> bitmaps = ArgumentCaptor.forClass(Bitmap.class);
+    verify(canvas, times(strips))
+        .drawBitmap(bitmaps.capture(), eq(0f), anyFloat(), isNull(Paint.class));
+    return bitmaps.getAllValues();
+  }
+
+  @Test
+  public void itOnlyCopiesChangedStrips() {
+    DoubleBufferedBitmapPool pool = createPool(STRIP_HEIGHT);
+    ByteBuffer frame = createFrame(WIDTH, HEIGHT);
+    fillRows(frame, ROW_STRIDE, 0, HEIGHT, 10);
+
+    assertEquals(HEIGHT, pool.update(frame, WIDTH, HEIGHT, ROW_STRIDE));
+    // The same frame again.
+    assertEquals(0, pool.update(frame, WIDTH, HEIGHT, ROW_STRIDE));
+
+    // A change in row 17 only copies the strip from row 16 to 23.
+    fillRows(frame, ROW_STRIDE, 17, 1, 200);
+    assertEquals(STRIP_HEIGHT, pool.update(frame, WIDTH, HEIGHT, ROW_STRIDE));
+
+    assertEquals(3 * HEIGHT, pool.getCopiedRowCount() + pool.getSkippedRowCount());
+    assertEquals(HEIGHT + STRIP_HEIGHT, pool.getCopiedRowCount());
+  }
+
+  @Test
+  public void itDoesNotModifyTheLastDrawnBitmaps() {
+    DoubleBufferedBitmapPool pool = createPool(STRIP_HEIGHT);
+    ByteBuffer frame = createFrame(WIDTH, HEIGHT);
+    fillRows(frame, ROW_STRIDE, 0, HEIGHT, 10);
+    pool.update(frame, WIDTH, HEIGHT, ROW_STRIDE);
+    List<Bitmap> before = drawnBitmaps(pool, HEIGHT / STRIP_HEIGHT);
+    final int pixelBefore = before.get(0).getPixel(0, 0);
+
+    fillRows(frame, ROW_STRIDE, 0, 1, 200);
+    pool.update(frame, WIDTH, HEIGHT, ROW_STRIDE);
+    List<Bitmap> after = drawnBitmaps(pool, HEIGHT / STRIP_HEIGHT);
+
+    // The changed strip is drawn from its back bitmap, the other strips are unchanged.
+    assertNotSame(before.get(0), after.get(0));
+    assertEquals(before.get(1), after.get(1));
+    assertEquals(pixelBefore, before.get(0).getPixel(0, 0));
+    assertNotEquals(pixelBefore, after.get(0).getPixel(0, 0));
+  }
+
+  @Test
+  public void itStartsOverWhenTheFrameSizeChanges() {
+    DoubleBufferedBitmapPool pool = createPool(STRIP_HEIGHT);
+    pool.update(createFrame(WIDTH, HEIGHT), WIDTH, HEIGHT, ROW_STRIDE);
+
+    // The last strip of a frame can be shorter than the others.
+    final int height = HEIGHT + 3;
+    assertEquals(height, pool.update(createFrame(WIDTH, height), WIDTH, height, ROW_STRIDE));
+    List<Bitmap> bitmaps = drawnBitmaps(pool, HEIGHT / STRIP_HEIGHT + 1);
+    assertEquals(3, bitmaps.get(bitmaps.size() - 1).getHeight());
+
+    pool.clear();
+    drawnBitmaps(pool, 0);
+  }
+
+  // An overlay in which a text field cursor blinks.
+  @Test
+  public void itOnlyCopiesTheStripOfABlinkingCursor() {
+    final int width = 720;
+    final int height = 1280;
+    final int rowStride = width * 4;
+    final int frames = 60;
+    ByteBuffer frame = createFrame(width, height);
+    fillRows(frame, rowStride, 0, height, 30);
+    DoubleBufferedBitmapPool pool = createPool(DoubleBufferedBitmapPool.DEFAULT_STRIP_HEIGHT);
+
+    for (int i = 0; i < frames; i++) {
+      fillRows(frame, rowStride, 600, 40, i % 2 == 0 ? 30 : 255);
+      pool.update(frame, width, height, rowStride);
+    }
+
+    // After the first frame, only the strip of the cursor is copied.
+    final long cursorStripRows = DoubleBufferedBitmapPool.DEFAULT_STRIP_HEIGHT;
+    assertEquals(height + (frames - 1) * cursorStripRows, pool.getCopiedRowCount());
+    assertTrue(pool.getCopiedRowCount() < (long) frames * height / 10);
+  }
+}
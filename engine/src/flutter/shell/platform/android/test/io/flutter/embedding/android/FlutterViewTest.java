@@ -114,6 +114,47 @@ public class FlutterViewTest {
     verify(platformViewsController2, times(1)).attachToView(flutterView);
   }
 
+  @Test
+  public void attachToFlutterEngine_appliesBackgroundSemanticsDecoding() {
+    FlutterView flutterView = new FlutterView(ctx);
+    FlutterEngine flutterEngine = spy(new FlutterEngine(ctx, mockFlutterLoader, mockFlutterJni));
+    when(flutterEngine.getPlatformViewsController()).thenReturn(platformViewsController);
+    when(flutterEngine.getPlatformViewsController2()).thenReturn(platformViewsController2);
+
+    flutterView.setBackgroundSemanticsDecodingEnabled(true);
+    flutterView.attachToFlutterEngine(flutterEngine);
+    assertTrue(flutterView.getAccessibilityBridge().isBackgroundSemanticsDecodingEnabled());
+
+    flutterView.setBackgroundSemanticsDecodingEnabled(false);
+    assertFalse(flutterView.getAccessibilityBridge().isBackgroundSemanticsDecodingEnabled());
+
+    // The option is kept for the next engine.
+    flutterView.setBackgroundSemanticsDecodingEnabled(true);
+    flutterView.detachFromFlutterEngine();
+    flutterView.attachToFlutterEngine(flutterEngine);
+    assertTrue(flutterView.getAccessibilityBridge().isBackgroundSemanticsDecodingEnabled());
+  }
+
+  @Test
+  public void attachToFlutterEngine_appliesTheAccessibilityEventCoalescingWindow() {
+    FlutterView flutterView = new FlutterView(ctx);
+    FlutterEngine flutterEngine = spy(new FlutterEngine(ctx, mockFlutterLoader, mockFlutterJni));
+    when(flutterEngine.getPlatformViewsController()).thenReturn(platformViewsController);
+    when(flutterEngine.getPlatformViewsController2()).thenReturn(platformViewsController2);
+
+    flutterView.setAccessibilityEventCoalescingWindow(16);
+    flutterView.attachToFlutterEngine(flutterEngine);
+    assertEquals(16, flutterView.getAccessibilityBridge().getAccessibilityEventCoalescingWindow());
+
+    flutterView.setAccessibilityEventCoalescingWindow(0);
+    assertEquals(0, flutterView.getAccessibilityBridge().getAccessibilityEventCoalescingWindow());
+
+    // The window is kept for the next engine.
+    flutterView.detachFromFlutterEngine();
+    flutterView.attachToFlutterEngine(flutterEngine);
+    assertEquals(0, flutterView.getAccessibilityBridge().getAccessibilityEventCoalescingWindow());
+  }
+
   @Test
   public void flutterView_importantForAutofillDoesNotExcludeDescendants() {
     FlutterView flutterView = new FlutterView(ctx);
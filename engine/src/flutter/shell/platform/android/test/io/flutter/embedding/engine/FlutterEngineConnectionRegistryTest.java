@@ -36,6 +36,26 @@ import org.junit.runner.RunWith;
 
 @RunWith(AndroidJUnit4.class)
 public class FlutterEngineConnectionRegistryTest {
+  @Test
+  public void itRecordsTheAttachmentOfPluginsInTheStartupTimeline() {
+    Context context = mock(Context.class);
+
+    FlutterEngine flutterEngine = mock(FlutterEngine.class);
+    when(flutterEngine.getPlatformViewsController())
+        .thenReturn(mock(PlatformViewsController.class));
+    when(flutterEngine.getPlatformViewsController2())
+        .thenReturn(mock(PlatformViewsController2.class));
+
+    FlutterLoader flutterLoader = mock(FlutterLoader.class);
+    StartupTimeline timeline = new StartupTimeline();
+
+    FlutterEngineConnectionRegistry registry =
+        new FlutterEngineConnectionRegistry(context, flutterEngine, flutterLoader, null, timeline);
+    registry.add(new FakeFlutterPlugin());
+
+    assertNotNull(timeline.getPhase(StartupTimeline.pluginAttachPhase(FakeFlutterPlugin.class)));
+  }
+
   @Test
   public void itDoesNotRegisterTheSamePluginTwice() {
     Context context = mock(Context.class);
@@ -95,7 +95,8 @@ public class FlutterEngineGroupComponentTest {
               Context context,
               PlatformViewsController platformViewsController,
               boolean automaticallyRegisterPlugins,
-              boolean waitForRestorationData) {
+              boolean waitForRestorationData,
+              SystemChannelPreset systemChannelPreset) {
             return firstEngineUnderTest;
           }
         };
@@ -149,7 +150,8 @@ public class FlutterEngineGroupComponentTest {
             nullable(List.class),
             any(PlatformViewsController.class),
             any(Boolean.class),
-            any(Boolean.class));
+            any(Boolean.class),
+            any(SystemChannelPreset.class));
 
     FlutterEngine secondEngine =
         engineGroupUnderTest.createAndRunEngine(ctx, mock(DartEntrypoint.class));
@@ -167,7 +169,8 @@ public class FlutterEngineGroupComponentTest {
             nullable(List.class),
             any(PlatformViewsController.class),
             any(Boolean.class),
-            any(Boolean.class)))
+            any(Boolean.class),
+            any(SystemChannelPreset.class)))
         .thenReturn(mock(FlutterEngine.class));
 
     FlutterEngine thirdEngine =
@@ -1,8 +1,10 @@
 package test.io.flutter.embedding.engine;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyInt;
@@ -29,10 +31,13 @@ import io.flutter.embedding.engine.FlutterEngine;
 import io.flutter.embedding.engine.FlutterEngine.EngineLifecycleListener;
 import io.flutter.embedding.engine.FlutterEngineGroup;
 import io.flutter.embedding.engine.FlutterJNI;
+import io.flutter.embedding.engine.SystemChannelPreset;
 import io.flutter.embedding.engine.loader.FlutterLoader;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.embedding.engine.plugins.PluginRegistry;
+import io.flutter.embedding.engine.systemchannels.ProcessTextChannel;
 import io.flutter.plugin.platform.PlatformViewsController;
+import io.flutter.plugin.text.ProcessTextPlugin;
 import io.flutter.plugins.GeneratedPluginRegistrant;
 import java.util.List;
 import org.junit.After;
@@ -390,4 +395,70 @@ public class FlutterEngineTest {
     assertNotNull(pluginBindingCaptor.getValue());
     assertEquals(mockGroup, pluginBindingCaptor.getValue().getEngineGroup());
   }
+
+  @Test
+  public void itCreatesLazySystemChannelsWhenTheyAreFirstUsed() {
+    when(flutterJNI.isAttached()).thenReturn(true);
+
+    FlutterEngine engineUnderTest =
+        new FlutterEngine(
+            ctx,
+            mock(FlutterLoader.class),
+            flutterJNI,
+            new PlatformViewsController(),
+            /*dartVmArgs=*/ new String[] {},
+            /*automaticallyRegisterPlugins=*/ false,
+            /*waitForRestorationData=*/ false,
+            /*group=*/ null,
+            SystemChannelPreset.HEADLESS);
+
+    // The process text plugin is created with its channel.
+    assertFalse(engineUnderTest.getPlugins().has(ProcessTextPlugin.class));
+    ProcessTextChannel processTextChannel = engineUnderTest.getProcessTextChannel();
+    assertTrue(engineUnderTest.getPlugins().has(ProcessTextPlugin.class));
+    assertSame(processTextChannel, engineUnderTest.getProcessTextChannel());
+    // The localization channel is always created with the engine.
+    verify(flutterJNI, times(1))
+        .dispatchPlatformMessage(eq("flutter/localization"), any(), anyInt(), anyInt());
+  }
+
+  @Test
+  public void itCreatesEverySystemChannelWithTheEagerPreset() {
+    when(flutterJNI.isAttached()).thenReturn(true);
+
+    FlutterEngine engineUnderTest =
+        new FlutterEngine(
+            ctx,
+            mock(FlutterLoader.class),
+            flutterJNI,
+            new PlatformViewsController(),
+            /*dartVmArgs=*/ new String[] {},
+            /*automaticallyRegisterPlugins=*/ false,
+            /*waitForRestorationData=*/ false,
+            /*group=*/ null,
+            SystemChannelPreset.EAGER);
+
+    assertTrue(engineUnderTest.getPlugins().has(ProcessTextPlugin.class));
+  }
+
+  @Test
+  public void itCreatesEverySystemChannelByDefault() {
+    when(flutterJNI.isAttached()).thenReturn(true);
+
+    FlutterEngine engineUnderTest =
+        new FlutterEngine(
+            ctx,
+            mock(FlutterLoader.class),
+            flutterJNI,
+            new PlatformViewsController(),
+            /*dartVmArgs=*/ new String[] {},
+            /*automaticallyRegisterPlugins=*/ false,
+            /*waitForRestorationData=*/ false,
+            /*group=*/ null);
+
+    assertTrue(engineUnderTest.getPlugins().has(ProcessTextPlugin.class));
+    assertEquals(
+        SystemChannelPreset.EAGER,
+        new FlutterEngineGroup.Options(ctx).getSystemChannelPreset());
+  }
 }
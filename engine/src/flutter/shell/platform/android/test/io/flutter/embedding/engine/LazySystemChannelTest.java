@@ -0,0 +1,93 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import static android.os.Looper.getMainLooper;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.res.AssetManager;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.engine.dart.DartExecutor;
+import io.flutter.embedding.engine.dart.PlatformMessageHandler;
+import io.flutter.plugin.common.BinaryMessenger;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+@RunWith(AndroidJUnit4.class)
+public class LazySystemChannelTest {
+  private static final String CHANNEL = "flutter/lazy";
+
+  private final FlutterJNI flutterJNI = mock(FlutterJNI.class);
+  private final DartExecutor dartExecutor = new DartExecutor(flutterJNI, mock(AssetManager.class));
+  private final BinaryMessenger.BinaryMessageHandler handler =
+      mock(BinaryMessenger.BinaryMessageHandler.class);
+  private int creations = 0;
+
+  private LazySystemChannel<Object> createChannel(boolean lazy) {
+    return new LazySystemChannel<>(
+        dartExecutor,
+        CHANNEL,
+        lazy,
+        () -> {
+          creations++;
+          dartExecutor.getBinaryMessenger().setMessageHandler(CHANNEL, handler);
+          return new Object();
+        });
+  }
+
+  @Test
+  public void eagerChannelsAreCreatedImmediately() {
+    final LazySystemChannel<Object> channel = createChannel(false);
+
+    assertEquals(1, creations);
+    assertNotNull(channel.getIfCreated());
+    assertSame(channel.getIfCreated(), channel.get());
+    assertEquals(1, creations);
+  }
+
+  @Test
+  public void lazyChannelsAreCreatedByTheirGetter() {
+    final LazySystemChannel<Object> channel = createChannel(true);
+    assertEquals(0, creations);
+    assertNull(channel.getIfCreated());
+
+    final Object created = channel.get();
+
+    assertEquals(1, creations);
+    assertSame(created, channel.get());
+    assertSame(created, channel.getIfCreated());
+  }
+
+  @Test
+  public void lazyChannelsAreCreatedByTheirFirstMessage() {
+    final LazySystemChannel<Object> channel = createChannel(true);
+    final ArgumentCaptor<PlatformMessageHandler> platformMessageHandler =
+        ArgumentCaptor.forClass(PlatformMessageHandler.class);
+    dartExecutor.onAttachedToJNI();
+    verify(flutterJNI).setPlatformMessageHandler(platformMessageHandler.capture());
+    assertEquals(0, creations);
+
+    platformMessageHandler
+        .getValue()
+        .handleMessageFromDart(CHANNEL, ByteBuffer.allocateDirect(4), /*replyId=*/ 1, 0);
+    shadowOf(getMainLooper()).idle();
+
+    assertEquals(1, creations);
+    assertNotNull(channel.getIfCreated());
+    // The first message is handled by the handler of the created channel.
+    verify(handler).onMessage(any(ByteBuffer.class), any(BinaryMessenger.BinaryReply.class));
+    assertSame(channel.getIfCreated(), channel.get());
+    assertEquals(1, creations);
+  }
+}
@@ -0,0 +1,314 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.engine.plugins.FlutterPlugin;
+import io.flutter.embedding.engine.plugins.ScheduledAttachment;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.platform.PlatformViewRegistry;
+import io.flutter.view.TextureRegistry;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+@RunWith(AndroidJUnit4.class)
+public class PluginAttachmentSchedulerTest {
+  private static final String CHANNEL = "plugins.flutter.io/deferred";
+
+  private final BinaryMessenger messenger = mock(BinaryMessenger.class);
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final List<String> attachments = new ArrayList<>();
+
+  private PluginAttachmentScheduler createScheduler() {
+    final FlutterPlugin.FlutterPluginBinding binding =
+        new FlutterPlugin.FlutterPluginBinding(
+            mock(Context.class),
+            mock(FlutterEngine.class),
+            messenger,
+            mock(TextureRegistry.class),
+            mock(PlatformViewRegistry.class),
+            mock(FlutterPlugin.FlutterAssets.class),
+            null);
+    return new PluginAttachmentScheduler(binding, new StartupTimeline(), tasks::add);
+  }
+
+  private void runTasks() {
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+  }
+
+  @Test
+  public void attachesConcurrentPluginsOnTheExecutorAfterTheirDependencies() {
+    final PluginAttachmentScheduler scheduler = createScheduler();
+    final FakePlugin dependent =
+        new FakePlugin(
+            "dependent",
+            ScheduledAttachment.Mode.CONCURRENT,
+            Collections.singleton(DependencyPlugin.class));
+    final DependencyPlugin dependency = new DependencyPlugin();
+
+    scheduler.beginBatch();
+    scheduler.add(dependent);
+    // The dependent waits for its dependency, which is added later in the batch.
+    assertTrue(tasks.isEmpty());
+    scheduler.add(dependency);
+    scheduler.endBatch();
+
+    assertEquals(1, tasks.size());
+    assertTrue(attachments.isEmpty());
+    runTasks();
+
+    assertEquals(Arrays.asList("dependency", "dependent"), attachments);
+    assertTrue(scheduler.isAttached(FakePlugin.class));
+    assertTrue(scheduler.isAttached(DependencyPlugin.class));
+  }
+
+  @Test
+  public void attachesMainThreadPluginsAfterDependenciesAddedLaterInTheBatch() {
+    final PluginAttachmentScheduler scheduler = createScheduler();
+
+    scheduler.beginBatch();
+    scheduler.add(
+        new FakePlugin(
+            "dependent",
+            ScheduledAttachment.Mode.MAIN_THREAD,
+            Collections.singleton(DependencyPlugin.class)));
+    assertTrue(attachments.isEmpty());
+    assertFalse(scheduler.isAttached(FakePlugin.class));
+    scheduler.add(new DependencyPlugin());
+    scheduler.endBatch();
+
+    assertEquals(Arrays.asList("dependency", "dependent"), attachments);
+    assertTrue(scheduler.isAttached(FakePlugin.class));
+  }
+
+  @Test
+  public void doesNotRecordTheBindingOfPluginsThatFailToAttach() {
+    final PluginAttachmentScheduler scheduler = createScheduler();
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> scheduler.add(new FailingPlugin(ScheduledAttachment.Mode.MAIN_THREAD)));
+    assertFalse(scheduler.isAttached(FailingPlugin.class));
+    // The plugin is not detached, since it was never attached.
+    assertNull(scheduler.remove(FailingPlugin.class));
+
+    scheduler.add(new FailingPlugin(ScheduledAttachment.Mode.CONCURRENT));
+    runTasks();
+    assertFalse(scheduler.isAttached(FailingPlugin.class));
+    assertNull(scheduler.remove(FailingPlugin.class));
+  }
+
+  @Test
+  public void ensureAttachedAttachesPendingPluginsOnTheCallingThread() {
+    final PluginAttachmentScheduler scheduler = createScheduler();
+    scheduler.beginBatch();
+    scheduler.add(
+        new FakePlugin(
+            "dependent",
+            ScheduledAttachment.Mode.CONCURRENT,
+            Collections.singleton(DependencyPlugin.class)));
+
+    scheduler.ensureAttached(FakePlugin.class);
+
+    assertEquals(Collections.singletonList("dependent"), attachments);
+    scheduler.endBatch();
+    assertTrue(tasks.isEmpty());
+  }
+
+  @Test
+  public void attachesDeferredPluginsOnTheFirstMessageOfTheirChannels() {
+    final PluginAttachmentScheduler scheduler = createScheduler();
+    final FakePlugin plugin =
+        new FakePlugin("deferred", ScheduledAttachment.Mode.DEFERRED, Collections.emptySet());
+    scheduler.add(plugin);
+
+    final ArgumentCaptor<BinaryMessenger.BinaryMessageHandler> placeholder =
+        ArgumentCaptor.forClass(BinaryMessenger.BinaryMessageHandler.class);
+    verify(messenger).setMessageHandler(eq(CHANNEL), placeholder.capture());
+    assertFalse(scheduler.isAttached(FakePlugin.class));
+
+    final ByteBuffer message = ByteBuffer.allocateDirect(1);
+    final BinaryMessenger.BinaryReply reply = mock(BinaryMessenger.BinaryReply.class);
+    placeholder.getValue().onMessage(message, reply);
+
+    assertEquals(Collections.singletonList("deferred"), attachments);
+    // The plugin sets its handler through a messenger of its own binding.
+    assertNotSame(messenger, plugin.binding.getBinaryMessenger());
+    verify(messenger).setMessageHandler(eq(CHANNEL), eq(plugin.handler), isNull());
+    assertSame(message, plugin.message);
+  }
+
+  @Test(timeout = 10000)
+  public void messagesToConcurrentPluginsWaitForTheirAttachment() throws Exception {
+    final PluginAttachmentScheduler scheduler = createScheduler();
+    final CountDownLatch attaching = new CountDownLatch(1);
+    final CountDownLatch finishAttaching = new CountDownLatch(1);
+    final FakePlugin plugin =
+        new FakePlugin("concurrent", ScheduledAttachment.Mode.CONCURRENT, Collections.emptySet()) {
+          @Override
+          public void onAttachedToEngine(@NonNull FlutterPluginBinding binding) {
+            attaching.countDown();
+            try {
+              finishAttaching.await();
+            } catch (InterruptedException e) {
+              throw new IllegalStateException(e);
+            }
+            super.onAttachedToEngine(binding);
+          }
+        };
+    scheduler.add(plugin);
+    final ArgumentCaptor<BinaryMessenger.BinaryMessageHandler> placeholder =
+        ArgumentCaptor.forClass(BinaryMessenger.BinaryMessageHandler.class);
+    verify(messenger).setMessageHandler(eq(CHANNEL), placeholder.capture());
+
+    final Thread executorThread = new Thread(this::runTasks);
+    executorThread.start();
+    attaching.await();
+
+    // Dart sends a message before the plugin has set its handler.
+    final ByteBuffer message = ByteBuffer.allocateDirect(1);
+    final BinaryMessenger.BinaryReply reply = mock(BinaryMessenger.BinaryReply.class);
+    final Thread platformThread =
+        new Thread(() -> placeholder.getValue().onMessage(message, reply));
+    platformThread.start();
+    while (platformThread.getState() != Thread.State.WAITING) {
+      Thread.yield();
+    }
+    verify(reply, never()).reply(any());
+
+    finishAttaching.countDown();
+    executorThread.join();
+    platformThread.join();
+
+    assertSame(message, plugin.message);
+    verify(reply).reply(null);
+    verify(messenger).setMessageHandler(eq(CHANNEL), eq(plugin.handler), isNull());
+    assertTrue(scheduler.isAttached(FakePlugin.class));
+  }
+
+  @Test
+  public void removeCancelsAttachmentsThatDidNotStart() {
+    final PluginAttachmentScheduler scheduler = createScheduler();
+    scheduler.add(
+        new FakePlugin("deferred", ScheduledAttachment.Mode.DEFERRED, Collections.emptySet()));
+
+    assertNull(scheduler.remove(FakePlugin.class));
+    verify(messenger).setMessageHandler(CHANNEL, null);
+    assertTrue(attachments.isEmpty());
+
+    scheduler.add(new DependencyPlugin());
+    assertNotNull(scheduler.remove(DependencyPlugin.class));
+  }
+
+  private class FakePlugin implements FlutterPlugin, ScheduledAttachment {
+    @NonNull private final String name;
+    @NonNull private final ScheduledAttachment.Mode mode;
+    @NonNull private final Set<Class<? extends FlutterPlugin>> dependencies;
+    FlutterPluginBinding binding;
+    ByteBuffer message;
+
+    final BinaryMessenger.BinaryMessageHandler handler =
+        (message, reply) -> {
+          this.message = message;
+          reply.reply(null);
+        };
+
+    FakePlugin(
+        @NonNull String name,
+        @NonNull ScheduledAttachment.Mode mode,
+        @NonNull Set<Class<? extends FlutterPlugin>> dependencies) {
+      this.name = name;
+      this.mode = mode;
+      this.dependencies = dependencies;
+    }
+
+    @NonNull
+    @Override
+    public ScheduledAttachment.Mode getAttachmentMode() {
+      return mode;
+    }
+
+    @NonNull
+    @Override
+    public Set<Class<? extends FlutterPlugin>> getAttachmentDependencies() {
+      return dependencies;
+    }
+
+    @NonNull
+    @Override
+    public Set<String> getDeferredChannels() {
+      return Collections.singleton(CHANNEL);
+    }
+
+    @Override
+    public void onAttachedToEngine(@NonNull FlutterPluginBinding binding) {
+      this.binding = binding;
+      binding.getBinaryMessenger().setMessageHandler(CHANNEL, handler);
+      attachments.add(name);
+    }
+
+    @Override
+    public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {}
+  }
+
+  private static class FailingPlugin implements FlutterPlugin, ScheduledAttachment {
+    @NonNull private final ScheduledAttachment.Mode mode;
+
+    FailingPlugin(@NonNull ScheduledAttachment.Mode mode) {
+      this.mode = mode;
+    }
+
+    @NonNull
+    @Override
+    public ScheduledAttachment.Mode getAttachmentMode() {
+      return mode;
+    }
+
+    @Override
+    public void onAttachedToEngine(@NonNull FlutterPluginBinding binding) {
+      throw new IllegalStateException("Failed to attach");
+    }
+
+    @Override
+    public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {}
+  }
+
+  private class DependencyPlugin implements FlutterPlugin {
+    @Override
+    public void onAttachedToEngine(@NonNull FlutterPluginBinding binding) {
+      attachments.add("dependency");
+    }
+
+    @Override
+    public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {}
+  }
+}
@@ -0,0 +1,58 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class StartupTimelineTest {
+  @Test
+  public void recordsPhasesInTheOrderTheyEnded() {
+    final StartupTimeline timeline = new StartupTimeline();
+
+    final long start = StartupTimeline.now();
+    try (StartupTimeline.Section outer = timeline.begin(StartupTimeline.ATTACH_TO_JNI)) {
+      try (StartupTimeline.Section inner = timeline.begin(StartupTimeline.SYSTEM_CHANNELS)) {}
+    }
+    timeline.record(StartupTimeline.REGISTER_GENERATED_PLUGINS, start);
+
+    final List<StartupTimeline.Phase> phases = timeline.getPhases();
+    assertEquals(3, phases.size());
+    assertEquals(StartupTimeline.SYSTEM_CHANNELS, phases.get(0).getName());
+    assertEquals(StartupTimeline.ATTACH_TO_JNI, phases.get(1).getName());
+    assertEquals(StartupTimeline.REGISTER_GENERATED_PLUGINS, phases.get(2).getName());
+    for (StartupTimeline.Phase phase : phases) {
+      assertTrue(phase.getStartNanos() >= start);
+      assertTrue(phase.getDurationNanos() >= 0);
+    }
+  }
+
+  @Test
+  public void getPhaseReturnsTheFirstPhaseWithTheName() {
+    final StartupTimeline timeline = new StartupTimeline();
+    timeline.record(StartupTimeline.LOAD_LIBRARY, 1);
+    timeline.record(StartupTimeline.LOAD_LIBRARY, 2);
+
+    final StartupTimeline.Phase phase = timeline.getPhase(StartupTimeline.LOAD_LIBRARY);
+    assertNotNull(phase);
+    assertEquals(1, phase.getStartNanos());
+    assertNull(timeline.getPhase(StartupTimeline.FLUTTER_JNI_INIT));
+  }
+
+  @Test
+  public void pluginAttachPhaseIsNamedAfterThePluginClass() {
+    assertEquals(
+        "FlutterPlugin#onAttachedToEngine java.lang.String",
+        StartupTimeline.pluginAttachPhase(String.class));
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import androidx.annotation.NonNull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Measures how long it takes to construct a {@link FlutterEngine} with a {@link
+ * SystemChannelPreset}.
+ *
+ * <p>Each run constructs a new engine and destroys it. The benchmark reports the time spent in the
+ * constructor, and the time spent creating the system channels that are not created lazily, as
+ * recorded by the {@link StartupTimeline#SYSTEM_CHANNELS} phase of the engine. It also reports
+ * which system channels the constructor created, which does not depend on timing.
+ */
+final class SystemChannelConstructionBenchmark {
+  /** Creates the engine that a run constructs. */
+  interface EngineFactory {
+    @NonNull
+    FlutterEngine create(@NonNull SystemChannelPreset systemChannelPreset);
+  }
+
+  /** The measurements of the runs of a single preset. Arrays are indexed by run. */
+  static final class Report {
+    @NonNull final SystemChannelPreset systemChannelPreset;
+    @NonNull final long[] constructionNanos;
+    @NonNull final long[] systemChannelsNanos;
+    /** The names of the system channels that the constructor of the last run created. */
+    @NonNull Set<String> createdSystemChannels = Collections.emptySet();
+
+    Report(@NonNull SystemChannelPreset systemChannelPreset, int runCount) {
+      this.systemChannelPreset = systemChannelPreset;
+      constructionNanos = new long[runCount];
+      systemChannelsNanos = new long[runCount];
+    }
+
+    int getRunCount() {
+      return constructionNanos.length;
+    }
+
+    long getConstructionPercentileNanos(double percentile) {
+      return percentile(constructionNanos, percentile);
+    }
+
+    long getSystemChannelsPercentileNanos(double percentile) {
+      return percentile(systemChannelsNanos, percentile);
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+      return String.format(
+          Locale.US,
+          "%s, %d engines, %d system channels: construction p50 %.3fms, p90 %.3fms; system"
+              + " channels p50 %.3fms, p90 %.3fms",
+          systemChannelPreset,
+          getRunCount(),
+          createdSystemChannels.size(),
+          getConstructionPercentileNanos(50) / 1e6,
+          getConstructionPercentileNanos(90) / 1e6,
+          getSystemChannelsPercentileNanos(50) / 1e6,
+          getSystemChannelsPercentileNanos(90) / 1e6);
+    }
+
+    // Returns the value below which {@code percentile} percent of the values are.
+    private static long percentile(@NonNull long[] values, double percentile) {
+      if (values.length == 0) {
+        return 0;
+      }
+      long[] sorted = values.clone();
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+      return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+  }
+
+  @NonNull private final EngineFactory engineFactory;
+
+  SystemChannelConstructionBenchmark(@NonNull EngineFactory engineFactory) {
+    this.engineFactory = engineFactory;
+  }
+
+  /**
+   * Constructs {@code warmupRuns} engines without measuring them, so that the JIT has compiled the
+   * construction path, and then {@code measuredRuns} engines while measuring them.
+   */
+  @NonNull
+  Report run(@NonNull SystemChannelPreset systemChannelPreset, int warmupRuns, int measuredRuns) {
+    for (int i = 0; i < warmupRuns; i++) {
+      engineFactory.create(systemChannelPreset).destroy();
+    }
+    Report report = new Report(systemChannelPreset, measuredRuns);
+    for (int i = 0; i < measuredRuns; i++) {
+      final long start = System.nanoTime();
+      FlutterEngine engine = engineFactory.create(systemChannelPreset);
+      final long end = System.nanoTime();
+      report.constructionNanos[i] = end - start;
+      StartupTimeline.Phase systemChannels =
+          engine.getStartupTimeline().getPhase(StartupTimeline.SYSTEM_CHANNELS);
+      report.systemChannelsNanos[i] =
+          systemChannels == null ? 0 : systemChannels.getDurationNanos();
+      report.createdSystemChannels = engine.getCreatedSystemChannelNames();
+      engine.destroy();
+    }
+    return report;
+  }
+}
@@ -0,0 +1,109 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.engine.loader.FlutterLoader;
+import io.flutter.plugin.platform.PlatformViewsController;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class SystemChannelConstructionBenchmarkTest {
+  private static final int RUN_COUNT = 20;
+
+  private final Context ctx = ApplicationProvider.getApplicationContext();
+
+  @NonNull
+  private FlutterEngine createEngine(@NonNull SystemChannelPreset systemChannelPreset) {
+    FlutterJNI flutterJNI = mock(FlutterJNI.class);
+    when(flutterJNI.isAttached()).thenReturn(true);
+    return new FlutterEngine(
+        ctx,
+        mock(FlutterLoader.class),
+        flutterJNI,
+        new PlatformViewsController(),
+        /*dartVmArgs=*/ new String[] {},
+        /*automaticallyRegisterPlugins=*/ false,
+        /*waitForRestorationData=*/ false,
+        /*group=*/ null,
+        systemChannelPreset);
+  }
+
+  @Test
+  public void benchmarkReportsEveryConstructedEngineOfEachPreset() {
+    SystemChannelConstructionBenchmark benchmark =
+        new SystemChannelConstructionBenchmark(this::createEngine);
+
+    for (SystemChannelPreset preset : SystemChannelPreset.values()) {
+      SystemChannelConstructionBenchmark.Report report = benchmark.run(preset, 5, RUN_COUNT);
+      System.out.println("SystemChannelConstructionBenchmark: " + report);
+
+      assertEquals(preset, report.systemChannelPreset);
+      assertEquals(RUN_COUNT, report.getRunCount());
+      for (int i = 0; i < report.getRunCount(); i++) {
+        assertTrue(report.constructionNanos[i] > 0);
+        // Creating the eager system channels is part of the construction of the engine.
+        assertTrue(report.systemChannelsNanos[i] <= report.constructionNanos[i]);
+      }
+      assertTrue(
+          report.getConstructionPercentileNanos(50) <= report.getConstructionPercentileNanos(100));
+    }
+  }
+
+  @Test
+  public void eachPresetCreatesItsEagerSystemChannelsWithTheEngine() {
+    SystemChannelConstructionBenchmark benchmark =
+        new SystemChannelConstructionBenchmark(this::createEngine);
+    final Set<String> alwaysCreated =
+        new HashSet<>(Arrays.asList("flutter/localization", "flutter/settings"));
+    final Set<String> optionalFeatures =
+        new HashSet<>(
+            Arrays.asList(
+                "flutter/backgesture",
+                "flutter/deferredcomponent",
+                "flutter/processtext",
+                "flutter/scribe",
+                "flutter/sensitivecontent",
+                "flutter/spellcheck"));
+    final Set<String> everyChannel = new HashSet<>(alwaysCreated);
+    everyChannel.addAll(optionalFeatures);
+    everyChannel.addAll(
+        Arrays.asList(
+            "flutter/accessibility",
+            "flutter/lifecycle",
+            "flutter/mousecursor",
+            "flutter/navigation",
+            "flutter/platform",
+            "flutter/restoration",
+            "flutter/system",
+            "flutter/textinput"));
+    final Set<String> defaultChannels = new HashSet<>(everyChannel);
+    defaultChannels.removeAll(optionalFeatures);
+
+    SystemChannelConstructionBenchmark.Report eager =
+        benchmark.run(SystemChannelPreset.EAGER, 0, 1);
+    SystemChannelConstructionBenchmark.Report defaultPreset =
+        benchmark.run(SystemChannelPreset.DEFAULT, 0, 1);
+    SystemChannelConstructionBenchmark.Report headless =
+        benchmark.run(SystemChannelPreset.HEADLESS, 0, 1);
+
+    assertEquals(everyChannel, eager.createdSystemChannels);
+    assertEquals(defaultChannels, defaultPreset.createdSystemChannels);
+    // A headless engine only creates the channels that the engine uses itself.
+    assertEquals(alwaysCreated, headless.createdSystemChannels);
+  }
+}
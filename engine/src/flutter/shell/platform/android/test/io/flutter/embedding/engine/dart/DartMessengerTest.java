@@ -307,6 +307,47 @@ public class DartMessengerTest {
     verify(fakeFlutterJni).invokePlatformMessageEmptyResponseCallback(replyId);
   }
 
+  @Test
+  public void runsTheInitializerOfAChannelBeforeItsFirstMessage() {
+    final FlutterJNI fakeFlutterJni = mock(FlutterJNI.class);
+    final DartMessenger messenger =
+        new DartMessenger(fakeFlutterJni, (options) -> synchronousTaskQueue);
+    final String channel = "foobar";
+    final BinaryMessageHandler handler = mock(BinaryMessageHandler.class);
+    final int[] initializations = {0};
+    messenger.setChannelInitializer(
+        channel,
+        () -> {
+          initializations[0]++;
+          messenger.setMessageHandler(channel, handler);
+        });
+
+    messenger.handleMessageFromDart(channel, ByteBuffer.allocateDirect(4), /*replyId=*/ 1, 0);
+    messenger.handleMessageFromDart(channel, ByteBuffer.allocateDirect(4), /*replyId=*/ 2, 0);
+    shadowOf(getMainLooper()).idle();
+
+    assertEquals(1, initializations[0]);
+    verify(handler, times(2)).onMessage(any(ByteBuffer.class), any(DartMessenger.Reply.class));
+    verify(fakeFlutterJni, never()).invokePlatformMessageEmptyResponseCallback(anyInt());
+  }
+
+  @Test
+  public void settingAHandlerRemovesTheInitializerOfAChannel() {
+    final FlutterJNI fakeFlutterJni = mock(FlutterJNI.class);
+    final DartMessenger messenger =
+        new DartMessenger(fakeFlutterJni, (options) -> synchronousTaskQueue);
+    final String channel = "foobar";
+    final Runnable initializer = mock(Runnable.class);
+    messenger.setChannelInitializer(channel, initializer);
+    messenger.setMessageHandler(channel, null);
+
+    messenger.handleMessageFromDart(channel, ByteBuffer.allocateDirect(4), /*replyId=*/ 1, 0);
+    shadowOf(getMainLooper()).idle();
+
+    verify(initializer, never()).run();
+    verify(fakeFlutterJni).invokePlatformMessageEmptyResponseCallback(1);
+  }
+
   @Test
   public void testSerialTaskQueue() throws InterruptedException {
     final FlutterJNI fakeFlutterJni = mock(FlutterJNI.class);
@@ -32,6 +32,7 @@ import android.util.DisplayMetrics;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import io.flutter.embedding.engine.FlutterJNI;
+import io.flutter.embedding.engine.StartupTimeline;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -73,6 +74,23 @@ public class FlutterLoaderTest {
     verify(mockFlutterJNI, times(1)).updateRefreshRate();
   }
 
+  @Test
+  public void itRecordsTheStartupTimeline() {
+    FlutterJNI mockFlutterJNI = mock(FlutterJNI.class);
+    FlutterLoader flutterLoader = new FlutterLoader(mockFlutterJNI);
+
+    flutterLoader.startInitialization(ctx);
+    flutterLoader.ensureInitializationComplete(ctx, null);
+    shadowOf(getMainLooper()).idle();
+
+    StartupTimeline timeline = flutterLoader.getStartupTimeline();
+    assertNotNull(timeline.getPhase(StartupTimeline.APPLICATION_INFO_LOAD));
+    assertNotNull(timeline.getPhase(StartupTimeline.LOAD_LIBRARY));
+    assertNotNull(timeline.getPhase(StartupTimeline.WAIT_FOR_INITIALIZATION));
+    assertNotNull(timeline.getPhase(StartupTimeline.SHELL_ARGS));
+    assertNotNull(timeline.getPhase(StartupTimeline.FLUTTER_JNI_INIT));
+  }
+
   @Test
   public void unsatisfiedLinkErrorPathDoesNotExist() {
     FlutterJNI mockFlutterJNI = mock(FlutterJNI.class);
@@ -9,7 +9,10 @@ import static junit.framework.TestCase.*;
 import static org.mockito.Mockito.*;
 
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.Matrix;
+import android.graphics.Path;
+import android.graphics.RectF;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
@@ -23,6 +26,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
 import org.robolectric.annotation.Implementation;
 import org.robolectric.annotation.Implements;
 
@@ -220,6 +224,35 @@ public class FlutterMutatorViewTest {
     verify(viewTreeObserver, times(1)).removeOnGlobalFocusChangeListener(activeFocusListener);
   }
 
+  @Test
+  @GraphicsMode(GraphicsMode.Mode.NATIVE)
+  public void draw_reusesClipsUntilMutatorsChange() {
+    final FlutterMutatorView view = new FlutterMutatorView(ctx);
+    final FlutterMutatorsStack mutatorsStack = new FlutterMutatorsStack();
+    mutatorsStack.pushClipRect(0, 0, 20, 20);
+    mutatorsStack.pushClipRRect(0, 0, 10, 10, new float[] {1, 1, 1, 1, 1, 1, 1, 1});
+    view.readyToDisplay(mutatorsStack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 10, /*height=*/ 10);
+
+    final Canvas canvas = mock(Canvas.class);
+    view.draw(canvas);
+    view.draw(canvas);
+
+    // The rect is clipped without a path, and the round rect path is only built once.
+    verify(canvas, times(2)).clipRect(new RectF(-1, -2, 19, 18));
+    final ArgumentCaptor<Path> pathCaptor = ArgumentCaptor.forClass(Path.class);
+    verify(canvas, times(2)).clipPath(pathCaptor.capture());
+    assertSame(pathCaptor.getAllValues().get(0), pathCaptor.getAllValues().get(1));
+    final RectF bounds = new RectF();
+    pathCaptor.getValue().computeBounds(bounds, true);
+    assertEquals(new RectF(-1, -2, 9, 8), bounds);
+
+    // Displaying the view at another offset rebuilds the clips.
+    reset(canvas);
+    view.readyToDisplay(mutatorsStack, /*left=*/ 0, /*top=*/ 0, /*width=*/ 10, /*height=*/ 10);
+    view.draw(canvas);
+    verify(canvas).clipRect(new RectF(0, 0, 20, 20));
+  }
+
   @Test
   @Config(
       shadows = {
@@ -0,0 +1,65 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.mutatorsstack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import android.graphics.Path;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class FlutterMutatorsStackTest {
+  private static FlutterMutatorsStack createStack(float translateX, float opacity) {
+    final FlutterMutatorsStack stack = new FlutterMutatorsStack();
+    stack.pushTransform(new float[] {1, 0, translateX, 0, 1, 0, 0, 0, 1});
+    stack.pushClipRect(0, 0, 10, 10);
+    stack.pushClipRRect(0, 0, 10, 10, new float[] {1, 1, 2, 2, 3, 3, 4, 4});
+    stack.pushOpacity(opacity);
+    return stack;
+  }
+
+  @Test
+  public void stacksWithEqualMutatorsAreEqual() {
+    final FlutterMutatorsStack stack = createStack(5, 0.5f);
+    final FlutterMutatorsStack other = createStack(5, 0.5f);
+
+    assertEquals(stack, other);
+    assertEquals(stack.hashCode(), other.hashCode());
+  }
+
+  @Test
+  public void stacksWithDifferentMutatorsAreNotEqual() {
+    final FlutterMutatorsStack stack = createStack(5, 0.5f);
+
+    assertNotEquals(stack, createStack(6, 0.5f));
+    assertNotEquals(stack, createStack(5, 0.25f));
+    assertNotEquals(stack, new FlutterMutatorsStack());
+
+    final FlutterMutatorsStack reordered = new FlutterMutatorsStack();
+    reordered.pushOpacity(0.5f);
+    reordered.pushTransform(new float[] {1, 0, 5, 0, 1, 0, 0, 0, 1});
+    reordered.pushClipRect(0, 0, 10, 10);
+    reordered.pushClipRRect(0, 0, 10, 10, new float[] {1, 1, 2, 2, 3, 3, 4, 4});
+    assertNotEquals(stack, reordered);
+  }
+
+  @Test
+  public void clipPathsAreComparedByIdentity() {
+    final Path path = new Path();
+    final FlutterMutatorsStack stack = new FlutterMutatorsStack();
+    stack.pushClipPath(path);
+    final FlutterMutatorsStack samePath = new FlutterMutatorsStack();
+    samePath.pushClipPath(path);
+    final FlutterMutatorsStack otherPath = new FlutterMutatorsStack();
+    otherPath.pushClipPath(new Path());
+
+    assertEquals(stack, samePath);
+    assertEquals(stack.hashCode(), samePath.hashCode());
+    assertNotEquals(stack, otherPath);
+  }
+}
@@ -6,6 +6,9 @@ package io.flutter.embedding.engine.renderer;
 
 import static android.content.ComponentCallbacks2.TRIM_MEMORY_BACKGROUND;
 import static android.content.ComponentCallbacks2.TRIM_MEMORY_COMPLETE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -16,8 +19,11 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyFloat;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -38,7 +44,11 @@ import androidx.test.ext.junit.runners.AndroidJUnit4;
 import io.flutter.embedding.android.FlutterActivity;
 import io.flutter.embedding.engine.FlutterJNI;
 import io.flutter.view.TextureRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Rule;
@@ -187,6 +197,99 @@ public class FlutterRendererTest {
     verify(fakeFlutterJNI, times(0)).markTextureFrameAvailable(eq(entry.id()));
   }
 
+  @Test
+  public void itReusesPooledSurfaceTextures() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    flutterRenderer.setSurfaceTexturePoolCapacity(2);
+
+    TextureRegistry.SurfaceTextureEntry first = flutterRenderer.createSurfaceTexture();
+    SurfaceTexture surfaceTexture = first.surfaceTexture();
+    first.release();
+    TextureRegistry.SurfaceTextureEntry second = flutterRenderer.createSurfaceTexture();
+
+    assertEquals(surfaceTexture, second.surfaceTexture());
+    assertNotEquals(first.id(), second.id());
+    assertFalse(surfaceTexture.isReleased());
+    verify(fakeFlutterJNI, times(1)).unregisterTexture(eq(first.id()));
+    assertEquals(1, flutterRenderer.getSurfaceTexturePoolHitCount());
+    assertEquals(1, flutterRenderer.getSurfaceTexturePoolMissCount());
+  }
+
+  @Test
+  public void itReleasesIdlePooledSurfaceTextures() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    flutterRenderer.setSurfaceTexturePoolCapacity(2);
+
+    TextureRegistry.SurfaceTextureEntry entry = flutterRenderer.createSurfaceTexture();
+    SurfaceTexture surfaceTexture = entry.surfaceTexture();
+    entry.release();
+    shadowOf(Looper.getMainLooper())
+        .idleFor(Duration.ofMillis(SurfaceTexturePool.IDLE_TIMEOUT_MILLIS));
+
+    assertTrue(surfaceTexture.isReleased());
+    assertEquals(1, flutterRenderer.getSurfaceTexturePoolEvictionCount());
+    assertNotEquals(surfaceTexture, flutterRenderer.createSurfaceTexture().surfaceTexture());
+    assertEquals(0, flutterRenderer.getSurfaceTexturePoolHitCount());
+  }
+
+  @Test
+  public void itOnlyReusesPooledSurfaceTexturesOnceDetached() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    flutterRenderer.setSurfaceTexturePoolCapacity(2);
+
+    FlutterRenderer.SurfaceTextureRegistryEntry first =
+        (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture();
+    SurfaceTexture surfaceTexture = first.surfaceTexture();
+    // The engine attaches the texture when it is first drawn.
+    first.textureWrapper().attachToGLContext(1);
+    first.release();
+
+    // The engine has not detached the texture of the unregistered entry yet.
+    assertNotEquals(surfaceTexture, flutterRenderer.createSurfaceTexture().surfaceTexture());
+    assertEquals(0, flutterRenderer.getSurfaceTexturePoolHitCount());
+
+    first.textureWrapper().detachFromGLContext();
+    assertEquals(surfaceTexture, flutterRenderer.createSurfaceTexture().surfaceTexture());
+    assertEquals(1, flutterRenderer.getSurfaceTexturePoolHitCount());
+  }
+
+  @Test
+  public void itReleasesPooledSurfaceTexturesByTrimMemoryLevel() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    flutterRenderer.setSurfaceTexturePoolCapacity(4);
+    List<TextureRegistry.SurfaceTextureEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      entries.add(flutterRenderer.createSurfaceTexture());
+    }
+    for (TextureRegistry.SurfaceTextureEntry entry : entries) {
+      entry.release();
+    }
+
+    flutterRenderer.onTrimMemory(TRIM_MEMORY_RUNNING_MODERATE);
+    assertEquals(0, flutterRenderer.getSurfaceTexturePoolEvictionCount());
+
+    flutterRenderer.onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+    assertEquals(2, flutterRenderer.getSurfaceTexturePoolEvictionCount());
+    // The textures that have been idle the longest are released first.
+    assertTrue(entries.get(0).surfaceTexture().isReleased());
+    assertFalse(entries.get(3).surfaceTexture().isReleased());
+
+    flutterRenderer.onTrimMemory(TRIM_MEMORY_RUNNING_CRITICAL);
+    assertEquals(4, flutterRenderer.getSurfaceTexturePoolEvictionCount());
+  }
+
+  @Test
+  public void itDoesNotPoolRegisteredSurfaceTextures() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    flutterRenderer.setSurfaceTexturePoolCapacity(2);
+
+    SurfaceTexture surfaceTexture = new SurfaceTexture(0);
+    flutterRenderer.registerSurfaceTexture(surfaceTexture).release();
+
+    assertTrue(surfaceTexture.isReleased());
+    assertNotEquals(surfaceTexture, flutterRenderer.createSurfaceTexture().surfaceTexture());
+  }
+
   @Test
   public void itRegistersExistingSurfaceTexture() {
     // Setup the test.
@@ -275,6 +378,50 @@ public class FlutterRendererTest {
     }
   }
 
+  private static long countSetViewportMetricsCalls(FlutterJNI flutterJNI) {
+    return mockingDetails(flutterJNI).getInvocations().stream()
+        .filter(invocation -> invocation.getMethod().getName().equals("setViewportMetrics"))
+        .count();
+  }
+
+  @Test
+  public void itOnlySendsChangedViewportMetricsDuringKeyboardAnimation() {
+    FlutterJNI fakeFlutterJNI = mock(FlutterJNI.class);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+    FlutterRenderer.ViewportMetrics metrics = new FlutterRenderer.ViewportMetrics();
+    metrics.width = 1080;
+    metrics.height = 2400;
+    metrics.devicePixelRatio = 2.75f;
+    metrics.viewPaddingTop = 120;
+    metrics
+        .getDisplayCutouts()
+        .add(
+            new FlutterRenderer.DisplayFeature(
+                new Rect(500, 0, 580, 120),
+                FlutterRenderer.DisplayFeatureType.CUTOUT,
+                FlutterRenderer.DisplayFeatureState.UNKNOWN));
+    flutterRenderer.setViewportMetrics(metrics);
+    assertEquals(1, countSetViewportMetricsCalls(fakeFlutterJNI));
+
+    // The keyboard slides in over 20 frames. The metrics are sent from the animation callback and
+    // again from the layout pass of every frame, and twice more once the animation ends.
+    final int frames = 20;
+    for (int frame = 1; frame <= frames; frame++) {
+      metrics.viewInsetBottom = 900 * frame / frames;
+      flutterRenderer.setViewportMetrics(metrics);
+      flutterRenderer.setViewportMetrics(metrics);
+    }
+    flutterRenderer.setViewportMetrics(metrics);
+    flutterRenderer.setViewportMetrics(metrics);
+
+    assertEquals(1 + frames, countSetViewportMetricsCalls(fakeFlutterJNI));
+
+    // A change of the display cutouts is sent, even if no other metric changed.
+    metrics.setDisplayCutouts(new ArrayList<>());
+    flutterRenderer.setViewportMetrics(metrics);
+    assertEquals(2 + frames, countSetViewportMetricsCalls(fakeFlutterJNI));
+  }
+
   @Test
   public void itConvertsDisplayFeatureArrayToPrimitiveArrays() {
     // Intentionally do not use 'engineRule' in this test, because we are testing a very narrow
@@ -708,6 +855,211 @@ public class FlutterRendererTest {
     assertEquals(3, texture.pendingDequeuedImages());
   }
 
+  private static void drawFrame(Surface surface) {
+    Canvas canvas = surface.lockHardwareCanvas();
+    canvas.drawARGB(255, 255, 0, 0);
+    surface.unlockCanvasAndPost(canvas);
+    shadowOf(Looper.getMainLooper()).idle();
+  }
+
+  @Test
+  public void ImageReaderSurfaceProducerShrinksQueueOnModeratePressure() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageReaderSurfaceProducer texture =
+        (FlutterRenderer.ImageReaderSurfaceProducer)
+            flutterRenderer.createSurfaceProducer(
+                TextureRegistry.SurfaceLifecycle.manual,
+                new FlutterRenderer.SurfaceProducerOptions()
+                    .setMemoryPressurePolicy(MemoryPressurePolicy.TIERED));
+    texture.disableFenceForTest();
+    texture.callback = mock(TextureRegistry.SurfaceProducer.Callback.class);
+    texture.setSize(1, 1);
+    Surface surface = texture.getSurface();
+    drawFrame(surface);
+    drawFrame(surface);
+    assertEquals(2, texture.numImages());
+
+    texture.onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+
+    // Only the newest image is kept, and the surface stays valid.
+    assertEquals(1, texture.numImageReaders());
+    assertEquals(1, texture.numImages());
+    assertEquals(0, texture.numTrims());
+    verify(texture.callback, never()).onSurfaceCleanup();
+    assertNotNull(texture.acquireLatestImage());
+  }
+
+  @Test
+  public void ImageReaderSurfaceProducerDropsOldReadersOnCriticalPressure() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageReaderSurfaceProducer texture =
+        (FlutterRenderer.ImageReaderSurfaceProducer)
+            flutterRenderer.createSurfaceProducer(
+                TextureRegistry.SurfaceLifecycle.manual,
+                new FlutterRenderer.SurfaceProducerOptions()
+                    .setMemoryPressurePolicy(MemoryPressurePolicy.TIERED));
+    texture.disableFenceForTest();
+    texture.setSize(1, 1);
+    drawFrame(texture.getSurface());
+    texture.setSize(4, 4);
+    drawFrame(texture.getSurface());
+    assertEquals(2, texture.numImageReaders());
+    assertEquals(2, texture.numImages());
+
+    texture.onTrimMemory(TRIM_MEMORY_RUNNING_CRITICAL);
+
+    assertEquals(1, texture.numImageReaders());
+    assertEquals(1, texture.numImages());
+    assertEquals(0, texture.numTrims());
+    Image produced = texture.acquireLatestImage();
+    assertEquals(4, produced.getWidth());
+    assertTrue(
+        flutterRenderer.getReclaimedMemoryBytes(MemoryPressurePolicy.Tier.DROP_OLD_READERS) > 0);
+  }
+
+  @Test
+  public void ImageReaderSurfaceProducerUsesConfiguredMemoryPressurePolicy() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    MemoryPressurePolicy policy = mock(MemoryPressurePolicy.class);
+    when(policy.selectTier(anyInt())).thenReturn(MemoryPressurePolicy.Tier.RELEASE_ALL);
+    FlutterRenderer.ImageReaderSurfaceProducer texture =
+        (FlutterRenderer.ImageReaderSurfaceProducer)
+            flutterRenderer.createSurfaceProducer(
+                TextureRegistry.SurfaceLifecycle.manual,
+                new FlutterRenderer.SurfaceProducerOptions().setMemoryPressurePolicy(policy));
+    texture.disableFenceForTest();
+    texture.setSize(1, 1);
+    drawFrame(texture.getSurface());
+
+    texture.onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+
+    assertEquals(0, texture.numImageReaders());
+    assertEquals(1, texture.numTrims());
+    verify(policy).onMemoryReclaimed(eq(MemoryPressurePolicy.Tier.RELEASE_ALL), anyLong());
+  }
+
+  @Test
+  public void defaultMemoryPressurePolicyOnlyReleasesInTheBackground() {
+    MemoryPressurePolicy policy = MemoryPressurePolicy.DEFAULT;
+
+    assertEquals(MemoryPressurePolicy.Tier.NONE, policy.selectTier(TRIM_MEMORY_RUNNING_LOW));
+    assertEquals(MemoryPressurePolicy.Tier.NONE, policy.selectTier(TRIM_MEMORY_RUNNING_CRITICAL));
+    assertEquals(MemoryPressurePolicy.Tier.RELEASE_ALL, policy.selectTier(TRIM_MEMORY_BACKGROUND));
+    assertEquals(MemoryPressurePolicy.Tier.RELEASE_ALL, policy.selectTier(TRIM_MEMORY_COMPLETE));
+  }
+
+  @Test
+  public void tieredMemoryPressurePolicyEscalatesWithTheTrimLevel() {
+    MemoryPressurePolicy policy = MemoryPressurePolicy.TIERED;
+
+    assertEquals(MemoryPressurePolicy.Tier.NONE, policy.selectTier(0));
+    assertEquals(
+        MemoryPressurePolicy.Tier.SHRINK_QUEUE, policy.selectTier(TRIM_MEMORY_RUNNING_LOW));
+    assertEquals(
+        MemoryPressurePolicy.Tier.DROP_OLD_READERS,
+        policy.selectTier(TRIM_MEMORY_RUNNING_CRITICAL));
+    assertEquals(MemoryPressurePolicy.Tier.RELEASE_ALL, policy.selectTier(TRIM_MEMORY_BACKGROUND));
+    assertEquals(MemoryPressurePolicy.Tier.RELEASE_ALL, policy.selectTier(TRIM_MEMORY_COMPLETE));
+  }
+
+  @Test
+  public void ImageReaderSurfaceProducerCollectsFrameStatistics() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageReaderSurfaceProducer texture =
+        (FlutterRenderer.ImageReaderSurfaceProducer) flutterRenderer.createSurfaceProducer();
+    texture.disableFenceForTest();
+    texture.setSize(1, 1);
+    TextureRegistry.FrameStatistics statistics = texture.getFrameStatistics();
+
+    // Produce three frames; only the last two fit in the queue.
+    Surface surface = texture.getSurface();
+    for (int i = 0; i < 3; i++) {
+      Canvas canvas = surface.lockHardwareCanvas();
+      canvas.drawARGB(255, 255, 0, 0);
+      surface.unlockCanvasAndPost(canvas);
+      shadowOf(Looper.getMainLooper()).idle();
+    }
+    assertNotNull(texture.acquireLatestImage());
+
+    assertEquals(3, statistics.getFramesProduced());
+    assertEquals(1, statistics.getFramesDroppedOverwritten());
+    assertEquals(1, statistics.getFramesConsumed());
+    assertEquals(0, statistics.getFramesDroppedLate());
+    assertTrue(statistics.getQueueLatencyPercentileNanos(100) >= 0);
+
+    texture.onTrimMemory(TRIM_MEMORY_COMPLETE);
+    assertEquals(1, statistics.getTrimCount());
+  }
+
+  @Test
+  public void ImageTextureEntryCollectsFrameStatistics() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageTextureRegistryEntry entry =
+        (FlutterRenderer.ImageTextureRegistryEntry) flutterRenderer.createImageTexture();
+    TextureRegistry.FrameStatistics statistics = entry.getFrameStatistics();
+
+    Image image = mock(Image.class);
+    when(image.getFence()).thenReturn(mock(SyncFence.class));
+    entry.pushImage(mock(Image.class));
+    entry.pushImage(image);
+    assertEquals(image, entry.acquireLatestImage());
+    entry.release();
+    entry.pushImage(mock(Image.class));
+
+    assertEquals(3, statistics.getFramesProduced());
+    assertEquals(1, statistics.getFramesDroppedOverwritten());
+    assertEquals(1, statistics.getFramesConsumed());
+    assertEquals(1, statistics.getFramesDroppedLate());
+  }
+
+  @Test
+  public void postsTheNextTextureDrawCallbackOnce() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageTextureRegistryEntry entry =
+        (FlutterRenderer.ImageTextureRegistryEntry) flutterRenderer.createImageTexture();
+    assertEquals(0, FlutterRenderer.getLastDrawNanos(entry.getFrameStatistics()));
+
+    AtomicInteger callbacks = new AtomicInteger();
+    flutterRenderer.setNextTextureDrawCallback(callbacks::incrementAndGet);
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(0, callbacks.get());
+
+    final long before = System.nanoTime();
+    entry.acquireLatestImage();
+    entry.acquireLatestImage();
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(1, callbacks.get());
+    assertTrue(FlutterRenderer.getLastDrawNanos(entry.getFrameStatistics()) >= before);
+  }
+
+  @Test
+  public void ImageTextureEntrySkipsImagesWithUnsignaledFences() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageTextureRegistryEntry entry =
+        (FlutterRenderer.ImageTextureRegistryEntry) flutterRenderer.createImageTexture();
+    entry.setSkipUnsignaledImages(true);
+
+    Image image = mock(Image.class);
+    SyncFence fence = mock(SyncFence.class);
+    when(image.getFence()).thenReturn(fence);
+    when(fence.isValid()).thenReturn(true);
+    when(fence.await(any(Duration.class))).thenReturn(false);
+    entry.pushImage(image);
+
+    // The renderer keeps drawing the previous image, and tries again in the next frame.
+    assertNull(entry.acquireLatestImage());
+    verify(fence, never()).awaitForever();
+    verify(image, never()).close();
+
+    when(fence.await(any(Duration.class))).thenReturn(true);
+    assertEquals(image, entry.acquireLatestImage());
+
+    TextureRegistry.FrameStatistics statistics = entry.getFrameStatistics();
+    assertEquals(1, statistics.getFenceSkipCount());
+    assertEquals(1, statistics.getFramesConsumed());
+    assertEquals(0, statistics.getFramesDroppedOverwritten());
+  }
+
   @Test
   public void ImageReaderSurfaceProducerTrimMemoryCallback() {
     FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
@@ -988,6 +1340,82 @@ public class FlutterRendererTest {
     verify(flutterRenderer, times(3)).scheduleEngineFrame();
   }
 
+  @Test(timeout = 30000)
+  public void ImageReaderSurfaceProducerDequeuesImagesWhileAnImageIsQueued() throws Exception {
+    FlutterRenderer flutterRenderer = spy(engineRule.getFlutterEngine().getRenderer());
+    FlutterRenderer.ImageReaderSurfaceProducer texture =
+        (FlutterRenderer.ImageReaderSurfaceProducer) flutterRenderer.createSurfaceProducer();
+    texture.disableFenceForTest();
+    texture.setSize(1, 1);
+    drawFrame(texture.getSurface());
+
+    // Holds the platform thread in onImage, after it queued the next image, until the raster
+    // thread has dequeued an image.
+    final CountDownLatch queueing = new CountDownLatch(1);
+    final CountDownLatch dequeued = new CountDownLatch(1);
+    final boolean[] dequeuedWhileQueueing = new boolean[1];
+    doAnswer(
+            invocation -> {
+              if (Looper.myLooper() == Looper.getMainLooper() && queueing.getCount() > 0) {
+                queueing.countDown();
+                dequeuedWhileQueueing[0] = dequeued.await(5, TimeUnit.SECONDS);
+              }
+              return invocation.callRealMethod();
+            })
+        .when(flutterRenderer)
+        .scheduleEngineFrame();
+
+    final Image[] acquired = new Image[1];
+    final long[] rasterWaitNanos = new long[1];
+    Thread rasterThread =
+        new Thread(
+            () -> {
+              try {
+                queueing.await();
+              } catch (InterruptedException e) {
+                return;
+              }
+              long before = System.nanoTime();
+              acquired[0] = texture.acquireLatestImage();
+              rasterWaitNanos[0] = System.nanoTime() - before;
+              dequeued.countDown();
+            });
+    rasterThread.start();
+    drawFrame(texture.getSurface());
+    rasterThread.join();
+
+    // The raster thread must not wait for onImage to return.
+    assertTrue(dequeuedWhileQueueing[0]);
+    assertNotNull(acquired[0]);
+    assertTrue(
+        "raster thread waited " + TimeUnit.NANOSECONDS.toMillis(rasterWaitNanos[0]) + "ms",
+        rasterWaitNanos[0] < TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Test
+  public void ImageReaderSurfaceProducerBatchesFrameRequests() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    Surface[] surfaces = new Surface[4];
+    for (int i = 0; i < surfaces.length; i++) {
+      FlutterRenderer.ImageReaderSurfaceProducer producer =
+          (FlutterRenderer.ImageReaderSurfaceProducer) flutterRenderer.createSurfaceProducer();
+      producer.disableFenceForTest();
+      producer.setSize(1, 1);
+      surfaces[i] = producer.getSurface();
+    }
+
+    // All producers render a frame before the platform thread handles their images.
+    for (Surface surface : surfaces) {
+      Canvas canvas = surface.lockHardwareCanvas();
+      canvas.drawARGB(255, 255, 0, 0);
+      surface.unlockCanvasAndPost(canvas);
+    }
+    shadowOf(Looper.getMainLooper()).idle();
+
+    verify(fakeFlutterJNI, times(1)).scheduleFrame();
+    assertEquals(4, flutterRenderer.frameAvailableAggregator().getSignalCount());
+  }
+
   @Test
   public void getSurface_doesNotReturnInvalidSurface() {
     FlutterRenderer flutterRenderer = spy(engineRule.getFlutterEngine().getRenderer());
@@ -1076,6 +1504,84 @@ public class FlutterRendererTest {
     assertFalse(imageReaderProducer2.notifiedDestroy);
   }
 
+  @Test
+  public void ImageReaderSurfaceProducerUsesConfiguredImageCount() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageReaderSurfaceProducer defaultProducer =
+        (FlutterRenderer.ImageReaderSurfaceProducer) flutterRenderer.createSurfaceProducer();
+    FlutterRenderer.ImageReaderSurfaceProducer producer =
+        (FlutterRenderer.ImageReaderSurfaceProducer)
+            flutterRenderer.createSurfaceProducer(
+                TextureRegistry.SurfaceLifecycle.manual,
+                new FlutterRenderer.SurfaceProducerOptions()
+                    .setImageCount(FlutterRenderer.SurfaceProducerOptions.MIN_IMAGE_COUNT));
+
+    assertEquals(
+        FlutterRenderer.SurfaceProducerOptions.DEFAULT_IMAGE_COUNT, defaultProducer.imageCount());
+    // Two images held by the renderer, one it is releasing, one queued and one being acquired.
+    assertEquals(5, FlutterRenderer.SurfaceProducerOptions.MIN_IMAGE_COUNT);
+    assertEquals(5, producer.imageCount());
+    assertEquals(5, producer.createImageReader().getMaxImages());
+  }
+
+  @Test
+  public void ImageReaderSurfaceProducerQueuesFewerImagesWithFewerImages() {
+    assertEquals(1, FlutterRenderer.ImageReaderSurfaceProducer.queuedImageCount(5));
+    assertEquals(2, FlutterRenderer.ImageReaderSurfaceProducer.queuedImageCount(6));
+    assertEquals(
+        2,
+        FlutterRenderer.ImageReaderSurfaceProducer.queuedImageCount(
+            FlutterRenderer.SurfaceProducerOptions.DEFAULT_IMAGE_COUNT));
+
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageReaderSurfaceProducer producer =
+        (FlutterRenderer.ImageReaderSurfaceProducer)
+            flutterRenderer.createSurfaceProducer(
+                TextureRegistry.SurfaceLifecycle.manual,
+                new FlutterRenderer.SurfaceProducerOptions()
+                    .setImageCount(FlutterRenderer.SurfaceProducerOptions.MIN_IMAGE_COUNT));
+    producer.disableFenceForTest();
+    producer.setSize(1, 1);
+
+    // The second image replaces the first one, which was not dequeued yet.
+    drawFrame(producer.getSurface());
+    drawFrame(producer.getSurface());
+
+    assertEquals(1, producer.numImages());
+    assertEquals(1, producer.getFrameStatistics().getFramesDroppedOverwritten());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void SurfaceProducerOptionsRejectsTooFewImages() {
+    new FlutterRenderer.SurfaceProducerOptions()
+        .setImageCount(FlutterRenderer.SurfaceProducerOptions.MIN_IMAGE_COUNT - 1);
+  }
+
+  @Test
+  public void ImageReaderSurfaceProducerAdaptsImageCountToFrameRate() {
+    FlutterRenderer flutterRenderer = engineRule.getFlutterEngine().getRenderer();
+    FlutterRenderer.ImageReaderSurfaceProducer producer =
+        (FlutterRenderer.ImageReaderSurfaceProducer)
+            flutterRenderer.createSurfaceProducer(
+                TextureRegistry.SurfaceLifecycle.manual,
+                new FlutterRenderer.SurfaceProducerOptions().setAdaptiveImageCount(6, 10));
+    final long frame60Hz = 16666666L;
+    final long frame5Hz = 200000000L;
+
+    // Starts out with the default image count.
+    assertEquals(
+        FlutterRenderer.SurfaceProducerOptions.DEFAULT_IMAGE_COUNT, producer.imageCount());
+    // The renderer keeps up with the producer.
+    assertEquals(
+        FlutterRenderer.SurfaceProducerOptions.DEFAULT_IMAGE_COUNT,
+        producer.selectImageCount(frame60Hz, frame60Hz, 0));
+    // A low frame rate producer.
+    assertEquals(6, producer.selectImageCount(frame5Hz, frame5Hz, 0));
+    // Images were dropped, or the producer outruns the renderer.
+    assertEquals(10, producer.selectImageCount(frame60Hz, frame60Hz, 1));
+    assertEquals(10, producer.selectImageCount(frame60Hz, 2 * frame60Hz, 0));
+  }
+
   @Test
   public void waitOnFence_closesFence() throws Exception {
     FlutterRenderer.ImageReaderSurfaceProducer producer =
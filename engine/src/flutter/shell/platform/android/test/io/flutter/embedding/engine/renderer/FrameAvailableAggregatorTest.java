@@ -0,0 +1,94 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.engine.FlutterJNI;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+@RunWith(AndroidJUnit4.class)
+public class FrameAvailableAggregatorTest {
+  private FlutterJNI flutterJNI;
+  private FrameAvailableAggregator aggregator;
+
+  @Before
+  public void setUp() {
+    flutterJNI = mock(FlutterJNI.class);
+    when(flutterJNI.isAttached()).thenReturn(true);
+    aggregator = new FrameAvailableAggregator(flutterJNI, new Handler(Looper.getMainLooper()));
+  }
+
+  @Test
+  public void itSendsMarkedTexturesInOneCall() {
+    for (long textureId = 0; textureId < 16; textureId++) {
+      aggregator.markTextureFrameAvailable(textureId);
+      aggregator.markTextureFrameAvailable(textureId);
+    }
+    aggregator.requestFrame();
+    verify(flutterJNI, never()).markTextureFramesAvailable(any(), anyInt());
+
+    shadowOf(Looper.getMainLooper()).idle();
+
+    ArgumentCaptor<long[]> textureIds = ArgumentCaptor.forClass(long[].class);
+    verify(flutterJNI, times(1)).markTextureFramesAvailable(textureIds.capture(), eq(16));
+    long[] expected = new long[16];
+    for (int i = 0; i < 16; i++) {
+      expected[i] = i;
+    }
+    assertEquals(
+        Arrays.toString(expected), Arrays.toString(Arrays.copyOf(textureIds.getValue(), 16)));
+    // Marking textures also schedules a frame.
+    verify(flutterJNI, never()).scheduleFrame();
+    assertEquals(33, aggregator.getSignalCount());
+    assertEquals(1, aggregator.getFlushCount());
+  }
+
+  @Test
+  public void itSchedulesOneFrameForFrameRequests() {
+    aggregator.requestFrame();
+    aggregator.requestFrame();
+    aggregator.requestFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+    verify(flutterJNI, times(1)).scheduleFrame();
+
+    // The next request is sent with the next flush.
+    aggregator.requestFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+    verify(flutterJNI, times(2)).scheduleFrame();
+    verify(flutterJNI, never()).markTextureFramesAvailable(any(), anyInt());
+  }
+
+  @Test
+  public void itDropsSignalsWhenDetachedOrCleared() {
+    aggregator.markTextureFrameAvailable(1);
+    aggregator.clear();
+    shadowOf(Looper.getMainLooper()).idle();
+
+    when(flutterJNI.isAttached()).thenReturn(false);
+    aggregator.requestFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+
+    verify(flutterJNI, never()).scheduleFrame();
+    verify(flutterJNI, never()).markTextureFramesAvailable(any(), anyInt());
+    assertEquals(0, aggregator.getFlushCount());
+  }
+}
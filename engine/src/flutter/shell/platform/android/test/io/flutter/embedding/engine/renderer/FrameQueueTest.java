@@ -0,0 +1,132 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class FrameQueueTest {
+  @Test
+  public void itReturnsFramesInOrder() {
+    FrameQueue<Integer> queue = new FrameQueue<>(2);
+
+    assertNull(queue.offer(1));
+    assertNull(queue.offer(2));
+
+    assertEquals(2, queue.size());
+    assertEquals(Integer.valueOf(1), queue.poll());
+    assertEquals(Integer.valueOf(2), queue.poll());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void itDropsTheOldestFrameWhenFull() {
+    FrameQueue<Integer> queue = new FrameQueue<>(2);
+    queue.offer(1);
+    queue.offer(2);
+
+    assertEquals(Integer.valueOf(1), queue.offer(3));
+
+    assertEquals(2, queue.size());
+    assertEquals(Integer.valueOf(2), queue.poll());
+    assertEquals(Integer.valueOf(3), queue.poll());
+  }
+
+  @Test
+  public void clearRemovesAllFrames() {
+    FrameQueue<Integer> queue = new FrameQueue<>(2);
+    queue.offer(1);
+    queue.offer(2);
+
+    queue.clear();
+
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+  }
+
+  // Runs a producer that queues frames as fast as it can against a consumer that polls them, as
+  // the platform thread and the raster thread do. Every frame must be handed out exactly once,
+  // either to the consumer or as a dropped frame, and the consumer must receive frames in the order
+  // they were queued. How long the raster thread waits is tested against
+  // ImageReaderSurfaceProducer in FlutterRendererTest.
+  @Test(timeout = 30000)
+  public void stressTestProducerAndConsumer() throws Exception {
+    final int frameCount = 100000;
+    final FrameQueue<Integer> queue = new FrameQueue<>(2);
+    final AtomicIntegerArray handedOut = new AtomicIntegerArray(frameCount);
+    final AtomicBoolean producerDone = new AtomicBoolean(false);
+    final CountDownLatch start = new CountDownLatch(1);
+    final int[] consumerResult = new int[2]; // polled frames, out of order frames
+
+    Thread producer =
+        new Thread(
+            () -> {
+              awaitQuietly(start);
+              for (int i = 0; i < frameCount; i++) {
+                Integer dropped = queue.offer(i);
+                if (dropped != null) {
+                  handedOut.incrementAndGet(dropped);
+                }
+                if (i % 4 == 0) {
+                  // Let the consumer run between bursts of frames on single core machines.
+                  Thread.yield();
+                }
+              }
+              producerDone.set(true);
+            });
+    Thread consumer =
+        new Thread(
+            () -> {
+              awaitQuietly(start);
+              int last = -1;
+              while (true) {
+                boolean done = producerDone.get();
+                Integer frame = queue.poll();
+                if (frame == null) {
+                  if (done) {
+                    break;
+                  }
+                  Thread.yield();
+                  continue;
+                }
+                handedOut.incrementAndGet(frame);
+                consumerResult[0]++;
+                if (frame <= last) {
+                  consumerResult[1]++;
+                }
+                last = frame;
+              }
+            });
+    producer.start();
+    consumer.start();
+    start.countDown();
+    producer.join();
+    consumer.join();
+
+    for (int i = 0; i < frameCount; i++) {
+      assertEquals("frame " + i, 1, handedOut.get(i));
+    }
+    assertEquals(0, consumerResult[1]);
+    assertTrue(consumerResult[0] > 0);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
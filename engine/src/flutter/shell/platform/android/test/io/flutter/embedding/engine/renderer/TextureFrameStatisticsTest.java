@@ -0,0 +1,91 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class TextureFrameStatisticsTest {
+  @Test
+  public void itCountsFrames() {
+    TextureFrameStatistics statistics = new TextureFrameStatistics();
+
+    statistics.onFrameProduced();
+    statistics.onFrameProduced();
+    statistics.onFrameProduced();
+    statistics.onFrameDroppedOverwritten();
+    statistics.onFrameDroppedLate();
+    statistics.onFrameConsumed(1000);
+    statistics.onFenceWait(500);
+    statistics.onFenceWait(250);
+    statistics.onTrim();
+
+    assertEquals(3, statistics.getFramesProduced());
+    assertEquals(1, statistics.getFramesConsumed());
+    assertEquals(1, statistics.getFramesDroppedOverwritten());
+    assertEquals(1, statistics.getFramesDroppedLate());
+    assertEquals(2, statistics.getFenceWaitCount());
+    assertEquals(750, statistics.getFenceWaitNanos());
+    assertEquals(1, statistics.getTrimCount());
+  }
+
+  @Test
+  public void itRecordsWhenTheTextureWasLastDrawn() {
+    TextureFrameStatistics statistics = new TextureFrameStatistics();
+    assertEquals(0, statistics.getLastDrawNanos());
+
+    final long before = System.nanoTime();
+    statistics.onDrawn();
+
+    assertTrue(statistics.getLastDrawNanos() >= before);
+    assertTrue(statistics.getLastDrawNanos() <= System.nanoTime());
+  }
+
+  @Test
+  public void itReportsQueueLatencyPercentiles() {
+    TextureFrameStatistics statistics = new TextureFrameStatistics();
+    assertEquals(0, statistics.getQueueLatencyPercentileNanos(50));
+
+    // 90 frames queued for 2ms, and 10 frames queued for 40ms.
+    for (int i = 0; i < 90; i++) {
+      statistics.onFrameConsumed(TimeUnit.MILLISECONDS.toNanos(2));
+    }
+    for (int i = 0; i < 10; i++) {
+      statistics.onFrameConsumed(TimeUnit.MILLISECONDS.toNanos(40));
+    }
+
+    final long twoMillis = TimeUnit.MILLISECONDS.toNanos(2);
+    final long fortyMillis = TimeUnit.MILLISECONDS.toNanos(40);
+    assertWithinBucket(twoMillis, statistics.getQueueLatencyPercentileNanos(50));
+    assertWithinBucket(twoMillis, statistics.getQueueLatencyPercentileNanos(90));
+    assertWithinBucket(fortyMillis, statistics.getQueueLatencyPercentileNanos(99));
+    assertWithinBucket(fortyMillis, statistics.getQueueLatencyPercentileNanos(100));
+  }
+
+  @Test
+  public void bucketsCoverEveryLatency() {
+    for (long micros = 0; micros < 1 << 20; micros += 7) {
+      int index = TextureFrameStatistics.bucketIndex(micros);
+      assertTrue(micros <= TextureFrameStatistics.bucketUpperBound(index));
+      if (index > 0) {
+        assertTrue(micros > TextureFrameStatistics.bucketUpperBound(index - 1));
+      }
+    }
+    int largest = TextureFrameStatistics.bucketIndex(Long.MAX_VALUE);
+    assertEquals(largest, TextureFrameStatistics.bucketIndex(TimeUnit.HOURS.toMicros(1)));
+  }
+
+  // Percentiles report the upper bound of a bucket, which is at most 12.5% above the latency.
+  private static void assertWithinBucket(long expectedNanos, long actualNanos) {
+    assertTrue(actualNanos >= expectedNanos);
+    assertTrue(actualNanos <= expectedNanos + expectedNanos / 8);
+  }
+}
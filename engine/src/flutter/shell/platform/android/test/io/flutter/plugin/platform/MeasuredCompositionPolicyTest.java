@@ -0,0 +1,123 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.plugin.platform.PlatformViewCompositionPolicy.Mode;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class MeasuredCompositionPolicyTest {
+  private static final String VIEW_TYPE = "webview";
+
+  // Records the frames of the window while only the given view is shown.
+  private static void recordFrames(
+      PlatformViewCompositionStats stats, int viewId, Mode mode, long frameCount, long nanos) {
+    stats.onViewCreated(viewId, VIEW_TYPE, mode);
+    for (long i = 0; i < frameCount; i++) {
+      stats.recordWindowFrame(nanos);
+    }
+    stats.onViewDisposed(viewId);
+  }
+
+  @Test
+  public void statsRecordTheModeAndFrameCostOfViews() {
+    final PlatformViewCompositionStats stats = new PlatformViewCompositionStats();
+    assertEquals(-1, stats.getAverageFrameCostNanos(VIEW_TYPE, Mode.TEXTURE_LAYER));
+    assertFalse(stats.hasMeasuredViews());
+
+    // Frames without views are not recorded.
+    stats.recordWindowFrame(1000);
+
+    // A frame in which two views of a type are shown in a mode counts once.
+    stats.onViewCreated(0, VIEW_TYPE, Mode.TEXTURE_LAYER);
+    stats.onViewCreated(1, VIEW_TYPE, Mode.TEXTURE_LAYER);
+    assertTrue(stats.hasMeasuredViews());
+    stats.recordWindowFrame(100);
+    stats.recordWindowFrame(300);
+
+    // Frames in which the views are not shown are not recorded.
+    stats.setViewShown(0, false);
+    stats.setViewShown(1, false);
+    stats.recordWindowFrame(5000);
+    stats.setViewShown(1, true);
+    stats.recordWindowFrame(200);
+
+    assertEquals(Mode.TEXTURE_LAYER, stats.getMode(0));
+    assertEquals(3, stats.getFrameCount(VIEW_TYPE, Mode.TEXTURE_LAYER));
+    assertEquals(200, stats.getAverageFrameCostNanos(VIEW_TYPE, Mode.TEXTURE_LAYER));
+    assertEquals(0, stats.getFrameCount(VIEW_TYPE, Mode.HYBRID_COMPOSITION));
+
+    // The frame costs of a type are kept after its views are disposed.
+    stats.onViewDisposed(0);
+    stats.onViewDisposed(1);
+    assertNull(stats.getMode(0));
+    assertEquals(3, stats.getFrameCount(VIEW_TYPE, Mode.TEXTURE_LAYER));
+  }
+
+  @Test
+  public void statsDoNotMeasureVirtualDisplays() {
+    final PlatformViewCompositionStats stats = new PlatformViewCompositionStats();
+    stats.onViewCreated(0, VIEW_TYPE, Mode.VIRTUAL_DISPLAY);
+    assertFalse(stats.hasMeasuredViews());
+
+    stats.recordWindowFrame(1000);
+    assertEquals(Mode.VIRTUAL_DISPLAY, stats.getMode(0));
+    assertEquals(0, stats.getFrameCount(VIEW_TYPE, Mode.VIRTUAL_DISPLAY));
+  }
+
+  @Test
+  public void usesTheFallbackModeForViewsWithoutTextureLayerSupport() {
+    final MeasuredCompositionPolicy policy = new MeasuredCompositionPolicy();
+    final PlatformViewCompositionStats stats = new PlatformViewCompositionStats();
+
+    assertEquals(
+        Mode.VIRTUAL_DISPLAY, policy.selectMode(VIEW_TYPE, Mode.VIRTUAL_DISPLAY, false, stats));
+    assertEquals(
+        Mode.TEXTURE_LAYER, policy.selectMode(VIEW_TYPE, Mode.VIRTUAL_DISPLAY, true, stats));
+  }
+
+  @Test
+  public void usesTheModeTheWindowRendersFasterOnceEnoughFramesWereMeasured() {
+    final MeasuredCompositionPolicy policy = new MeasuredCompositionPolicy();
+    final PlatformViewCompositionStats stats = new PlatformViewCompositionStats();
+    final long frameCount = MeasuredCompositionPolicy.MIN_FRAME_COUNT;
+
+    recordFrames(stats, 0, Mode.TEXTURE_LAYER, frameCount, 12000000);
+    recordFrames(stats, 1, Mode.HYBRID_COMPOSITION, frameCount - 1, 8000000);
+    assertEquals(
+        Mode.TEXTURE_LAYER, policy.selectMode(VIEW_TYPE, Mode.HYBRID_COMPOSITION, true, stats));
+
+    recordFrames(stats, 2, Mode.HYBRID_COMPOSITION, 1, 8000000);
+    assertEquals(
+        Mode.HYBRID_COMPOSITION,
+        policy.selectMode(VIEW_TYPE, Mode.HYBRID_COMPOSITION, true, stats));
+    // Costs of other view types are not used.
+    assertEquals(
+        Mode.TEXTURE_LAYER, policy.selectMode("other", Mode.HYBRID_COMPOSITION, true, stats));
+    // Views without texture layer support use the fallback mode.
+    assertEquals(
+        Mode.HYBRID_COMPOSITION,
+        policy.selectMode("other", Mode.HYBRID_COMPOSITION, false, stats));
+  }
+
+  @Test
+  public void keepsTheTextureLayerWhenTheWindowRendersItFaster() {
+    final MeasuredCompositionPolicy policy = new MeasuredCompositionPolicy();
+    final PlatformViewCompositionStats stats = new PlatformViewCompositionStats();
+    final long frameCount = MeasuredCompositionPolicy.MIN_FRAME_COUNT;
+
+    recordFrames(stats, 0, Mode.TEXTURE_LAYER, frameCount, 8000000);
+    recordFrames(stats, 1, Mode.HYBRID_COMPOSITION, frameCount, 12000000);
+    assertEquals(
+        Mode.TEXTURE_LAYER, policy.selectMode(VIEW_TYPE, Mode.HYBRID_COMPOSITION, true, stats));
+  }
+}
@@ -0,0 +1,106 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.media.ImageReader;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class OverlaySurfacePoolTest {
+  private static final int MAX_IMAGES = 4;
+
+  private static PlatformOverlayView createOverlay(int width, int height) {
+    final ImageReader imageReader = mock(ImageReader.class);
+    when(imageReader.getWidth()).thenReturn(width);
+    when(imageReader.getHeight()).thenReturn(height);
+    when(imageReader.getMaxImages()).thenReturn(MAX_IMAGES);
+    final PlatformOverlayView overlay = mock(PlatformOverlayView.class);
+    when(overlay.getImageReader()).thenReturn(imageReader);
+    return overlay;
+  }
+
+  private static long bytes(int width, int height) {
+    return (long) width * height * 4 * MAX_IMAGES;
+  }
+
+  @Test
+  public void itReusesOverlaysOfTheSameSize() {
+    final OverlaySurfacePool pool = new OverlaySurfacePool(bytes(100, 200) * 2);
+    final PlatformOverlayView portrait = createOverlay(100, 200);
+    final PlatformOverlayView landscape = createOverlay(200, 100);
+
+    assertTrue(pool.release(portrait));
+    assertTrue(pool.release(landscape));
+    assertEquals(2, pool.getIdleCount());
+
+    assertNull(pool.acquire(100, 100));
+    assertSame(landscape, pool.acquire(200, 100));
+    assertSame(portrait, pool.acquire(100, 200));
+    assertNull(pool.acquire(100, 200));
+
+    assertEquals(2, pool.getHitCount());
+    assertEquals(2, pool.getMissCount());
+    assertEquals(0, pool.getIdleCount());
+    assertEquals(0, pool.getIdleBytes());
+    verify(portrait, never()).closeImageReader();
+    verify(landscape, never()).closeImageReader();
+  }
+
+  @Test
+  public void itEvictsTheLeastRecentlyReleasedOverlaysOverTheBudget() {
+    final OverlaySurfacePool pool = new OverlaySurfacePool(bytes(100, 100) * 2);
+    final PlatformOverlayView first = createOverlay(100, 100);
+    final PlatformOverlayView second = createOverlay(100, 100);
+    final PlatformOverlayView third = createOverlay(100, 100);
+
+    pool.release(first);
+    pool.release(second);
+    pool.release(third);
+
+    verify(first, times(1)).closeImageReader();
+    verify(second, never()).closeImageReader();
+    assertEquals(1, pool.getEvictionCount());
+    assertEquals(bytes(100, 100) * 2, pool.getIdleBytes());
+    // The most recently released overlay is reused first.
+    assertSame(third, pool.acquire(100, 100));
+    assertSame(second, pool.acquire(100, 100));
+  }
+
+  @Test
+  public void itDoesNotPoolOverlaysOverTheBudgetOrWithoutImageReader() {
+    final OverlaySurfacePool pool = new OverlaySurfacePool(bytes(100, 100));
+
+    assertFalse(pool.release(createOverlay(100, 101)));
+    assertFalse(pool.release(mock(PlatformOverlayView.class)));
+    assertEquals(0, pool.getIdleCount());
+  }
+
+  @Test
+  public void clearClosesIdleOverlays() {
+    final OverlaySurfacePool pool = new OverlaySurfacePool(bytes(100, 100) * 2);
+    final PlatformOverlayView overlay = createOverlay(100, 100);
+    pool.release(overlay);
+
+    pool.clear();
+
+    verify(overlay, times(1)).closeImageReader();
+    assertEquals(0, pool.getIdleCount());
+    assertEquals(0, pool.getIdleBytes());
+    assertNull(pool.acquire(100, 100));
+  }
+}
@@ -0,0 +1,136 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class PlatformViewWarmPoolTest {
+  private static final String VIEW_TYPE = "webview";
+
+  private final Context ctx = ApplicationProvider.getApplicationContext();
+
+  private static PlatformViewFactory createFactory() {
+    final PlatformViewFactory factory = mock(PlatformViewFactory.class);
+    when(factory.createWarmView(any()))
+        .thenAnswer(
+            invocation -> {
+              final RecyclablePlatformView view = mock(RecyclablePlatformView.class);
+              when(view.getView()).thenReturn(mock(View.class));
+              return view;
+            });
+    return factory;
+  }
+
+  // Idle handlers run when the main looper becomes idle after handling a message.
+  private static void runUntilIdle() {
+    new Handler(Looper.getMainLooper()).post(() -> {});
+    shadowOf(Looper.getMainLooper()).idle();
+  }
+
+  @Test
+  public void fillsThePoolWhenIdle() {
+    final PlatformViewWarmPool pool = new PlatformViewWarmPool();
+    final PlatformViewFactory factory = createFactory();
+    pool.setCapacity(VIEW_TYPE, factory, 2);
+    runUntilIdle();
+    // Views are only created once the pool has a context.
+    assertEquals(0, pool.getIdleCount(VIEW_TYPE));
+
+    pool.attach(ctx);
+    runUntilIdle();
+
+    assertEquals(2, pool.getIdleCount(VIEW_TYPE));
+    verify(factory, times(2)).createWarmView(any());
+  }
+
+  @Test
+  public void acquireHandsOutIdleViewsAndRefills() {
+    final PlatformViewWarmPool pool = new PlatformViewWarmPool();
+    final PlatformViewFactory factory = createFactory();
+    pool.setCapacity(VIEW_TYPE, factory, 1);
+    pool.attach(ctx);
+    runUntilIdle();
+
+    assertNotNull(pool.acquire(VIEW_TYPE));
+    assertNull(pool.acquire(VIEW_TYPE));
+    assertEquals(1, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+    // Other view types are not pooled.
+    assertNull(pool.acquire("other"));
+    assertEquals(1, pool.getMissCount());
+
+    runUntilIdle();
+    assertEquals(1, pool.getIdleCount(VIEW_TYPE));
+  }
+
+  @Test
+  public void releaseRecyclesViewsUpToTheCapacity() {
+    final PlatformViewWarmPool pool = new PlatformViewWarmPool();
+    pool.setCapacity(VIEW_TYPE, createFactory(), 1);
+    pool.attach(ctx);
+    runUntilIdle();
+
+    final RecyclablePlatformView view = pool.acquire(VIEW_TYPE);
+    final RecyclablePlatformView other = mock(RecyclablePlatformView.class);
+    assertTrue(pool.release(VIEW_TYPE, view));
+    verify(view).onRecycle();
+    assertFalse(pool.release(VIEW_TYPE, other));
+    verify(other, never()).onRecycle();
+
+    assertSame(view, pool.acquire(VIEW_TYPE));
+  }
+
+  @Test
+  public void disposesIdleViewsOnMemoryPressureAndDetach() {
+    final PlatformViewWarmPool pool = new PlatformViewWarmPool();
+    pool.setCapacity(VIEW_TYPE, createFactory(), 1);
+    pool.attach(ctx);
+    runUntilIdle();
+    final RecyclablePlatformView view = pool.acquire(VIEW_TYPE);
+    assertTrue(pool.release(VIEW_TYPE, view));
+
+    pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+    assertEquals(1, pool.getIdleCount(VIEW_TYPE));
+
+    pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+    assertEquals(0, pool.getIdleCount(VIEW_TYPE));
+    assertEquals(1, pool.getEvictionCount());
+    verify(view).dispose();
+
+    // The pool is not filled again until a view is requested.
+    runUntilIdle();
+    assertEquals(0, pool.getIdleCount(VIEW_TYPE));
+    pool.acquire(VIEW_TYPE);
+    runUntilIdle();
+    assertEquals(1, pool.getIdleCount(VIEW_TYPE));
+
+    pool.detach();
+    assertEquals(0, pool.getIdleCount(VIEW_TYPE));
+    assertEquals(2, pool.getEvictionCount());
+  }
+}
@@ -32,6 +32,7 @@ import io.flutter.embedding.engine.FlutterEngine;
 import io.flutter.embedding.engine.FlutterJNI;
 import io.flutter.embedding.engine.dart.DartExecutor;
 import io.flutter.embedding.engine.mutatorsstack.FlutterMutatorView;
+import io.flutter.embedding.engine.mutatorsstack.FlutterMutatorsStack;
 import io.flutter.embedding.engine.renderer.FlutterRenderer;
 import io.flutter.embedding.engine.systemchannels.AccessibilityChannel;
 import io.flutter.embedding.engine.systemchannels.MouseCursorChannel;
@@ -553,6 +554,77 @@ public class PlatformViewsController2Test {
         .applyTransactionOnDraw(any(SurfaceControl.Transaction.class));
   }
 
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void onEndFrameAppliesTheTransactionsOfTheFrameAsOne() {
+    final PlatformViewsController2 controller = new PlatformViewsController2();
+    final FlutterView mockFlutterView = mock(FlutterView.class);
+    final AttachedSurfaceControl mockAttachedSurfaceControl = mock(AttachedSurfaceControl.class);
+    when(mockFlutterView.getRootSurfaceControl()).thenReturn(mockAttachedSurfaceControl);
+    controller.attachToView(mockFlutterView);
+
+    final SurfaceControl.Transaction first = controller.createTransaction();
+    controller.createTransaction();
+    controller.swapTransactions();
+    // Transactions created after the swap belong to the next frame.
+    final SurfaceControl.Transaction next = controller.createTransaction();
+    controller.onEndFrame();
+
+    verify(mockAttachedSurfaceControl, times(1)).applyTransactionOnDraw(first);
+
+    controller.swapTransactions();
+    controller.onEndFrame();
+
+    verify(mockAttachedSurfaceControl, times(1)).applyTransactionOnDraw(next);
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void onDisplayPlatformViewClipsTheRecreatedSurfaceOfAShownView() {
+    final SurfaceControl.Transaction tx = mock(SurfaceControl.Transaction.class);
+    final PlatformViewsController2 controller =
+        new PlatformViewsController2() {
+          @Override
+          public SurfaceControl.Transaction createTransaction() {
+            return tx;
+          }
+        };
+    controller.setRegistry(new PlatformViewRegistryImpl());
+    final int platformViewId = 0;
+    final PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    final PlatformView platformView = mock(PlatformView.class);
+    final SurfaceView surfaceView = mock(SurfaceView.class);
+    final SurfaceControl firstSurfaceControl = mock(SurfaceControl.class);
+    when(firstSurfaceControl.isValid()).thenReturn(true);
+    when(surfaceView.getSurfaceControl()).thenReturn(firstSurfaceControl);
+    when(platformView.getView()).thenReturn(surfaceView);
+    when(viewFactory.create(any(), eq(platformViewId), any())).thenReturn(platformView);
+    controller.getRegistry().registerViewFactory("testType", viewFactory);
+    final FlutterJNI jni = new FlutterJNI();
+    attach(jni, controller);
+    createPlatformView(jni, controller, platformViewId, "testType");
+
+    controller.onDisplayPlatformView(
+        platformViewId, 0, 0, 10, 10, 10, 10, new FlutterMutatorsStack());
+    verify(tx, times(1)).setCrop(eq(firstSurfaceControl), any());
+
+    // Hiding the SurfaceView destroys its surface, which is recreated when it is shown again.
+    controller.hidePlatformView(platformViewId);
+    final SurfaceControl secondSurfaceControl = mock(SurfaceControl.class);
+    when(secondSurfaceControl.isValid()).thenReturn(true);
+    when(surfaceView.getSurfaceControl()).thenReturn(secondSurfaceControl);
+    controller.onDisplayPlatformView(
+        platformViewId, 0, 0, 10, 10, 10, 10, new FlutterMutatorsStack());
+
+    verify(tx, times(1)).setAlpha(secondSurfaceControl, 1.0f);
+    verify(tx, times(1)).setCrop(eq(secondSurfaceControl), any());
+
+    // An unchanged view on the same surface is not set again.
+    controller.onDisplayPlatformView(
+        platformViewId, 0, 0, 10, 10, 10, 10, new FlutterMutatorsStack());
+    verify(tx, times(1)).setCrop(eq(secondSurfaceControl), any());
+  }
+
   private static ByteBuffer encodeMethodCall(MethodCall call) {
     final ByteBuffer buffer = StandardMethodCodec.INSTANCE.encodeMethodCall(call);
     buffer.rewind();
@@ -52,10 +52,12 @@ import io.flutter.plugin.common.StandardMethodCodec;
 import io.flutter.plugin.localization.LocalizationPlugin;
 import io.flutter.view.TextureRegistry;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -1303,6 +1305,234 @@ public class PlatformViewsControllerTest {
     assertEquals(20, layoutParamsCaptor.getValue().height);
   }
 
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void suspendsOffscreenAndroidViewsAfterTheDelay() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    platformViewsController.setSoftwareRendering(true);
+    platformViewsController.setOffscreenSuspensionDelay(1000);
+
+    int platformViewId = 0;
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    PlatformView platformView = mock(PlatformView.class);
+    Context context = ApplicationProvider.getApplicationContext();
+    when(platformView.getView()).thenReturn(new View(context));
+    when(viewFactory.create(any(), eq(platformViewId), any())).thenReturn(platformView);
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    platformViewsController.setFlutterJNI(jni);
+    FlutterView flutterView = attach(jni, platformViewsController);
+    flutterView.layout(0, 0, 100, 100);
+
+    createPlatformView(
+        jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ false);
+
+    // Simulate the view scrolling out of the viewport.
+    offset(jni, platformViewsController, platformViewId, 500.0, 0.0);
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(999));
+    assertFalse(platformViewsController.isPlatformViewSuspended(platformViewId));
+    verify(platformView, never()).onSuspend();
+
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(1));
+    assertTrue(platformViewsController.isPlatformViewSuspended(platformViewId));
+    verify(platformView, times(1)).onSuspend();
+
+    // Simulate the view scrolling back into the viewport.
+    offset(jni, platformViewsController, platformViewId, 50.0, 0.0);
+    assertFalse(platformViewsController.isPlatformViewSuspended(platformViewId));
+    verify(platformView, times(1)).onResume();
+
+    // A view that comes back before the delay is not suspended.
+    offset(jni, platformViewsController, platformViewId, 500.0, 0.0);
+    offset(jni, platformViewsController, platformViewId, 50.0, 0.0);
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(1000));
+    verify(platformView, times(1)).onSuspend();
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void suspendsAndroidViewsThatTheEngineNoLongerDraws() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    platformViewsController.setOffscreenSuspensionDelay(1000);
+
+    int platformViewId = 0;
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    PlatformView platformView = mock(PlatformView.class);
+    Context context = ApplicationProvider.getApplicationContext();
+    when(platformView.getView()).thenReturn(new View(context));
+    when(viewFactory.create(any(), eq(platformViewId), any())).thenReturn(platformView);
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    platformViewsController.setFlutterJNI(jni);
+    final long[] vsyncRequestNanos = {0};
+    platformViewsController.setVsyncRequestClock(() -> vsyncRequestNanos[0]);
+    FlutterView flutterView = attach(jni, platformViewsController);
+    flutterView.layout(0, 0, 100, 100);
+
+    FlutterRenderer flutterRenderer = new FlutterRenderer(mock(FlutterJNI.class));
+    platformViewsController.attachToFlutterRenderer(flutterRenderer);
+    TextureRegistry.SurfaceProducer producer =
+        flutterRenderer.createSurfaceProducer(TextureRegistry.SurfaceLifecycle.manual);
+    TextureRegistry.ImageConsumer consumer = (TextureRegistry.ImageConsumer) producer;
+    doReturn(producer)
+        .when(platformViewsController.textureRegistry)
+        .createSurfaceProducer(TextureRegistry.SurfaceLifecycle.manual);
+
+    createPlatformView(
+        jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ false);
+    offset(jni, platformViewsController, platformViewId, 50.0, 0.0);
+
+    // The engine draws the view, and then stops producing frames.
+    consumer.acquireLatestImage();
+    vsyncRequestNanos[0] = FlutterRenderer.getLastDrawNanos(producer.getFrameStatistics());
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(1000));
+    assertFalse(platformViewsController.isPlatformViewSuspended(platformViewId));
+    // Nothing is checked while the engine doesn't produce frames.
+    assertEquals(Duration.ZERO, shadowOf(getMainLooper()).getNextScheduledTaskTime());
+
+    // Simulate a route covering the view: the engine draws the view in the first frames of the
+    // transition, and then keeps producing frames without drawing it. The framework doesn't send a
+    // new offset.
+    consumer.acquireLatestImage();
+    final long coveredNanos = FlutterRenderer.getLastDrawNanos(producer.getFrameStatistics());
+    vsyncRequestNanos[0] = coveredNanos + TimeUnit.MILLISECONDS.toNanos(999);
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(250));
+    assertFalse(platformViewsController.isPlatformViewSuspended(platformViewId));
+
+    vsyncRequestNanos[0] = coveredNanos + TimeUnit.MILLISECONDS.toNanos(1000);
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(250));
+    assertTrue(platformViewsController.isPlatformViewSuspended(platformViewId));
+    verify(platformView, times(1)).onSuspend();
+
+    // Simulate the route being popped: the engine draws the view again.
+    consumer.acquireLatestImage();
+    vsyncRequestNanos[0] = FlutterRenderer.getLastDrawNanos(producer.getFrameStatistics());
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(250));
+    assertFalse(platformViewsController.isPlatformViewSuspended(platformViewId));
+    verify(platformView, times(1)).onResume();
+
+    // A view is not suspended while the engine doesn't produce frames.
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(5000));
+    assertFalse(platformViewsController.isPlatformViewSuspended(platformViewId));
+    verify(platformView, times(1)).onSuspend();
+    assertEquals(Duration.ZERO, shadowOf(getMainLooper()).getNextScheduledTaskTime());
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void createAndroidView_usesTheModeOfTheCompositionPolicy() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    platformViewsController.setSoftwareRendering(true);
+
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    Context context = ApplicationProvider.getApplicationContext();
+    when(viewFactory.create(any(), anyInt(), any()))
+        .thenAnswer(
+            invocation -> {
+              PlatformView platformView = mock(PlatformView.class);
+              when(platformView.getView()).thenReturn(new View(context));
+              return platformView;
+            });
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    platformViewsController.setFlutterJNI(jni);
+    attach(jni, platformViewsController);
+
+    // The default policy uses a texture layer when it's supported.
+    createPlatformView(
+        jni, platformViewsController, 0, "testType", /* hybrid=*/ false, /* hybridFallback=*/ true);
+    assertEquals(
+        PlatformViewCompositionPolicy.Mode.TEXTURE_LAYER,
+        platformViewsController.getCompositionStats().getMode(0));
+
+    PlatformViewCompositionPolicy policy = mock(PlatformViewCompositionPolicy.class);
+    when(policy.selectMode(eq("testType"), any(), anyBoolean(), any()))
+        .thenReturn(PlatformViewCompositionPolicy.Mode.HYBRID_COMPOSITION);
+    platformViewsController.setCompositionPolicy(policy);
+
+    createPlatformView(
+        jni, platformViewsController, 1, "testType", /* hybrid=*/ false, /* hybridFallback=*/ true);
+    verify(policy)
+        .selectMode(
+            "testType",
+            PlatformViewCompositionPolicy.Mode.HYBRID_COMPOSITION,
+            true,
+            platformViewsController.getCompositionStats());
+    assertEquals(
+        PlatformViewCompositionPolicy.Mode.HYBRID_COMPOSITION,
+        platformViewsController.getCompositionStats().getMode(1));
+
+    disposePlatformView(jni, platformViewsController, 1);
+    assertNull(platformViewsController.getCompositionStats().getMode(1));
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void createAndroidView_defersTheConstructionOfDeferredViewTypes() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    platformViewsController.setSoftwareRendering(true);
+
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    PlatformView platformView = mock(PlatformView.class);
+    Context context = ApplicationProvider.getApplicationContext();
+    View androidView = new View(context);
+    when(platformView.getView()).thenReturn(androidView);
+    when(viewFactory.create(any(), eq(0), any())).thenReturn(platformView);
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+    assertTrue(platformViewsController.getRegistry().setDeferredCreation("testType", true));
+
+    FlutterJNI jni = new FlutterJNI();
+    platformViewsController.setFlutterJNI(jni);
+    attach(jni, platformViewsController);
+
+    createPlatformView(
+        jni, platformViewsController, 0, "testType", /* hybrid=*/ false, /* hybridFallback=*/ true);
+    createPlatformView(
+        jni, platformViewsController, 1, "testType", /* hybrid=*/ false, /* hybridFallback=*/ true);
+    verify(viewFactory, never()).create(any(), anyInt(), any());
+    assertTrue(platformViewsController.getCreationTimings(0).isDeferred());
+
+    // A view disposed before it's constructed is never constructed.
+    disposePlatformView(jni, platformViewsController, 1);
+    assertNull(platformViewsController.getCreationTimings(1));
+
+    shadowOf(getMainLooper()).idle();
+    verify(viewFactory, times(1)).create(any(), eq(0), any());
+    verify(viewFactory, never()).create(any(), eq(1), any());
+    assertEquals(platformView, platformViewsController.getPlatformViewById(0));
+    assertTrue(androidView.getParent() instanceof PlatformViewWrapper);
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void resizeAndroidView_constructsDeferredViews() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    platformViewsController.setSoftwareRendering(true);
+
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    PlatformView platformView = mock(PlatformView.class);
+    Context context = ApplicationProvider.getApplicationContext();
+    View androidView = new View(context);
+    when(platformView.getView()).thenReturn(androidView);
+    when(viewFactory.create(any(), eq(0), any())).thenReturn(platformView);
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+    platformViewsController.getRegistry().setDeferredCreation("testType", true);
+
+    FlutterJNI jni = new FlutterJNI();
+    platformViewsController.setFlutterJNI(jni);
+    attach(jni, platformViewsController);
+
+    createPlatformView(jni, platformViewsController, 0, "testType", /* hybrid=*/ false);
+    resize(jni, platformViewsController, 0, 10.0, 20.0);
+
+    verify(viewFactory, times(1)).create(any(), eq(0), any());
+    assertEquals(10, androidView.getLayoutParams().width);
+    assertEquals(20, androidView.getLayoutParams().height);
+  }
+
   @Test
   @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
   public void disposeAndroidView_hybridComposition() {
@@ -1798,6 +2028,52 @@ public class PlatformViewsControllerTest {
     disposePlatformView(jni, platformViewsController, platformViewId);
   }
 
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void onDisplayPlatformView_skipsUnchangedViews() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final int platformViewId = 0;
+    final PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    final PlatformView platformView = mock(PlatformView.class);
+    final View androidView = mock(View.class);
+    when(platformView.getView()).thenReturn(androidView);
+    when(viewFactory.create(any(), eq(platformViewId), any())).thenReturn(platformView);
+
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    platformViewsController.setFlutterJNI(jni);
+    attach(jni, platformViewsController);
+
+    jni.onFirstFrame();
+
+    createPlatformView(jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ true);
+
+    // Display the view in three frames, the first two with equal mutators.
+    final float[] opacities = {0.5f, 0.5f, 0.25f};
+    for (float opacity : opacities) {
+      final FlutterMutatorsStack mutatorsStack = new FlutterMutatorsStack();
+      mutatorsStack.pushOpacity(opacity);
+      platformViewsController.onBeginFrame();
+      platformViewsController.onDisplayPlatformView(
+          platformViewId,
+          /* x=*/ 0,
+          /* y=*/ 0,
+          /* width=*/ 10,
+          /* height=*/ 10,
+          /* viewWidth=*/ 10,
+          /* viewHeight=*/ 10,
+          mutatorsStack);
+      platformViewsController.onEndFrame();
+    }
+
+    verify(androidView, times(2)).setLayoutParams(any());
+
+    disposePlatformView(jni, platformViewsController, platformViewId);
+  }
+
   @Test
   @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
   public void reattachToFlutterView() {
@@ -1900,6 +2176,51 @@ public class PlatformViewsControllerTest {
     assertEquals(-1, flutterView.indexOfChild(overlayView));
   }
 
+  @Test
+  @Config(
+      shadows = {
+        ShadowFlutterSurfaceView.class,
+        ShadowFlutterJNI.class,
+        ShadowPlatformTaskQueue.class
+      })
+  public void destroyOverlaySurfaces_reusesOverlayViewsOfTheSameSize() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final int platformViewId = 0;
+    final PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    final PlatformView platformView = mock(PlatformView.class);
+    when(platformView.getView()).thenReturn(mock(View.class));
+    when(viewFactory.create(any(), eq(platformViewId), any())).thenReturn(platformView);
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    platformViewsController.setFlutterJNI(jni);
+    final FlutterView flutterView = attach(jni, platformViewsController);
+    jni.onFirstFrame();
+    createPlatformView(jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ true);
+
+    final FlutterOverlaySurface overlaySurface = platformViewsController.createOverlaySurface();
+    platformViewsController.onDisplayOverlaySurface(overlaySurface.getId(), 0, 0, 10, 10);
+    final PlatformOverlayView overlayView =
+        platformViewsController.getOverlayLayerViews().get(overlaySurface.getId());
+
+    // The engine destroys the overlay surfaces when the frame size changes.
+    platformViewsController.destroyOverlaySurfaces();
+    assertEquals(0, platformViewsController.getOverlayLayerViews().size());
+
+    final FlutterOverlaySurface reusedSurface = platformViewsController.createOverlaySurface();
+    assertNotEquals(overlaySurface.getId(), reusedSurface.getId());
+    assertSame(
+        overlayView, platformViewsController.getOverlayLayerViews().get(reusedSurface.getId()));
+
+    // The reused view stays in the view hierarchy.
+    platformViewsController.onBeginFrame();
+    platformViewsController.onDisplayOverlaySurface(reusedSurface.getId(), 0, 0, 10, 10);
+    platformViewsController.onEndFrame();
+    assertTrue(flutterView.indexOfChild(overlayView) != -1);
+  }
+
   private static ByteBuffer encodeMethodCall(MethodCall call) {
     final ByteBuffer buffer = StandardMethodCodec.INSTANCE.encodeMethodCall(call);
     buffer.rewind();
@@ -1912,8 +2233,20 @@ public class PlatformViewsControllerTest {
       int platformViewId,
       String viewType,
       boolean hybrid) {
+    createPlatformView(
+        jni, platformViewsController, platformViewId, viewType, hybrid, /* hybridFallback=*/ false);
+  }
+
+  private static void createPlatformView(
+      FlutterJNI jni,
+      PlatformViewsController platformViewsController,
+      int platformViewId,
+      String viewType,
+      boolean hybrid,
+      boolean hybridFallback) {
     final Map<String, Object> args = new HashMap<>();
     args.put("hybrid", hybrid);
+    args.put("hybridFallback", hybridFallback);
     args.put("id", platformViewId);
     args.put("viewType", viewType);
     args.put("direction", 0);
@@ -1967,6 +2300,26 @@ public class PlatformViewsControllerTest {
         /*messageData=*/ 0);
   }
 
+  private static void offset(
+      FlutterJNI jni,
+      PlatformViewsController platformViewsController,
+      int platformViewId,
+      double top,
+      double left) {
+    final Map<String, Object> args = new HashMap<>();
+    args.put("id", platformViewId);
+    args.put("top", top);
+    args.put("left", left);
+
+    final MethodCall platformOffsetMethodCall = new MethodCall("offset", args);
+
+    jni.handlePlatformMessage(
+        "flutter/platform_views",
+        encodeMethodCall(platformOffsetMethodCall),
+        /*replyId=*/ 0,
+        /*messageData=*/ 0);
+  }
+
   private static void disposePlatformView(
       FlutterJNI jni, PlatformViewsController platformViewsController, int platformViewId) {
 
@@ -0,0 +1,128 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static io.flutter.Build.API_LEVELS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.hardware.display.DisplayManager;
+import android.hardware.display.VirtualDisplay;
+import android.view.Surface;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@RunWith(AndroidJUnit4.class)
+public class VirtualDisplayPoolTest {
+  private static final int DENSITY = 420;
+
+  private static DisplayManager createDisplayManager() {
+    final DisplayManager displayManager = mock(DisplayManager.class);
+    when(displayManager.createVirtualDisplay(
+            anyString(), anyInt(), anyInt(), anyInt(), any(), anyInt(), any(), isNull()))
+        .thenAnswer(invocation -> mock(VirtualDisplay.class));
+    return displayManager;
+  }
+
+  private static VirtualDisplay obtain(
+      VirtualDisplayPool pool, DisplayManager displayManager, int width, int height, int density) {
+    return pool.obtain(
+        displayManager, "flutter-vd#0", width, height, density, mock(Surface.class), null);
+  }
+
+  @Test
+  public void reusesReleasedDisplaysOfTheSameSize() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool();
+    final DisplayManager displayManager = createDisplayManager();
+
+    final VirtualDisplay display = obtain(pool, displayManager, 100, 200, DENSITY);
+    pool.release(display, 100, 200, DENSITY);
+    verify(display).setSurface(null);
+    verify(display, never()).release();
+
+    final Surface surface = mock(Surface.class);
+    assertSame(
+        display, pool.obtain(displayManager, "flutter-vd#1", 100, 200, DENSITY, surface, null));
+    verify(display).setSurface(surface);
+    assertEquals(1, pool.getCreatedCount());
+    assertEquals(1, pool.getReusedCount());
+  }
+
+  @Test
+  public void doesNotReuseDisplaysOfAnotherDensity() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool();
+    final DisplayManager displayManager = createDisplayManager();
+
+    final VirtualDisplay display = obtain(pool, displayManager, 100, 200, DENSITY);
+    pool.release(display, 100, 200, DENSITY);
+
+    assertNotSame(display, obtain(pool, displayManager, 100, 200, DENSITY * 2));
+    assertEquals(2, pool.getCreatedCount());
+  }
+
+  @Test
+  @Config(sdk = API_LEVELS.API_30)
+  public void onlyReusesDisplaysOfTheExactSizeBeforeApi31() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool();
+    final DisplayManager displayManager = createDisplayManager();
+
+    final VirtualDisplay display = obtain(pool, displayManager, 100, 200, DENSITY);
+    pool.release(display, 100, 200, DENSITY);
+
+    assertNotSame(display, obtain(pool, displayManager, 110, 200, DENSITY));
+    verify(display, never()).resize(anyInt(), anyInt(), anyInt());
+  }
+
+  @Test
+  @Config(sdk = API_LEVELS.API_31)
+  public void resizesDisplaysInPlaceFromApi31() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool();
+    final DisplayManager displayManager = createDisplayManager();
+
+    final VirtualDisplay small = obtain(pool, displayManager, 100, 100, DENSITY);
+    final VirtualDisplay large = obtain(pool, displayManager, 1000, 1000, DENSITY);
+    pool.release(small, 100, 100, DENSITY);
+    pool.release(large, 1000, 1000, DENSITY);
+
+    // The display of the same size bucket is preferred over the most recently released one.
+    assertSame(small, obtain(pool, displayManager, 110, 120, DENSITY));
+    verify(small).resize(110, 120, DENSITY);
+    assertSame(large, obtain(pool, displayManager, 300, 300, DENSITY));
+    verify(large).resize(300, 300, DENSITY);
+    assertEquals(2, pool.getCreatedCount());
+    assertEquals(2, pool.getReusedCount());
+  }
+
+  @Test
+  public void releasesTheOldestDisplaysOverTheCapacity() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool();
+    final DisplayManager displayManager = createDisplayManager();
+    pool.setCapacity(1);
+
+    final VirtualDisplay first = obtain(pool, displayManager, 100, 100, DENSITY);
+    final VirtualDisplay second = obtain(pool, displayManager, 200, 200, DENSITY);
+    pool.release(first, 100, 100, DENSITY);
+    pool.release(second, 200, 200, DENSITY);
+
+    verify(first).release();
+    assertEquals(1, pool.getIdleCount());
+    assertEquals(1, pool.getEvictionCount());
+
+    pool.clear();
+    verify(second).release();
+    assertEquals(0, pool.getIdleCount());
+  }
+}
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.annotation.TargetApi;
 import android.app.UiModeManager;
@@ -36,6 +37,8 @@ import android.database.ContentObserver;
 import android.graphics.Rect;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.provider.Settings;
 import android.text.SpannableString;
 import android.text.SpannedString;
@@ -48,6 +51,7 @@ import android.view.ViewParent;
 import android.view.accessibility.AccessibilityEvent;
 import android.view.accessibility.AccessibilityManager;
 import android.view.accessibility.AccessibilityNodeInfo;
+import androidx.annotation.NonNull;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import io.flutter.embedding.engine.FlutterJNI;
@@ -58,6 +62,7 @@ import io.flutter.plugin.platform.PlatformViewsAccessibilityDelegate;
 import io.flutter.view.AccessibilityBridge.Action;
 import io.flutter.view.AccessibilityBridge.Flag;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -222,6 +227,146 @@ public class AccessibilityBridgeTest {
     assertTrue(bridge.flutterSemanticsTree.isEmpty());
   }
 
+  @Test
+  public void itAppliesSemanticsDecodedInTheBackgroundOnTheMainLooper() {
+    AccessibilityBridge bridge = setUpBridge();
+    bridge.setBackgroundSemanticsDecodingEnabled(
+        Runnable::run, new Handler(Looper.getMainLooper()));
+
+    TestSemanticsNode testSemanticsNode = new TestSemanticsNode();
+    testSemanticsNode.label = "Hello, World";
+    TestSemanticsUpdate testSemanticsUpdate = testSemanticsNode.toEngineUpdate();
+    bridge.accessibilityMessageHandler.updateSemantics(
+        testSemanticsUpdate.buffer,
+        testSemanticsUpdate.strings,
+        testSemanticsUpdate.stringAttributeArgs);
+
+    // Nothing is applied until the decoded update reaches the main looper.
+    assertTrue(bridge.flutterSemanticsTree.isEmpty());
+    shadowOf(Looper.getMainLooper()).idle();
+
+    AccessibilityNodeInfo nodeInfo = bridge.createAccessibilityNodeInfo(0);
+    assertEquals("Hello, World", nodeInfo.getContentDescription().toString());
+  }
+
+  @Test
+  public void itSkipsUnchangedNodesDecodedInTheBackground() {
+    AccessibilityBridge bridge = setUpBridge();
+    bridge.setBackgroundSemanticsDecodingEnabled(
+        Runnable::run, new Handler(Looper.getMainLooper()));
+
+    TestSemanticsNode root = new TestSemanticsNode();
+    root.id = 0;
+    root.label = "root";
+    TestSemanticsNode child = new TestSemanticsNode();
+    child.id = 1;
+    child.label = "child";
+    root.children.add(child);
+    TestSemanticsUpdate testSemanticsUpdate = root.toEngineUpdate();
+    bridge.accessibilityMessageHandler.updateSemantics(
+        testSemanticsUpdate.buffer,
+        testSemanticsUpdate.strings,
+        testSemanticsUpdate.stringAttributeArgs);
+    shadowOf(Looper.getMainLooper()).idle();
+    AccessibilityBridge.SemanticsNode rootNode = bridge.flutterSemanticsTree.get(0);
+    AccessibilityBridge.SemanticsNode childNode = bridge.flutterSemanticsTree.get(1);
+    // Applying the root again would overwrite this value.
+    rootNode.value = "not updated";
+
+    // Only the child changes in the second update.
+    child.label = "new child";
+    testSemanticsUpdate = root.toEngineUpdate();
+    bridge.accessibilityMessageHandler.updateSemantics(
+        testSemanticsUpdate.buffer,
+        testSemanticsUpdate.strings,
+        testSemanticsUpdate.stringAttributeArgs);
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertEquals(rootNode, bridge.flutterSemanticsTree.get(0));
+    assertEquals(childNode, bridge.flutterSemanticsTree.get(1));
+    assertEquals(1, rootNode.childrenInTraversalOrder.size());
+    assertEquals(childNode, rootNode.childrenInTraversalOrder.get(0));
+    assertEquals("not updated", rootNode.value);
+    AccessibilityNodeInfo nodeInfo = bridge.createAccessibilityNodeInfo(1);
+    assertEquals("new child", nodeInfo.getContentDescription().toString());
+  }
+
+  @Test
+  public void itForgetsDecodedNodesThatAreRemovedFromTheTree() {
+    final List<SemanticsUpdateDecoder.SemanticsUpdateSnapshot> updates = new ArrayList<>();
+    SemanticsUpdateDecoder decoder =
+        new SemanticsUpdateDecoder(
+            Runnable::run,
+            new Handler(Looper.getMainLooper()),
+            new SemanticsUpdateDecoder.Applier() {
+              @Override
+              public void applyCustomAccessibilityActions(
+                  @NonNull List<SemanticsUpdateDecoder.CustomActionSnapshot> actions) {}
+
+              @Override
+              public void applySemanticsUpdate(
+                  @NonNull SemanticsUpdateDecoder.SemanticsUpdateSnapshot update) {
+                updates.add(update);
+              }
+
+              @Override
+              public void applyReset() {}
+            });
+
+    TestSemanticsNode root = new TestSemanticsNode();
+    root.id = 0;
+    TestSemanticsNode child = new TestSemanticsNode();
+    child.id = 1;
+    child.label = "child";
+    root.children.add(child);
+    TestSemanticsUpdate withChild = root.toEngineUpdate();
+    root.children.clear();
+    TestSemanticsUpdate withoutChild = root.toEngineUpdate();
+
+    decoder.enqueueSemanticsUpdate(
+        withChild.buffer, withChild.strings, withChild.stringAttributeArgs);
+    decoder.enqueueSemanticsUpdate(
+        withoutChild.buffer, withoutChild.strings, withoutChild.stringAttributeArgs);
+    // The child is added back with the same content, after it was removed from the tree.
+    root.children.add(child);
+    withChild = root.toEngineUpdate();
+    decoder.enqueueSemanticsUpdate(
+        withChild.buffer, withChild.strings, withChild.stringAttributeArgs);
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertEquals(3, updates.size());
+    SemanticsUpdateDecoder.SemanticsUpdateSnapshot last = updates.get(2);
+    assertEquals(2, last.nodes.size());
+    assertEquals(1, last.nodes.get(1).id);
+    assertFalse(last.isUnchanged(1));
+  }
+
+  @Test
+  public void itAppliesBackgroundDecodedResetsInOrder() {
+    AccessibilityBridge bridge = setUpBridge();
+    bridge.setBackgroundSemanticsDecodingEnabled(
+        Runnable::run, new Handler(Looper.getMainLooper()));
+
+    TestSemanticsNode testSemanticsNode = new TestSemanticsNode();
+    TestSemanticsUpdate testSemanticsUpdate = testSemanticsNode.toEngineUpdate();
+    bridge.accessibilityMessageHandler.updateSemantics(
+        testSemanticsUpdate.buffer,
+        testSemanticsUpdate.strings,
+        testSemanticsUpdate.stringAttributeArgs);
+    bridge.accessibilityMessageHandler.resetSemantics();
+    shadowOf(Looper.getMainLooper()).idle();
+    assertTrue(bridge.flutterSemanticsTree.isEmpty());
+
+    // The same node is applied again in full after a reset.
+    testSemanticsUpdate = testSemanticsNode.toEngineUpdate();
+    bridge.accessibilityMessageHandler.updateSemantics(
+        testSemanticsUpdate.buffer,
+        testSemanticsUpdate.strings,
+        testSemanticsUpdate.stringAttributeArgs);
+    shadowOf(Looper.getMainLooper()).idle();
+    assertFalse(bridge.flutterSemanticsTree.isEmpty());
+  }
+
   @Test
   public void itSetsAccessibleNavigation() {
     AccessibilityChannel mockChannel = mock(AccessibilityChannel.class);
@@ -3479,8 +3624,18 @@ public class AccessibilityBridgeTest {
     // custom actions not supported.
 
     TestSemanticsUpdate toUpdate() {
+      return toUpdate(ByteOrder.BIG_ENDIAN);
+    }
+
+    // Encodes the update in the little-endian order used by the engine, for updates that are sent
+    // through AccessibilityBridge#accessibilityMessageHandler.
+    TestSemanticsUpdate toEngineUpdate() {
+      return toUpdate(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    TestSemanticsUpdate toUpdate(ByteOrder order) {
       ArrayList<String> strings = new ArrayList<String>();
-      ByteBuffer bytes = ByteBuffer.allocate(1000);
+      ByteBuffer bytes = ByteBuffer.allocate(1000).order(order);
       ArrayList<ByteBuffer> stringAttributeArgs = new ArrayList<ByteBuffer>();
       addToBuffer(bytes, strings, stringAttributeArgs);
       bytes.flip();
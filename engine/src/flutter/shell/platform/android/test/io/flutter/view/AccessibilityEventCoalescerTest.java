@@ -0,0 +1,149 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.accessibility.AccessibilityEvent;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class AccessibilityEventCoalescerTest {
+  private final List<AccessibilityEvent> sentEvents = new ArrayList<>();
+
+  private AccessibilityEventCoalescer createCoalescer(long windowMillis) {
+    AccessibilityEventCoalescer coalescer =
+        new AccessibilityEventCoalescer(sentEvents::add, new Handler(Looper.getMainLooper()));
+    coalescer.setWindowMillis(windowMillis);
+    return coalescer;
+  }
+
+  private static AccessibilityEvent contentChange(int changeTypes) {
+    AccessibilityEvent event =
+        AccessibilityEvent.obtain(AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED);
+    event.setContentChangeTypes(changeTypes);
+    return event;
+  }
+
+  @Test
+  public void itSendsImmediatelyWhenDisabled() {
+    AccessibilityEventCoalescer coalescer =
+        createCoalescer(AccessibilityEventCoalescer.COALESCING_DISABLED);
+
+    coalescer.beginBatch();
+    assertFalse(coalescer.isCoalescing());
+    coalescer.offer(1, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE));
+    coalescer.offer(1, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE));
+    assertEquals(2, sentEvents.size());
+    coalescer.endBatch();
+
+    assertEquals(2, coalescer.getSentEventCount());
+    assertEquals(0, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itMergesContentChangesForTheSameNode() {
+    AccessibilityEventCoalescer coalescer = createCoalescer(0);
+
+    coalescer.beginBatch();
+    coalescer.offer(1, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE));
+    coalescer.offer(2, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE));
+    coalescer.offer(1, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_TEXT));
+    assertTrue(coalescer.mergeContentChange(2, AccessibilityEvent.CONTENT_CHANGE_TYPE_TEXT));
+    assertFalse(coalescer.mergeContentChange(3, AccessibilityEvent.CONTENT_CHANGE_TYPE_TEXT));
+    assertTrue(sentEvents.isEmpty());
+    coalescer.endBatch();
+
+    assertEquals(2, sentEvents.size());
+    int expectedTypes =
+        AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE
+            | AccessibilityEvent.CONTENT_CHANGE_TYPE_TEXT;
+    assertEquals(expectedTypes, sentEvents.get(0).getContentChangeTypes());
+    assertEquals(expectedTypes, sentEvents.get(1).getContentChangeTypes());
+    assertEquals(2, coalescer.getSentEventCount());
+    assertEquals(2, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itKeepsTheLatestScrollEventInItsOriginalPosition() {
+    AccessibilityEventCoalescer coalescer = createCoalescer(0);
+    AccessibilityEvent firstScroll =
+        AccessibilityEvent.obtain(AccessibilityEvent.TYPE_VIEW_SCROLLED);
+    AccessibilityEvent textChange =
+        AccessibilityEvent.obtain(AccessibilityEvent.TYPE_VIEW_TEXT_CHANGED);
+    AccessibilityEvent secondScroll =
+        AccessibilityEvent.obtain(AccessibilityEvent.TYPE_VIEW_SCROLLED);
+
+    coalescer.beginBatch();
+    coalescer.offer(1, firstScroll);
+    coalescer.offer(1, textChange);
+    coalescer.offer(1, secondScroll);
+    coalescer.endBatch();
+
+    assertEquals(2, sentEvents.size());
+    assertEquals(secondScroll, sentEvents.get(0));
+    assertEquals(textChange, sentEvents.get(1));
+    assertEquals(1, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itPreservesOrderOfUncoalescedEventsSentDuringABatch() {
+    AccessibilityEventCoalescer coalescer = createCoalescer(0);
+    AccessibilityEvent focusCleared =
+        AccessibilityEvent.obtain(AccessibilityEvent.TYPE_VIEW_ACCESSIBILITY_FOCUS_CLEARED);
+
+    coalescer.beginBatch();
+    coalescer.offer(0, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE));
+    coalescer.send(focusCleared);
+    assertTrue(sentEvents.isEmpty());
+    coalescer.endBatch();
+
+    assertEquals(2, sentEvents.size());
+    assertEquals(focusCleared, sentEvents.get(1));
+  }
+
+  @Test
+  public void itCoalescesBatchesWithinTheWindow() {
+    AccessibilityEventCoalescer coalescer = createCoalescer(16);
+
+    coalescer.beginBatch();
+    coalescer.offer(0, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE));
+    coalescer.endBatch();
+    coalescer.beginBatch();
+    coalescer.offer(0, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE));
+    coalescer.endBatch();
+    assertTrue(sentEvents.isEmpty());
+
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+
+    assertEquals(1, sentEvents.size());
+    assertEquals(1, coalescer.getSentEventCount());
+    assertEquals(1, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itFlushesPendingEventsBeforeSendingOutsideOfABatch() {
+    AccessibilityEventCoalescer coalescer = createCoalescer(16);
+    AccessibilityEvent clicked = AccessibilityEvent.obtain(AccessibilityEvent.TYPE_VIEW_CLICKED);
+
+    coalescer.beginBatch();
+    coalescer.offer(0, contentChange(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE));
+    coalescer.endBatch();
+    coalescer.send(clicked);
+
+    assertEquals(2, sentEvents.size());
+    assertEquals(clicked, sentEvents.get(1));
+  }
+}
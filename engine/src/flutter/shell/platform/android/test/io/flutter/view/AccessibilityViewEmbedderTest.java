@@ -0,0 +1,99 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.view.View;
+import android.view.ViewParent;
+import android.view.accessibility.AccessibilityEvent;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class AccessibilityViewEmbedderTest {
+  private static final int FIRST_VIRTUAL_NODE_ID = 65536;
+
+  private View rootView;
+  private View embeddedView;
+  private AccessibilityViewEmbedder embedder;
+
+  @Before
+  public void setUp() {
+    rootView = mock(View.class);
+    when(rootView.getParent()).thenReturn(mock(ViewParent.class));
+    embeddedView = mock(View.class);
+    embedder = new AccessibilityViewEmbedder(rootView, FIRST_VIRTUAL_NODE_ID);
+  }
+
+  private AccessibilityEvent sendEventFromEmbeddedNode(View view, int originId) {
+    AccessibilityEvent event = AccessibilityEvent.obtain(AccessibilityEvent.TYPE_VIEW_FOCUSED);
+    event.setSource(view, originId);
+    embedder.requestSendAccessibilityEvent(view, view, event);
+    return event;
+  }
+
+  @Test
+  public void itReusesTheFlutterIdOfAnEmbeddedNode() {
+    AccessibilityEvent event = sendEventFromEmbeddedNode(embeddedView, 1);
+    Integer flutterId = embedder.getRecordFlutterId(embeddedView, event);
+    sendEventFromEmbeddedNode(embeddedView, 1);
+
+    assertNotNull(flutterId);
+    assertEquals(flutterId, embedder.getRecordFlutterId(embeddedView, event));
+    assertEquals(embeddedView, embedder.platformViewOfNode(flutterId));
+    assertEquals(1, embedder.getMappingCount());
+    assertEquals(1, embedder.getEmbeddedViewCount());
+  }
+
+  @Test
+  public void itEvictsTheLeastRecentlyUsedMappings() {
+    embedder.setMaxMappingCount(8);
+    AccessibilityEvent first = sendEventFromEmbeddedNode(embeddedView, 0);
+    for (int originId = 1; originId < 20; originId++) {
+      sendEventFromEmbeddedNode(embeddedView, originId);
+    }
+    AccessibilityEvent last = sendEventFromEmbeddedNode(embeddedView, 20);
+
+    assertTrue(embedder.getMappingCount() <= 8);
+    assertTrue(embedder.getEvictedMappingCount() > 0);
+    assertNull(embedder.getRecordFlutterId(embeddedView, first));
+    assertNotNull(embedder.getRecordFlutterId(embeddedView, last));
+  }
+
+  @Test
+  public void itDropsAllMappingsOfARemovedView() {
+    View otherView = mock(View.class);
+    AccessibilityEvent event = sendEventFromEmbeddedNode(embeddedView, 1);
+    sendEventFromEmbeddedNode(embeddedView, 2);
+    AccessibilityEvent otherEvent = sendEventFromEmbeddedNode(otherView, 1);
+    Integer flutterId = embedder.getRecordFlutterId(embeddedView, event);
+
+    embedder.removeEmbeddedView(embeddedView);
+
+    assertEquals(1, embedder.getMappingCount());
+    assertEquals(1, embedder.getEmbeddedViewCount());
+    assertNull(embedder.platformViewOfNode(flutterId));
+    assertNull(embedder.getRecordFlutterId(embeddedView, event));
+    assertNotNull(embedder.getRecordFlutterId(otherView, otherEvent));
+  }
+
+  @Test
+  public void clearDropsAllMappings() {
+    sendEventFromEmbeddedNode(embeddedView, 1);
+
+    embedder.clear();
+
+    assertEquals(0, embedder.getMappingCount());
+    assertEquals(0, embedder.getEmbeddedViewCount());
+  }
+}
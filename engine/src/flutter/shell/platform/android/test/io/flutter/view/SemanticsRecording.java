@@ -0,0 +1,283 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.embedding.engine.FlutterJNI;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A recording of the semantics messages that the engine sent to a {@link
+ * FlutterJNI.AccessibilityDelegate}, in the order they were sent.
+ *
+ * <p>A recording is captured by installing a {@link Recorder} around the accessibility delegate of
+ * an engine, and is saved with {@link #writeTo(OutputStream)}. It can then be replayed against an
+ * {@link AccessibilityBridge} on the JVM to measure the cost of semantics updates. This class is
+ * only used by tests, and is not part of the embedding.
+ *
+ * <p>A recording is only accessed on the platform thread. Buffers are stored exactly as the engine
+ * encoded them, so a recording is only valid for the semantics encoding of the engine that
+ * produced it, see {@code PlatformViewAndroid::UpdateSemantics}.
+ */
+final class SemanticsRecording {
+  static final int KIND_SEMANTICS = 0;
+  static final int KIND_CUSTOM_ACTIONS = 1;
+  static final int KIND_RESET = 2;
+
+  // "FSEM", followed by the format version.
+  private static final int MAGIC = 0x4653454d;
+  private static final int VERSION = 1;
+
+  /** A single message sent by the engine. */
+  static final class Entry {
+    final int kind;
+    @NonNull final byte[] buffer;
+    @NonNull final String[] strings;
+    @NonNull final byte[][] stringAttributeArgs;
+
+    Entry(
+        int kind,
+        @NonNull byte[] buffer,
+        @NonNull String[] strings,
+        @NonNull byte[][] stringAttributeArgs) {
+      this.kind = kind;
+      this.buffer = buffer;
+      this.strings = strings;
+      this.stringAttributeArgs = stringAttributeArgs;
+    }
+
+    /** Returns a new direct buffer holding the recorded semantics buffer, like the engine sends. */
+    @NonNull
+    ByteBuffer wrapBuffer() {
+      return toDirectBuffer(buffer);
+    }
+
+    /** Returns new direct buffers holding the recorded string attribute arguments. */
+    @NonNull
+    ByteBuffer[] wrapStringAttributeArgs() {
+      ByteBuffer[] args = new ByteBuffer[stringAttributeArgs.length];
+      for (int i = 0; i < args.length; i++) {
+        args[i] = toDirectBuffer(stringAttributeArgs[i]);
+      }
+      return args;
+    }
+
+    /** Sends this message to {@code delegate} the way the engine sent it. */
+    void deliverTo(@NonNull FlutterJNI.AccessibilityDelegate delegate) {
+      switch (kind) {
+        case KIND_SEMANTICS:
+          delegate.updateSemantics(wrapBuffer(), strings, wrapStringAttributeArgs());
+          break;
+        case KIND_CUSTOM_ACTIONS:
+          delegate.updateCustomAccessibilityActions(wrapBuffer(), strings);
+          break;
+        case KIND_RESET:
+          delegate.resetSemantics();
+          break;
+        default:
+          throw new IllegalStateException("Unknown semantics recording entry kind " + kind);
+      }
+    }
+  }
+
+  /**
+   * A {@link FlutterJNI.AccessibilityDelegate} that copies every semantics message into a {@link
+   * SemanticsRecording} before forwarding it to the wrapped delegate.
+   */
+  static final class Recorder implements FlutterJNI.AccessibilityDelegate {
+    @NonNull private final SemanticsRecording recording;
+    @Nullable private final FlutterJNI.AccessibilityDelegate delegate;
+
+    Recorder(
+        @NonNull SemanticsRecording recording,
+        @Nullable FlutterJNI.AccessibilityDelegate delegate) {
+      this.recording = recording;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void updateCustomAccessibilityActions(
+        @NonNull ByteBuffer buffer, @NonNull String[] strings) {
+      recording.addCustomAccessibilityActions(buffer, strings);
+      if (delegate != null) {
+        delegate.updateCustomAccessibilityActions(buffer, strings);
+      }
+    }
+
+    @Override
+    public void updateSemantics(
+        @NonNull ByteBuffer buffer,
+        @NonNull String[] strings,
+        @NonNull ByteBuffer[] stringAttributeArgs) {
+      recording.addSemanticsUpdate(buffer, strings, stringAttributeArgs);
+      if (delegate != null) {
+        delegate.updateSemantics(buffer, strings, stringAttributeArgs);
+      }
+    }
+
+    @Override
+    public void setLocale(@NonNull String locale) {
+      // Not part of the semantics tree, so it is not recorded.
+      if (delegate != null) {
+        delegate.setLocale(locale);
+      }
+    }
+
+    @Override
+    public void resetSemantics() {
+      recording.addReset();
+      if (delegate != null) {
+        delegate.resetSemantics();
+      }
+    }
+  }
+
+  @NonNull private final List<Entry> entries = new ArrayList<>();
+
+  SemanticsRecording() {}
+
+  @NonNull
+  List<Entry> getEntries() {
+    return Collections.unmodifiableList(entries);
+  }
+
+  /** @return The number of semantics updates in this recording. */
+  int getSemanticsUpdateCount() {
+    int count = 0;
+    for (Entry entry : entries) {
+      if (entry.kind == KIND_SEMANTICS) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  void addSemanticsUpdate(
+      @NonNull ByteBuffer buffer,
+      @NonNull String[] strings,
+      @NonNull ByteBuffer[] stringAttributeArgs) {
+    byte[][] args = new byte[stringAttributeArgs.length][];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = toByteArray(stringAttributeArgs[i]);
+    }
+    entries.add(new Entry(KIND_SEMANTICS, toByteArray(buffer), strings.clone(), args));
+  }
+
+  void addCustomAccessibilityActions(@NonNull ByteBuffer buffer, @NonNull String[] strings) {
+    entries.add(
+        new Entry(KIND_CUSTOM_ACTIONS, toByteArray(buffer), strings.clone(), new byte[0][]));
+  }
+
+  void addReset() {
+    entries.add(new Entry(KIND_RESET, new byte[0], new String[0], new byte[0][]));
+  }
+
+  /** Sends every recorded message to {@code delegate}, in order. */
+  void replay(@NonNull FlutterJNI.AccessibilityDelegate delegate) {
+    for (Entry entry : entries) {
+      entry.deliverTo(delegate);
+    }
+  }
+
+  /** Writes this recording to {@code stream}, in a format that {@link #readFrom} reads. */
+  void writeTo(@NonNull OutputStream stream) throws IOException {
+    DataOutputStream out = new DataOutputStream(stream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(entries.size());
+    for (Entry entry : entries) {
+      out.writeInt(entry.kind);
+      writeBytes(out, entry.buffer);
+      out.writeInt(entry.strings.length);
+      for (String string : entry.strings) {
+        writeBytes(out, string == null ? null : string.getBytes(StandardCharsets.UTF_8));
+      }
+      out.writeInt(entry.stringAttributeArgs.length);
+      for (byte[] args : entry.stringAttributeArgs) {
+        writeBytes(out, args);
+      }
+    }
+    out.flush();
+  }
+
+  /** Reads a recording that was written by {@link #writeTo}. */
+  @NonNull
+  static SemanticsRecording readFrom(@NonNull InputStream stream) throws IOException {
+    DataInputStream in = new DataInputStream(stream);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a semantics recording");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported semantics recording version " + version);
+    }
+    SemanticsRecording recording = new SemanticsRecording();
+    int entryCount = in.readInt();
+    for (int i = 0; i < entryCount; i++) {
+      int kind = in.readInt();
+      byte[] buffer = readBytes(in);
+      String[] strings = new String[in.readInt()];
+      for (int j = 0; j < strings.length; j++) {
+        byte[] string = readBytes(in);
+        strings[j] = string == null ? null : new String(string, StandardCharsets.UTF_8);
+      }
+      byte[][] args = new byte[in.readInt()][];
+      for (int j = 0; j < args.length; j++) {
+        args[j] = readBytes(in);
+      }
+      recording.entries.add(new Entry(kind, buffer, strings, args));
+    }
+    return recording;
+  }
+
+  private static void writeBytes(@NonNull DataOutputStream out, @Nullable byte[] bytes)
+      throws IOException {
+    if (bytes == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  @Nullable
+  private static byte[] readBytes(@NonNull DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  // Copies the remaining bytes of the buffer without changing its position, so that the buffer can
+  // still be read by the delegate the message is forwarded to.
+  @NonNull
+  private static byte[] toByteArray(@NonNull ByteBuffer buffer) {
+    ByteBuffer source = buffer.duplicate();
+    byte[] bytes = new byte[source.remaining()];
+    source.get(bytes);
+    return bytes;
+  }
+
+  @NonNull
+  private static ByteBuffer toDirectBuffer(@NonNull byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes);
+    buffer.flip();
+    return buffer;
+  }
+}
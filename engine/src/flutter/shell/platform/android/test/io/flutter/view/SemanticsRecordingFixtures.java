@@ -0,0 +1,80 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import androidx.annotation.NonNull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+/** Semantics recordings that are replayed by tests. */
+final class SemanticsRecordingFixtures {
+  /** The number of semantics updates in {@link #inboxScroll()}. */
+  static final int INBOX_SCROLL_UPDATE_COUNT = 15;
+
+  /**
+   * An inbox screen whose list of 30 messages is scrolled over 15 frames.
+   *
+   * <p>The first update sends the whole tree: a route with a header, the list and a button. Every
+   * later update only sends the list and the messages it shows, like the framework does when a list
+   * scrolls. The updates were encoded on the JVM following {@code
+   * PlatformViewAndroid::UpdateSemantics}, written by {@link SemanticsRecording#writeTo}, gzipped
+   * and encoded in base64. They were not captured from a running engine, so a recording captured
+   * on a device by installing a {@link SemanticsRecording.Recorder} as the accessibility delegate
+   * of {@code FlutterJNI} should replace them, added the same way.
+   */
+  private static final String INBOX_SCROLL =
+          "H4sIAAAAAAAA/+2dMUwUWRjHPxFhReQ45XBjDHkxhhBizIqInDHeihzhChOTayjXy5GjUYg0lJuLyVFQUFhQ"
+          + "UFBYmIvFFhQWFuvFwsKCwsLLWVBQkJwFBYWFyd3szsy9gX3v3Hn/eeuXefMlM8p78+Gb3+yO+/8xxqkfv79D"
+          + "REe87Suq1+kdOlT/KCo618zxcYqCBcn6bZJoz9vK3x3+s+KNYf1HgnWF23/rzP//uUfnDn/XcCxtrI56+zZv"
+          + "q/3aHvwa/ZqCr/2dXybsjmj6zNkN3f7S7KJfHa3vfWJCc64DwbGS0e+TFBlDqvY9Ghn9Zfj6qrENx7D+bm9/"
+          + "zNs6vK3T23LedtzburzthLfV5k96Ww/5N7beYCxuDwU9Pn2fhY4Tkf512qbpM78GqxOcXqcd9b2gcK0mjI5q"
+          + "+lrPqNYXjqH9sjrre0HhWk0YtWv6Ws+oF3wvR/tl5ep7QeFaTRgd0/S1ntEMyGhGyeh4fS8oXKsJow5NX+sZ"
+          + "rYKMVpWMuup7QeFaTRh1avpaz2gTZLSpZHSivhcUrtWEUU7T13pG70BG75SMuut7QeFaTRgd1/S1ntEnkNEn"
+          + "JaOT9b2gcK0mjLo0fa1n1Dspx9B+WT31vaBwrSaMTmj6Ws/oPMjovJKRLyAEhWs1YdSt6Ws9o1GQ0aiSkZ9J"
+          + "BIVrNWF0UtPXekZTIKMpJaPaZ+TXIKMeTV88Rvcmqfynt8Zfve3vL+5kDg3U3m7Hfnjw0/xS9Ddn7swuLt77"
+          + "ZVYUuqYezt8Xi7MPfp59KArRqcsHpi5Hp0YOTI1Ep64cmLoSnRo9MDUanbp6YOpqdGrswNRYdOqafvHj+sV/"
+          + "27D4/H+nXGhYvZy73LD8ztvz9xfmF2cjtEejKqe2ItVL56DKEROZyuGnckjTZ34NTG+f4g85hvbLSkLlJK9l"
+          + "jXUXqHLImsrhowS3QEZbSkZJqBw+SrAA3u8K1lQOHyW4BDJasqZy+CjBDZDRhjWVw0cJvgIZvbKmcvgowV2Q"
+          + "0a41lcNHCXaA8bLDmsrhowTzIKO8NZXDRwkOg4yGrakcPkrwBsjohpIR+bftTEokISWCat5EhK9K71OHMyYi"
+          + "jlH4OhiP20OUTMomTZ/5NTBO2S/lGNovK4mUzcdElMGUXbaWsvmYiBz4Xs5ZS9l8TMRdkNFdaymbj4lYARmt"
+          + "WEvZfExEBWRUsZay+ZiItyCjt9ZSNh8T8RFk9FHJKImUzcdE9IDpqMdayuZjIgTISFhL2XxMxAjIaETJyM8k"
+          + "gsK1mjDiYyImQUaTTZmITDd8TjfIuZGG9QdloiL2MhVBmYrQjxXBhyKi/bLSpSKqt+QY2i8rXSqiCuqaqlLX"
+          + "pEtFJHe/ix6RLhWxADJacEBFrIOM1h1QEVWQUdUBFbEDMtpxQEW0g/Go3QEV0Q8y6ndARQyBjIYcUBHXQUbX"
+          + "MxXBT0WEEcV7md52RUXEUQqngrm4PUTJxGzS9JlfA+Of+INPRUT7ZSURs/moiBIYs0vWYjYfFUHge5msxWw+"
+          + "KmIaZDRtLWbzURHLIKNlazGbj4p4BjJ6Zi1m81ERWyCjLWsxm4+K2AcZ7SsZJRGz+aiIbjAedVuL2XxUxADI"
+          + "aMBazOajIgogo4KSkZ9JBIVrNWHER0VMgIwmmlIRmW/4rG+Qc1caTiAoExcxnbkIylyEfqwEPhYR7ZeVLhdR"
+          + "Bh+LiPbLSpeLqIC+pqL0NelyEQK83wkHXMQcyGjOARexBjJac8BFvAAZvXDARWyDjLYdcBFtYD5qc8BF9IGM"
+          + "+hxwEYMgo0EHXMQ4yGg8cxEMXUT4+dt/ZNUNFxHHKZwO5uP2ECWTs0nTZ34NjB9lBZ+LiPbLSiJn83ERRTBn"
+          + "F63lbD4uYg9ktKdklETO5uMiiuD9rmgtZ/NxEY9ARo+s5Ww+LuIpyOiptZzNx0W8ARm9sZaz+biIPZDRnpJR"
+          + "Ejmbj4voAvNRl7WczcdFnAMZnbOWs/m4iEsgo0tKRn4mERSu1YQRHxdRBBkVm3IRmXD4vHCQc6MNZxCUiYxY"
+          + "yWQEZTJCP1YGH4yI9stKl4wg8MGIaL+sdMmIDVBGbDggI/Lg/S7vgIwogYxKDsiIxyCjxw7IiOcgo+cOyIj3"
+          + "IKP3DsgIAgMSOSAjToGMTjkgIy6AjC44ICPGQEZjmYzgKCPCD5f+/97lhoyIIxX6gmPi9hAlE7RJ02d+DYz/"
+          + "sgVlBCllRBJBm4+MEGDQFtaCNh8ZsQ0y2lYySiJo85ER4+D9btxa0OYjI8ogo7K1oM1HRjwBGT2xFrT5yIjX"
+          + "IKPX1oI2HxnxAWT0QckoiaDNR0bkwICUsxa0+ciIsyCjs9aCNh8ZcRFkdFHJyM8kgsK1mjDiIyNugoxuNiUj"
+          + "MuPQhHGQc1cbTiGo5m1E+MmJaNMZGxHHKnwTHBe3hyiZpE2aPvNrYGwjImNov6wkkjYfG7EKJu1Va0mbj43o"
+          + "Bd/LvdaSNh8bMQMymrGWtPnYiFWQ0aq1pM3HRmyCjDatJW0+NuIdyOidtaTNx0Z8Ahl9UjJKImnzsRG9YELq"
+          + "tZa0+diI8yCj89aSNh8bMQoyGlUy8jOJoHCtJoz42IgpkNFUUzYiUw7NKAc5N9ZwDkGZ6IjXmY6gTEfoxwT4"
+          + "cES0X1a6dASBOoIc0BFbIKMtJaN06YgCeL8rOKAjlkBGSw7oiA2Q0YYDOuIVyOiVAzpiF2S064CO6AAjUocD"
+          + "OiIPMso7oCOGQUbDDuiIGyCjG5mO4Kkjwo8F/j/uc0NHxNEK/cGxcXuIkonapOkzvwbGUfulHEP7ZSURtfno"
+          + "iDIYtcvWojYfHZED38s5a1Gbj464CzK6ay1q89ERKyCjFWtRm4+OqICMKtaiNh8d8RZk9NZa1OajIz6CjD4q"
+          + "GSURtfnoiB4wIvVYi9p8dIQAGQlrUZuPjhgBGY0oGfmZRFC4VhNGfHTEJMhosikdkTmHppyDnLvWcA5BmfiI"
+          + "vcxHUOYj9GNF8PGIaL+sdPmI6i05hvbLSpePqILOpqp0NunyEcnd76JHpMtHLICMFhzwEesgo3UHfEQVZFR1"
+          + "wEfsgIx2HPAR7WBGanfAR/SDjPod8BFDIKMhB3zEdZDR9cxHMPUR4d95/v947IaPiOMVzgTHx+0hSiZrk6bP"
+          + "/BoY/+wffD4i2i8riazNx0eUwKxdspa1+fgIAt/LZC1r8/ER0yCjaWtZm4+PWAYZLVvL2nx8xDOQ0TNrWZuP"
+          + "j9gCGW1Zy9p8fMQ+yGhfySiJrM3HR3SDGanbWtbm4yMGQEYD1rI2Hx9RABkVlIz8TCIoXKsJIz4+YgJkNNGU"
+          + "j8ikQ3PSQc6NN5xDUCZCojsTEpQJCf1YCXxAoqR8QCJdQqIMPiAR7ZeVLiFRAaVNRSlt0iUkBHi/Ew4IiTmQ"
+          + "0ZwDQmINZLTmgJB4ATJ64YCQ2AYZbTsgJNrAkNTmgJDoAxn1OSAkBkFGgw4IiXGQ0XgmJFolJP4FW2mIzyP9"
+          + "AAA=";
+
+  private SemanticsRecordingFixtures() {}
+
+  @NonNull
+  static SemanticsRecording inboxScroll() throws IOException {
+    return SemanticsRecording.readFrom(
+        new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(INBOX_SCROLL))));
+  }
+}
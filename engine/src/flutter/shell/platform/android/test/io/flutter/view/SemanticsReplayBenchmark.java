@@ -0,0 +1,160 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import androidx.annotation.NonNull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replays a {@link SemanticsRecording} against an {@link AccessibilityBridge} and measures every
+ * semantics update.
+ *
+ * <p>Each run replays the whole recording into a new bridge through {@link
+ * AccessibilityBridge#accessibilityMessageHandler}, the same entry point the engine uses. For every
+ * {@link SemanticsRecording#KIND_SEMANTICS} entry the benchmark reports the time spent in the
+ * handler, the bytes allocated by the calling thread, and the number of accessibility events that
+ * were sent and suppressed. Buffers are prepared before the timed section, so their copies are not
+ * counted.
+ *
+ * <p>Bridges should be created with an {@link android.view.accessibility.AccessibilityManager}
+ * that reports accessibility as enabled, otherwise no accessibility events are produced.
+ */
+final class SemanticsReplayBenchmark {
+  /** Creates the bridge that a run replays into. */
+  interface BridgeFactory {
+    @NonNull
+    AccessibilityBridge create();
+  }
+
+  /** The measurements of a single run. Arrays are indexed by semantics update. */
+  static final class Report {
+    @NonNull final long[] latencyNanos;
+    /** Bytes allocated by each update, or all {@code -1} if the JVM cannot measure allocations. */
+    @NonNull final long[] allocatedBytes;
+
+    @NonNull final long[] sentEvents;
+    @NonNull final long[] suppressedEvents;
+
+    Report(int updateCount) {
+      latencyNanos = new long[updateCount];
+      allocatedBytes = new long[updateCount];
+      sentEvents = new long[updateCount];
+      suppressedEvents = new long[updateCount];
+    }
+
+    int getUpdateCount() {
+      return latencyNanos.length;
+    }
+
+    /** Returns the latency below which {@code percentile} percent of the updates completed. */
+    long getLatencyPercentileNanos(double percentile) {
+      if (latencyNanos.length == 0) {
+        return 0;
+      }
+      long[] sorted = latencyNanos.clone();
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+      return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    long getTotalAllocatedBytes() {
+      return sum(allocatedBytes);
+    }
+
+    long getTotalSentEvents() {
+      return sum(sentEvents);
+    }
+
+    long getTotalSuppressedEvents() {
+      return sum(suppressedEvents);
+    }
+
+    private static long sum(@NonNull long[] values) {
+      long total = 0;
+      for (long value : values) {
+        if (value < 0) {
+          return -1;
+        }
+        total += value;
+      }
+      return total;
+    }
+  }
+
+  @NonNull private final BridgeFactory bridgeFactory;
+
+  SemanticsReplayBenchmark(@NonNull BridgeFactory bridgeFactory) {
+    this.bridgeFactory = bridgeFactory;
+  }
+
+  /**
+   * Replays {@code recording} {@code warmupRuns} times without measuring it, so that the JIT has
+   * compiled the semantics path, and then once more while measuring it.
+   */
+  @NonNull
+  Report run(@NonNull SemanticsRecording recording, int warmupRuns) {
+    for (int i = 0; i < warmupRuns; i++) {
+      replay(recording, null);
+    }
+    Report report = new Report(recording.getSemanticsUpdateCount());
+    replay(recording, report);
+    return report;
+  }
+
+  private void replay(@NonNull SemanticsRecording recording, Report report) {
+    AccessibilityBridge bridge = bridgeFactory.create();
+    try {
+      List<SemanticsRecording.Entry> entries = recording.getEntries();
+      int update = 0;
+      for (SemanticsRecording.Entry entry : entries) {
+        if (entry.kind != SemanticsRecording.KIND_SEMANTICS) {
+          entry.deliverTo(bridge.accessibilityMessageHandler);
+          continue;
+        }
+        final ByteBuffer buffer = entry.wrapBuffer();
+        final ByteBuffer[] stringAttributeArgs = entry.wrapStringAttributeArgs();
+        final long sentBefore = bridge.getSentAccessibilityEventCount();
+        final long suppressedBefore = bridge.getSuppressedAccessibilityEventCount();
+        final long allocatedBefore = currentThreadAllocatedBytes();
+        final long start = System.nanoTime();
+        bridge.accessibilityMessageHandler.updateSemantics(
+            buffer, entry.strings, stringAttributeArgs);
+        final long end = System.nanoTime();
+        final long allocatedAfter = currentThreadAllocatedBytes();
+        if (report != null) {
+          report.latencyNanos[update] = end - start;
+          report.allocatedBytes[update] =
+              allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+          report.sentEvents[update] = bridge.getSentAccessibilityEventCount() - sentBefore;
+          report.suppressedEvents[update] =
+              bridge.getSuppressedAccessibilityEventCount() - suppressedBefore;
+        }
+        update++;
+      }
+    } finally {
+      bridge.release();
+    }
+  }
+
+  // Returns the number of bytes allocated by the current thread so far, or -1 if this JVM does not
+  // support measuring it.
+  private static long currentThreadAllocatedBytes() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean allocationMXBean =
+        (com.sun.management.ThreadMXBean) threadMXBean;
+    if (!allocationMXBean.isThreadAllocatedMemorySupported()
+        || !allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+      return -1;
+    }
+    return allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
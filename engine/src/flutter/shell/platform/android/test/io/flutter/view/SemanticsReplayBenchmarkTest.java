@@ -0,0 +1,108 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.view.View;
+import android.view.ViewParent;
+import android.view.accessibility.AccessibilityManager;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.engine.systemchannels.AccessibilityChannel;
+import io.flutter.plugin.platform.PlatformViewsAccessibilityDelegate;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class SemanticsReplayBenchmarkTest {
+  // Mocks that do not record their invocations, so that they allocate as little as possible while
+  // the benchmark is measuring.
+  private static <T> T stubOnlyMock(Class<T> classToMock) {
+    return mock(classToMock, withSettings().stubOnly());
+  }
+
+  private static AccessibilityBridge createAccessibilityEnabledBridge() {
+    View rootView = stubOnlyMock(View.class);
+    Context context = stubOnlyMock(Context.class);
+    when(rootView.getContext()).thenReturn(context);
+    when(context.getPackageName()).thenReturn("test");
+    ViewParent parent = stubOnlyMock(ViewParent.class);
+    when(rootView.getParent()).thenReturn(parent);
+    AccessibilityManager accessibilityManager = stubOnlyMock(AccessibilityManager.class);
+    when(accessibilityManager.isEnabled()).thenReturn(true);
+    return new AccessibilityBridge(
+        rootView,
+        stubOnlyMock(AccessibilityChannel.class),
+        accessibilityManager,
+        stubOnlyMock(ContentResolver.class),
+        stubOnlyMock(AccessibilityViewEmbedder.class),
+        stubOnlyMock(PlatformViewsAccessibilityDelegate.class));
+  }
+
+  @Test
+  public void recordingRoundTripsThroughStreams() throws IOException {
+    SemanticsRecording recording = SemanticsRecordingFixtures.inboxScroll();
+    recording.addReset();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    recording.writeTo(out);
+    SemanticsRecording copy =
+        SemanticsRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+    List<SemanticsRecording.Entry> expected = recording.getEntries();
+    List<SemanticsRecording.Entry> actual = copy.getEntries();
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).kind, actual.get(i).kind);
+      assertArrayEquals(expected.get(i).buffer, actual.get(i).buffer);
+      assertArrayEquals(expected.get(i).strings, actual.get(i).strings);
+    }
+    assertEquals(
+        SemanticsRecordingFixtures.INBOX_SCROLL_UPDATE_COUNT, copy.getSemanticsUpdateCount());
+  }
+
+  @Test
+  public void recorderForwardsMessagesToTheWrappedDelegate() throws IOException {
+    AccessibilityBridge bridge = createAccessibilityEnabledBridge();
+    SemanticsRecording recording = new SemanticsRecording();
+
+    SemanticsRecordingFixtures.inboxScroll()
+        .replay(new SemanticsRecording.Recorder(recording, bridge.accessibilityMessageHandler));
+
+    assertEquals(
+        SemanticsRecordingFixtures.INBOX_SCROLL_UPDATE_COUNT, recording.getSemanticsUpdateCount());
+    assertTrue(bridge.getSentAccessibilityEventCount() > 0);
+    assertEquals("Inbox", bridge.createAccessibilityNodeInfo(2).getContentDescription().toString());
+  }
+
+  @Test
+  public void benchmarkReportsEveryUpdateOfTheReplayedRecording() throws IOException {
+    SemanticsRecording recording = SemanticsRecordingFixtures.inboxScroll();
+    SemanticsReplayBenchmark benchmark =
+        new SemanticsReplayBenchmark(
+            SemanticsReplayBenchmarkTest::createAccessibilityEnabledBridge);
+
+    SemanticsReplayBenchmark.Report report = benchmark.run(recording, 2);
+
+    assertEquals(SemanticsRecordingFixtures.INBOX_SCROLL_UPDATE_COUNT, report.getUpdateCount());
+    for (int i = 0; i < report.getUpdateCount(); i++) {
+      assertTrue(report.latencyNanos[i] > 0);
+      // Every update changes the tree: the first adds it, and the others scroll the list.
+      assertTrue(report.sentEvents[i] > 0);
+    }
+    assertTrue(report.getLatencyPercentileNanos(50) <= report.getLatencyPercentileNanos(100));
+  }
+}
@@ -7,6 +7,7 @@
 
 #include <jni.h>
 
+#include <atomic>
 #include <memory>
 
 #include "flutter/fml/macros.h"
@@ -20,11 +21,18 @@ class VsyncWaiterAndroid final : public VsyncWaiter {
  public:
   static bool Register(JNIEnv* env);
 
-  explicit VsyncWaiterAndroid(const flutter::TaskRunners& task_runners);
+  /// @param[in]  last_await_time  If not null, set to the fml::TimePoint::Now()
+  ///                              in nanoseconds each time the engine waits
+  ///                              for a vsync signal.
+  explicit VsyncWaiterAndroid(
+      const flutter::TaskRunners& task_runners,
+      std::shared_ptr<std::atomic_int64_t> last_await_time = nullptr);
 
   ~VsyncWaiterAndroid() override;
 
  private:
+  const std::shared_ptr<std::atomic_int64_t> last_await_time_;
+
   // |VsyncWaiter|
   void AwaitVSync() override;
 
@@ -83,6 +83,10 @@ class MockDelegate : public PlatformView::Delegate {
               OnPlatformViewMarkTextureFrameAvailable,
               (int64_t texture_id),
               (override));
+  MOCK_METHOD(void,
+              OnPlatformViewMarkTextureFramesAvailable,
+              (std::vector<int64_t> texture_ids),
+              (override));
   MOCK_METHOD(void,
               LoadDartDeferredLibrary,
               (intptr_t loading_unit_id,
@@ -152,6 +152,9 @@ class MockPlatformViewDelegate : public flutter::PlatformView::Delegate {
   // |flutter::PlatformView::Delegate|
   void OnPlatformViewMarkTextureFrameAvailable(int64_t texture_id) {}
   // |flutter::PlatformView::Delegate|
+  void OnPlatformViewMarkTextureFramesAvailable(
+      std::vector<int64_t> texture_ids) {}
+  // |flutter::PlatformView::Delegate|
   std::unique_ptr<std::vector<std::string>> ComputePlatformViewResolvedLocale(
       const std::vector<std::string>& supported_locale_data) {
     return nullptr;